@@ -16,8 +16,14 @@
  */
 package org.apache.logging.log4j.util;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
 import java.util.ArrayDeque;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Predicate;
 
 /**
@@ -27,8 +33,6 @@ public final class StackLocator {
 
     private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
 
-    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
-
     private static final StackLocator INSTANCE = new StackLocator();
 
     public static StackLocator getInstance() {
@@ -88,20 +92,123 @@ public final class StackLocator {
         });
     }
 
+    /**
+     * Locates the caller of the logger.
+     * <p>
+     * Frames are walked lazily and the walk stops at the first frame past the logger, hence no
+     * {@link StackTraceElement} gets created for the skipped frames.
+     * The {@link StackTraceElement} of the located frame is cached per call site, see {@link CallSites}.
+     * </p>
+     */
     public StackTraceElement calcLocation(final String fqcnOfLogger) {
-        return STACK_WALKER
-                .walk(s -> s.dropWhile(f ->
+        return WALKER.walk(s -> s.dropWhile(f ->
                                 !f.getClassName().equals(fqcnOfLogger)) // drop the top frames until we reach the logger
                         .dropWhile(f -> f.getClassName().equals(fqcnOfLogger)) // drop the logger frames
                         .findFirst())
-                .map(StackWalker.StackFrame::toStackTraceElement)
+                .map(CallSites::toStackTraceElement)
                 .orElse(null);
     }
 
     public StackTraceElement getStackTraceElement(final int depth) {
-        return STACK_WALKER
-                .walk(s -> s.skip(depth).findFirst())
-                .map(StackWalker.StackFrame::toStackTraceElement)
+        return WALKER.walk(s -> s.skip(depth).findFirst())
+                .map(CallSites::toStackTraceElement)
                 .orElse(null);
     }
+
+    /**
+     * Caches the {@link StackTraceElement}s of the call sites of a class.
+     * <p>
+     * Creating a {@link StackTraceElement} from a {@link StackWalker.StackFrame} requires resolving the line number
+     * and allocating several strings, whereas the call sites of a logger are few and visited over and over again.
+     * Call sites are identified by their method name and bytecode index, which is unambiguous unless the method is
+     * overloaded.
+     * Call sites in overloaded methods are hence not cached.
+     * </p>
+     * <p>
+     * Entries are stored in a direct-mapped table, that is, an entry evicts the one occupying the same slot.
+     * </p>
+     */
+    private static final class CallSites {
+
+        private static final int SIZE = 64;
+
+        private static final ClassValue<CallSites> CALL_SITES_BY_CLASS = new ClassValue<CallSites>() {
+            @Override
+            protected CallSites computeValue(final Class<?> clazz) {
+                return new CallSites(clazz);
+            }
+        };
+
+        private final AtomicReferenceArray<CallSite> callSites = new AtomicReferenceArray<>(SIZE);
+
+        /**
+         * The names of overloaded methods, or {@code null}, if they cannot be determined.
+         */
+        private final Set<String> overloadedMethodNames;
+
+        private CallSites(final Class<?> clazz) {
+            this.overloadedMethodNames = findOverloadedMethodNames(clazz);
+        }
+
+        private static Set<String> findOverloadedMethodNames(final Class<?> clazz) {
+            final Method[] methods;
+            final Constructor<?>[] constructors;
+            try {
+                methods = clazz.getDeclaredMethods();
+                constructors = clazz.getDeclaredConstructors();
+            } catch (final SecurityException | LinkageError ignored) {
+                return null;
+            }
+            final Set<String> names = new HashSet<>();
+            final Set<String> overloadedNames = new HashSet<>();
+            for (final Method method : methods) {
+                if (!names.add(method.getName())) {
+                    overloadedNames.add(method.getName());
+                }
+            }
+            if (constructors.length > 1) {
+                overloadedNames.add("<init>");
+            }
+            return overloadedNames.isEmpty() ? Collections.emptySet() : overloadedNames;
+        }
+
+        private static StackTraceElement toStackTraceElement(final StackWalker.StackFrame frame) {
+            return CALL_SITES_BY_CLASS.get(frame.getDeclaringClass()).get(frame);
+        }
+
+        private StackTraceElement get(final StackWalker.StackFrame frame) {
+            final String methodName = frame.getMethodName();
+            final int byteCodeIndex = frame.getByteCodeIndex();
+            if (overloadedMethodNames == null
+                    || overloadedMethodNames.contains(methodName)
+                    || byteCodeIndex < 0) {
+                return frame.toStackTraceElement();
+            }
+            final int index = (31 * methodName.hashCode() + byteCodeIndex) & (SIZE - 1);
+            final CallSite callSite = callSites.get(index);
+            if (callSite != null
+                    && callSite.byteCodeIndex == byteCodeIndex
+                    && callSite.methodName.equals(methodName)) {
+                return callSite.element;
+            }
+            final StackTraceElement element = frame.toStackTraceElement();
+            callSites.set(index, new CallSite(methodName, byteCodeIndex, element));
+            return element;
+        }
+    }
+
+    private static final class CallSite {
+
+        private final String methodName;
+
+        private final int byteCodeIndex;
+
+        private final StackTraceElement element;
+
+        private CallSite(final String methodName, final int byteCodeIndex, final StackTraceElement element) {
+            this.methodName = methodName;
+            this.byteCodeIndex = byteCodeIndex;
+            this.element = element;
+        }
+    }
 }
@@ -17,6 +17,7 @@
 package org.apache.logging.log4j.util.java9;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
@@ -134,6 +135,45 @@ class StackLocatorTest {
         assertEquals(99, element.getLineNumber());
     }
 
+    private StackTraceElement calcLocation() {
+        return StackLocator.getInstance().calcLocation(StackLocatorTest.class.getName());
+    }
+
+    private static final class Caller {
+
+        private static StackTraceElement calcLocation(final StackLocatorTest test) {
+            return test.calcLocation();
+        }
+
+        private static StackTraceElement overloaded(final StackLocatorTest test, final int ignored) {
+            return test.calcLocation();
+        }
+
+        private static StackTraceElement overloaded(final StackLocatorTest test, final String ignored) {
+            return test.calcLocation();
+        }
+    }
+
+    @Test
+    void testCalcLocationIsCachedPerCallSite() {
+        final StackTraceElement[] elements = new StackTraceElement[2];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = Caller.calcLocation(this);
+        }
+        assertEquals(StackLocatorTest.Caller.class.getName(), elements[0].getClassName());
+        assertEquals("calcLocation", elements[0].getMethodName());
+        assertSame(elements[0], elements[1]);
+    }
+
+    @Test
+    void testCalcLocationInOverloadedMethods() {
+        final StackTraceElement element1 = Caller.overloaded(this, 0);
+        final StackTraceElement element2 = Caller.overloaded(this, "");
+        assertEquals("overloaded", element1.getMethodName());
+        assertEquals("overloaded", element2.getMethodName());
+        assertNotEquals(element1.getLineNumber(), element2.getLineNumber());
+    }
+
     @Test
     void testTopElementInStackTrace() {
         final StackLocator stackLocator = StackLocator.getInstance();
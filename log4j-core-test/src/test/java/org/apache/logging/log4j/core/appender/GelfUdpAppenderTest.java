@@ -0,0 +1,280 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.GelfLayout.CompressionType;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.core.net.GelfUdpManager;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+
+class GelfUdpAppenderTest {
+
+    @Test
+    void short_message_should_be_sent_in_a_single_datagram() throws IOException {
+        try (final DatagramSocket socket = createSocket()) {
+            final GelfUdpAppender appender = createAppender(socket, 1000, CompressionType.OFF, 0);
+            try {
+                appender.append(createEvent("foo"));
+                final byte[] datagram = receive(socket);
+                assertThat(new String(datagram, StandardCharsets.UTF_8)).isEqualTo("foo");
+            } finally {
+                appender.stop();
+            }
+        }
+    }
+
+    @Test
+    void long_message_should_be_chunked() throws IOException {
+        final String message = createMessage(10_000);
+        try (final DatagramSocket socket = createSocket()) {
+            final GelfUdpAppender appender = createAppender(socket, 1000, CompressionType.OFF, 0);
+            try {
+                appender.append(createEvent(message));
+                final byte[] payload = receiveChunks(socket, 11);
+                assertThat(new String(payload, StandardCharsets.UTF_8)).isEqualTo(message);
+            } finally {
+                appender.stop();
+            }
+        }
+    }
+
+    @Test
+    void long_message_should_be_compressed_using_GZIP_and_chunked() throws IOException {
+        final String message = createMessage(100_000);
+        try (final DatagramSocket socket = createSocket()) {
+            final GelfUdpAppender appender = createAppender(socket, 8192, CompressionType.GZIP, 1024);
+            try {
+                // Send twice to verify the pooled compression state is reset between messages.
+                for (int messageIndex = 0; messageIndex < 2; messageIndex++) {
+                    appender.append(createEvent(message));
+                    final byte[] payload = receiveChunks(socket, -1);
+                    final byte[] decompressedPayload = readAll(new GZIPInputStream(new ByteArrayInputStream(payload)));
+                    assertThat(new String(decompressedPayload, StandardCharsets.UTF_8))
+                            .isEqualTo(message);
+                }
+            } finally {
+                appender.stop();
+            }
+        }
+    }
+
+    @Test
+    void long_message_should_be_compressed_using_ZLIB() throws IOException {
+        final String message = createMessage(2_000);
+        try (final DatagramSocket socket = createSocket()) {
+            final GelfUdpAppender appender = createAppender(socket, 8192, CompressionType.ZLIB, 1024);
+            try {
+                appender.append(createEvent(message));
+                final byte[] datagram = receive(socket);
+                final byte[] decompressedDatagram =
+                        readAll(new InflaterInputStream(new ByteArrayInputStream(datagram)));
+                assertThat(new String(decompressedDatagram, StandardCharsets.UTF_8))
+                        .isEqualTo(message);
+            } finally {
+                appender.stop();
+            }
+        }
+    }
+
+    @Test
+    void messages_should_be_sent_from_an_interrupted_thread() throws IOException {
+        try (final DatagramSocket socket = createSocket()) {
+            final GelfUdpAppender appender = createAppender(socket, 1000, CompressionType.OFF, 0);
+            try {
+                // An interrupt must neither fail the current message, nor close the socket for later messages.
+                Thread.currentThread().interrupt();
+                try {
+                    appender.append(createEvent("foo"));
+                    appender.append(createEvent("bar"));
+                } finally {
+                    assertThat(Thread.interrupted()).isTrue();
+                }
+                appender.append(createEvent("baz"));
+                assertThat(new String(receive(socket), StandardCharsets.UTF_8)).isEqualTo("foo");
+                assertThat(new String(receive(socket), StandardCharsets.UTF_8)).isEqualTo("bar");
+                assertThat(new String(receive(socket), StandardCharsets.UTF_8)).isEqualTo("baz");
+            } finally {
+                appender.stop();
+            }
+        }
+    }
+
+    @Test
+    void message_exceeding_max_chunk_count_should_fail() throws IOException {
+        final String message = createMessage(GelfUdpManager.MAX_CHUNK_COUNT * 100 + 1);
+        try (final DatagramSocket socket = createSocket()) {
+            final GelfUdpAppender appender =
+                    createAppender(socket, 100 + GelfUdpManager.CHUNK_HEADER_LENGTH, CompressionType.OFF, 0);
+            try {
+                assertThatThrownBy(() -> appender.append(createEvent(message)))
+                        .isInstanceOf(AppenderLoggingException.class)
+                        .hasMessageContaining("exceeding the maximum of " + GelfUdpManager.MAX_CHUNK_COUNT);
+            } finally {
+                appender.stop();
+            }
+        }
+    }
+
+    @Test
+    void appenders_with_different_settings_should_not_share_managers() throws IOException {
+        try (final DatagramSocket socket = createSocket()) {
+            final GelfUdpAppender appender = createAppender(socket, 1000, CompressionType.OFF, 0);
+            try {
+                final GelfUdpAppender otherAppender = createAppender(socket, 2000, CompressionType.GZIP, 0);
+                try {
+                    final GelfUdpManager manager = appender.getManager();
+                    final GelfUdpManager otherManager = otherAppender.getManager();
+                    assertThat(otherManager).isNotSameAs(manager);
+                    assertThat(manager.getChunkSize()).isEqualTo(1000);
+                    assertThat(manager.getCompressionType()).isEqualTo(CompressionType.OFF);
+                    assertThat(otherManager.getChunkSize()).isEqualTo(2000);
+                    assertThat(otherManager.getCompressionType()).isEqualTo(CompressionType.GZIP);
+                } finally {
+                    otherAppender.stop();
+                }
+            } finally {
+                appender.stop();
+            }
+        }
+    }
+
+    @Test
+    void messages_sent_after_stop_should_not_be_pooled() throws IOException {
+        try (final DatagramSocket socket = createSocket()) {
+            final GelfUdpAppender appender = createAppender(socket, 1000, CompressionType.GZIP, 0);
+            appender.append(createEvent("foo"));
+            appender.stop();
+            // A sender racing with the release fails, and closes its context instead of pooling it.
+            assertThatThrownBy(() -> appender.getManager().send(appender.getLayout(), createEvent("bar")))
+                    .isInstanceOf(AppenderLoggingException.class);
+        }
+    }
+
+    private static DatagramSocket createSocket() throws IOException {
+        final DatagramSocket socket = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+        socket.setReceiveBufferSize(1024 * 1024);
+        socket.setSoTimeout(10_000);
+        return socket;
+    }
+
+    private static GelfUdpAppender createAppender(
+            final DatagramSocket socket,
+            final int chunkSize,
+            final CompressionType compressionType,
+            final int compressionThreshold) {
+        final GelfUdpAppender appender = GelfUdpAppender.newBuilder()
+                .setName("GelfUdp")
+                .setLayout(PatternLayout.newBuilder().setPattern("%m").build())
+                .setHost(InetAddress.getLoopbackAddress().getHostAddress())
+                .setPort(socket.getLocalPort())
+                .setChunkSize(chunkSize)
+                .setCompressionType(compressionType)
+                .setCompressionThreshold(compressionThreshold)
+                .setIgnoreExceptions(false)
+                .build();
+        appender.start();
+        return appender;
+    }
+
+    private static LogEvent createEvent(final String message) {
+        return Log4jLogEvent.newBuilder().setMessage(new SimpleMessage(message)).build();
+    }
+
+    private static String createMessage(final int length) {
+        // Use random letters to hinder compression.
+        final Random random = new Random(length);
+        final StringBuilder messageBuilder = new StringBuilder(length);
+        for (int charIndex = 0; charIndex < length; charIndex++) {
+            messageBuilder.append((char) ('a' + random.nextInt(26)));
+        }
+        return messageBuilder.toString();
+    }
+
+    private static byte[] receive(final DatagramSocket socket) throws IOException {
+        final DatagramPacket packet = new DatagramPacket(new byte[65_536], 65_536);
+        socket.receive(packet);
+        final byte[] datagram = new byte[packet.getLength()];
+        System.arraycopy(packet.getData(), packet.getOffset(), datagram, 0, packet.getLength());
+        return datagram;
+    }
+
+    /**
+     * Receives GELF chunks and returns their reassembled payload.
+     *
+     * @param expectedChunkCount the expected number of chunks, or {@code -1}, if unknown
+     */
+    private static byte[] receiveChunks(final DatagramSocket socket, final int expectedChunkCount)
+            throws IOException {
+        byte[][] payloads = null;
+        long messageId = 0;
+        int receivedChunkCount = 0;
+        do {
+            final ByteBuffer chunk = ByteBuffer.wrap(receive(socket));
+            assertThat(chunk.get()).isEqualTo((byte) 0x1e);
+            assertThat(chunk.get()).isEqualTo((byte) 0x0f);
+            final long chunkMessageId = chunk.getLong();
+            final int sequenceNumber = chunk.get();
+            final int sequenceCount = chunk.get();
+            if (payloads == null) {
+                if (expectedChunkCount >= 0) {
+                    assertThat(sequenceCount).isEqualTo(expectedChunkCount);
+                }
+                payloads = new byte[sequenceCount][];
+                messageId = chunkMessageId;
+            } else {
+                assertThat(sequenceCount).isEqualTo(payloads.length);
+                assertThat(chunkMessageId).isEqualTo(messageId);
+            }
+            final byte[] payload = new byte[chunk.remaining()];
+            chunk.get(payload);
+            payloads[sequenceNumber] = payload;
+        } while (++receivedChunkCount < payloads.length);
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        for (final byte[] payload : payloads) {
+            outputStream.write(payload);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static byte[] readAll(final InputStream inputStream) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int readLength;
+        while ((readLength = inputStream.read(buffer)) > 0) {
+            outputStream.write(buffer, 0, readLength);
+        }
+        return outputStream.toByteArray();
+    }
+}
@@ -17,6 +17,7 @@
 package org.apache.logging.log4j.core.config;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -28,14 +29,25 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.ThreadContext;
 import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.ConsoleAppender;
 import org.apache.logging.log4j.core.config.properties.PropertiesConfiguration;
+import org.apache.logging.log4j.core.impl.DefaultLogEventFactory;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent.Builder;
+import org.apache.logging.log4j.core.impl.LogEventFactory;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.SimpleMessage;
 import org.junit.jupiter.api.Test;
 
@@ -159,4 +171,138 @@ class LoggerConfigTest {
         assertNotNull(loggerConfig.getAppenderRefs());
         assertTrue(loggerConfig.getAppenderRefs().isEmpty());
     }
+
+    @Test
+    void testContextLevels() {
+        final Configuration configuration = new DefaultConfiguration();
+        final LoggerConfig parent = LoggerConfig.newBuilder()
+                .setLoggerName("org.apache.logging.log4j")
+                .setLevel(Level.ERROR)
+                .setConfig(configuration)
+                .build();
+        final LoggerConfig child = LoggerConfig.newBuilder()
+                .setLoggerName("org.apache.logging.log4j.test")
+                .setConfig(configuration)
+                .build();
+        child.setParent(parent);
+        parent.setContextLevel("traceId", "abc", Level.DEBUG);
+        parent.setContextLevel("traceId", "def", Level.TRACE);
+        assertEquals(Level.DEBUG, parent.getContextLevels().get("traceId").get("abc"));
+        assertTrue(child.getContextLevels().isEmpty());
+        try {
+            assertFalse(child.isContextLevelEnabled(Level.DEBUG));
+            ThreadContext.put("traceId", "abc");
+            assertTrue(child.isContextLevelEnabled(Level.DEBUG));
+            assertFalse(child.isContextLevelEnabled(Level.TRACE));
+            ThreadContext.put("traceId", "def");
+            assertTrue(child.isContextLevelEnabled(Level.TRACE));
+            parent.setContextLevel("traceId", "def", null);
+            assertFalse(child.isContextLevelEnabled(Level.DEBUG));
+            assertEquals(1, parent.getContextLevels().get("traceId").size());
+            parent.clearContextLevels();
+            assertTrue(parent.getContextLevels().isEmpty());
+        } finally {
+            ThreadContext.remove("traceId");
+        }
+    }
+
+    @Test
+    void testContextLevelsEnableLogger() {
+        final LoggerContext context = new LoggerContext("testContextLevelsEnableLogger");
+        try {
+            context.start();
+            final Logger logger = context.getLogger(FQCN);
+            final LoggerConfig root = context.getConfiguration().getRootLogger();
+            root.setContextLevel("traceId", "abc", Level.DEBUG);
+            context.updateLoggers();
+            assertFalse(logger.isDebugEnabled());
+            ThreadContext.put("traceId", "abc");
+            assertTrue(logger.isDebugEnabled());
+            assertFalse(logger.isTraceEnabled());
+            ThreadContext.put("traceId", "def");
+            assertFalse(logger.isDebugEnabled());
+            ThreadContext.put("traceId", "abc");
+            root.clearContextLevels();
+            assertFalse(logger.isDebugEnabled());
+        } finally {
+            ThreadContext.remove("traceId");
+            context.stop();
+        }
+    }
+
+    @Test
+    void testLocationNotCapturedIfNotRequired() {
+        final LocationRecordingLogEventFactory factory = new LocationRecordingLogEventFactory();
+        final LoggerConfig config = createLoggerConfig("%m", factory);
+        assertTrue(config.isIncludeLocation());
+        assertFalse(config.requiresLocation());
+
+        config.log(FQCN, LoggerConfig.class.getName(), null, Level.INFO, new SimpleMessage("msg"), null);
+        assertEquals(1, factory.locations.size());
+        assertNull(factory.locations.get(0));
+    }
+
+    @Test
+    void testLocationCapturedIfRequired() {
+        final LocationRecordingLogEventFactory factory = new LocationRecordingLogEventFactory();
+        final LoggerConfig config = createLoggerConfig("%L %m", factory);
+        assertTrue(config.requiresLocation());
+
+        config.log(FQCN, LoggerConfig.class.getName(), null, Level.INFO, new SimpleMessage("msg"), null);
+        assertEquals(1, factory.locations.size());
+        final StackTraceElement source = factory.locations.get(0);
+        assertNotNull(source);
+        assertEquals("testLocationCapturedIfRequired", source.getMethodName());
+    }
+
+    private static LoggerConfig createLoggerConfig(final String pattern, final LogEventFactory logEventFactory) {
+        final Appender appender = ConsoleAppender.newBuilder()
+                .setName("console")
+                .setLayout(PatternLayout.newBuilder().withPattern(pattern).build())
+                .build();
+        final LoggerConfig config = LoggerConfig.newBuilder()
+                .setLoggerName(FQCN)
+                .setConfig(new DefaultConfiguration())
+                .setLevel(Level.INFO)
+                .build();
+        // The appender only needs to be inspected for its layout
+        config.addAppender(appender, Level.OFF, null);
+        config.setLogEventFactory(logEventFactory);
+        return config;
+    }
+
+    /**
+     * Records the location captured before each event is created.
+     */
+    private static final class LocationRecordingLogEventFactory implements LogEventFactory {
+
+        private final List<StackTraceElement> locations = new ArrayList<>();
+
+        @Override
+        public LogEvent createEvent(
+                final String loggerName,
+                final Marker marker,
+                final String fqcn,
+                final StackTraceElement location,
+                final Level level,
+                final Message data,
+                final List<Property> properties,
+                final Throwable t) {
+            locations.add(location);
+            return createEvent(loggerName, marker, fqcn, level, data, properties, t);
+        }
+
+        @Override
+        public LogEvent createEvent(
+                final String loggerName,
+                final Marker marker,
+                final String fqcn,
+                final Level level,
+                final Message data,
+                final List<Property> properties,
+                final Throwable t) {
+            return DefaultLogEventFactory.getInstance()
+                    .createEvent(loggerName, marker, fqcn, level, data, properties, t);
+        }
+    }
 }
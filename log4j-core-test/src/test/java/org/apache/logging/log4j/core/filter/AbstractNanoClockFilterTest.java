@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.util.NanoClock;
+import org.apache.logging.log4j.message.SimpleMessage;
+
+/**
+ * Base class of the unit tests of filters that depend on a {@link NanoClock}, which is advanced by the tests.
+ */
+abstract class AbstractNanoClockFilterTest {
+
+    private final AtomicLong nanoTime = new AtomicLong(987_654_321L);
+
+    /**
+     * The clock to pass to the filters, which only moves when {@link #advance} is called.
+     */
+    protected final NanoClock nanoClock = nanoTime::get;
+
+    protected void advance(final long duration, final TimeUnit unit) {
+        nanoTime.addAndGet(unit.toNanos(duration));
+    }
+
+    /**
+     * Returns a builder of events with the given level, logger name and a default message.
+     */
+    protected static Log4jLogEvent.Builder newEvent(final Level level, final String loggerName) {
+        return Log4jLogEvent.newBuilder()
+                .setLevel(level)
+                .setLoggerName(loggerName)
+                .setMessage(new SimpleMessage("test"));
+    }
+
+    /**
+     * Passes the given event to the filter several times.
+     *
+     * @return The number of times the filter returned its {@code onMatch} result.
+     */
+    protected static int countAccepted(final Filter filter, final LogEvent event, final int count) {
+        int accepted = 0;
+        for (int i = 0; i < count; i++) {
+            if (filter.filter(event) == filter.getOnMatch()) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+}
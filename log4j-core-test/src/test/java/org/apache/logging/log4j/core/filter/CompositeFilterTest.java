@@ -17,10 +17,26 @@
 package org.apache.logging.log4j.core.filter;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
 import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Filter.MessageRequirement;
 import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.SimpleMessage;
 import org.junit.jupiter.api.Test;
 
 class CompositeFilterTest {
@@ -45,4 +61,281 @@ class CompositeFilterTest {
         final CompositeFilter concat2 = singleA.addFilter(singleB.addFilter(singleC));
         assertArrayEquals(expected, concat2.getFiltersArray());
     }
+
+    @Test
+    void testCompiledLevelFiltersAreEquivalent() {
+        final Level custom = Level.forName("COMPOSITE_FILTER_TEST", 350);
+        final Level[] levels = {
+            Level.OFF, Level.FATAL, Level.ERROR, Level.WARN, custom, Level.INFO, Level.DEBUG, Level.TRACE, Level.ALL
+        };
+        final Result[] results = Result.values();
+        final Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            final List<Filter> filters = new ArrayList<>();
+            final int size = 1 + random.nextInt(6);
+            for (int j = 0; j < size; j++) {
+                final Result onMatch = results[random.nextInt(results.length)];
+                final Result onMismatch = results[random.nextInt(results.length)];
+                final Level level = levels[random.nextInt(levels.length)];
+                switch (random.nextInt(10)) {
+                    case 0:
+                        filters.add(DenyAllFilter.newBuilder().build());
+                        break;
+                    case 1:
+                        filters.add(MarkerFilter.createFilter("COMPOSITE", onMatch, onMismatch));
+                        break;
+                    case 2:
+                        // Nested composite filters are flattened
+                        final Filter nestedFilter = ThresholdFilter.createFilter(level, onMatch, onMismatch);
+                        filters.add(CompositeFilter.createFilters(nestedFilter));
+                        break;
+                    case 3:
+                    case 4:
+                    case 5:
+                        filters.add(ThresholdFilter.createFilter(level, onMatch, onMismatch));
+                        break;
+                    default:
+                        final Level otherLevel = levels[random.nextInt(levels.length)];
+                        filters.add(LevelRangeFilter.createFilter(level, otherLevel, onMatch, onMismatch));
+                }
+            }
+            final CompositeFilter compositeFilter = CompositeFilter.createFilters(filters.toArray(Filter.EMPTY_ARRAY));
+            for (final Level eventLevel : levels) {
+                for (final boolean withMarker : new boolean[] {false, true}) {
+                    final LogEvent event = Log4jLogEvent.newBuilder()
+                            .setLoggerName("test")
+                            .setLevel(eventLevel)
+                            .setMarker(withMarker ? MarkerManager.getMarker("COMPOSITE") : null)
+                            .setMessage(new SimpleMessage("test"))
+                            .build();
+                    assertEquals(
+                            evaluate(filters, event),
+                            compositeFilter.filter(event),
+                            "Filters " + filters + " with event " + event);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFiltersWithoutMessageAreEvaluatedFirst() {
+        final CountingFilter messageFilter = new CountingFilter(MessageRequirement.FORMATTED_MESSAGE, Result.DENY);
+        final CompositeFilter compositeFilter = CompositeFilter.createFilters(
+                messageFilter, ThresholdFilter.createFilter(Level.INFO, Result.NEUTRAL, Result.DENY));
+        // The message filter can not change the result
+        assertEquals(Result.DENY, compositeFilter.filter(createEvent(Level.DEBUG, "test")));
+        assertEquals(Result.DENY, compositeFilter.filter(null, Level.DEBUG, null, "test", "p0"));
+        assertEquals(0, messageFilter.count.get());
+        assertEquals(Result.DENY, compositeFilter.filter(createEvent(Level.INFO, "test")));
+        assertEquals(Result.DENY, compositeFilter.filter(null, Level.INFO, null, "test", "p0"));
+        assertEquals(2, messageFilter.count.get());
+    }
+
+    @Test
+    void testFiltersWithoutMessageAreNotEvaluatedFirstIfResultCanChange() {
+        final CountingFilter acceptingFilter = new CountingFilter(MessageRequirement.FORMATTED_MESSAGE, Result.ACCEPT);
+        final CountingFilter unknownFilter = new CountingFilter(MessageRequirement.UNKNOWN, Result.DENY);
+        final Filter thresholdFilter = ThresholdFilter.createFilter(Level.INFO, Result.NEUTRAL, Result.DENY);
+        final LogEvent event = createEvent(Level.DEBUG, "test");
+        assertEquals(Result.ACCEPT, CompositeFilter.createFilters(acceptingFilter, thresholdFilter).filter(event));
+        assertEquals(1, acceptingFilter.count.get());
+        assertEquals(Result.DENY, CompositeFilter.createFilters(unknownFilter, thresholdFilter).filter(event));
+        assertEquals(1, unknownFilter.count.get());
+    }
+
+    @Test
+    void testFiltersAreEvaluatedOnce() {
+        // The message filter could accept the event, hence it is evaluated after the filters without message
+        final Filter messageFilter = StringMatchFilter.newBuilder()
+                .setMatchString("foo")
+                .setOnMatch(Result.ACCEPT)
+                .setOnMismatch(Result.NEUTRAL)
+                .build();
+        final CountingFilter neutralFilter = new CountingFilter(MessageRequirement.NONE, Result.NEUTRAL);
+        final CountingFilter denyingFilter = new CountingFilter(MessageRequirement.NONE, Result.DENY);
+        final CompositeFilter compositeFilter =
+                CompositeFilter.createFilters(messageFilter, neutralFilter, denyingFilter);
+        assertEquals(Result.DENY, compositeFilter.filter(createEvent(Level.INFO, "test")));
+        assertEquals(Result.DENY, compositeFilter.filter(null, Level.INFO, null, new SimpleMessage("test"), null));
+        assertEquals(2, neutralFilter.count.get());
+        assertEquals(2, denyingFilter.count.get());
+    }
+
+    @Test
+    void testReorderedFiltersAreEquivalent() {
+        final Level[] levels = {Level.ERROR, Level.WARN, Level.INFO, Level.DEBUG};
+        final String[] messages = {"foo", "bar", "foo bar", "baz"};
+        final Result[] results = Result.values();
+        final Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            final List<Filter> filters = new ArrayList<>();
+            final int size = 1 + random.nextInt(5);
+            for (int j = 0; j < size; j++) {
+                final Result onMatch = results[random.nextInt(results.length)];
+                final Result onMismatch = results[random.nextInt(results.length)];
+                final Level level = levels[random.nextInt(levels.length)];
+                switch (random.nextInt(5)) {
+                    case 0:
+                        filters.add(StringMatchFilter.newBuilder()
+                                .setMatchString("foo")
+                                .setOnMatch(onMatch)
+                                .setOnMismatch(onMismatch)
+                                .build());
+                        break;
+                    case 1:
+                        filters.add(RegexFilter.newBuilder()
+                                .setRegex(".*bar.*")
+                                .setOnMatch(onMatch)
+                                .setOnMismatch(onMismatch)
+                                .build());
+                        break;
+                    case 2:
+                        filters.add(MarkerFilter.createFilter("COMPOSITE", onMatch, onMismatch));
+                        break;
+                    case 3:
+                        filters.add(LevelMatchFilter.newBuilder()
+                                .setLevel(level)
+                                .setOnMatch(onMatch)
+                                .setOnMismatch(onMismatch)
+                                .build());
+                        break;
+                    default:
+                        filters.add(ThresholdFilter.createFilter(level, onMatch, onMismatch));
+                }
+            }
+            final CompositeFilter compositeFilter = CompositeFilter.createFilters(filters.toArray(Filter.EMPTY_ARRAY));
+            for (final Level eventLevel : levels) {
+                for (final String message : messages) {
+                    final LogEvent event = Log4jLogEvent.newBuilder()
+                            .setLoggerName("test")
+                            .setLevel(eventLevel)
+                            .setMarker(random.nextBoolean() ? MarkerManager.getMarker("COMPOSITE") : null)
+                            .setMessage(new SimpleMessage(message))
+                            .build();
+                    assertEquals(
+                            evaluate(filters, event),
+                            compositeFilter.filter(event),
+                            "Filters " + filters + " with event " + event);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testMessageIsFormattedOnce() {
+        final AtomicInteger count = new AtomicInteger();
+        final Object parameter = new Object() {
+            @Override
+            public String toString() {
+                count.incrementAndGet();
+                return "foo";
+            }
+        };
+        final Filter first = StringMatchFilter.newBuilder()
+                .setMatchString("foo")
+                .setOnMatch(Result.NEUTRAL)
+                .build();
+        final Filter second = StringMatchFilter.newBuilder()
+                .setMatchString("bar")
+                .setOnMatch(Result.ACCEPT)
+                .setOnMismatch(Result.DENY)
+                .build();
+        final LoggerContext context = new LoggerContext("CompositeFilterTest");
+        try {
+            final Logger logger = context.getLogger("test");
+            final CompositeFilter compositeFilter = CompositeFilter.createFilters(first, second);
+            assertEquals(Result.DENY, compositeFilter.filter(logger, Level.INFO, null, "{}", parameter));
+            assertEquals(1, count.get());
+            assertEquals(Result.ACCEPT, compositeFilter.filter(logger, Level.INFO, null, "{} bar", parameter));
+            assertEquals(2, count.get());
+        } finally {
+            context.stop();
+        }
+    }
+
+    @Test
+    void testFormattedMessageIsNotParsedAgain() {
+        final Filter first = StringMatchFilter.newBuilder()
+                .setMatchString("foo")
+                .setOnMatch(Result.DENY)
+                .setOnMismatch(Result.NEUTRAL)
+                .build();
+        final Filter second = StringMatchFilter.newBuilder()
+                .setMatchString("Path: \\\\server\\\\{}")
+                .setOnMatch(Result.ACCEPT)
+                .setOnMismatch(Result.DENY)
+                .build();
+        final LoggerContext context = new LoggerContext("CompositeFilterTest");
+        try {
+            final Logger logger = context.getLogger("test");
+            final CompositeFilter compositeFilter = CompositeFilter.createFilters(first, second);
+            // The placeholder and the escape characters in the formatted message must be matched literally
+            final String path = "\\\\server\\\\{}";
+            assertEquals(Result.ACCEPT, compositeFilter.filter(logger, Level.INFO, null, "Path: {}", path));
+            assertEquals(Result.ACCEPT, compositeFilter.filter(logger, Level.INFO, null, "{}: {}", "Path", path));
+        } finally {
+            context.stop();
+        }
+    }
+
+    private static LogEvent createEvent(final Level level, final String message) {
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName("test")
+                .setLevel(level)
+                .setMessage(new ParameterizedMessage(message))
+                .build();
+    }
+
+    /**
+     * Matches all the events and counts its invocations.
+     */
+    private static final class CountingFilter extends AbstractFilter {
+
+        private final MessageRequirement messageRequirement;
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        private CountingFilter(final MessageRequirement messageRequirement, final Result onMatch) {
+            super(onMatch, Result.NEUTRAL);
+            this.messageRequirement = messageRequirement;
+        }
+
+        @Override
+        public MessageRequirement getMessageRequirement() {
+            return messageRequirement;
+        }
+
+        @Override
+        public Result filter(final LogEvent event) {
+            count.incrementAndGet();
+            return onMatch;
+        }
+
+        @Override
+        public Result filter(
+                final Logger logger, final Level level, final Marker marker, final String msg, final Object p0) {
+            count.incrementAndGet();
+            return onMatch;
+        }
+
+        @Override
+        public Result filter(
+                final Logger logger, final Level level, final Marker marker, final Message msg, final Throwable t) {
+            count.incrementAndGet();
+            return onMatch;
+        }
+    }
+
+    /**
+     * Evaluates a filter chain without compiling it.
+     */
+    private static Result evaluate(final List<Filter> filters, final LogEvent event) {
+        for (final Filter filter : filters) {
+            final Result result = filter.filter(event);
+            if (result == Result.ACCEPT || result == Result.DENY) {
+                return result;
+            }
+        }
+        return Result.NEUTRAL;
+    }
 }
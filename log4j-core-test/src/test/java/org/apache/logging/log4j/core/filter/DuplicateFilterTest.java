@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.apache.logging.log4j.core.test.junit.LoggerContextSource;
+import org.apache.logging.log4j.core.test.junit.Named;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for <code>DuplicateFilter</code>.
+ */
+class DuplicateFilterTest extends AbstractNanoClockFilterTest {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private DuplicateFilter createFilter(final int maxEntries) {
+        return new DuplicateFilter(WINDOW_NANOS, maxEntries, nanoClock, null, Result.NEUTRAL, Result.DENY);
+    }
+
+    private static LogEvent createEvent(final Level level, final String loggerName, final Message message) {
+        return newEvent(level, loggerName).setMessage(message).build();
+    }
+
+    @Test
+    void testDuplicatesAreSuppressedWithinWindow() {
+        final DuplicateFilter filter = createFilter(1024);
+        final LogEvent event = createEvent(Level.WARN, "test", new ParameterizedMessage("retry {}", "value"));
+        assertEquals(Result.NEUTRAL, filter.filter(event));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Result.DENY, filter.filter(event));
+        }
+        assertEquals(5, filter.getDuplicateCount("retry {}"));
+        advance(WINDOW_NANOS - 1, TimeUnit.NANOSECONDS);
+        assertEquals(Result.DENY, filter.filter(event));
+        advance(1, TimeUnit.NANOSECONDS);
+        assertEquals(Result.NEUTRAL, filter.filter(event));
+        assertEquals(Result.DENY, filter.filter(event));
+        assertEquals(7, filter.getDuplicateCount("retry {}"));
+        filter.summarize();
+        assertEquals(0, filter.getDuplicateCount("retry {}"));
+        assertEquals(Result.DENY, filter.filter(event));
+    }
+
+    @Test
+    void testDistinctEventsAreNotDuplicates() {
+        final DuplicateFilter filter = createFilter(1024);
+        final Message message = new ParameterizedMessage("retry {}", 1);
+        assertEquals(Result.NEUTRAL, filter.filter(createEvent(Level.WARN, "test", message)));
+        assertEquals(Result.NEUTRAL, filter.filter(createEvent(Level.ERROR, "test", message)));
+        assertEquals(Result.NEUTRAL, filter.filter(createEvent(Level.WARN, "other", message)));
+        final Message otherParameter = new ParameterizedMessage("retry {}", 2);
+        assertEquals(Result.NEUTRAL, filter.filter(createEvent(Level.WARN, "test", otherParameter)));
+        final Message otherPattern = new ParameterizedMessage("retry {} {}", 1, 2);
+        assertEquals(Result.NEUTRAL, filter.filter(createEvent(Level.WARN, "test", otherPattern)));
+        assertEquals(0, filter.getDuplicateCount("retry {}"));
+    }
+
+    @Test
+    void testLoggerStage() {
+        final DuplicateFilter filter = createFilter(1024);
+        final LoggerContext context = new LoggerContext("DuplicateFilterTest");
+        try {
+            final Logger logger = context.getLogger("test");
+            assertEquals(Result.NEUTRAL, filter.filter(logger, Level.WARN, null, "retry {} of {}", 1, 3));
+            assertEquals(Result.DENY, filter.filter(logger, Level.WARN, null, "retry {} of {}", 1, 3));
+            assertEquals(Result.NEUTRAL, filter.filter(logger, Level.WARN, null, "retry {} of {}", 2, 3));
+            assertEquals(Result.DENY, filter.filter(logger, Level.WARN, null, "retry {} of {}", new Object[] {2, 3}));
+            // Reusable messages are hashed as their immutable counterparts
+            final Message message = ReusableMessageFactory.INSTANCE.newMessage("retry {} of {}", 2, 3);
+            assertEquals(Result.DENY, filter.filter(logger, Level.WARN, null, message, null));
+            ReusableMessageFactory.release(message);
+            assertEquals(3, filter.getDuplicateCount("retry {} of {}"));
+        } finally {
+            context.stop();
+        }
+    }
+
+    @Test
+    void testParametersWithoutValueHashAreComparedByFormattedMessage() {
+        final DuplicateFilter filter = createFilter(1024);
+        final Object failingParameter = new Object() {
+            @Override
+            public int hashCode() {
+                throw new IllegalStateException("hashCode");
+            }
+
+            @Override
+            public String toString() {
+                return "failing";
+            }
+        };
+        final LoggerContext context = new LoggerContext("DuplicateFilterTest");
+        try {
+            final Logger logger = context.getLogger("test");
+            // Equal arrays have distinct identity hash codes
+            assertEquals(Result.NEUTRAL, filter.filter(logger, Level.WARN, null, "retry {}", new int[] {1, 2}));
+            assertEquals(Result.DENY, filter.filter(logger, Level.WARN, null, "retry {}", new int[] {1, 2}));
+            assertEquals(Result.NEUTRAL, filter.filter(logger, Level.WARN, null, "retry {}", new int[] {1, 3}));
+            assertEquals(Result.NEUTRAL, filter.filter(logger, Level.WARN, null, "retry {}", failingParameter));
+            assertEquals(Result.DENY, filter.filter(logger, Level.WARN, null, "retry {}", failingParameter));
+            assertEquals(2, filter.getDuplicateCount("retry {}"));
+        } finally {
+            context.stop();
+        }
+    }
+
+    @Test
+    void testObjectMessagesAreComparedByFormattedMessage() {
+        final DuplicateFilter filter = createFilter(1024);
+        final LoggerContext context = new LoggerContext("DuplicateFilterTest");
+        try {
+            final Logger logger = context.getLogger("test");
+            final Object message = new StringBuilder("connection lost");
+            assertEquals(Result.NEUTRAL, filter.filter(logger, Level.WARN, null, message, null));
+            assertEquals(Result.DENY, filter.filter(logger, Level.WARN, null, message, null));
+            assertEquals(1, filter.getDuplicateCount("connection lost"));
+            assertEquals(0, filter.getDuplicateCount(null));
+        } finally {
+            context.stop();
+        }
+    }
+
+    @Test
+    void testNullMessagesAreNotTracked() {
+        final DuplicateFilter filter = createFilter(1024);
+        final LoggerContext context = new LoggerContext("DuplicateFilterTest");
+        try {
+            final Logger logger = context.getLogger("test");
+            for (int i = 0; i < 3; i++) {
+                assertEquals(Result.NEUTRAL, filter.filter(logger, Level.INFO, null, (Object) null, null));
+                assertEquals(Result.NEUTRAL, filter.filter(logger, Level.INFO, null, (Message) null, null));
+            }
+        } finally {
+            context.stop();
+        }
+    }
+
+    @Test
+    @LoggerContextSource("log4j-duplicatefilter-context.xml")
+    void testEnabledChecksAreNotDuplicates(final LoggerContext context, @Named("List") final ListAppender app) {
+        final org.apache.logging.log4j.Logger logger = context.getLogger("test");
+        if (logger.isInfoEnabled()) {
+            logger.info("connected to {}", "host1");
+        }
+        if (logger.isInfoEnabled()) {
+            logger.info("disconnected from {}", "host1");
+        }
+        assertEquals(2, app.getEvents().size());
+    }
+
+    @Test
+    void testTableIsBounded() {
+        final DuplicateFilter filter = createFilter(16);
+        for (int i = 0; i < 1000; i++) {
+            final LogEvent event = createEvent(Level.WARN, "test", new ParameterizedMessage("retry {}", i));
+            assertEquals(Result.NEUTRAL, filter.filter(event));
+            assertEquals(Result.DENY, filter.filter(event));
+            advance(1, TimeUnit.NANOSECONDS);
+        }
+        assertEquals("windowSeconds=10, maxEntries=16", filter.toString());
+    }
+
+    @Test
+    void testBuilderReplacesInvalidValues() {
+        final DuplicateFilter filter = DuplicateFilter.newBuilder().setWindowSeconds(0).setMaxEntries(-1).build();
+        assertEquals("windowSeconds=10, maxEntries=1024", filter.toString());
+        assertEquals(Result.NEUTRAL, filter.getOnMatch());
+        assertEquals(Result.DENY, filter.getOnMismatch());
+    }
+
+    @Test
+    @LoggerContextSource("log4j-duplicatefilter.xml")
+    void testSummary(final LoggerContext context, @Named("List") final ListAppender app) {
+        final DuplicateFilter filter = (DuplicateFilter) app.getFilter();
+        assertNotNull(filter);
+        assertEquals("windowSeconds=60, maxEntries=128", filter.toString());
+        final org.apache.logging.log4j.Logger logger = context.getLogger("test");
+        for (int i = 0; i < 5; i++) {
+            logger.warn("retry {}", "value");
+        }
+        assertEquals(1, app.getEvents().size());
+        filter.summarize();
+        final List<LogEvent> events = app.getEvents();
+        assertEquals(2, events.size());
+        assertEquals(Level.WARN, events.get(1).getLevel());
+        assertEquals("test", events.get(1).getLoggerName());
+        assertEquals("Message repeated 4 times: retry {}", events.get(1).getMessage().getFormattedMessage());
+    }
+
+    @Test
+    @LoggerContextSource("log4j-duplicatefilter-context.xml")
+    void testSummaryIsFiltered(final LoggerContext context, @Named("List") final ListAppender app) {
+        final DuplicateFilter filter = (DuplicateFilter) context.getConfiguration().getFilter();
+        assertNotNull(filter);
+        final org.apache.logging.log4j.Logger logger = context.getLogger("test");
+        for (int i = 0; i < 5; i++) {
+            logger.warn("retry {}", "value");
+            logger.debug("retry {}", "value");
+        }
+        assertEquals(1, app.getEvents().size());
+        filter.summarize();
+        assertEquals(2, app.getEvents().size());
+        assertEquals("Message repeated 4 times: retry {}", app.getEvents().get(1).getMessage().getFormattedMessage());
+        // The summary of the DEBUG duplicates is denied by the level of the logger
+        assertEquals(0, filter.getDuplicateCount("retry {}"));
+    }
+}
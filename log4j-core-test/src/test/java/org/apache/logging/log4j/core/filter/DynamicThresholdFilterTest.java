@@ -84,6 +84,28 @@ class DynamicThresholdFilterTest {
         ThreadContext.clearMap();
     }
 
+    @Test
+    void testFilterOutsideOfThresholds() {
+        final KeyValuePair[] pairs =
+                new KeyValuePair[] {new KeyValuePair("testuser", "DEBUG"), new KeyValuePair("JohnDoe", "warn")};
+        final DynamicThresholdFilter filter = DynamicThresholdFilter.createFilter(
+                "userid", pairs, Level.INFO, Filter.Result.ACCEPT, Filter.Result.DENY);
+        ThreadContext.put("userid", "unknown");
+        // More specific than all thresholds
+        assertSame(Filter.Result.ACCEPT, filter.filter(null, Level.ERROR, null, (Object) null, null));
+        // Less specific than all thresholds
+        assertSame(Filter.Result.DENY, filter.filter(null, Level.TRACE, null, (Object) null, null));
+        // Depends on the threshold of the value
+        assertSame(Filter.Result.DENY, filter.filter(null, Level.DEBUG, null, (Object) null, null));
+        ThreadContext.put("userid", "testuser");
+        assertSame(Filter.Result.ACCEPT, filter.filter(null, Level.DEBUG, null, (Object) null, null));
+        // No value
+        ThreadContext.remove("userid");
+        assertSame(Filter.Result.NEUTRAL, filter.filter(null, Level.ERROR, null, (Object) null, null));
+        assertSame(Filter.Result.NEUTRAL, filter.filter(null, Level.TRACE, null, (Object) null, null));
+        ThreadContext.clearMap();
+    }
+
     @Test
     @LoggerContextSource("log4j2-dynamicfilter.xml")
     void testConfig(final Configuration config) {
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MarkerSetFilterTest {
+
+    @Test
+    void testMarkers() {
+        final Marker parent = MarkerManager.getMarker("SetParent");
+        final Marker child = MarkerManager.getMarker("SetChild").setParents(parent);
+        final Marker grandChild = MarkerManager.getMarker("SetGrandChild").setParents(child);
+        final Marker other = MarkerManager.getMarker("SetOther");
+        final Marker stranger = MarkerManager.getMarker("SetStranger");
+        final MarkerSetFilter filter = MarkerSetFilter.newBuilder()
+                .setMarkers("SetParent, SetOther")
+                .setOnMatch(Filter.Result.ACCEPT)
+                .build();
+        assertNotNull(filter);
+        assertSame(Filter.Result.DENY, filter.filter(null, null, null, (Object) null, null));
+        assertSame(Filter.Result.DENY, filter.filter(null, null, stranger, (Object) null, null));
+        assertSame(Filter.Result.ACCEPT, filter.filter(null, null, other, (Object) null, null));
+        assertSame(Filter.Result.ACCEPT, filter.filter(null, null, parent, (Object) null, null));
+        assertSame(Filter.Result.ACCEPT, filter.filter(null, null, grandChild, (Object) null, null));
+        final LogEvent event = Log4jLogEvent.newBuilder()
+                .setMarker(grandChild)
+                .setLevel(Level.DEBUG)
+                .setMessage(new SimpleMessage("Hello, world!"))
+                .build();
+        assertSame(Filter.Result.ACCEPT, filter.filter(event));
+    }
+
+    @Test
+    void testMarkersWithSeveralParents() {
+        final Marker first = MarkerManager.getMarker("SetFirstParent");
+        final Marker second = MarkerManager.getMarker("SetSecondParent");
+        final Marker child = MarkerManager.getMarker("SetSeveralParentsChild").setParents(first, second);
+        final Marker grandChild = MarkerManager.getMarker("SetSeveralParentsGrandChild").setParents(child);
+        final MarkerSetFilter filter = MarkerSetFilter.newBuilder()
+                .setMarkers("SetUnrelated, SetSecondParent")
+                .build();
+        assertNotNull(filter);
+        assertSame(Filter.Result.NEUTRAL, filter.filter(null, null, child, (Object) null, null));
+        assertSame(Filter.Result.NEUTRAL, filter.filter(null, null, grandChild, (Object) null, null));
+        assertSame(Filter.Result.DENY, filter.filter(null, null, first, (Object) null, null));
+    }
+
+    @Test
+    void testMarkersFromFile(@TempDir final Path dir) throws Exception {
+        final Path file = dir.resolve("markers.txt");
+        Files.write(file, Arrays.asList("# Noisy markers", "", "FILE_A", "FILE_B "), StandardCharsets.UTF_8);
+        final MarkerSetFilter filter = MarkerSetFilter.newBuilder()
+                .setMarkers("FILE_C")
+                .setLocation(file.toString())
+                .build();
+        assertNotNull(filter);
+        assertEquals(3, filter.getNames().size());
+        assertSame(
+                Filter.Result.NEUTRAL,
+                filter.filter(null, null, MarkerManager.getMarker("FILE_B"), (Object) null, null));
+        assertSame(
+                Filter.Result.DENY, filter.filter(null, null, MarkerManager.getMarker("FILE_D"), (Object) null, null));
+    }
+
+    @Test
+    void testInvalidConfiguration(@TempDir final Path dir) {
+        assertNull(MarkerSetFilter.newBuilder().build());
+        assertNull(MarkerSetFilter.newBuilder()
+                .setLocation(dir.resolve("missing.txt").toString())
+                .build());
+    }
+}
@@ -19,6 +19,7 @@ package org.apache.logging.log4j.core.filter;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.logging.log4j.core.net.WireMockUtil.createMapping;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.waitAtMost;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 import com.github.tomakehurst.wiremock.client.BasicCredentials;
@@ -37,6 +38,7 @@ import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 import org.apache.logging.log4j.Logger;
@@ -165,6 +167,44 @@ class MutableThreadContextMapFilterTest implements MutableThreadContextMapFilter
         assertThat(exception).as("Asynchronous exception").isNull();
     }
 
+    @Test
+    void file_with_unchanged_content_is_not_reloaded(TestProperties properties, @TempDir Path dir) throws Exception {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Path testConfig = dir.resolve("testConfig.json");
+        properties.setProperty("configLocation", testConfig.toString());
+        Files.write(testConfig, EMPTY_CONFIG);
+        Files.setLastModifiedTime(testConfig, FileTime.from(now.minus(1, ChronoUnit.MINUTES)));
+        // Setup Log4j
+        ConfigurationSource source =
+                ConfigurationSource.fromResource(CONFIG, getClass().getClassLoader());
+        Configuration configuration = ConfigurationFactory.getInstance().getConfiguration(null, source);
+        configuration.initialize(); // To create the components
+        final ListAppender app = configuration.getAppender("LIST");
+        assertThat(app).isNotNull();
+        final MutableThreadContextMapFilter filter = (MutableThreadContextMapFilter) configuration.getFilter();
+        assertNotNull(filter);
+        final AtomicInteger updates = new AtomicInteger();
+        filter.registerListener(updates::incrementAndGet);
+
+        loggerContext = Configurator.initialize(getClass().getClassLoader(), configuration);
+        assertNotNull(loggerContext);
+        final Logger logger = loggerContext.getLogger(MutableThreadContextMapFilterTest.class);
+        waitAtMost(5, TimeUnit.SECONDS).until(() -> updates.get() == 1);
+
+        // A new modification time without new content does not replace the filter
+        Files.setLastModifiedTime(testConfig, FileTime.from(now));
+        Thread.sleep(3_000);
+        assertThat(updates).as("Number of updates").hasValue(1);
+
+        // New content does
+        Files.write(testConfig, FILTER_CONFIG);
+        Files.setLastModifiedTime(testConfig, FileTime.from(now.plus(1, ChronoUnit.MINUTES)));
+        waitAtMost(5, TimeUnit.SECONDS).until(() -> updates.get() == 2);
+        ThreadContext.put("loginId", "rgoers");
+        logger.debug("This is a test");
+        assertThat(app.getEvents()).hasSize(1);
+    }
+
     @Test
     void http_location_works(TestProperties properties, WireMockRuntimeInfo info) throws Exception {
         WireMock wireMock = info.getWireMock();
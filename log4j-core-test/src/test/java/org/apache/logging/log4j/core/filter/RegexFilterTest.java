@@ -203,4 +203,37 @@ class RegexFilterTest {
         builder.setRegex("[a-z");
         assertThrows(IllegalArgumentException.class, builder::build);
     }
+
+    @Test
+    void testLinearEngine() {
+        final RegexFilter filter = RegexFilter.newBuilder()
+                .setRegex("(a+)+b")
+                .setEngine("linear")
+                .setOnMatch(Result.ACCEPT)
+                .setOnMismatch(Result.DENY)
+                .build();
+        assertEquals("linear", filter.getEngine());
+        assertEquals("(a+)+b", filter.getRegex());
+        assertEquals("(a+)+b", filter.getPattern().pattern());
+        assertSame(Result.ACCEPT, filter.filter("aaab"));
+        final StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            input.append('a');
+        }
+        // Would take ages due to catastrophic backtracking with `java.util.regex.Pattern`
+        assertSame(Result.DENY, filter.filter(input.toString()));
+    }
+
+    @Test
+    void testBuilderWithUnsupportedEngineSyntaxNotValid() {
+        final RegexFilter.Builder builder = RegexFilter.newBuilder().setRegex("(a)\\1").setEngine("linear");
+        assertThrows(IllegalArgumentException.class, builder::build);
+    }
+
+    @Test
+    void testBuilderWithUnknownEngineNotValid() {
+        final RegexFilter.Builder builder =
+                RegexFilter.newBuilder().setRegex("a").setEngine(RegexFilterTest.class.getName());
+        assertThrows(IllegalArgumentException.class, builder::build);
+    }
 }
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.filter.SamplingFilter.SamplingKey;
+import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.apache.logging.log4j.core.test.junit.LoggerContextSource;
+import org.apache.logging.log4j.core.test.junit.Named;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for <code>SamplingFilter</code>.
+ */
+class SamplingFilterTest extends AbstractNanoClockFilterTest {
+
+    private SamplingFilter createFilter(final int sampleRate, final SamplingKey samplingKey, final long maxEvents) {
+        return new SamplingFilter(
+                Level.INFO, sampleRate, samplingKey, "traceId", maxEvents, nanoClock, Result.NEUTRAL, Result.DENY);
+    }
+
+    private static LogEvent createEvent(
+            final Level level, final String loggerName, final String pattern, final String traceId) {
+        final SortedArrayStringMap contextData = new SortedArrayStringMap();
+        if (traceId != null) {
+            contextData.putValue("traceId", traceId);
+        }
+        return newEvent(level, loggerName)
+                .setMessage(new ParameterizedMessage(pattern, "value"))
+                .setContextData(contextData)
+                .build();
+    }
+
+    @Test
+    void testSampleRate() {
+        final SamplingFilter filter = createFilter(10, SamplingKey.NONE, 0);
+        assertEquals(10, countAccepted(filter, createEvent(Level.INFO, "test", "message {}", null), 100));
+        assertEquals(10, countAccepted(filter, createEvent(Level.DEBUG, "other", "other {}", null), 100));
+    }
+
+    @Test
+    void testMoreSpecificLevelsAlwaysMatch() {
+        final SamplingFilter filter = createFilter(10, SamplingKey.NONE, 0);
+        assertEquals(100, countAccepted(filter, createEvent(Level.WARN, "test", "message {}", null), 100));
+        assertEquals(100, countAccepted(filter, createEvent(Level.ERROR, "test", "message {}", null), 100));
+    }
+
+    @Test
+    void testLoggerKey() {
+        final SamplingFilter filter = createFilter(10, SamplingKey.LOGGER, 0);
+        assertEquals(Result.NEUTRAL, filter.filter(createEvent(Level.INFO, "first", "message {}", null)));
+        assertEquals(Result.DENY, filter.filter(createEvent(Level.INFO, "first", "message {}", null)));
+        // Each logger has its own counter
+        assertEquals(Result.NEUTRAL, filter.filter(createEvent(Level.INFO, "second", "message {}", null)));
+    }
+
+    @Test
+    void testMessageKey() {
+        final SamplingFilter filter = createFilter(10, SamplingKey.MESSAGE, 0);
+        assertEquals(10, countAccepted(filter, createEvent(Level.INFO, "test", "chatty {}", null), 95));
+        // A rare message is not drowned by the chatty one
+        assertEquals(Result.NEUTRAL, filter.filter(createEvent(Level.INFO, "test", "rare {}", null)));
+    }
+
+    @Test
+    void testTraceIdKey() {
+        final SamplingFilter filter = createFilter(10, SamplingKey.TRACE_ID, 0);
+        int sampledTraces = 0;
+        for (int i = 0; i < 10_000; i++) {
+            final LogEvent event = createEvent(Level.INFO, "test", "message {}", "trace-" + i);
+            // All events of a trace share the same decision
+            final int accepted = countAccepted(filter, event, 5);
+            assertTrue(accepted == 0 || accepted == 5, "Trace partially sampled: " + accepted);
+            if (accepted == 5) {
+                sampledTraces++;
+            }
+        }
+        assertTrue(
+                sampledTraces > 800 && sampledTraces < 1200, "Unexpected number of sampled traces: " + sampledTraces);
+        // Events without a trace id are sampled together
+        assertEquals(10, countAccepted(filter, createEvent(Level.INFO, "test", "message {}", null), 100));
+    }
+
+    @Test
+    void testTraceIdKeyHigherRateKeepsSubset() {
+        final SamplingFilter lowRateFilter = createFilter(10, SamplingKey.TRACE_ID, 0);
+        final SamplingFilter highRateFilter = createFilter(50, SamplingKey.TRACE_ID, 0);
+        int sampledTraces = 0;
+        for (int i = 0; i < 10_000; i++) {
+            final LogEvent event = createEvent(Level.INFO, "test", "message {}", "trace-" + i);
+            if (highRateFilter.filter(event) == Result.NEUTRAL) {
+                assertEquals(Result.NEUTRAL, lowRateFilter.filter(event), "Trace not kept at lower rate: " + i);
+                sampledTraces++;
+            }
+        }
+        assertTrue(sampledTraces > 150 && sampledTraces < 250, "Unexpected number of sampled traces: " + sampledTraces);
+    }
+
+    @Test
+    void testKeysBeyondLimitShareCounter() {
+        final SamplingFilter filter = createFilter(10, SamplingKey.LOGGER, 0);
+        for (int i = 0; i < 1024; i++) {
+            assertEquals(Result.NEUTRAL, filter.filter(createEvent(Level.INFO, "logger-" + i, "message {}", null)));
+        }
+        // Further loggers share a single counter
+        assertEquals(Result.NEUTRAL, filter.filter(createEvent(Level.INFO, "extra-1", "message {}", null)));
+        assertEquals(Result.DENY, filter.filter(createEvent(Level.INFO, "extra-2", "message {}", null)));
+    }
+
+    @Test
+    void testAdaptiveRate() {
+        final SamplingFilter filter = createFilter(2, SamplingKey.NONE, 10);
+        final LogEvent event = createEvent(Level.INFO, "test", "message {}", null);
+        assertEquals(500, countAccepted(filter, event, 999));
+        assertEquals(2, filter.getEffectiveSampleRate());
+        // With the next one, 1000 events per second exceed the budget of 10 events per second
+        advance(1, TimeUnit.SECONDS);
+        countAccepted(filter, event, 1);
+        assertEquals(100, filter.getEffectiveSampleRate());
+        // The sample rate never goes below the configured one
+        advance(10, TimeUnit.SECONDS);
+        countAccepted(filter, event, 1);
+        assertEquals(2, filter.getEffectiveSampleRate());
+    }
+
+    @Test
+    void testBuilderDefaults() {
+        final SamplingFilter filter = SamplingFilter.newBuilder().setSampleRate(-1).build();
+        assertEquals(10, filter.getEffectiveSampleRate());
+        assertEquals(Result.NEUTRAL, filter.getOnMatch());
+        assertEquals(Result.DENY, filter.getOnMismatch());
+        assertEquals("level=INFO, sampleRate=10, samplingKey=NONE", filter.toString());
+    }
+
+    @Test
+    void testBuilderReplacesMissingValues() {
+        final SamplingFilter filter = SamplingFilter.newBuilder()
+                .setSampleRate(0)
+                .setSamplingKey(null)
+                .setTraceIdKey(null)
+                .build();
+        assertEquals("level=INFO, sampleRate=10, samplingKey=NONE", filter.toString());
+        final SamplingFilter traceIdFilter = SamplingFilter.newBuilder()
+                .setSamplingKey(SamplingKey.TRACE_ID)
+                .setTraceIdKey(null)
+                .build();
+        assertEquals("level=INFO, sampleRate=10, samplingKey=TRACE_ID, traceIdKey=traceId", traceIdFilter.toString());
+    }
+
+    @Test
+    @LoggerContextSource("log4j-samplingfilter.xml")
+    void testConfiguration(final LoggerContext context, @Named("List") final ListAppender app) {
+        final SamplingFilter filter = (SamplingFilter) app.getFilter();
+        assertNotNull(filter);
+        assertEquals(
+                "level=DEBUG, sampleRate=5, samplingKey=MESSAGE, maxEventsPerSecond=1000000", filter.toString());
+        final Logger logger = context.getLogger("test");
+        for (int i = 0; i < 10; i++) {
+            logger.debug("chatty {}", i);
+            logger.info("important {}", i);
+        }
+        logger.debug("rare {}", 0);
+        // 2 chatty, 10 important and 1 rare events
+        assertEquals(13, app.getEvents().size());
+    }
+}
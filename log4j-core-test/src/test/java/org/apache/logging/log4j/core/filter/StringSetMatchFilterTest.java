@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StringSetMatchFilterTest {
+
+    @Test
+    void testTexts() {
+        final StringSetMatchFilter filter = StringSetMatchFilter.newBuilder()
+                .setTexts("connection reset, timeout, heartbeat")
+                .setOnMatch(Filter.Result.DENY)
+                .setOnMismatch(Filter.Result.NEUTRAL)
+                .build();
+        assertNotNull(filter);
+        assertEquals(3, filter.getTextCount());
+        assertSame(
+                Filter.Result.DENY,
+                filter.filter(null, null, null, new SimpleMessage("Read timeout after 5 s"), null));
+        assertSame(
+                Filter.Result.NEUTRAL,
+                filter.filter(null, null, null, new SimpleMessage("Connection established"), null));
+        assertSame(
+                Filter.Result.DENY,
+                filter.filter(
+                        null, null, null, new ParameterizedMessage("Sending {} to {}", "heartbeat", "node1"), null));
+        final LogEvent event = Log4jLogEvent.newBuilder()
+                .setLevel(Level.WARN)
+                .setMessage(new SimpleMessage("Peer: connection reset"))
+                .build();
+        assertSame(Filter.Result.DENY, filter.filter(event));
+    }
+
+    @Test
+    void testTextsFromFile(@TempDir final Path dir) throws Exception {
+        final Path file = dir.resolve("texts.txt");
+        Files.write(
+                file,
+                Arrays.asList("# Noisy messages", "", "  cache miss\t", "retry, then fail", "  # Indented comment"),
+                StandardCharsets.UTF_8);
+        final StringSetMatchFilter filter = StringSetMatchFilter.newBuilder()
+                .setTexts(" cache miss ")
+                .setLocation(file.toString())
+                .build();
+        assertNotNull(filter);
+        assertEquals(2, filter.getTextCount());
+        assertSame(
+                Filter.Result.NEUTRAL,
+                filter.filter(null, null, null, new SimpleMessage("We retry, then fail"), null));
+        assertSame(Filter.Result.NEUTRAL, filter.filter(null, null, null, new SimpleMessage("On cache miss"), null));
+        assertSame(Filter.Result.DENY, filter.filter(null, null, null, new SimpleMessage("retry"), null));
+    }
+
+    @Test
+    void testEscapedTexts(@TempDir final Path dir) throws Exception {
+        final Path file = dir.resolve("texts.txt");
+        Files.write(file, Arrays.asList("\\# not a comment", "\\ padded\\ "), StandardCharsets.UTF_8);
+        final StringSetMatchFilter filter = StringSetMatchFilter.newBuilder()
+                .setTexts("a\\, b, \\ OK\\ , C:\\\\temp")
+                .setLocation(file.toString())
+                .build();
+        assertNotNull(filter);
+        assertEquals(5, filter.getTextCount());
+        assertSame(Filter.Result.NEUTRAL, filter.filter(null, null, null, new SimpleMessage("x a, b y"), null));
+        assertSame(Filter.Result.DENY, filter.filter(null, null, null, new SimpleMessage("a b"), null));
+        assertSame(Filter.Result.NEUTRAL, filter.filter(null, null, null, new SimpleMessage("Status: OK (1)"), null));
+        assertSame(Filter.Result.DENY, filter.filter(null, null, null, new SimpleMessage("Status:OK"), null));
+        assertSame(Filter.Result.NEUTRAL, filter.filter(null, null, null, new SimpleMessage("In C:\\temp"), null));
+        assertSame(Filter.Result.NEUTRAL, filter.filter(null, null, null, new SimpleMessage("# not a comment"), null));
+        assertSame(Filter.Result.NEUTRAL, filter.filter(null, null, null, new SimpleMessage("a padded b"), null));
+        assertSame(Filter.Result.DENY, filter.filter(null, null, null, new SimpleMessage("unpadded"), null));
+    }
+
+    @Test
+    void testReusableMessagesAreReleased() {
+        final ReusableMessageFactory messageFactory = new ReusableMessageFactory();
+        try (final LoggerContext context = new LoggerContext("testReusableMessagesAreReleased")) {
+            final Logger logger = context.getLogger("test", messageFactory);
+            final StringSetMatchFilter filter = StringSetMatchFilter.newBuilder()
+                    .setTexts("heartbeat")
+                    .setOnMatch(Filter.Result.DENY)
+                    .setOnMismatch(Filter.Result.NEUTRAL)
+                    .build();
+            assertNotNull(filter);
+            final Message message = messageFactory.newMessage("{}", "warm-up");
+            ReusableMessageFactory.release(message);
+            assertSame(
+                    Filter.Result.DENY,
+                    filter.filter(logger, Level.INFO, null, "Sending {} to {}", "heartbeat", "node1"));
+            // The filter must release the thread-local message, so that the next call can reuse it
+            assertSame(message, messageFactory.newMessage("{}", "next"));
+        }
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        assertNull(StringSetMatchFilter.newBuilder().build());
+        assertNull(StringSetMatchFilter.newBuilder().setTexts(" , ").build());
+    }
+
+    @Test
+    void testMatcherIsEquivalentToContains() {
+        final Random random = new Random(47);
+        for (int round = 0; round < 200; round++) {
+            final List<String> patterns = new ArrayList<>();
+            final int patternCount = 1 + random.nextInt(20);
+            for (int i = 0; i < patternCount; i++) {
+                patterns.add(randomText(random, 1 + random.nextInt(4)));
+            }
+            final AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(patterns);
+            for (int i = 0; i < 50; i++) {
+                final String text = randomText(random, random.nextInt(30));
+                boolean expected = false;
+                for (final String pattern : patterns) {
+                    expected |= text.contains(pattern);
+                }
+                assertEquals(expected, matcher.matches(text), () -> "Patterns " + patterns + ", text " + text);
+            }
+        }
+    }
+
+    private static String randomText(final Random random, final int length) {
+        // A small alphabet, including a non-ASCII character, produces many partial matches
+        final String alphabet = "abcé";
+        final StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+}
@@ -20,10 +20,16 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.ThreadContext;
 import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.util.KeyValuePair;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
 import org.junit.jupiter.api.Test;
 
 class ThreadContextMapFilterTest {
@@ -65,4 +71,48 @@ class ThreadContextMapFilterTest {
         assertSame(Filter.Result.NEUTRAL, filter.filter(null, Level.DEBUG, null, (Object) null, null));
         ThreadContext.clearMap();
     }
+
+    @Test
+    void testManyValues() {
+        final List<KeyValuePair> pairs = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            pairs.add(new KeyValuePair("tenant", "tenant-" + i));
+        }
+        pairs.add(new KeyValuePair("region", "eu"));
+        final KeyValuePair[] pairArray = pairs.toArray(new KeyValuePair[0]);
+        final ThreadContextMapFilter andFilter = ThreadContextMapFilter.createFilter(pairArray, "and", null, null);
+        final ThreadContextMapFilter orFilter = ThreadContextMapFilter.createFilter(pairArray, "or", null, null);
+        assertFilters(andFilter, orFilter, "tenant-999", "eu", Filter.Result.NEUTRAL, Filter.Result.NEUTRAL);
+        assertFilters(andFilter, orFilter, "tenant-0", "us", Filter.Result.DENY, Filter.Result.NEUTRAL);
+        assertFilters(andFilter, orFilter, "tenant-1000", "eu", Filter.Result.DENY, Filter.Result.NEUTRAL);
+        assertFilters(andFilter, orFilter, "tenant-1000", "us", Filter.Result.DENY, Filter.Result.DENY);
+        assertFilters(andFilter, orFilter, null, "eu", Filter.Result.DENY, Filter.Result.NEUTRAL);
+        ThreadContext.clearMap();
+    }
+
+    private static void assertFilters(
+            final ThreadContextMapFilter andFilter,
+            final ThreadContextMapFilter orFilter,
+            final String tenant,
+            final String region,
+            final Filter.Result andResult,
+            final Filter.Result orResult) {
+        ThreadContext.clearMap();
+        final SortedArrayStringMap contextData = new SortedArrayStringMap();
+        if (tenant != null) {
+            ThreadContext.put("tenant", tenant);
+            contextData.putValue("tenant", tenant);
+        }
+        ThreadContext.put("region", region);
+        contextData.putValue("region", region);
+        final LogEvent event = Log4jLogEvent.newBuilder()
+                .setLevel(Level.DEBUG)
+                .setMessage(new SimpleMessage("Test"))
+                .setContextData(contextData)
+                .build();
+        assertSame(andResult, andFilter.filter(null, Level.DEBUG, null, (Object) null, null));
+        assertSame(andResult, andFilter.filter(event));
+        assertSame(orResult, orFilter.filter(null, Level.DEBUG, null, (Object) null, null));
+        assertSame(orResult, orFilter.filter(event));
+    }
 }
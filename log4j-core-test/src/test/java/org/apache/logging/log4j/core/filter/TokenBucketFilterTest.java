@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.filter.TokenBucketFilter.BucketKey;
+import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.apache.logging.log4j.core.test.junit.LoggerContextSource;
+import org.apache.logging.log4j.core.test.junit.Named;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for <code>TokenBucketFilter</code>.
+ */
+class TokenBucketFilterTest extends AbstractNanoClockFilterTest {
+
+    private TokenBucketFilter createFilter(final float rate, final long maxBurst, final BucketKey bucketKey) {
+        return new TokenBucketFilter(Level.INFO, rate, maxBurst, bucketKey, nanoClock, Result.NEUTRAL, Result.DENY);
+    }
+
+    private static LogEvent createEvent(final Level level, final String loggerName, final Marker marker) {
+        return newEvent(level, loggerName).setMarker(marker).build();
+    }
+
+    @Test
+    void testBurstAndRefill() {
+        final TokenBucketFilter filter = createFilter(10, 100, BucketKey.NONE);
+        final LogEvent event = createEvent(Level.INFO, "test", null);
+        assertEquals(100, filter.getAvailable());
+        assertEquals(100, countAccepted(filter, event, 110));
+        assertEquals(0, filter.getAvailable());
+        // 10 events per second
+        advance(500, TimeUnit.MILLISECONDS);
+        assertEquals(5, filter.getAvailable());
+        assertEquals(5, countAccepted(filter, event, 110));
+        // A long pause only refills up to the maximum burst
+        advance(1, TimeUnit.MINUTES);
+        assertEquals(100, countAccepted(filter, event, 110));
+        filter.clear();
+        assertEquals(100, filter.getAvailable());
+    }
+
+    @Test
+    void testMoreSpecificLevelsAlwaysMatch() {
+        final TokenBucketFilter filter = createFilter(10, 10, BucketKey.NONE);
+        assertEquals(10, countAccepted(filter, createEvent(Level.DEBUG, "test", null), 20));
+        assertEquals(0, countAccepted(filter, createEvent(Level.INFO, "test", null), 20));
+        assertEquals(20, countAccepted(filter, createEvent(Level.WARN, "test", null), 20));
+        assertEquals(20, countAccepted(filter, createEvent(Level.ERROR, "test", null), 20));
+    }
+
+    @Test
+    void testLoggerBuckets() {
+        final TokenBucketFilter filter = createFilter(10, 10, BucketKey.LOGGER);
+        assertEquals(10, countAccepted(filter, createEvent(Level.INFO, "first", null), 20));
+        assertEquals(10, countAccepted(filter, createEvent(Level.INFO, "second", null), 20));
+        assertEquals(0, countAccepted(filter, createEvent(Level.INFO, "first", null), 20));
+        filter.clear();
+        assertEquals(10, countAccepted(filter, createEvent(Level.INFO, "first", null), 20));
+    }
+
+    @Test
+    void testMarkerBuckets() {
+        final TokenBucketFilter filter = createFilter(10, 10, BucketKey.MARKER);
+        final Marker first = MarkerManager.getMarker("TokenBucketFilterTest-first");
+        final Marker second = MarkerManager.getMarker("TokenBucketFilterTest-second");
+        assertEquals(10, countAccepted(filter, createEvent(Level.INFO, "test", first), 20));
+        assertEquals(10, countAccepted(filter, createEvent(Level.INFO, "test", second), 20));
+        // Events without a marker use the default bucket
+        assertEquals(10, countAccepted(filter, createEvent(Level.INFO, "test", null), 20));
+        assertEquals(0, filter.getAvailable());
+    }
+
+    @Test
+    void testConcurrentAcquire() throws InterruptedException {
+        final TokenBucketFilter filter = createFilter(1, 10_000, BucketKey.NONE);
+        final LogEvent event = createEvent(Level.INFO, "test", null);
+        final AtomicInteger accepted = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                accepted.addAndGet(countAccepted(filter, event, 2_000));
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(10_000, accepted.get());
+    }
+
+    @Test
+    void testLargeBurstDoesNotOverflow() {
+        final TokenBucketFilter filter = createFilter(0.001f, Long.MAX_VALUE, BucketKey.NONE);
+        assertEquals(1_000, countAccepted(filter, createEvent(Level.INFO, "test", null), 1_000));
+        assertTrue(filter.getAvailable() > 0);
+    }
+
+    @Test
+    void testBucketsAreBounded() {
+        final TokenBucketFilter filter = createFilter(10, 10, BucketKey.LOGGER);
+        for (int i = 0; i < 1024; i++) {
+            assertEquals(1, countAccepted(filter, createEvent(Level.INFO, "logger-" + i, null), 1));
+        }
+        assertEquals(1024, filter.getBucketCount());
+        // No bucket is full, so further loggers share the default bucket
+        assertEquals(10, countAccepted(filter, createEvent(Level.INFO, "extra-1", null), 20));
+        assertEquals(0, countAccepted(filter, createEvent(Level.INFO, "extra-2", null), 20));
+        assertEquals(1024, filter.getBucketCount());
+        // Once full, idle buckets are evicted to make room for new loggers
+        advance(1, TimeUnit.SECONDS);
+        assertEquals(10, countAccepted(filter, createEvent(Level.INFO, "extra-2", null), 20));
+        assertEquals(1, filter.getBucketCount());
+    }
+
+    @Test
+    void testBuilderDefaults() {
+        final TokenBucketFilter filter = TokenBucketFilter.newBuilder().setRate(2).build();
+        assertEquals(200, filter.getAvailable());
+        assertEquals(Result.NEUTRAL, filter.getOnMatch());
+        assertEquals(Result.DENY, filter.getOnMismatch());
+    }
+
+    @Test
+    void testBuilderReplacesInvalidValues() {
+        final TokenBucketFilter filter = TokenBucketFilter.newBuilder().setRate(-1).setMaxBurst(-1).build();
+        assertEquals(1_000, filter.getAvailable());
+        assertEquals("level=WARN, rate=10.0, maxBurst=1000, bucketKey=NONE", filter.toString());
+    }
+
+    @Test
+    @LoggerContextSource("log4j-tokenbucketfilter.xml")
+    void testConfiguration(final LoggerContext context, @Named("List") final ListAppender app) {
+        final TokenBucketFilter filter = (TokenBucketFilter) app.getFilter();
+        assertNotNull(filter);
+        assertEquals("level=INFO, rate=0.001, maxBurst=5, bucketKey=LOGGER", filter.toString());
+        final Logger first = context.getLogger("first");
+        final Logger second = context.getLogger("second");
+        for (int i = 0; i < 10; i++) {
+            first.info("first {}", i);
+            second.info("second {}", i);
+            first.warn("warning {}", i);
+        }
+        assertEquals(20, app.getEvents().size());
+    }
+}
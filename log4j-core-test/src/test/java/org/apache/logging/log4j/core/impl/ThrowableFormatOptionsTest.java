@@ -518,4 +518,28 @@ final class ThrowableFormatOptionsTest {
                 Strings.LINE_SEPARATOR,
                 Arrays.asList("package1", "package2"));
     }
+
+    /**
+     * Test {@code %throwable{dedup}} and {@code %throwable{dedup(seconds)}}
+     */
+    @Test
+    void testDedup() {
+        assertEquals(0, ThrowableFormatOptions.newInstance(null).getDeduplicationWindowSeconds());
+        assertEquals(60, ThrowableFormatOptions.newInstance(new String[] {"dedup"}).getDeduplicationWindowSeconds());
+        assertEquals(60, ThrowableFormatOptions.newInstance(new String[] {"DEDUP"}).getDeduplicationWindowSeconds());
+        assertEquals(
+                30, ThrowableFormatOptions.newInstance(new String[] {"dedup(30)"}).getDeduplicationWindowSeconds());
+        assertEquals(
+                30, ThrowableFormatOptions.newInstance(new String[] {"Dedup(30)"}).getDeduplicationWindowSeconds());
+    }
+
+    /**
+     * Test {@code %throwable{dedup(seconds)}} with an invalid window
+     */
+    @Test
+    void testDedupWithInvalidWindow() {
+        assertEquals(0, ThrowableFormatOptions.newInstance(new String[] {"dedup(0)"}).getDeduplicationWindowSeconds());
+        assertEquals(0, ThrowableFormatOptions.newInstance(new String[] {"dedup(-5)"}).getDeduplicationWindowSeconds());
+        assertEquals(0, ThrowableFormatOptions.newInstance(new String[] {"dedup(x)"}).getDeduplicationWindowSeconds());
+    }
 }
@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.time.MutableInstant;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.junit.jupiter.api.Test;
+
+class OtlpLayoutTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    private static final String SPAN_ID = "00f067aa0ba902b7";
+
+    @Test
+    void log_record_should_be_encoded() {
+        final OtlpLayout layout = OtlpLayout.newBuilder().build();
+        final byte[] bytes = layout.toByteArray(createEvent());
+
+        // Verify the length prefix.
+        final Reader reader = new Reader(bytes);
+        assertThat(reader.readVarint()).isEqualTo(bytes.length - 2);
+        final Map<Integer, List<Object>> logRecord = reader.readMessage(bytes.length - 2);
+        assertLogRecord(logRecord);
+    }
+
+    @Test
+    void export_request_should_be_encoded() {
+        final OtlpLayout layout = OtlpLayout.newBuilder()
+                .setLengthDelimited(false)
+                .setExportRequest(true)
+                .setServiceName("checkout")
+                .build();
+        final LogEvent event = createEvent();
+        final byte[] bytes = layout.toByteArray(event);
+        final Map<Integer, List<Object>> request = new Reader(bytes).readMessage(bytes.length);
+        final Map<Integer, List<Object>> resourceLogs = decode(request.get(1).get(0));
+        final Map<Integer, List<Object>> resource = decode(resourceLogs.get(1).get(0));
+        assertThat(decodeAttributes(resource.get(1))).containsEntry("service.name", "checkout");
+        final Map<Integer, List<Object>> scopeLogs = decode(resourceLogs.get(2).get(0));
+        final Map<Integer, List<Object>> scope = decode(scopeLogs.get(1).get(0));
+        assertThat(decodeString(scope.get(1).get(0))).isEqualTo("org.example.Checkout");
+        assertLogRecord(decode(scopeLogs.get(2).get(0)));
+    }
+
+    @Test
+    void export_request_should_be_encoded_without_logger_name() {
+        final OtlpLayout layout = OtlpLayout.newBuilder()
+                .setLengthDelimited(false)
+                .setExportRequest(true)
+                .build();
+        final LogEvent event = new Log4jLogEvent.Builder(createEvent()).setLoggerName(null).build();
+        final byte[] bytes = layout.toByteArray(event);
+        final Map<Integer, List<Object>> request = new Reader(bytes).readMessage(bytes.length);
+        final Map<Integer, List<Object>> resourceLogs = decode(request.get(1).get(0));
+        final Map<Integer, List<Object>> scopeLogs = decode(resourceLogs.get(2).get(0));
+        assertThat(decode(scopeLogs.get(1).get(0))).isEmpty();
+        assertLogRecord(decode(scopeLogs.get(2).get(0)));
+    }
+
+    @Test
+    void encode_should_match_toByteArray() {
+        final OtlpLayout layout = OtlpLayout.newBuilder().build();
+        final LogEvent event = createEvent();
+        final SpyByteBufferDestination destination = new SpyByteBufferDestination(64, 65536);
+        layout.encode(event, destination);
+        destination.drain(destination.getByteBuffer());
+        final byte[] encoded = new byte[destination.drained.position()];
+        destination.drained.flip();
+        destination.drained.get(encoded);
+        assertThat(encoded).isEqualTo(layout.toByteArray(event));
+    }
+
+    @Test
+    void severity_number_should_be_mapped() {
+        assertThat(OtlpLayout.toSeverityNumber(Level.FATAL)).isEqualTo(21);
+        assertThat(OtlpLayout.toSeverityNumber(Level.ERROR)).isEqualTo(17);
+        assertThat(OtlpLayout.toSeverityNumber(Level.WARN)).isEqualTo(13);
+        assertThat(OtlpLayout.toSeverityNumber(Level.INFO)).isEqualTo(9);
+        assertThat(OtlpLayout.toSeverityNumber(Level.DEBUG)).isEqualTo(5);
+        assertThat(OtlpLayout.toSeverityNumber(Level.TRACE)).isEqualTo(1);
+    }
+
+    private static LogEvent createEvent() {
+        final MutableInstant instant = new MutableInstant();
+        instant.initFromEpochSecond(1_700_000_000L, 123_456_789);
+        final SortedArrayStringMap contextData = new SortedArrayStringMap();
+        contextData.putValue("trace_id", TRACE_ID);
+        contextData.putValue("span_id", SPAN_ID);
+        contextData.putValue("trace_flags", "01");
+        contextData.putValue("user", "élodie");
+        contextData.putValue("attempt", 3);
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName("org.example.Checkout")
+                .setLevel(Level.WARN)
+                .setMessage(new SimpleMessage("payment declined"))
+                .setInstant(instant)
+                .setContextData(contextData)
+                .setThreadName("worker-1")
+                .setThreadId(42)
+                .setThrown(new IllegalStateException("card expired"))
+                .build();
+    }
+
+    private static void assertLogRecord(final Map<Integer, List<Object>> logRecord) {
+        final long timeUnixNano = 1_700_000_000_123_456_789L;
+        assertThat(logRecord.get(1)).containsExactly(timeUnixNano);
+        assertThat(logRecord.get(11)).containsExactly(timeUnixNano);
+        assertThat(logRecord.get(2)).containsExactly(13L);
+        assertThat(decodeString(logRecord.get(3).get(0))).isEqualTo("WARN");
+        final Map<Integer, List<Object>> body = decode(logRecord.get(5).get(0));
+        assertThat(decodeString(body.get(1).get(0))).isEqualTo("payment declined");
+        assertThat(logRecord.get(8)).containsExactly(1);
+        assertThat(toHex((byte[]) logRecord.get(9).get(0))).isEqualTo(TRACE_ID);
+        assertThat(toHex((byte[]) logRecord.get(10).get(0))).isEqualTo(SPAN_ID);
+        final Map<String, Object> attributes = decodeAttributes(logRecord.get(6));
+        assertThat(attributes)
+                .containsEntry("user", "élodie")
+                .containsEntry("attempt", 3L)
+                .containsEntry("thread.name", "worker-1")
+                .containsEntry("thread.id", 42L)
+                .containsEntry("exception.type", IllegalStateException.class.getName())
+                .containsEntry("exception.message", "card expired")
+                .doesNotContainKeys("trace_id", "span_id", "trace_flags");
+        assertThat((String) attributes.get("exception.stacktrace"))
+                .startsWith("java.lang.IllegalStateException: card expired");
+    }
+
+    private static Map<String, Object> decodeAttributes(final List<Object> keyValues) {
+        final Map<String, Object> attributes = new LinkedHashMap<>();
+        for (final Object keyValue : keyValues) {
+            final Map<Integer, List<Object>> fields = decode(keyValue);
+            final String key = decodeString(fields.get(1).get(0));
+            final Map<Integer, List<Object>> value = decode(fields.get(2).get(0));
+            final Map.Entry<Integer, List<Object>> entry = value.entrySet().iterator().next();
+            final Object decodedValue =
+                    entry.getKey() == 1 ? decodeString(entry.getValue().get(0)) : entry.getValue().get(0);
+            attributes.put(key, decodedValue);
+        }
+        return attributes;
+    }
+
+    private static Map<Integer, List<Object>> decode(final Object bytes) {
+        final byte[] message = (byte[]) bytes;
+        return new Reader(message).readMessage(message.length);
+    }
+
+    private static String decodeString(final Object bytes) {
+        return new String((byte[]) bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String toHex(final byte[] bytes) {
+        final StringBuilder builder = new StringBuilder();
+        for (final byte b : bytes) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Minimal Protocol Buffers wire format reader.
+     */
+    private static final class Reader {
+
+        private final byte[] bytes;
+
+        private int position;
+
+        private Reader(final byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private Map<Integer, List<Object>> readMessage(final int length) {
+            final int end = position + length;
+            final Map<Integer, List<Object>> fields = new LinkedHashMap<>();
+            while (position < end) {
+                final int tag = (int) readVarint();
+                final Object value;
+                switch (tag & 7) {
+                    case 0:
+                        value = readVarint();
+                        break;
+                    case 1:
+                        value = readFixed(8);
+                        break;
+                    case 2:
+                        final int valueLength = (int) readVarint();
+                        final byte[] valueBytes = new byte[valueLength];
+                        System.arraycopy(bytes, position, valueBytes, 0, valueLength);
+                        position += valueLength;
+                        value = valueBytes;
+                        break;
+                    case 5:
+                        value = (int) readFixed(4);
+                        break;
+                    default:
+                        throw new IllegalStateException("unexpected wire type: " + tag);
+                }
+                fields.computeIfAbsent(tag >>> 3, ignored -> new ArrayList<>()).add(value);
+            }
+            assertThat(position).isEqualTo(end);
+            return fields;
+        }
+
+        private long readVarint() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                final byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        private long readFixed(final int byteCount) {
+            long value = 0;
+            for (int i = 0; i < byteCount; i++) {
+                value |= (long) (bytes[position++] & 0xFF) << (8 * i);
+            }
+            return value;
+        }
+    }
+}
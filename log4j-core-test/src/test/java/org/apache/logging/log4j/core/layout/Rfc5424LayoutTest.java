@@ -873,8 +873,7 @@ class Rfc5424LayoutTest {
         Rfc5424Layout layout = buildRfc5424Layout(attributes);
 
         assertThat(layout.isIncludeNewLine()).isTrue();
-        // The field contains Matcher.quote() escaped value, so we expect the backslash to be escaped.
-        assertThat(layout.getEscapeNewLine()).isEqualTo("\\\\n");
+        assertThat(layout.getEscapeNewLine()).isEqualTo(NEW_LINE_ESCAPE);
         assertThat(layout.isUseTlsMessageFormat()).isTrue();
         assertThat(layout.getMdcRequired()).containsExactly("key1", "key2", "locale");
     }
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class SyslogLayoutHelperTest {
+
+    @Test
+    void escapeNewLines_should_replace_LF_and_CRLF() {
+        final StringBuilder buffer = new StringBuilder("prefix\na\r\nb\n\nc\r");
+        SyslogLayoutHelper.escapeNewLines(buffer, 6, "\\n");
+        assertThat(buffer).hasToString("prefix\\na\\nb\\n\\nc\r");
+    }
+
+    @Test
+    void escapeNewLines_should_not_touch_text_before_the_start_index() {
+        final StringBuilder buffer = new StringBuilder("a\r\nb\r\nc");
+        SyslogLayoutHelper.escapeNewLines(buffer, 2, "#");
+        assertThat(buffer).hasToString("a\r#b#c");
+    }
+
+    @Test
+    void escapeNewLines_should_be_disabled_without_replacement() {
+        final StringBuilder buffer = new StringBuilder("a\nb");
+        SyslogLayoutHelper.escapeNewLines(buffer, 0, null);
+        assertThat(buffer).hasToString("a\nb");
+    }
+}
@@ -50,4 +50,22 @@ class RegexReplacementConverterTest {
                         + Strings.LINE_SEPARATOR,
                 sb.toString());
     }
+
+    @Test
+    void testReplacementWithLinearEngine() {
+        final LogEvent event = Log4jLogEvent.newBuilder() //
+                .setLoggerName(RegexReplacementConverterTest.class.getName()) //
+                .setLevel(Level.DEBUG) //
+                .setMessage(new SimpleMessage("card=4111111111111111 user=jdoe")) //
+                .build();
+        final StringBuilder sb = new StringBuilder();
+        final LoggerContext ctx = LoggerContext.getContext();
+        final String[] options = new String[] {"%msg", "(card=)\\d{12}(\\d{4})", "$1************$2", "linear"};
+        final RegexReplacementConverter converter =
+                RegexReplacementConverter.newInstance(ctx.getConfiguration(), options);
+        assertNotNull(converter);
+        converter.format(event, sb);
+        assertEquals("card=************1111 user=jdoe", sb.toString());
+    }
 }
+
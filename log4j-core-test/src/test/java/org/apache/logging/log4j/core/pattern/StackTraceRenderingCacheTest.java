@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.pattern;
+
+import static org.apache.logging.log4j.util.Strings.LINE_SEPARATOR;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import foo.TestFriendlyException;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Verifies that {@link StackTraceRenderingCache} doesn't alter the output of {@link ThrowableStackTraceRenderer}s.
+ */
+class StackTraceRenderingCacheTest {
+
+    private static final Throwable EXCEPTION = TestFriendlyException.INSTANCE;
+
+    private interface RendererFactory {
+
+        ThrowableStackTraceRenderer<?> create(List<String> ignoredPackageNames, int maxLineCount, int cacheSize);
+    }
+
+    static Stream<RendererFactory> rendererFactories() {
+        return Stream.of(
+                ThrowableStackTraceRenderer::new,
+                ThrowableExtendedStackTraceRenderer::new,
+                ThrowableInvertedStackTraceRenderer::new);
+    }
+
+    @ParameterizedTest
+    @MethodSource("rendererFactories")
+    void cached_output_should_match_uncached_output(final RendererFactory rendererFactory) {
+        final List<String> ignoredPackageNames = Collections.singletonList("org.junit");
+        for (final int maxLineCount : new int[] {Integer.MAX_VALUE, 20, 10, 5, 3, 2, 1}) {
+            final ThrowableStackTraceRenderer<?> uncachedRenderer =
+                    rendererFactory.create(ignoredPackageNames, maxLineCount, 0);
+            final ThrowableStackTraceRenderer<?> cachedRenderer =
+                    rendererFactory.create(ignoredPackageNames, maxLineCount, 64);
+            for (final String lineSeparator : new String[] {LINE_SEPARATOR, "#", LINE_SEPARATOR}) {
+                final String expectedOutput = render(uncachedRenderer, EXCEPTION, lineSeparator);
+                // Render multiple times to exercise both misses and hits
+                for (int attempt = 0; attempt < 3; attempt++) {
+                    assertThat(render(cachedRenderer, EXCEPTION, lineSeparator))
+                            .as("maxLineCount=%d, lineSeparator=`%s`, attempt=%d", maxLineCount, lineSeparator, attempt)
+                            .isEqualTo(expectedOutput);
+                }
+            }
+        }
+    }
+
+    @Test
+    void cached_output_should_not_exceed_line_capacity() {
+
+        // Create exceptions of different depths sharing the same cause stack trace
+        final StackTraceElement[] causeStackTrace = stackTrace("cause", 3);
+        final Throwable shallowException = createException("shallow", stackTrace("shallow", 1), causeStackTrace);
+        final Throwable deepException = createException("deep", stackTrace("deep", 4), causeStackTrace);
+
+        // Render the shallow exception to cache the rendering of the cause, which fits into the line capacity.
+        // The cause rendering of the deep exception exceeds the line capacity, though.
+        final int maxLineCount = 7;
+        final ThrowableStackTraceRenderer<?> cachedRenderer =
+                new ThrowableStackTraceRenderer<>(Collections.emptyList(), maxLineCount, 64);
+        final ThrowableStackTraceRenderer<?> uncachedRenderer =
+                new ThrowableStackTraceRenderer<>(Collections.emptyList(), maxLineCount, 0);
+        assertThat(render(cachedRenderer, shallowException, LINE_SEPARATOR))
+                .isEqualTo(render(uncachedRenderer, shallowException, LINE_SEPARATOR));
+        final String deepOutput = render(cachedRenderer, deepException, LINE_SEPARATOR);
+        assertThat(deepOutput).isEqualTo(render(uncachedRenderer, deepException, LINE_SEPARATOR));
+        assertThat(deepOutput.split(LINE_SEPARATOR)).hasSize(maxLineCount);
+    }
+
+    @Test
+    void messages_should_not_be_cached() {
+        final ThrowableStackTraceRenderer<?> cachedRenderer =
+                new ThrowableStackTraceRenderer<>(Collections.emptyList(), Integer.MAX_VALUE, 64);
+        final ThrowableStackTraceRenderer<?> uncachedRenderer =
+                new ThrowableStackTraceRenderer<>(Collections.emptyList(), Integer.MAX_VALUE, 0);
+        for (int exceptionIndex = 0; exceptionIndex < 3; exceptionIndex++) {
+            // Exceptions sharing the same stack trace, but with different messages
+            final Throwable exception = createException("message-" + exceptionIndex);
+            final String output = render(cachedRenderer, exception, LINE_SEPARATOR);
+            assertThat(output)
+                    .startsWith(exception.toString())
+                    .isEqualTo(render(uncachedRenderer, exception, LINE_SEPARATOR));
+        }
+    }
+
+    private static Throwable createException(final String message) {
+        return new IllegalStateException(message, new IllegalArgumentException(message));
+    }
+
+    private static Throwable createException(
+            final String message, final StackTraceElement[] stackTrace, final StackTraceElement[] causeStackTrace) {
+        final Throwable cause = new IllegalArgumentException(message);
+        cause.setStackTrace(causeStackTrace);
+        final Throwable exception = new IllegalStateException(message, cause);
+        exception.setStackTrace(stackTrace);
+        return exception;
+    }
+
+    private static StackTraceElement[] stackTrace(final String className, final int depth) {
+        final StackTraceElement[] stackTrace = new StackTraceElement[depth];
+        for (int i = 0; i < depth; i++) {
+            stackTrace[i] = new StackTraceElement("bar." + className, "method" + i, className + ".java", i);
+        }
+        return stackTrace;
+    }
+
+    private static String render(
+            final ThrowableStackTraceRenderer<?> renderer, final Throwable exception, final String lineSeparator) {
+        final StringBuilder buffer = new StringBuilder();
+        renderer.renderThrowable(buffer, exception, lineSeparator);
+        return buffer.toString();
+    }
+}
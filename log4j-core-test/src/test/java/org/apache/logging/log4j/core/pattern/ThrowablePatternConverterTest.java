@@ -441,6 +441,48 @@ public class ThrowablePatternConverterTest {
             assertThat(stackTrace).as("pattern=`%s`", effectivePattern).isEmpty();
         }
 
+        @Test
+        void dedup_output_should_reference_the_first_occurrence() {
+
+            // Create the formatter
+            final String pattern = patternPrefix + "{dedup(60)}";
+            final List<PatternFormatter> patternFormatters = PATTERN_PARSER.parse(pattern, false, true, true);
+            assertThat(patternFormatters).hasSize(1);
+            final PatternFormatter patternFormatter = patternFormatters.get(0);
+
+            // Format the same exception at different times
+            final String firstOutput = format(patternFormatter, 1_000_000);
+            final String secondOutput = format(patternFormatter, 1_001_000);
+            final String thirdOutput = format(patternFormatter, 1_059_999);
+            final String expiredOutput = format(patternFormatter, 1_060_000);
+
+            // Verify the first occurrence
+            final String fullOutput = convert(patternPrefix);
+            assertThat(firstOutput).as("pattern=`%s`", pattern).matches("(?s)\\[#[0-9a-f]{6}] .*");
+            final String id = firstOutput.substring(1, 8);
+            assertThat(firstOutput).endsWith(fullOutput).hasSize(fullOutput.length() + 10);
+
+            // Verify the subsequent occurrences
+            final String expectedReferencePrefix = "[same as " + id + ", seen ";
+            final String expectedReferenceSuffix = " times] " + EXCEPTION + LINE_SEPARATOR;
+            assertThat(secondOutput).isEqualTo(expectedReferencePrefix + 2 + expectedReferenceSuffix);
+            assertThat(thirdOutput).isEqualTo(expectedReferencePrefix + 3 + expectedReferenceSuffix);
+
+            // Verify the occurrence after the window has expired
+            assertThat(expiredOutput).isEqualTo(firstOutput);
+        }
+
+        private static String format(final PatternFormatter patternFormatter, final long timeMillis) {
+            final LogEvent logEvent = Log4jLogEvent.newBuilder()
+                    .setThrown(EXCEPTION)
+                    .setLevel(LEVEL)
+                    .setTimeMillis(timeMillis)
+                    .build();
+            final StringBuilder buffer = new StringBuilder();
+            patternFormatter.format(logEvent, buffer);
+            return buffer.toString();
+        }
+
         void assertStackTraceLines(
                 @Nullable final DepthTestCase depthTestCase,
                 final String pattern,
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import javax.script.SimpleBindings;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.junit.jupiter.api.Test;
+
+class ScriptBindingsRecyclerTest {
+
+    private static final String KEY_LOG_EVENT = "logEvent";
+
+    private final Configuration configuration = createConfiguration();
+
+    private static Configuration createConfiguration() {
+        final DefaultConfiguration configuration = new DefaultConfiguration();
+        configuration.getProperties().put("appName", "test");
+        return configuration;
+    }
+
+    @Test
+    void bindings_contain_configuration_properties() {
+        final ScriptBindingsRecycler recycler = new ScriptBindingsRecycler(configuration, KEY_LOG_EVENT);
+        final SimpleBindings bindings = recycler.acquire();
+        assertEquals("test", bindings.get("appName"));
+        assertSame(configuration.getStrSubstitutor(), bindings.get("substitutor"));
+    }
+
+    @Test
+    void bindings_are_reused_without_event_values() {
+        final ScriptBindingsRecycler recycler = new ScriptBindingsRecycler(configuration, KEY_LOG_EVENT);
+        final SimpleBindings bindings = recycler.acquire();
+        bindings.put(KEY_LOG_EVENT, new Object());
+        recycler.release(bindings);
+
+        final SimpleBindings reused = recycler.acquire();
+        assertSame(bindings, reused);
+        assertNull(reused.get(KEY_LOG_EVENT));
+        assertEquals("test", reused.get("appName"));
+    }
+
+    @Test
+    void recursive_calls_get_different_bindings() {
+        final ScriptBindingsRecycler recycler = new ScriptBindingsRecycler(configuration, KEY_LOG_EVENT);
+        recycler.release(recycler.acquire());
+
+        final SimpleBindings outer = recycler.acquire();
+        final SimpleBindings inner = recycler.acquire();
+        assertNotSame(outer, inner);
+        recycler.release(inner);
+        recycler.release(outer);
+    }
+
+    @Test
+    void bindings_with_script_variables_are_discarded() {
+        final ScriptBindingsRecycler recycler = new ScriptBindingsRecycler(configuration, KEY_LOG_EVENT);
+        final SimpleBindings bindings = recycler.acquire();
+        bindings.put(KEY_LOG_EVENT, new Object());
+        bindings.put("counter", 1);
+        recycler.release(bindings);
+
+        final SimpleBindings fresh = recycler.acquire();
+        assertNotSame(bindings, fresh);
+        assertNull(fresh.get("counter"));
+    }
+
+    @Test
+    void replaced_configuration_values_are_restored() {
+        final ScriptBindingsRecycler recycler = new ScriptBindingsRecycler(configuration, KEY_LOG_EVENT);
+        final SimpleBindings bindings = recycler.acquire();
+        bindings.put("appName", "changed");
+        bindings.remove("substitutor");
+        recycler.release(bindings);
+
+        final SimpleBindings reused = recycler.acquire();
+        assertSame(bindings, reused);
+        assertEquals("test", reused.get("appName"));
+        assertSame(configuration.getStrSubstitutor(), reused.get("substitutor"));
+    }
+
+    @Test
+    void bindings_are_not_reused_after_stop() {
+        final ScriptBindingsRecycler recycler = new ScriptBindingsRecycler(configuration, KEY_LOG_EVENT);
+        final SimpleBindings bindings = recycler.acquire();
+        recycler.release(bindings);
+        recycler.stop();
+
+        final SimpleBindings fresh = recycler.acquire();
+        assertNotSame(bindings, fresh);
+        recycler.release(fresh);
+        assertNotSame(fresh, recycler.acquire());
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+import org.junit.jupiter.api.Test;
+
+class StringBuilderRecyclerTest {
+
+    @Test
+    void nested_acquisitions_should_get_distinct_builders() {
+        final StringBuilder outer = StringBuilderRecycler.acquire();
+        try {
+            outer.append("outer");
+            final StringBuilder inner = StringBuilderRecycler.acquire();
+            try {
+                assertNotSame(outer, inner);
+                assertEquals(0, inner.length());
+                inner.append("inner");
+            } finally {
+                StringBuilderRecycler.release(inner);
+            }
+            assertEquals("outer", outer.toString());
+        } finally {
+            StringBuilderRecycler.release(outer);
+        }
+    }
+
+    @Test
+    void released_builders_should_be_empty() {
+        final StringBuilder builder = StringBuilderRecycler.acquire();
+        builder.append("foo");
+        StringBuilderRecycler.release(builder);
+        final StringBuilder recycledBuilder = StringBuilderRecycler.acquire();
+        try {
+            assertEquals(0, recycledBuilder.length());
+        } finally {
+            StringBuilderRecycler.release(recycledBuilder);
+        }
+    }
+}
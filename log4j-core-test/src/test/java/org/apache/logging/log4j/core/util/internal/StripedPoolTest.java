@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class StripedPoolTest {
+
+    @Test
+    void stripe_count_should_be_rounded_up_to_a_power_of_two() {
+        assertThat(new StripedPool<>(1, 1).getStripeCount()).isEqualTo(1);
+        assertThat(new StripedPool<>(3, 1).getStripeCount()).isEqualTo(4);
+        assertThat(new StripedPool<>(8, 1).getStripeCount()).isEqualTo(8);
+    }
+
+    @Test
+    void offered_instances_should_be_polled_until_the_pool_is_empty() {
+        final StripedPool<Object> pool = new StripedPool<>(2, 2);
+        final Object first = new Object();
+        final Object second = new Object();
+        assertThat(pool.offer(first)).isTrue();
+        assertThat(pool.offer(second)).isTrue();
+        final List<Object> polledInstances = new ArrayList<>();
+        polledInstances.add(pool.poll());
+        polledInstances.add(pool.poll());
+        assertThat(polledInstances).containsExactlyInAnyOrder(first, second);
+        assertThat(pool.poll()).isNull();
+    }
+
+    @Test
+    void offer_should_fail_when_the_pool_is_full() {
+        final StripedPool<Object> pool = new StripedPool<>(2, 1);
+        assertThat(pool.offer(new Object())).isTrue();
+        assertThat(pool.offer(new Object())).isTrue();
+        assertThat(pool.offer(new Object())).isFalse();
+    }
+
+    @Test
+    void drain_should_take_all_instances() {
+        final StripedPool<Object> pool = new StripedPool<>(4, 2);
+        final List<Object> offeredInstances = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            final Object instance = new Object();
+            assertThat(pool.offer(instance)).isTrue();
+            offeredInstances.add(instance);
+        }
+        final List<Object> drainedInstances = new ArrayList<>();
+        pool.drain(drainedInstances::add);
+        assertThat(drainedInstances).containsExactlyInAnyOrderElementsOf(offeredInstances);
+        assertThat(pool.poll()).isNull();
+    }
+}
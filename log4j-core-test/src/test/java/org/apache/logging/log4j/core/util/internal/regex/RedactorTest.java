@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util.internal.regex;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class RedactorTest {
+
+    private static String redact(final Redactor redactor, final String input) {
+        final StringBuilder output = new StringBuilder();
+        redactor.redact(input, output);
+        return output.toString();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "'', ''",
+        "nothing to see, nothing to see",
+        "password=hunter2 ok, password=*** ok",
+        "card 4111111111111111 used, card 4111********1111 used",
+        "token s3cr3t and s3cr3t, token *** and ***",
+        "password=s3cr3t, password=***",
+        "s3cr3tpassword=x, ***password=***"
+    })
+    void redact_should_apply_all_rules(final String input, final String expectedOutput) {
+        final Redactor redactor = Redactor.compile(Arrays.asList(
+                Redactor.Rule.ofRegex("(password=)\\S+", "$1***"),
+                Redactor.Rule.ofRegex("\\b(?<first>\\d{4})\\d{8}(\\d{4})\\b", "${first}********$2"),
+                Redactor.Rule.ofLiteral("s3cr3t", "***")));
+        assertThat(redact(redactor, input)).isEqualTo(expectedOutput);
+    }
+
+    @Test
+    void redact_should_prefer_leftmost_then_first_declared_rule() {
+        final Redactor redactor = Redactor.compile(Arrays.asList(
+                Redactor.Rule.ofLiteral("bcd", "<1>"),
+                Redactor.Rule.ofLiteral("abc", "<2>"),
+                Redactor.Rule.ofLiteral("bc", "<3>")));
+        assertThat(redact(redactor, "abcd bcd bc")).isEqualTo("<2>d <1> <3>");
+    }
+
+    @Test
+    void redact_should_match_sequential_replacement_for_disjoint_rules() {
+        final List<String> regexes = new ArrayList<>();
+        final List<Redactor.Rule> rules = new ArrayList<>();
+        for (int ruleIndex = 0; ruleIndex < 50; ruleIndex++) {
+            final String regex = "key" + ruleIndex + "=(\\w+)";
+            regexes.add(regex);
+            rules.add(Redactor.Rule.ofRegex(regex, "key" + ruleIndex + "=#"));
+        }
+        final StringBuilder inputBuilder = new StringBuilder();
+        for (int ruleIndex = 49; ruleIndex >= 0; ruleIndex--) {
+            inputBuilder.append("key").append(ruleIndex).append("=value").append(ruleIndex).append(' ');
+        }
+        final String input = inputBuilder.toString();
+        String expectedOutput = input;
+        for (final String regex : regexes) {
+            // Anchor on word boundaries, since `key1=` is a suffix of `key11=`
+            expectedOutput = Pattern.compile("\\b" + regex + "\\b")
+                    .matcher(expectedOutput)
+                    .replaceAll(Matcher.quoteReplacement(regex.substring(0, regex.indexOf('=') + 1) + "#"));
+        }
+        final Redactor redactor = Redactor.compile(rules);
+        assertThat(redact(redactor, input)).isEqualTo(expectedOutput);
+    }
+
+    @Test
+    void literal_rules_should_be_matched_as_is() {
+        final Redactor redactor = Redactor.compile(Arrays.asList(
+                Redactor.Rule.ofLiteral("a.b\\E(", "$1"), Redactor.Rule.ofLiteral("(?i)", "\\")));
+        assertThat(redact(redactor, "axb a.b\\E( (?i)")).isEqualTo("axb $1 \\");
+    }
+
+    @Test
+    void inline_flags_should_be_scoped_to_their_rule() {
+        final Redactor redactor = Redactor.compile(
+                Arrays.asList(Redactor.Rule.ofRegex("(?i)secret", "#"), Redactor.Rule.ofRegex("token", "#")));
+        assertThat(redact(redactor, "SECRET TOKEN token")).isEqualTo("# TOKEN #");
+    }
+
+    @Test
+    void compile_should_fail_on_invalid_rules() {
+        assertThatThrownBy(() -> Redactor.compile(Collections.emptyList()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Redactor.compile(Collections.singletonList(Redactor.Rule.ofRegex("(a)\\1", "#"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("invalid rule");
+        assertThatThrownBy(() -> Redactor.compile(Collections.singletonList(Redactor.Rule.ofRegex("(a)", "$2"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("invalid rule");
+        assertThatThrownBy(() -> Redactor.compile(Arrays.asList(
+                        Redactor.Rule.ofRegex("(?<name>a)", "#"), Redactor.Rule.ofRegex("(?<name>b)", "#"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("already defined");
+        assertThatThrownBy(() -> Redactor.Rule.ofLiteral("", "#")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util.internal.regex;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class RegexEnginesTest {
+
+    private static final String[] REGEXES = {
+        "",
+        "a",
+        "a*",
+        "a+b",
+        "x?y??z",
+        "colou?r",
+        "a{2,3}",
+        "a{2,}?",
+        "(a|ab)(c|bcd)(d*)",
+        "(a|b)*?c",
+        "((a)|b)+",
+        "(a)|(b)",
+        "a|",
+        "|b",
+        "\\d{3}-\\d{4}",
+        "\\d+(?:\\.\\d+)?",
+        "(?<integer>\\d+)\\.(\\d+)",
+        "[^a-c]+",
+        "[A-Fa-f0-9]{2}",
+        "[\\w.]+@[\\w.]+",
+        "[-a]",
+        "[a-]",
+        "\\s+",
+        "[^\\s]+",
+        "a.b",
+        "(?s)a.b",
+        ".*line.*",
+        "(?xs).*line.*",
+        "(?i)hello",
+        "(?i:ab)c",
+        "^abc$",
+        "(?m)^a",
+        "$",
+        "\\Z",
+        "\\bfoo\\b",
+        "\\B",
+        "\\Qa.b\\E",
+        "\\x41\\u0042",
+        "(a+)+b",
+        "4[0-9]{12}(?:[0-9]{3})?"
+    };
+
+    private static final String[] REPLACEMENTS = {"", "<$0>", "\\$"};
+
+    static List<Arguments> testCases() {
+        final List<String> inputs = new ArrayList<>(Arrays.asList(
+                "",
+                "a",
+                "ab",
+                "abcd",
+                "aaab",
+                "123-4567",
+                "12.34",
+                "HeLLo",
+                "foo bar",
+                "colour color",
+                "test single line matches",
+                "test multi line\nsome more",
+                "abc\n",
+                "john.doe@example.com",
+                "4111111111111111"));
+        final Random random = new Random(0);
+        final String alphabet = "aabbcdxyz01234.-@ \n\rlineABC_";
+        for (int i = 0; i < 50; i++) {
+            final StringBuilder input = new StringBuilder();
+            final int length = random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            inputs.add(input.toString());
+        }
+        final List<Arguments> testCases = new ArrayList<>();
+        for (final String regex : REGEXES) {
+            for (final String input : inputs) {
+                testCases.add(Arguments.of(regex, input));
+            }
+        }
+        return testCases;
+    }
+
+    @ParameterizedTest
+    @MethodSource("testCases")
+    void engines_should_agree_with_Pattern(final String regex, final String input) {
+        final Pattern pattern = Pattern.compile(regex);
+        for (final String engineName : new String[] {RegexEngines.JDK, RegexEngines.LINEAR}) {
+            final CompiledRegex compiledRegex = RegexEngines.getEngine(engineName).compile(regex);
+            assertThat(compiledRegex.matches(input))
+                    .as("engine `%s` matching `%s` against `%s`", engineName, input, regex)
+                    .isEqualTo(pattern.matcher(input).matches());
+            assertThat(compiledRegex.find(input))
+                    .as("engine `%s` finding `%s` in `%s`", engineName, regex, input)
+                    .isEqualTo(pattern.matcher(input).find());
+            final List<String> replacements = new ArrayList<>(Arrays.asList(REPLACEMENTS));
+            if (pattern.matcher("").groupCount() > 0) {
+                replacements.add("{$1}");
+            }
+            for (final String replacement : replacements) {
+                final StringBuilder output = new StringBuilder("prefix:");
+                compiledRegex.replaceAll(
+                        new StringBuilder(input), compiledRegex.compileReplacement(replacement), output);
+                assertThat(output.toString())
+                        .as("engine `%s` replacing `%s` with `%s` in `%s`", engineName, regex, replacement, input)
+                        .isEqualTo("prefix:" + pattern.matcher(input).replaceAll(replacement));
+            }
+        }
+    }
+
+    @Test
+    void linear_engine_should_not_backtrack() {
+        final CompiledRegex compiledRegex = RegexEngines.getEngine(RegexEngines.LINEAR).compile("(a+)+b");
+        final StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            input.append('a');
+        }
+        assertThat(compiledRegex.matches(input)).isFalse();
+        assertThat(compiledRegex.find(input)).isFalse();
+    }
+
+    @Test
+    void linear_engine_should_resolve_named_groups() {
+        final CompiledRegex compiledRegex =
+                RegexEngines.getEngine(RegexEngines.LINEAR).compile("(?<key>\\w+)=(?<value>\\w+)");
+        final StringBuilder output = new StringBuilder();
+        compiledRegex.replaceAll("a=1, b=2", compiledRegex.compileReplacement("${value}:${key}"), output);
+        assertThat(output).hasToString("1:a, 2:b");
+        assertThatThrownBy(() -> compiledRegex.compileReplacement("${missing}"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> compiledRegex.compileReplacement("$3")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {"a\\1", "(?=a)", "(?!a)", "(?<=a)b", "(?>a)", "a*+", "[a-z&&[^x]]", "\\p{Alpha}", "(a", "a)"})
+    void linear_engine_should_reject_unsupported_syntax(final String regex) {
+        final RegexEngine engine = RegexEngines.getEngine(RegexEngines.LINEAR);
+        assertThatThrownBy(() -> engine.compile(regex)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void getEngine_should_resolve_names() {
+        assertThat(RegexEngines.getEngine(null).getName()).isEqualTo(RegexEngines.JDK);
+        assertThat(RegexEngines.getEngine(" ").getName()).isEqualTo(RegexEngines.JDK);
+        assertThat(RegexEngines.getEngine("JDK").getName()).isEqualTo(RegexEngines.JDK);
+        assertThat(RegexEngines.getEngine("Linear").getName()).isEqualTo(RegexEngines.LINEAR);
+        assertThatThrownBy(() -> RegexEngines.getEngine("com.example.MissingEngine"))
+                .isInstanceOf(IllegalArgumentException.class);
+        // Only the built-in engines can be selected
+        assertThatThrownBy(() -> RegexEngines.getEngine(JdkRegexEngine.class.getName()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util.internal.throwable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class ThrowableDeduplicatorTest {
+
+    @Test
+    void fingerprint_should_ignore_messages() {
+        final Exception[] exceptions = new Exception[2];
+        for (int i = 0; i < exceptions.length; i++) {
+            exceptions[i] = new IllegalStateException("message " + i);
+        }
+        assertThat(ThrowableDeduplicator.fingerprint(exceptions[0]))
+                .isEqualTo(ThrowableDeduplicator.fingerprint(exceptions[1]));
+    }
+
+    @Test
+    void fingerprint_should_distinguish_stack_traces() {
+        final Exception exception1 = new IllegalStateException();
+        final Exception exception2 = new IllegalStateException();
+        assertThat(ThrowableDeduplicator.fingerprint(exception1))
+                .isNotEqualTo(ThrowableDeduplicator.fingerprint(exception2));
+    }
+
+    @Test
+    void fingerprint_should_distinguish_causes() {
+        final Exception[] exceptions = new Exception[2];
+        for (int i = 0; i < exceptions.length; i++) {
+            exceptions[i] = new IllegalStateException();
+        }
+        exceptions[1].initCause(new IllegalArgumentException());
+        assertThat(ThrowableDeduplicator.fingerprint(exceptions[0]))
+                .isNotEqualTo(ThrowableDeduplicator.fingerprint(exceptions[1]));
+    }
+
+    @Test
+    void fingerprint_should_support_circular_references() {
+        final Exception exception = new IllegalStateException();
+        final Exception cause = new IllegalArgumentException(exception);
+        exception.initCause(cause);
+        exception.addSuppressed(cause);
+        assertThat(ThrowableDeduplicator.fingerprint(exception)).isNotZero();
+    }
+
+    @Test
+    void fingerprint_should_be_stable_across_calls() {
+        final Exception exception = new IllegalStateException();
+        final Exception cause = new IllegalArgumentException(exception);
+        exception.initCause(cause);
+        exception.addSuppressed(cause);
+        final long fingerprint = ThrowableDeduplicator.fingerprint(exception);
+        // The visited throwables of the first call must not leak into the next ones
+        ThrowableDeduplicator.fingerprint(new IllegalStateException(cause));
+        assertThat(ThrowableDeduplicator.fingerprint(exception)).isEqualTo(fingerprint);
+    }
+
+    @Test
+    void register_should_count_occurrences_per_window() {
+        final ThrowableDeduplicator deduplicator = ThrowableDeduplicator.ofWindowSeconds(1);
+        assertThat(deduplicator.register(1, 0)).isEqualTo(1);
+        assertThat(deduplicator.register(1, 500)).isEqualTo(2);
+        assertThat(deduplicator.register(2, 500)).isEqualTo(1);
+        assertThat(deduplicator.register(1, 999)).isEqualTo(3);
+        assertThat(deduplicator.register(1, 1_000)).isEqualTo(1);
+        assertThat(deduplicator.register(1, 1_001)).isEqualTo(2);
+        assertThat(deduplicator.register(1, 500)).isEqualTo(3);
+        assertThat(deduplicator.register(1, 0)).isEqualTo(1);
+    }
+
+    @Test
+    void non_positive_window_should_fail() {
+        assertThatThrownBy(() -> ThrowableDeduplicator.ofWindowSeconds(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "0x0, 2, '[same as #000000, seen 2 times]'",
+        "0xa1b2c3, 4211, '[same as #a1b2c3, seen 4,211 times]'",
+        "0x7fa1b2c3, 1000000, '[same as #a1b2c3, seen 1,000,000 times]'",
+        "0x1, 12003004, '[same as #000001, seen 12,003,004 times]'"
+    })
+    void reference_should_be_rendered(final String fingerprint, final long occurrenceCount, final String expected) {
+        final StringBuilder buffer = new StringBuilder();
+        ThrowableDeduplicator.appendReference(buffer, Long.decode(fingerprint), occurrenceCount);
+        assertThat(buffer).hasToString(expected);
+    }
+}
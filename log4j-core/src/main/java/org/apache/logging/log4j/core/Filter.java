@@ -84,6 +84,33 @@ public interface Filter extends LifeCycle {
         }
     }
 
+    /**
+     * The parts of a log statement a filter uses to make its decision.
+     *
+     * @see #getMessageRequirement()
+     * @since 2.27.0
+     */
+    enum MessageRequirement {
+        /**
+         * The filter does not use the message, its parameters or throwable: all its filter methods, but
+         * {@link #filter(LogEvent)}, return the same result for the same logger, level and marker.
+         */
+        NONE,
+        /**
+         * The filter uses the message object or its format pattern, but does not format the message.
+         */
+        RAW_MESSAGE,
+        /**
+         * The filter only uses the formatted message: its result does not change if the message pattern and
+         * parameters are replaced by the formatted message.
+         */
+        FORMATTED_MESSAGE,
+        /**
+         * The filter makes no declaration.
+         */
+        UNKNOWN
+    }
+
     /**
      * Returns the result that should be returned when the filter does not match the event.
      * @return the Result that should be returned when the filter does not match the event.
@@ -95,6 +122,22 @@ public interface Filter extends LifeCycle {
      */
     Result getOnMatch();
 
+    /**
+     * Returns the parts of a log statement this filter uses.
+     * <p>
+     * Composite filters use this declaration to evaluate the filters that do not need the message first and to
+     * format the message at most once. A filter that declares any value but {@link MessageRequirement#UNKNOWN}
+     * must not have side effects. Unless it declares {@link MessageRequirement#NONE}, it must also only return
+     * {@link #getOnMatch()}, {@link #getOnMismatch()} or {@link Result#NEUTRAL}.
+     * </p>
+     *
+     * @return the parts of a log statement this filter uses, {@link MessageRequirement#UNKNOWN} by default.
+     * @since 2.27.0
+     */
+    default MessageRequirement getMessageRequirement() {
+        return MessageRequirement.UNKNOWN;
+    }
+
     /**
      * Filter an event.
      * @param logger The Logger.
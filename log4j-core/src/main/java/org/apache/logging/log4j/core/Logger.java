@@ -529,6 +529,14 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
             return config.getFilter() != null;
         }
 
+        /**
+         * Checks the level of the {@link LoggerConfig}, then its {@linkplain LoggerConfig#setContextLevel context level
+         * overrides}.
+         */
+        private boolean isLevelEnabled(final Level level) {
+            return level != null && (intLevel >= level.intLevel() || loggerConfig.isContextLevelEnabled(level));
+        }
+
         boolean filter(final Level level, final Marker marker, final String msg) {
             final Filter filter = config.getFilter();
             if (filter != null) {
@@ -537,7 +545,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                     return r == Filter.Result.ACCEPT;
                 }
             }
-            return level != null && intLevel >= level.intLevel();
+            return isLevelEnabled(level);
         }
 
         boolean filter(final Level level, final Marker marker, final String msg, final Throwable t) {
@@ -548,7 +556,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                     return r == Filter.Result.ACCEPT;
                 }
             }
-            return level != null && intLevel >= level.intLevel();
+            return isLevelEnabled(level);
         }
 
         boolean filter(final Level level, final Marker marker, final String msg, final Object... p1) {
@@ -559,7 +567,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                     return r == Filter.Result.ACCEPT;
                 }
             }
-            return level != null && intLevel >= level.intLevel();
+            return isLevelEnabled(level);
         }
 
         boolean filter(final Level level, final Marker marker, final String msg, final Object p0) {
@@ -570,7 +578,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                     return r == Filter.Result.ACCEPT;
                 }
             }
-            return level != null && intLevel >= level.intLevel();
+            return isLevelEnabled(level);
         }
 
         boolean filter(final Level level, final Marker marker, final String msg, final Object p0, final Object p1) {
@@ -581,7 +589,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                     return r == Filter.Result.ACCEPT;
                 }
             }
-            return level != null && intLevel >= level.intLevel();
+            return isLevelEnabled(level);
         }
 
         boolean filter(
@@ -598,7 +606,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                     return r == Filter.Result.ACCEPT;
                 }
             }
-            return level != null && intLevel >= level.intLevel();
+            return isLevelEnabled(level);
         }
 
         boolean filter(
@@ -616,7 +624,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                     return r == Filter.Result.ACCEPT;
                 }
             }
-            return level != null && intLevel >= level.intLevel();
+            return isLevelEnabled(level);
         }
 
         boolean filter(
@@ -635,7 +643,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                     return r == Filter.Result.ACCEPT;
                 }
             }
-            return level != null && intLevel >= level.intLevel();
+            return isLevelEnabled(level);
         }
 
         boolean filter(
@@ -655,7 +663,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                     return r == Filter.Result.ACCEPT;
                 }
             }
-            return level != null && intLevel >= level.intLevel();
+            return isLevelEnabled(level);
         }
 
         boolean filter(
@@ -676,7 +684,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                     return r == Filter.Result.ACCEPT;
                 }
             }
-            return level != null && intLevel >= level.intLevel();
+            return isLevelEnabled(level);
         }
 
         boolean filter(
@@ -698,7 +706,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                     return r == Filter.Result.ACCEPT;
                 }
             }
-            return level != null && intLevel >= level.intLevel();
+            return isLevelEnabled(level);
         }
 
         boolean filter(
@@ -721,7 +729,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                     return r == Filter.Result.ACCEPT;
                 }
             }
-            return level != null && intLevel >= level.intLevel();
+            return isLevelEnabled(level);
         }
 
         boolean filter(
@@ -746,7 +754,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                     return r == Filter.Result.ACCEPT;
                 }
             }
-            return level != null && intLevel >= level.intLevel();
+            return isLevelEnabled(level);
         }
 
         boolean filter(final Level level, final Marker marker, final CharSequence msg, final Throwable t) {
@@ -757,7 +765,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                     return r == Filter.Result.ACCEPT;
                 }
             }
-            return level != null && intLevel >= level.intLevel();
+            return isLevelEnabled(level);
         }
 
         boolean filter(final Level level, final Marker marker, final Object msg, final Throwable t) {
@@ -768,7 +776,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                     return r == Filter.Result.ACCEPT;
                 }
             }
-            return level != null && intLevel >= level.intLevel();
+            return isLevelEnabled(level);
         }
 
         boolean filter(final Level level, final Marker marker, final Message msg, final Throwable t) {
@@ -779,7 +787,7 @@ public class Logger extends AbstractLogger implements Supplier<LoggerConfig> {
                     return r == Filter.Result.ACCEPT;
                 }
             }
-            return level != null && intLevel >= level.intLevel();
+            return isLevelEnabled(level);
         }
 
         @Override
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
+import org.apache.logging.log4j.core.config.plugins.validation.constraints.Required;
+import org.apache.logging.log4j.core.config.plugins.validation.constraints.ValidPort;
+import org.apache.logging.log4j.core.layout.GelfLayout.CompressionType;
+import org.apache.logging.log4j.core.net.GelfUdpManager;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * Sends log events as <a href="https://go2docs.graylog.org/current/getting_in_log_data/gelf.html">GELF</a> messages
+ * over UDP, splitting messages exceeding the chunk size into GELF chunks.
+ * <p>
+ * The layout is expected to produce GELF JSON, e.g., a {@code JsonTemplateLayout} using the {@code GelfLayout.json}
+ * event template.
+ * Compression is performed by the appender, hence the layout itself should not compress.
+ * </p>
+ *
+ * @since 2.27.0
+ */
+@Plugin(name = "GelfUdp", category = Node.CATEGORY, elementType = Appender.ELEMENT_TYPE, printObject = true)
+public final class GelfUdpAppender extends AbstractAppender {
+
+    private static final StatusLogger LOGGER = StatusLogger.getLogger();
+
+    /**
+     * Builds GelfUdpAppender instances.
+     */
+    public static class Builder<B extends Builder<B>> extends AbstractAppender.Builder<B>
+            implements org.apache.logging.log4j.core.util.Builder<GelfUdpAppender> {
+
+        @PluginBuilderAttribute
+        @Required(message = "No host provided for GelfUdpAppender")
+        private String host;
+
+        @PluginBuilderAttribute
+        @ValidPort
+        private int port = 12201;
+
+        @PluginBuilderAttribute
+        private int chunkSize = 8192;
+
+        @PluginBuilderAttribute
+        private CompressionType compressionType = CompressionType.GZIP;
+
+        @PluginBuilderAttribute
+        private int compressionThreshold = 1024;
+
+        @Override
+        public GelfUdpAppender build() {
+            if (getLayout() == null) {
+                LOGGER.error("GelfUdpAppender requires a layout to be set.");
+                return null;
+            }
+            final Configuration configuration = getConfiguration();
+            final LoggerContext loggerContext = configuration != null ? configuration.getLoggerContext() : null;
+            final GelfUdpManager manager = GelfUdpManager.getManager(
+                    loggerContext, host, port, chunkSize, compressionType, compressionThreshold);
+            return new GelfUdpAppender(
+                    getName(), getLayout(), getFilter(), isIgnoreExceptions(), manager, getPropertyArray());
+        }
+
+        public String getHost() {
+            return host;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public CompressionType getCompressionType() {
+            return compressionType;
+        }
+
+        public int getCompressionThreshold() {
+            return compressionThreshold;
+        }
+
+        public B setHost(final String host) {
+            this.host = host;
+            return asBuilder();
+        }
+
+        public B setPort(final int port) {
+            this.port = port;
+            return asBuilder();
+        }
+
+        /**
+         * Sets the maximum length of a datagram, including the GELF chunk header.
+         * Messages longer than this are chunked.
+         */
+        public B setChunkSize(final int chunkSize) {
+            this.chunkSize = chunkSize;
+            return asBuilder();
+        }
+
+        public B setCompressionType(final CompressionType compressionType) {
+            this.compressionType = compressionType;
+            return asBuilder();
+        }
+
+        /**
+         * Sets the message length in bytes above which messages are compressed.
+         */
+        public B setCompressionThreshold(final int compressionThreshold) {
+            this.compressionThreshold = compressionThreshold;
+            return asBuilder();
+        }
+    }
+
+    @PluginBuilderFactory
+    public static <B extends Builder<B>> B newBuilder() {
+        return new Builder<B>().asBuilder();
+    }
+
+    private final GelfUdpManager manager;
+
+    private GelfUdpAppender(
+            final String name,
+            final Layout<? extends Serializable> layout,
+            final Filter filter,
+            final boolean ignoreExceptions,
+            final GelfUdpManager manager,
+            final Property[] properties) {
+        super(name, filter, layout, ignoreExceptions, properties);
+        Objects.requireNonNull(layout, "layout");
+        this.manager = Objects.requireNonNull(manager, "manager");
+    }
+
+    /**
+     * Sends the event.
+     * <p>
+     * Send failures are thrown as {@link AppenderLoggingException}s, which the caller reports to the error handler,
+     * and propagates unless {@link #ignoreExceptions()} is set.
+     * </p>
+     */
+    @Override
+    public void append(final LogEvent event) {
+        manager.send(getLayout(), event);
+    }
+
+    @Override
+    public boolean stop(final long timeout, final TimeUnit timeUnit) {
+        setStopping();
+        boolean stopped = super.stop(timeout, timeUnit, false);
+        stopped &= manager.stop(timeout, timeUnit);
+        setStopped();
+        return stopped;
+    }
+
+    public GelfUdpManager getManager() {
+        return manager;
+    }
+
+    @Override
+    public String toString() {
+        return "GelfUdpAppender{" + "name=" + getName() + ", state=" + getState() + '}';
+    }
+}
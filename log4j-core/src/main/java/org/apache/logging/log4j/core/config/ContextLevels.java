@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.config;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.ContextDataInjector;
+import org.apache.logging.log4j.core.impl.ContextDataInjectorFactory;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * An immutable set of levels enabled for the log events whose context data contain given values.
+ *
+ * @see LoggerConfig#setContextLevel(String, String, Level)
+ */
+@PerformanceSensitive("allocation")
+final class ContextLevels {
+
+    private final Map<String, Map<String, Level>> levels;
+
+    private final ContextDataInjector injector;
+
+    private final String[] keys;
+
+    private final Map<String, Level>[] levelsByValue;
+
+    /**
+     * The least severe level of all the overrides.
+     */
+    private final int maxIntLevel;
+
+    @SuppressWarnings("unchecked")
+    private ContextLevels(final Map<String, Map<String, Level>> levels) {
+        this.levels = levels;
+        this.injector = ContextDataInjectorFactory.createInjector();
+        this.keys = levels.keySet().toArray(new String[0]);
+        this.levelsByValue = new Map[keys.length];
+        int maxIntLevel = Integer.MIN_VALUE;
+        for (int i = 0; i < keys.length; i++) {
+            final Map<String, Level> valueLevels = levels.get(keys[i]);
+            levelsByValue[i] = valueLevels;
+            for (final Level level : valueLevels.values()) {
+                maxIntLevel = Math.max(maxIntLevel, level.intLevel());
+            }
+        }
+        this.maxIntLevel = maxIntLevel;
+    }
+
+    /**
+     * Returns a copy with an override added, replaced or removed.
+     *
+     * @param current The current overrides, or {@code null} if there are none.
+     * @param key The context data key.
+     * @param value The context data value.
+     * @param level The enabled level, or {@code null} to remove the override.
+     * @return The new overrides, or {@code null} if there are none.
+     */
+    static ContextLevels with(final ContextLevels current, final String key, final String value, final Level level) {
+        final Map<String, Map<String, Level>> levels = new LinkedHashMap<>();
+        if (current != null) {
+            current.levels.forEach((k, v) -> levels.put(k, new HashMap<>(v)));
+        }
+        if (level != null) {
+            levels.computeIfAbsent(key, k -> new HashMap<>()).put(value, level);
+        } else if (levels.containsKey(key)) {
+            levels.get(key).remove(value);
+            if (levels.get(key).isEmpty()) {
+                levels.remove(key);
+            }
+        }
+        if (levels.isEmpty()) {
+            return null;
+        }
+        levels.replaceAll((k, v) -> Collections.unmodifiableMap(v));
+        return new ContextLevels(Collections.unmodifiableMap(levels));
+    }
+
+    /**
+     * Returns the overrides by context data key and value.
+     *
+     * @return An unmodifiable map.
+     */
+    Map<String, Map<String, Level>> getLevels() {
+        return levels;
+    }
+
+    /**
+     * Checks if the current context data enables a level.
+     *
+     * @param level The level of a log event.
+     * @return {@code true} if an override enables the level.
+     */
+    boolean isEnabled(final Level level) {
+        final int intLevel = level.intLevel();
+        if (intLevel > maxIntLevel) {
+            return false;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            final Object value = injector.getValue(keys[i]);
+            if (value != null) {
+                final Level enabledLevel = levelsByValue[i].get(value.toString());
+                if (enabledLevel != null && enabledLevel.intLevel() >= intLevel) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return levels.toString();
+    }
+}
@@ -22,6 +22,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Marker;
@@ -77,6 +78,7 @@ public class LoggerConfig extends AbstractFilterable implements LocationAware {
     private final boolean propertiesRequireLookup;
     private final Configuration config;
     private final ReliabilityStrategy reliabilityStrategy;
+    private volatile ContextLevels contextLevels;
 
     static {
         try {
@@ -523,6 +525,66 @@ public class LoggerConfig extends AbstractFilterable implements LocationAware {
         return level == null ? parent == null ? Level.ERROR : parent.getLevel() : level;
     }
 
+    /**
+     * Enables a more verbose level for the log events whose context data contain a given value, e.g. the events of a
+     * single request.
+     * <p>
+     * The override applies to the loggers of this LoggerConfig and of its descendants. It is only checked if the level
+     * of an event is not enabled, and only costs a volatile read while there are none. The filters and levels of the
+     * appender references still apply. Overrides are not kept when the configuration is reloaded.
+     * </p>
+     *
+     * @param key The context data key, e.g. the key of a trace id.
+     * @param value The context data value.
+     * @param level The level enabled for the matching events, or {@code null} to remove the override.
+     * @since 2.27.0
+     */
+    public synchronized void setContextLevel(final String key, final String value, final Level level) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(value, "value");
+        contextLevels = ContextLevels.with(contextLevels, key, value, level);
+    }
+
+    /**
+     * Removes all the overrides set by {@link #setContextLevel(String, String, Level)}.
+     *
+     * @since 2.27.0
+     */
+    public synchronized void clearContextLevels() {
+        contextLevels = null;
+    }
+
+    /**
+     * Returns the overrides set by {@link #setContextLevel(String, String, Level)}.
+     *
+     * @return An unmodifiable map of the enabled levels by context data key and value.
+     * @since 2.27.0
+     */
+    public Map<String, Map<String, Level>> getContextLevels() {
+        final ContextLevels levels = contextLevels;
+        return levels != null ? levels.getLevels() : Collections.emptyMap();
+    }
+
+    /**
+     * Checks if the current context data enables a level, through the overrides of this LoggerConfig or of its
+     * ancestors.
+     *
+     * @param level The level of a log event.
+     * @return {@code true} if an override enables the level.
+     * @see #setContextLevel(String, String, Level)
+     * @since 2.27.0
+     */
+    @PerformanceSensitive("allocation")
+    public boolean isContextLevelEnabled(final Level level) {
+        for (LoggerConfig loggerConfig = this; loggerConfig != null; loggerConfig = loggerConfig.parent) {
+            final ContextLevels levels = loggerConfig.contextLevels;
+            if (levels != null && levels.isEnabled(level)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Allows callers to determine the Level assigned to this LoggerConfig.
      * @return the Level associated with this LoggerConfig or null if none is set.
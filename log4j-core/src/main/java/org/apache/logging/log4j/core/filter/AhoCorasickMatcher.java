@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * Checks if a text contains any of a set of patterns using the Aho-Corasick algorithm.
+ * <p>
+ *     The cost of a check is linear in the length of the text and does not depend on the number of patterns.
+ *     The automaton is stored in flat arrays: the transitions of each state are sorted by character and looked up by
+ *     binary search, except the transitions of the initial state for ASCII characters, which use a direct table.
+ * </p>
+ */
+@PerformanceSensitive("allocation")
+final class AhoCorasickMatcher {
+
+    private static final int ASCII_SIZE = 128;
+    private static final int NO_STATE = -1;
+
+    /**
+     * The target states of the initial state for ASCII characters.
+     */
+    private final int[] initialTransitions;
+    /**
+     * The transitions of state {@code i} are stored between {@code transitionOffsets[i]} (inclusive) and
+     * {@code transitionOffsets[i + 1]} (exclusive).
+     */
+    private final int[] transitionOffsets;
+
+    private final char[] transitionChars;
+    private final int[] transitionTargets;
+    private final int[] failureStates;
+    /**
+     * Whether a pattern ends in a state or in one of its failure states.
+     */
+    private final boolean[] matchingStates;
+
+    private AhoCorasickMatcher(
+            final int[] initialTransitions,
+            final int[] transitionOffsets,
+            final char[] transitionChars,
+            final int[] transitionTargets,
+            final int[] failureStates,
+            final boolean[] matchingStates) {
+        this.initialTransitions = initialTransitions;
+        this.transitionOffsets = transitionOffsets;
+        this.transitionChars = transitionChars;
+        this.transitionTargets = transitionTargets;
+        this.failureStates = failureStates;
+        this.matchingStates = matchingStates;
+    }
+
+    /**
+     * Builds the automaton for the given patterns.
+     *
+     * @param patterns A collection of non-empty patterns.
+     * @return A matcher.
+     */
+    static AhoCorasickMatcher compile(final Collection<String> patterns) {
+        // Builds the trie
+        final List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        final List<Boolean> terminal = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        terminal.add(Boolean.FALSE);
+        for (final String pattern : patterns) {
+            if (pattern.isEmpty()) {
+                throw new IllegalArgumentException("Patterns must not be empty");
+            }
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                final Character c = pattern.charAt(i);
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    terminal.add(Boolean.FALSE);
+                    trie.get(state).put(c, next);
+                }
+                state = next;
+            }
+            terminal.set(state, Boolean.TRUE);
+        }
+        // Flattens the transitions
+        final int stateCount = trie.size();
+        final int[] transitionOffsets = new int[stateCount + 1];
+        final char[] transitionChars = new char[stateCount - 1];
+        final int[] transitionTargets = new int[stateCount - 1];
+        int offset = 0;
+        for (int state = 0; state < stateCount; state++) {
+            transitionOffsets[state] = offset;
+            for (final Map.Entry<Character, Integer> entry : trie.get(state).entrySet()) {
+                transitionChars[offset] = entry.getKey();
+                transitionTargets[offset] = entry.getValue();
+                offset++;
+            }
+        }
+        transitionOffsets[stateCount] = offset;
+        final int[] initialTransitions = new int[ASCII_SIZE];
+        for (final Map.Entry<Character, Integer> entry : trie.get(0).headMap((char) ASCII_SIZE).entrySet()) {
+            initialTransitions[entry.getKey()] = entry.getValue();
+        }
+        // Computes the failure states in breadth-first order, so that the failure state of the parent is known.
+        final int[] failureStates = new int[stateCount];
+        final boolean[] matchingStates = new boolean[stateCount];
+        final int[] queue = new int[stateCount];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = 0;
+        while (head < tail) {
+            final int state = queue[head++];
+            matchingStates[state] = terminal.get(state) || matchingStates[failureStates[state]];
+            for (final Map.Entry<Character, Integer> entry : trie.get(state).entrySet()) {
+                final int child = entry.getValue();
+                if (state != 0) {
+                    final char c = entry.getKey();
+                    int failure = failureStates[state];
+                    int next = transition(transitionOffsets, transitionChars, transitionTargets, failure, c);
+                    while (next == NO_STATE && failure != 0) {
+                        failure = failureStates[failure];
+                        next = transition(transitionOffsets, transitionChars, transitionTargets, failure, c);
+                    }
+                    failureStates[child] = next != NO_STATE ? next : 0;
+                }
+                queue[tail++] = child;
+            }
+        }
+        return new AhoCorasickMatcher(
+                initialTransitions,
+                transitionOffsets,
+                transitionChars,
+                transitionTargets,
+                failureStates,
+                matchingStates);
+    }
+
+    /**
+     * Checks if the text contains at least one of the patterns.
+     *
+     * @param text A text.
+     * @return {@code true} if one of the patterns occurs in the text.
+     */
+    boolean matches(final CharSequence text) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, text.charAt(i));
+            if (matchingStates[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The number of states of the automaton.
+     */
+    int size() {
+        return failureStates.length;
+    }
+
+    private int next(int state, final char c) {
+        while (state != 0) {
+            final int next = transition(transitionOffsets, transitionChars, transitionTargets, state, c);
+            if (next != NO_STATE) {
+                return next;
+            }
+            state = failureStates[state];
+        }
+        if (c < ASCII_SIZE) {
+            return initialTransitions[c];
+        }
+        final int next = transition(transitionOffsets, transitionChars, transitionTargets, 0, c);
+        return next != NO_STATE ? next : 0;
+    }
+
+    private static int transition(
+            final int[] transitionOffsets,
+            final char[] transitionChars,
+            final int[] transitionTargets,
+            final int state,
+            final char c) {
+        final int from = transitionOffsets[state];
+        final int to = transitionOffsets[state + 1];
+        if (from == to) {
+            return NO_STATE;
+        }
+        final int index = Arrays.binarySearch(transitionChars, from, to, c);
+        return index >= 0 ? transitionTargets[index] : NO_STATE;
+    }
+}
@@ -49,6 +49,10 @@ import org.apache.logging.log4j.message.Message;
  * &nbsp;&lt;/Filters&gt;<br>
  * &lt;/Console&gt;<br>
  * </code><br>
+ * <p>
+ * Each accepted event is recorded in a queue guarded by a lock. Applications logging from many threads at high rates
+ * should prefer the lock-free {@link TokenBucketFilter}.
+ * </p>
  */
 @Plugin(name = "BurstFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
 public final class BurstFilter extends AbstractFilter {
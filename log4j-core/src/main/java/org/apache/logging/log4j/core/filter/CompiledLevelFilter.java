@@ -0,0 +1,332 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * Replaces a sequence of filters that only depend on the level of an event by a precomputed lookup table.
+ * <p>
+ * The results of {@link ThresholdFilter}, {@link LevelRangeFilter} and {@link DenyAllFilter} are piecewise constant
+ * functions of {@link Level#intLevel()}. The result of a sequence of such filters is therefore also piecewise
+ * constant and is stored as a sorted array of interval boundaries. {@link LevelMatchFilter} is not supported, since
+ * it compares levels by identity.
+ * </p>
+ * <p>
+ * Used by {@link CompositeFilter} and not meant to be configured directly.
+ * </p>
+ */
+@PerformanceSensitive("allocation")
+final class CompiledLevelFilter extends AbstractFilter {
+
+    /**
+     * The lowest {@link Level#intLevel()} of each interval, but the first one.
+     */
+    private final int[] intervalStarts;
+
+    /**
+     * The result for each interval, one more than {@link #intervalStarts}.
+     */
+    private final Result[] results;
+
+    private CompiledLevelFilter(final int[] intervalStarts, final Result[] results) {
+        super(Result.NEUTRAL, Result.NEUTRAL);
+        this.intervalStarts = intervalStarts;
+        this.results = results;
+    }
+
+    /**
+     * Checks if the result of a filter only depends on the level of an event.
+     *
+     * @param filter a filter
+     * @return {@code true} if the filter can be compiled
+     */
+    static boolean isLevelFilter(final Filter filter) {
+        return filter instanceof ThresholdFilter
+                || filter instanceof LevelRangeFilter
+                || filter instanceof DenyAllFilter;
+    }
+
+    /**
+     * Compiles a sequence of level filters, evaluated as by {@link CompositeFilter}, into a single one.
+     *
+     * @param filters a sequence of filters, for which {@link #isLevelFilter} is {@code true}
+     * @return an equivalent filter, or {@code null} if the sequence always returns {@link Result#NEUTRAL}
+     */
+    static Filter compile(final List<Filter> filters) {
+        final TreeSet<Integer> boundaries = new TreeSet<>();
+        for (final Filter filter : filters) {
+            if (filter instanceof ThresholdFilter) {
+                addBoundary(boundaries, ((ThresholdFilter) filter).getLevel().intLevel() + 1L);
+            } else if (filter instanceof LevelRangeFilter) {
+                final LevelRangeFilter rangeFilter = (LevelRangeFilter) filter;
+                addBoundary(boundaries, rangeFilter.getMinLevel().intLevel());
+                addBoundary(boundaries, rangeFilter.getMaxLevel().intLevel() + 1L);
+            }
+        }
+        final List<Integer> intervalStarts = new ArrayList<>();
+        final List<Result> results = new ArrayList<>();
+        results.add(evaluate(filters, Integer.MIN_VALUE));
+        for (final int intervalStart : boundaries) {
+            final Result result = evaluate(filters, intervalStart);
+            // Merge adjacent intervals with the same result
+            if (result != results.get(results.size() - 1)) {
+                intervalStarts.add(intervalStart);
+                results.add(result);
+            }
+        }
+        if (intervalStarts.isEmpty() && results.get(0) == Result.NEUTRAL) {
+            return null;
+        }
+        final int[] starts = new int[intervalStarts.size()];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = intervalStarts.get(i);
+        }
+        return new CompiledLevelFilter(starts, results.toArray(new Result[0]));
+    }
+
+    private static void addBoundary(final TreeSet<Integer> boundaries, final long intLevel) {
+        if (intLevel > Integer.MIN_VALUE && intLevel <= Integer.MAX_VALUE) {
+            boundaries.add((int) intLevel);
+        }
+    }
+
+    private static Result evaluate(final List<Filter> filters, final int intLevel) {
+        for (final Filter filter : filters) {
+            final Result result;
+            if (filter instanceof ThresholdFilter) {
+                final ThresholdFilter thresholdFilter = (ThresholdFilter) filter;
+                result = intLevel <= thresholdFilter.getLevel().intLevel()
+                        ? thresholdFilter.getOnMatch()
+                        : thresholdFilter.getOnMismatch();
+            } else if (filter instanceof LevelRangeFilter) {
+                final LevelRangeFilter rangeFilter = (LevelRangeFilter) filter;
+                result = intLevel >= rangeFilter.getMinLevel().intLevel()
+                                && intLevel <= rangeFilter.getMaxLevel().intLevel()
+                        ? rangeFilter.getOnMatch()
+                        : rangeFilter.getOnMismatch();
+            } else {
+                result = Result.DENY;
+            }
+            if (result == Result.ACCEPT || result == Result.DENY) {
+                return result;
+            }
+        }
+        return Result.NEUTRAL;
+    }
+
+    private Result filter(final Level level) {
+        final int intLevel = level.intLevel();
+        int index = 0;
+        while (index < intervalStarts.length && intLevel >= intervalStarts[index]) {
+            index++;
+        }
+        return results[index];
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final String msg, final Object... params) {
+        return filter(level);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final Object msg, final Throwable t) {
+        return filter(level);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final Message msg, final Throwable t) {
+        return filter(level);
+    }
+
+    @Override
+    public Result filter(final LogEvent event) {
+        return filter(event.getLevel());
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final String msg, final Object p0) {
+        return filter(level);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1) {
+        return filter(level);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2) {
+        return filter(level);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3) {
+        return filter(level);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4) {
+        return filter(level);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5) {
+        return filter(level);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6) {
+        return filter(level);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7) {
+        return filter(level);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7,
+            final Object p8) {
+        return filter(level);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7,
+            final Object p8,
+            final Object p9) {
+        return filter(level);
+    }
+
+    @Override
+    public MessageRequirement getMessageRequirement() {
+        return MessageRequirement.NONE;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("CompiledLevelFilter{");
+        for (int i = 0; i < results.length; i++) {
+            if (i > 0) {
+                sb.append(", intLevel >= ").append(intervalStarts[i - 1]).append(": ");
+            } else {
+                sb.append("default: ");
+            }
+            sb.append(results[i]);
+        }
+        return sb.append('}').toString();
+    }
+}
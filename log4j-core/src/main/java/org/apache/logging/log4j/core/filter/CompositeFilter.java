@@ -32,21 +32,140 @@ import org.apache.logging.log4j.core.config.Node;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.core.util.ObjectArrayIterator;
 import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.MessageFactory;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
+import org.apache.logging.log4j.message.ReusableSimpleMessage;
 import org.apache.logging.log4j.util.PerformanceSensitive;
 
 /**
  * Composes and invokes one or more filters.
+ * <p>
+ * At construction, nested composite filters are flattened and runs of consecutive filters that only depend on the
+ * level of an event are {@linkplain CompiledLevelFilter compiled} into a single lookup table. The other filters are
+ * invoked as configured.
+ * </p>
+ * <p>
+ * The {@linkplain Filter#getMessageRequirement() message requirements} of the filters are used to avoid formatting
+ * messages:
+ * </p>
+ * <ul>
+ *     <li>filters that do not need the message are evaluated first, if their result can not be changed by the
+ *     filters that precede them,</li>
+ *     <li>filters that need the formatted message share a single formatted copy of a message pattern and its
+ *     parameters.</li>
+ * </ul>
  */
 @Plugin(name = "Filters", category = Node.CATEGORY, printObject = true)
 @PerformanceSensitive("allocation")
 public final class CompositeFilter extends AbstractLifeCycle implements Iterable<Filter>, Filter {
 
+    private static final int NOT_HOISTED = -1;
+
+    private static final int VARARGS = -1;
+
+    private static final ThreadLocal<ReusableSimpleMessage> FORMATTED_MESSAGES =
+            Constants.ENABLE_THREADLOCALS ? ThreadLocal.withInitial(ReusableSimpleMessage::new) : null;
+
     private final Filter[] filters;
 
+    /**
+     * The filters actually invoked, equivalent to {@link #filters}.
+     */
+    private final Filter[] compiledFilters;
+
+    /**
+     * For each compiled filter that does not need the message, the bit mask of the {@link #mask results} the
+     * preceding filters can return, or {@link #NOT_HOISTED}.
+     */
+    private final int[] precedingResults;
+
+    /**
+     * The number of compiled filters considered by {@link #prefilter}, {@code 0} if evaluating them first is useless.
+     */
+    private final int hoistedLength;
+
+    /**
+     * Flags the compiled filters that need the formatted message, {@code null} if less than two of them need it.
+     */
+    private final boolean[] formattedMessageFilters;
+
     private CompositeFilter(final Filter[] filters) {
         this.filters = filters == null ? Filter.EMPTY_ARRAY : filters;
+        this.compiledFilters = compile(this.filters);
+        this.precedingResults = new int[compiledFilters.length];
+        int results = 0;
+        int hoistedLength = 0;
+        int formattedMessageFilterCount = 0;
+        final boolean[] formattedMessageFilters = new boolean[compiledFilters.length];
+        for (int i = 0; i < compiledFilters.length; i++) {
+            final Filter filter = compiledFilters[i];
+            final MessageRequirement requirement = filter.getMessageRequirement();
+            if (requirement == MessageRequirement.NONE) {
+                precedingResults[i] = results;
+                // Only useful if a filter that needs the message can be skipped
+                if (results == mask(Result.ACCEPT) || results == mask(Result.DENY)) {
+                    hoistedLength = i + 1;
+                }
+            } else {
+                precedingResults[i] = NOT_HOISTED;
+                results |= requirement == MessageRequirement.UNKNOWN
+                        ? mask(Result.ACCEPT) | mask(Result.DENY)
+                        : mask(filter.getOnMatch()) | mask(filter.getOnMismatch());
+            }
+            if (requirement == MessageRequirement.FORMATTED_MESSAGE) {
+                formattedMessageFilters[i] = true;
+                formattedMessageFilterCount++;
+            }
+        }
+        this.hoistedLength = hoistedLength;
+        this.formattedMessageFilters = formattedMessageFilterCount > 1 ? formattedMessageFilters : null;
+    }
+
+    private static int mask(final Result result) {
+        return result == null || result == Result.NEUTRAL ? 0 : 1 << result.ordinal();
+    }
+
+    private static Filter[] compile(final Filter[] filters) {
+        final List<Filter> flattenedFilters = new ArrayList<>(filters.length);
+        flatten(filters, flattenedFilters);
+        final List<Filter> compiledFilters = new ArrayList<>(flattenedFilters.size());
+        final List<Filter> levelFilters = new ArrayList<>();
+        for (final Filter filter : flattenedFilters) {
+            if (CompiledLevelFilter.isLevelFilter(filter)) {
+                levelFilters.add(filter);
+            } else {
+                addLevelFilters(levelFilters, compiledFilters);
+                compiledFilters.add(filter);
+            }
+        }
+        addLevelFilters(levelFilters, compiledFilters);
+        return compiledFilters.toArray(Filter.EMPTY_ARRAY);
+    }
+
+    private static void flatten(final Filter[] filters, final List<Filter> flattenedFilters) {
+        for (final Filter filter : filters) {
+            if (filter instanceof CompositeFilter) {
+                flatten(((CompositeFilter) filter).filters, flattenedFilters);
+            } else if (filter != null) {
+                flattenedFilters.add(filter);
+            }
+        }
+    }
+
+    private static void addLevelFilters(final List<Filter> levelFilters, final List<Filter> compiledFilters) {
+        if (levelFilters.size() == 1) {
+            // Nothing to gain
+            compiledFilters.add(levelFilters.get(0));
+        } else if (levelFilters.size() > 1) {
+            final Filter compiledFilter = CompiledLevelFilter.compile(levelFilters);
+            if (compiledFilter != null) {
+                compiledFilters.add(compiledFilter);
+            }
+        }
+        levelFilters.clear();
     }
 
     public CompositeFilter addFilter(final Filter filter) {
@@ -160,6 +279,282 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
         return Result.NEUTRAL;
     }
 
+    /**
+     * Returns {@link MessageRequirement#NONE} if no filter needs the message.
+     *
+     * @return the message requirement of this filter.
+     * @since 2.27.0
+     */
+    @Override
+    public MessageRequirement getMessageRequirement() {
+        for (final Filter filter : compiledFilters) {
+            if (filter.getMessageRequirement() != MessageRequirement.NONE) {
+                return MessageRequirement.UNKNOWN;
+            }
+        }
+        return MessageRequirement.NONE;
+    }
+
+    /**
+     * Evaluates the filters that do not need the message first.
+     *
+     * @return {@code 0} if none of them returns {@code ACCEPT} or {@code DENY}; otherwise, the index of the first one
+     * that does plus one, negated if it returns {@code DENY}.
+     */
+    private int prefilter(final Logger logger, final Level level, final Marker marker) {
+        for (int i = 0; i < hoistedLength; i++) {
+            if (precedingResults[i] != NOT_HOISTED) {
+                final Result result =
+                        compiledFilters[i].filter(logger, level, marker, (Message) null, (Throwable) null);
+                if (result == Result.ACCEPT || result == Result.DENY) {
+                    return prefilterState(i, result);
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Evaluates the filters that do not need the message first.
+     *
+     * @return {@code 0} if none of them returns {@code ACCEPT} or {@code DENY}; otherwise, the index of the first one
+     * that does plus one, negated if it returns {@code DENY}.
+     */
+    private int prefilter(final LogEvent event) {
+        for (int i = 0; i < hoistedLength; i++) {
+            if (precedingResults[i] != NOT_HOISTED) {
+                final Result result = compiledFilters[i].filter(event);
+                if (result == Result.ACCEPT || result == Result.DENY) {
+                    return prefilterState(i, result);
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static int prefilterState(final int index, final Result result) {
+        return result == Result.ACCEPT ? index + 1 : -(index + 1);
+    }
+
+    /**
+     * @return the result of the composite filter, if the filters evaluated by {@link #prefilter} decide it, or
+     * {@code null} if the other filters must be evaluated.
+     */
+    private Result getPrefilterResult(final int prefilterState) {
+        if (prefilterState == 0) {
+            return null;
+        }
+        final int index = Math.abs(prefilterState) - 1;
+        final Result result = prefilterState > 0 ? Result.ACCEPT : Result.DENY;
+        return (precedingResults[index] & ~mask(result)) == 0 ? result : null;
+    }
+
+    /**
+     * @return whether the compiled filter at the given index was already evaluated by {@link #prefilter}.
+     */
+    private boolean isPrefiltered(final int prefilterState, final int index) {
+        final int prefilteredLength = prefilterState == 0 ? hoistedLength : Math.abs(prefilterState);
+        return index < prefilteredLength && precedingResults[index] != NOT_HOISTED;
+    }
+
+    /**
+     * @return the result returned by the compiled filter at the given index, if it was evaluated by
+     * {@link #prefilter}.
+     */
+    private static Result getPrefilteredResult(final int prefilterState, final int index) {
+        if (Math.abs(prefilterState) - 1 != index) {
+            return Result.NEUTRAL;
+        }
+        return prefilterState > 0 ? Result.ACCEPT : Result.DENY;
+    }
+
+    private boolean isFormattedMessageFilter(final int index, final Logger logger) {
+        return formattedMessageFilters != null && formattedMessageFilters[index] && logger != null;
+    }
+
+    /**
+     * Filters a message pattern and its parameters.
+     * <p>
+     *     The message is formatted once for all the filters that need the formatted message. The formatted text is
+     *     wrapped in a {@link ReusableSimpleMessage}, since passing it as the format of a {@code String} overload
+     *     would make the filters parse its placeholders again.
+     * </p>
+     *
+     * @param paramCount the number of parameters in {@code p0} to {@code p9}, or {@link #VARARGS} if the parameters
+     *                   are in {@code params}.
+     */
+    private Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final int paramCount,
+            final Object[] params,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7,
+            final Object p8,
+            final Object p9) {
+        final int prefilterState = prefilter(logger, level, marker);
+        final Result prefilterResult = getPrefilterResult(prefilterState);
+        if (prefilterResult != null) {
+            return prefilterResult;
+        }
+        ReusableSimpleMessage formattedMessage = null;
+        try {
+            Result result = Result.NEUTRAL;
+            for (int i = 0; i < compiledFilters.length; i++) {
+                final Filter filter = compiledFilters[i];
+                if (isPrefiltered(prefilterState, i)) {
+                    result = getPrefilteredResult(prefilterState, i);
+                } else if (isFormattedMessageFilter(i, logger)) {
+                    if (formattedMessage == null) {
+                        final Message message =
+                                newMessage(logger, msg, paramCount, params, p0, p1, p2, p3, p4, p5, p6, p7, p8, p9);
+                        formattedMessage = acquireFormattedMessage();
+                        formattedMessage.set(message.getFormattedMessage());
+                        ReusableMessageFactory.release(message);
+                    }
+                    result = filter.filter(logger, level, marker, formattedMessage, null);
+                } else {
+                    result = filter(
+                            filter,
+                            logger,
+                            level,
+                            marker,
+                            msg,
+                            paramCount,
+                            params,
+                            p0,
+                            p1,
+                            p2,
+                            p3,
+                            p4,
+                            p5,
+                            p6,
+                            p7,
+                            p8,
+                            p9);
+                }
+                if (result == Result.ACCEPT || result == Result.DENY) {
+                    return result;
+                }
+            }
+            return result;
+        } finally {
+            if (formattedMessage != null) {
+                formattedMessage.clear();
+            }
+        }
+    }
+
+    private static Result filter(
+            final Filter filter,
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final int paramCount,
+            final Object[] params,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7,
+            final Object p8,
+            final Object p9) {
+        switch (paramCount) {
+            case VARARGS:
+                return filter.filter(logger, level, marker, msg, params);
+            case 1:
+                return filter.filter(logger, level, marker, msg, p0);
+            case 2:
+                return filter.filter(logger, level, marker, msg, p0, p1);
+            case 3:
+                return filter.filter(logger, level, marker, msg, p0, p1, p2);
+            case 4:
+                return filter.filter(logger, level, marker, msg, p0, p1, p2, p3);
+            case 5:
+                return filter.filter(logger, level, marker, msg, p0, p1, p2, p3, p4);
+            case 6:
+                return filter.filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5);
+            case 7:
+                return filter.filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6);
+            case 8:
+                return filter.filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7);
+            case 9:
+                return filter.filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8);
+            case 10:
+                return filter.filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8, p9);
+            default:
+                throw new IllegalArgumentException("unexpected parameter count: " + paramCount);
+        }
+    }
+
+    private static Message newMessage(
+            final Logger logger,
+            final String msg,
+            final int paramCount,
+            final Object[] params,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7,
+            final Object p8,
+            final Object p9) {
+        final MessageFactory messageFactory = logger.getMessageFactory();
+        switch (paramCount) {
+            case VARARGS:
+                return messageFactory.newMessage(msg, params);
+            case 1:
+                return messageFactory.newMessage(msg, p0);
+            case 2:
+                return messageFactory.newMessage(msg, p0, p1);
+            case 3:
+                return messageFactory.newMessage(msg, p0, p1, p2);
+            case 4:
+                return messageFactory.newMessage(msg, p0, p1, p2, p3);
+            case 5:
+                return messageFactory.newMessage(msg, p0, p1, p2, p3, p4);
+            case 6:
+                return messageFactory.newMessage(msg, p0, p1, p2, p3, p4, p5);
+            case 7:
+                return messageFactory.newMessage(msg, p0, p1, p2, p3, p4, p5, p6);
+            case 8:
+                return messageFactory.newMessage(msg, p0, p1, p2, p3, p4, p5, p6, p7);
+            case 9:
+                return messageFactory.newMessage(msg, p0, p1, p2, p3, p4, p5, p6, p7, p8);
+            case 10:
+                return messageFactory.newMessage(msg, p0, p1, p2, p3, p4, p5, p6, p7, p8, p9);
+            default:
+                throw new IllegalArgumentException("unexpected parameter count: " + paramCount);
+        }
+    }
+
+    /**
+     * Returns a message to hold the formatted text, reusing a thread-local instance if it is not already in use.
+     */
+    private static ReusableSimpleMessage acquireFormattedMessage() {
+        if (FORMATTED_MESSAGES == null) {
+            return new ReusableSimpleMessage();
+        }
+        final ReusableSimpleMessage message = FORMATTED_MESSAGES.get();
+        // A filter logging from the same thread re-enters while the message is in use
+        return message.getFormat() == null ? message : new ReusableSimpleMessage();
+    }
+
     /**
      * Filter an event.
      *
@@ -178,14 +573,23 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     @Override
     public Result filter(
             final Logger logger, final Level level, final Marker marker, final String msg, final Object... params) {
-        Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, params);
-            if (result == Result.ACCEPT || result == Result.DENY) {
-                return result;
-            }
-        }
-        return result;
+        return filter(
+                logger,
+                level,
+                marker,
+                msg,
+                VARARGS,
+                params,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null);
     }
 
     /**
@@ -205,14 +609,7 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     @Override
     public Result filter(
             final Logger logger, final Level level, final Marker marker, final String msg, final Object p0) {
-        Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0);
-            if (result == Result.ACCEPT || result == Result.DENY) {
-                return result;
-            }
-        }
-        return result;
+        return filter(logger, level, marker, msg, 1, null, p0, null, null, null, null, null, null, null, null, null);
     }
 
     /**
@@ -238,14 +635,7 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final String msg,
             final Object p0,
             final Object p1) {
-        Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1);
-            if (result == Result.ACCEPT || result == Result.DENY) {
-                return result;
-            }
-        }
-        return result;
+        return filter(logger, level, marker, msg, 2, null, p0, p1, null, null, null, null, null, null, null, null);
     }
 
     /**
@@ -273,14 +663,7 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p0,
             final Object p1,
             final Object p2) {
-        Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2);
-            if (result == Result.ACCEPT || result == Result.DENY) {
-                return result;
-            }
-        }
-        return result;
+        return filter(logger, level, marker, msg, 3, null, p0, p1, p2, null, null, null, null, null, null, null);
     }
 
     /**
@@ -310,14 +693,7 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p1,
             final Object p2,
             final Object p3) {
-        Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3);
-            if (result == Result.ACCEPT || result == Result.DENY) {
-                return result;
-            }
-        }
-        return result;
+        return filter(logger, level, marker, msg, 4, null, p0, p1, p2, p3, null, null, null, null, null, null);
     }
 
     /**
@@ -349,14 +725,7 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p2,
             final Object p3,
             final Object p4) {
-        Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4);
-            if (result == Result.ACCEPT || result == Result.DENY) {
-                return result;
-            }
-        }
-        return result;
+        return filter(logger, level, marker, msg, 5, null, p0, p1, p2, p3, p4, null, null, null, null, null);
     }
 
     /**
@@ -390,14 +759,7 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p3,
             final Object p4,
             final Object p5) {
-        Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5);
-            if (result == Result.ACCEPT || result == Result.DENY) {
-                return result;
-            }
-        }
-        return result;
+        return filter(logger, level, marker, msg, 6, null, p0, p1, p2, p3, p4, p5, null, null, null, null);
     }
 
     /**
@@ -433,14 +795,7 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p4,
             final Object p5,
             final Object p6) {
-        Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6);
-            if (result == Result.ACCEPT || result == Result.DENY) {
-                return result;
-            }
-        }
-        return result;
+        return filter(logger, level, marker, msg, 7, null, p0, p1, p2, p3, p4, p5, p6, null, null, null);
     }
 
     /**
@@ -478,14 +833,7 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p5,
             final Object p6,
             final Object p7) {
-        Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7);
-            if (result == Result.ACCEPT || result == Result.DENY) {
-                return result;
-            }
-        }
-        return result;
+        return filter(logger, level, marker, msg, 8, null, p0, p1, p2, p3, p4, p5, p6, p7, null, null);
     }
 
     /**
@@ -525,14 +873,7 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p6,
             final Object p7,
             final Object p8) {
-        Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8);
-            if (result == Result.ACCEPT || result == Result.DENY) {
-                return result;
-            }
-        }
-        return result;
+        return filter(logger, level, marker, msg, 9, null, p0, p1, p2, p3, p4, p5, p6, p7, p8, null);
     }
 
     /**
@@ -574,14 +915,7 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p7,
             final Object p8,
             final Object p9) {
-        Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8, p9);
-            if (result == Result.ACCEPT || result == Result.DENY) {
-                return result;
-            }
-        }
-        return result;
+        return filter(logger, level, marker, msg, 10, null, p0, p1, p2, p3, p4, p5, p6, p7, p8, p9);
     }
 
     /**
@@ -602,9 +936,16 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     @Override
     public Result filter(
             final Logger logger, final Level level, final Marker marker, final Object msg, final Throwable t) {
+        final int prefilterState = prefilter(logger, level, marker);
+        final Result prefilterResult = getPrefilterResult(prefilterState);
+        if (prefilterResult != null) {
+            return prefilterResult;
+        }
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, t);
+        for (int i = 0; i < compiledFilters.length; i++) {
+            result = isPrefiltered(prefilterState, i)
+                    ? getPrefilteredResult(prefilterState, i)
+                    : compiledFilters[i].filter(logger, level, marker, msg, t);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -630,9 +971,16 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     @Override
     public Result filter(
             final Logger logger, final Level level, final Marker marker, final Message msg, final Throwable t) {
+        final int prefilterState = prefilter(logger, level, marker);
+        final Result prefilterResult = getPrefilterResult(prefilterState);
+        if (prefilterResult != null) {
+            return prefilterResult;
+        }
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, t);
+        for (int i = 0; i < compiledFilters.length; i++) {
+            result = isPrefiltered(prefilterState, i)
+                    ? getPrefilteredResult(prefilterState, i)
+                    : compiledFilters[i].filter(logger, level, marker, msg, t);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -649,9 +997,16 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
      */
     @Override
     public Result filter(final LogEvent event) {
+        final int prefilterState = prefilter(event);
+        final Result prefilterResult = getPrefilterResult(prefilterState);
+        if (prefilterResult != null) {
+            return prefilterResult;
+        }
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(event);
+        for (int i = 0; i < compiledFilters.length; i++) {
+            result = isPrefiltered(prefilterState, i)
+                    ? getPrefilteredResult(prefilterState, i)
+                    : compiledFilters[i].filter(event);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
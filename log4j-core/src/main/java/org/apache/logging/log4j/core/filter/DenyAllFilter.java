@@ -206,6 +206,11 @@ public final class DenyAllFilter extends AbstractFilter {
         return Result.DENY;
     }
 
+    @Override
+    public MessageRequirement getMessageRequirement() {
+        return MessageRequirement.NONE;
+    }
+
     @Override
     public String toString() {
         return "DenyAll";
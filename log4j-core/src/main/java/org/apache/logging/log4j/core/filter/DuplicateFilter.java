@@ -0,0 +1,672 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
+import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.core.util.NanoClock;
+import org.apache.logging.log4j.core.util.SystemNanoClock;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ParameterConsumer;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.ParameterVisitable;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * The <code>DuplicateFilter</code> suppresses the repetitions of a log event within a time window.
+ *
+ * <p>
+ * Two events are duplicates if they have the same logger name, level, message pattern and parameters. The first
+ * event matches and starts a window of <code>windowSeconds</code>, the duplicates inside the window do not match.
+ * Strings, boxed primitives and enums are compared by their hash code, so that no reference to them is kept. If a
+ * message has other parameters, or no pattern, its formatted message is compared instead.
+ * Calls without a message, like the {@code isEnabled()} checks of a logger, are not tracked.
+ * </p>
+ * <p>
+ * Once per window, the number of suppressed duplicates of each message pattern is logged with the same logger name
+ * and level, as a <code>Message repeated N times: pattern</code> event. The summaries are logged through the logger,
+ * hence they are subject to the same filters as the other events. They are only logged if the filter belongs to a
+ * configuration, and are logged to the status logger if the configuration has no logger context.
+ * </p>
+ * <p>
+ * The events are tracked in a fixed-size open-addressing hash table of <code>maxEntries</code> slots, divided into
+ * stripes with separate locks. With a reusable message factory, filtering an event only allocates if its formatted
+ * message is compared. If the table is full, the oldest entry of the probed slots is replaced and its pending count
+ * of duplicates is lost.
+ * </p>
+ * <code>
+ * &lt;Console name="console"&gt;<br>
+ * &nbsp;&lt;PatternLayout pattern="%-5p %d{dd-MMM-yyyy HH:mm:ss} %x %t %m%n"/&gt;<br>
+ * &nbsp;&lt;Filters&gt;<br>
+ * &nbsp;&nbsp;&lt;DuplicateFilter windowSeconds="30"/&gt;<br>
+ * &nbsp;&lt;/Filters&gt;<br>
+ * &lt;/Console&gt;<br>
+ * </code><br>
+ *
+ * @since 2.27.0
+ */
+@Plugin(name = "DuplicateFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
+@PerformanceSensitive("allocation")
+public final class DuplicateFilter extends AbstractFilter {
+
+    private static final String FQCN = DuplicateFilter.class.getName();
+
+    private static final String SUMMARY_PATTERN = "Message repeated {} times: {}";
+
+    private static final int DEFAULT_WINDOW_SECONDS = 10;
+
+    private static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    private static final int STRIPES = 16;
+
+    private static final int MAX_PROBES = 8;
+
+    private static final int MAX_CAPACITY = 1 << 24;
+
+    private static final long EMPTY = 0;
+
+    private static final ThreadLocal<ParameterHasher> PARAMETER_HASHERS =
+            Constants.ENABLE_THREADLOCALS ? ThreadLocal.withInitial(ParameterHasher::new) : null;
+
+    private final long windowNanos;
+
+    private final NanoClock nanoClock;
+
+    private final Configuration configuration;
+
+    private final Object[] locks = new Object[STRIPES];
+
+    private final int stripeSize;
+
+    private final int probes;
+
+    /**
+     * The hash of each entry, {@link #EMPTY} for a free slot.
+     */
+    private final long[] keys;
+
+    /**
+     * The time the window of each entry started.
+     */
+    private final long[] windowStarts;
+
+    /**
+     * The number of duplicates of each entry suppressed since the last summary.
+     */
+    private final long[] duplicates;
+
+    private final String[] loggerNames;
+
+    private final Level[] levels;
+
+    private final String[] patterns;
+
+    private ScheduledFuture<?> future;
+
+    DuplicateFilter(
+            final long windowNanos,
+            final int maxEntries,
+            final NanoClock nanoClock,
+            final Configuration configuration,
+            final Result onMatch,
+            final Result onMismatch) {
+        super(onMatch, onMismatch);
+        this.windowNanos = windowNanos;
+        this.nanoClock = nanoClock;
+        this.configuration = configuration;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        final int capacity =
+                Math.max(STRIPES, Integer.highestOneBit(Math.max(1, Math.min(maxEntries, MAX_CAPACITY) - 1)) << 1);
+        this.stripeSize = capacity / STRIPES;
+        this.probes = Math.min(MAX_PROBES, stripeSize);
+        this.keys = new long[capacity];
+        this.windowStarts = new long[capacity];
+        this.duplicates = new long[capacity];
+        this.loggerNames = new String[capacity];
+        this.levels = new Level[capacity];
+        this.patterns = new String[capacity];
+    }
+
+    @Override
+    public void start() {
+        if (configuration != null) {
+            future = configuration
+                    .getScheduler()
+                    .scheduleWithFixedDelay(this::summarize, windowNanos, windowNanos, TimeUnit.NANOSECONDS);
+        }
+        super.start();
+    }
+
+    @Override
+    public boolean stop(final long timeout, final TimeUnit timeUnit) {
+        if (future != null) {
+            future.cancel(false);
+        }
+        return super.stop(timeout, timeUnit);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final String msg, final Object... params) {
+        return filter(logger, level, logger.getMessageFactory().newMessage(msg, params));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final Object msg, final Throwable t) {
+        if (msg == null) {
+            // A probe such as Logger.isInfoEnabled(), not an event
+            return Result.NEUTRAL;
+        }
+        return filter(logger, level, logger.getMessageFactory().newMessage(msg));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final Message msg, final Throwable t) {
+        return filter(logger.getName(), level, msg);
+    }
+
+    @Override
+    public Result filter(final LogEvent event) {
+        return filter(event.getLoggerName(), event.getLevel(), event.getMessage());
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final String msg, final Object p0) {
+        return filter(logger, level, logger.getMessageFactory().newMessage(msg, p0));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1) {
+        return filter(logger, level, logger.getMessageFactory().newMessage(msg, p0, p1));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2) {
+        return filter(logger, level, logger.getMessageFactory().newMessage(msg, p0, p1, p2));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3) {
+        return filter(logger, level, logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4) {
+        return filter(logger, level, logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5) {
+        return filter(logger, level, logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6) {
+        return filter(logger, level, logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5, p6));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7) {
+        return filter(logger, level, logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5, p6, p7));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7,
+            final Object p8) {
+        return filter(logger, level, logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5, p6, p7, p8));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7,
+            final Object p8,
+            final Object p9) {
+        return filter(
+                logger, level, logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5, p6, p7, p8, p9));
+    }
+
+    /**
+     * Filters a message created by the message factory of the logger and releases it.
+     */
+    private Result filter(final Logger logger, final Level level, final Message message) {
+        try {
+            return filter(logger.getName(), level, message);
+        } finally {
+            ReusableMessageFactory.release(message);
+        }
+    }
+
+    private Result filter(final String loggerName, final Level level, final Message message) {
+        if (message == null) {
+            return Result.NEUTRAL;
+        }
+        if (message instanceof SummaryMessage) {
+            // Do not track the summaries of this filter
+            return onMatch;
+        }
+        final String format = message.getFormat();
+        if (format == null) {
+            // E.g., an object message: only the formatted message identifies the event
+            final String formattedMessage = message.getFormattedMessage();
+            return filter(loggerName, level, formattedMessage, hash(loggerName, level, formattedMessage));
+        }
+        final long hash = hash(loggerName, level, format);
+        final ParameterHasher hasher = PARAMETER_HASHERS != null ? PARAMETER_HASHERS.get() : new ParameterHasher();
+        hasher.hash = hash;
+        hasher.hashable = true;
+        if (message instanceof ParameterVisitable) {
+            // Does not copy the parameters of reusable messages and events
+            ((ParameterVisitable) message).forEachParameter(hasher, hasher);
+        } else {
+            final Object[] parameters = message.getParameters();
+            if (parameters != null) {
+                for (int i = 0; i < parameters.length && hasher.hashable; i++) {
+                    hasher.accept(parameters[i], i, hasher);
+                }
+            }
+        }
+        if (!hasher.hashable) {
+            // Do not call the hashCode() method of arbitrary objects
+            return filter(loggerName, level, format, hash(hash, message.getFormattedMessage()));
+        }
+        return filter(loggerName, level, format, hasher.hash);
+    }
+
+    /**
+     * Looks up an event in the table.
+     *
+     * @param loggerName The name of the logger.
+     * @param level The level of the event.
+     * @param pattern The message pattern, may be {@code null}.
+     * @param hash The hash of the event, not yet {@linkplain #mix mixed}.
+     * @return The onMismatch value if the event is a duplicate, onMatch otherwise.
+     */
+    private Result filter(final String loggerName, final Level level, final String pattern, final long hash) {
+        final long key = mix(hash);
+        final long now = nanoClock.nanoTime();
+        final int stripe = (int) key & (STRIPES - 1);
+        final int start = (int) (key >>> 32);
+        synchronized (locks[stripe]) {
+            int victim = -1;
+            for (int i = 0; i < probes; i++) {
+                final int slot = stripe * stripeSize + ((start + i) & (stripeSize - 1));
+                if (keys[slot] == key) {
+                    if (now - windowStarts[slot] < windowNanos) {
+                        duplicates[slot]++;
+                        return onMismatch;
+                    }
+                    windowStarts[slot] = now;
+                    return onMatch;
+                }
+                // Prefer free slots, then the oldest entry
+                if (victim < 0
+                        || (keys[victim] != EMPTY
+                                && (keys[slot] == EMPTY || windowStarts[slot] - windowStarts[victim] < 0))) {
+                    victim = slot;
+                }
+            }
+            keys[victim] = key;
+            windowStarts[victim] = now;
+            duplicates[victim] = 0;
+            loggerNames[victim] = loggerName;
+            levels[victim] = level;
+            patterns[victim] = pattern;
+            return onMatch;
+        }
+    }
+
+    private static long hash(final String loggerName, final Level level, final String pattern) {
+        long hash = hash(0, loggerName);
+        hash = hash(hash, level != null ? level.name() : null);
+        return hash(hash, pattern);
+    }
+
+    private static long hash(final long hash, final Object value) {
+        return (hash ^ Objects.hashCode(value)) * 0x9e3779b97f4a7c15L;
+    }
+
+    /**
+     * Checks if the hash code of a parameter is cheap, can not fail and only depends on its value.
+     */
+    private static boolean isHashable(final Object value) {
+        return value == null
+                || value instanceof String
+                || value instanceof Integer
+                || value instanceof Long
+                || value instanceof Boolean
+                || value instanceof Character
+                || value instanceof Double
+                || value instanceof Float
+                || value instanceof Short
+                || value instanceof Byte
+                || value instanceof Enum;
+    }
+
+    /**
+     * Spreads the bits of a hash, so that both halves can be used to locate a slot.
+     */
+    private static long mix(final long hash) {
+        long h = hash;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == EMPTY ? 1 : h;
+    }
+
+    /**
+     * Logs the number of suppressed duplicates and frees the entries with an expired window.
+     * <p>
+     * Called once per window by the configuration scheduler.
+     * </p>
+     */
+    void summarize() {
+        final List<Summary> summaries = new ArrayList<>();
+        final long now = nanoClock.nanoTime();
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            synchronized (locks[stripe]) {
+                for (int slot = stripe * stripeSize; slot < (stripe + 1) * stripeSize; slot++) {
+                    if (keys[slot] == EMPTY) {
+                        continue;
+                    }
+                    if (duplicates[slot] > 0) {
+                        summaries.add(new Summary(loggerNames[slot], levels[slot], patterns[slot], duplicates[slot]));
+                        duplicates[slot] = 0;
+                    } else if (now - windowStarts[slot] >= windowNanos) {
+                        keys[slot] = EMPTY;
+                        loggerNames[slot] = null;
+                        levels[slot] = null;
+                        patterns[slot] = null;
+                    }
+                }
+            }
+        }
+        if (configuration == null) {
+            return;
+        }
+        final LoggerContext loggerContext = configuration.getLoggerContext();
+        for (final Summary summary : summaries) {
+            final Message message = new SummaryMessage(summary.count, summary.pattern);
+            if (loggerContext != null) {
+                // Log through the logger, so that the summaries are filtered like any other event
+                loggerContext.getLogger(summary.loggerName).logIfEnabled(FQCN, summary.level, null, message, null);
+            } else {
+                LOGGER.log(summary.level, "{}: {}", summary.loggerName, message.getFormattedMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the number of duplicates of a message pattern suppressed since the last summary. Used for unit testing.
+     * @param pattern The message pattern.
+     * @return The number of suppressed duplicates.
+     */
+    long getDuplicateCount(final String pattern) {
+        long count = 0;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            synchronized (locks[stripe]) {
+                for (int slot = stripe * stripeSize; slot < (stripe + 1) * stripeSize; slot++) {
+                    if (keys[slot] != EMPTY && Objects.equals(patterns[slot], pattern)) {
+                        count += duplicates[slot];
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "windowSeconds=" + TimeUnit.NANOSECONDS.toSeconds(windowNanos) + ", maxEntries=" + keys.length;
+    }
+
+    private static final class Summary {
+
+        private final String loggerName;
+
+        private final Level level;
+
+        private final String pattern;
+
+        private final long count;
+
+        private Summary(final String loggerName, final Level level, final String pattern, final long count) {
+            this.loggerName = loggerName;
+            this.level = level;
+            this.pattern = pattern;
+            this.count = count;
+        }
+    }
+
+    /**
+     * The summary of the duplicates of a message pattern.
+     */
+    private static final class SummaryMessage extends ParameterizedMessage {
+
+        private static final long serialVersionUID = 1L;
+
+        private SummaryMessage(final long count, final String pattern) {
+            super(SUMMARY_PATTERN, count, pattern);
+        }
+    }
+
+    /**
+     * Hashes the parameters of a {@link ParameterVisitable} without copying them.
+     */
+    private static final class ParameterHasher implements ParameterConsumer<ParameterHasher> {
+
+        private long hash;
+
+        /**
+         * Whether all the parameters are {@linkplain #isHashable hashable}.
+         */
+        private boolean hashable;
+
+        @Override
+        public void accept(final Object parameter, final int parameterIndex, final ParameterHasher state) {
+            if (!isHashable(parameter)) {
+                state.hashable = false;
+            } else if (state.hashable) {
+                state.hash = hash(state.hash, parameter);
+            }
+        }
+    }
+
+    @PluginBuilderFactory
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder extends AbstractFilterBuilder<Builder>
+            implements org.apache.logging.log4j.core.util.Builder<DuplicateFilter> {
+
+        @PluginBuilderAttribute
+        private int windowSeconds = DEFAULT_WINDOW_SECONDS;
+
+        @PluginBuilderAttribute
+        private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+        @PluginConfiguration
+        private Configuration configuration;
+
+        /**
+         * Sets the length of the time window.
+         * @param windowSeconds the number of seconds during which duplicates are suppressed, also the interval
+         * between two summaries. This must be a positive number.
+         * @return this
+         */
+        public Builder setWindowSeconds(final int windowSeconds) {
+            this.windowSeconds = windowSeconds;
+            return this;
+        }
+
+        /**
+         * Sets the size of the table of events.
+         * @param maxEntries the maximum number of distinct events tracked, rounded up to a power of two.
+         * @return this
+         */
+        public Builder setMaxEntries(final int maxEntries) {
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * Sets the configuration, used to log the summaries.
+         * @param configuration the configuration.
+         * @return this
+         */
+        public Builder setConfiguration(final Configuration configuration) {
+            this.configuration = configuration;
+            return this;
+        }
+
+        @Override
+        public DuplicateFilter build() {
+            if (this.windowSeconds <= 0) {
+                LOGGER.warn(
+                        "Invalid window {}, using {} seconds instead.", this.windowSeconds, DEFAULT_WINDOW_SECONDS);
+                this.windowSeconds = DEFAULT_WINDOW_SECONDS;
+            }
+            if (this.maxEntries <= 0) {
+                LOGGER.warn(
+                        "Invalid maximum number of entries {}, using {} instead.",
+                        this.maxEntries,
+                        DEFAULT_MAX_ENTRIES);
+                this.maxEntries = DEFAULT_MAX_ENTRIES;
+            }
+            if (configuration != null) {
+                configuration.getScheduler().incrementScheduledItems();
+            }
+            return new DuplicateFilter(
+                    TimeUnit.SECONDS.toNanos(windowSeconds),
+                    maxEntries,
+                    new SystemNanoClock(),
+                    configuration,
+                    this.getOnMatch(),
+                    this.getOnMismatch());
+        }
+    }
+}
@@ -16,6 +16,7 @@
  */
 package org.apache.logging.log4j.core.filter;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -79,7 +80,15 @@ public final class DynamicThresholdFilter extends AbstractFilter {
     private Level defaultThreshold = Level.ERROR;
     private final String key;
     private final ContextDataInjector injector = ContextDataInjectorFactory.createInjector();
-    private Map<String, Level> levelMap = new HashMap<>();
+    private final Map<String, Level> levelMap;
+
+    /**
+     * The most and least specific of all thresholds. Events outside of this range are accepted or rejected without
+     * looking up the threshold of the context value.
+     */
+    private final Level mostSpecificThreshold;
+
+    private final Level leastSpecificThreshold;
 
     private DynamicThresholdFilter(
             final String key,
@@ -96,8 +105,20 @@ public final class DynamicThresholdFilter extends AbstractFilter {
                 map.size());
         Objects.requireNonNull(key, "key cannot be null");
         this.key = key;
-        this.levelMap = pairs;
+        this.levelMap = Collections.unmodifiableMap(pairs);
         this.defaultThreshold = defaultLevel;
+        Level mostSpecific = defaultLevel;
+        Level leastSpecific = defaultLevel;
+        for (final Level level : pairs.values()) {
+            if (level.isMoreSpecificThan(mostSpecific)) {
+                mostSpecific = level;
+            }
+            if (level.isLessSpecificThan(leastSpecific)) {
+                leastSpecific = level;
+            }
+        }
+        this.mostSpecificThreshold = mostSpecific;
+        this.leastSpecificThreshold = leastSpecific;
     }
 
     @Override
@@ -126,6 +147,12 @@ public final class DynamicThresholdFilter extends AbstractFilter {
 
     private Result filter(final Level level, final Object value) {
         if (value != null) {
+            if (level.isMoreSpecificThan(mostSpecificThreshold)) {
+                return onMatch;
+            }
+            if (!level.isMoreSpecificThan(leastSpecificThreshold)) {
+                return onMismatch;
+            }
             Level ctxLevel = levelMap.get(Objects.toString(value, null));
             if (ctxLevel == null) {
                 ctxLevel = defaultThreshold;
@@ -317,6 +344,11 @@ public final class DynamicThresholdFilter extends AbstractFilter {
         return result;
     }
 
+    @Override
+    public MessageRequirement getMessageRequirement() {
+        return MessageRequirement.NONE;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
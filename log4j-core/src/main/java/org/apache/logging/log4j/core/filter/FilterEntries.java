@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.apache.logging.log4j.core.config.ConfigurationSource;
+import org.apache.logging.log4j.core.util.NetUtils;
+
+/**
+ * Reads the entries of the filters that match against a set of values.
+ * <p>
+ *     Leading and trailing whitespace is removed from the entries of both sources, unless it is escaped.
+ *     A backslash escapes the next character, so that {@code \,} is a literal comma, {@code \ } a space that is kept,
+ *     {@code \#} a leading number sign and {@code \\} a literal backslash.
+ * </p>
+ */
+final class FilterEntries {
+
+    private static final String COMMENT_PREFIX = "#";
+
+    private static final char ESCAPE = '\\';
+
+    private static final char SEPARATOR = ',';
+
+    private FilterEntries() {}
+
+    /**
+     * Collects the entries from a comma-separated list and from a file.
+     *
+     * @param entries A comma-separated list of entries or {@code null}.
+     * @param location The path or URI of a UTF-8 file with one entry per line or {@code null}.
+     *                 Empty lines and lines starting with {@code #} are ignored.
+     * @return The entries in their original order, without duplicates.
+     * @throws IOException If the file can not be read.
+     */
+    static Set<String> load(final String entries, final String location) throws IOException {
+        final Set<String> result = new LinkedHashSet<>();
+        if (entries != null) {
+            parse(entries, true, result);
+        }
+        if (location != null) {
+            final ConfigurationSource source = ConfigurationSource.fromUri(NetUtils.toURI(location));
+            if (source == null) {
+                throw new IOException("Unable to find " + location);
+            }
+            try (final InputStream inputStream = source.getInputStream();
+                    final BufferedReader reader =
+                            new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.trim().startsWith(COMMENT_PREFIX)) {
+                        parse(line, false, result);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Unescapes the entries of a text and adds the non-empty ones to the result.
+     *
+     * @param text A single entry or a comma-separated list of entries.
+     * @param commaSeparated Whether unescaped commas separate entries.
+     * @param result The entries found so far.
+     */
+    private static void parse(final String text, final boolean commaSeparated, final Set<String> result) {
+        final StringBuilder entry = new StringBuilder();
+        // Escaped characters are never trimmed
+        int escapedLength = 0;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (c == ESCAPE && i + 1 < text.length()) {
+                entry.append(text.charAt(++i));
+                escapedLength = entry.length();
+            } else if (c == SEPARATOR && commaSeparated) {
+                addEntry(entry, escapedLength, result);
+                entry.setLength(0);
+                escapedLength = 0;
+            } else if (entry.length() > 0 || !Character.isWhitespace(c)) {
+                entry.append(c);
+            }
+        }
+        addEntry(entry, escapedLength, result);
+    }
+
+    private static void addEntry(final StringBuilder entry, final int escapedLength, final Set<String> result) {
+        int length = entry.length();
+        while (length > escapedLength && Character.isWhitespace(entry.charAt(length - 1))) {
+            length--;
+        }
+        if (length > 0) {
+            result.add(entry.substring(0, length));
+        }
+    }
+}
@@ -212,6 +212,11 @@ public final class LevelMatchFilter extends AbstractFilter {
         return filter(level);
     }
 
+    @Override
+    public MessageRequirement getMessageRequirement() {
+        return MessageRequirement.NONE;
+    }
+
     @Override
     public String toString() {
         return level.toString();
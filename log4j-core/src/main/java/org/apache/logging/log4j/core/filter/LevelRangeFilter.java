@@ -278,6 +278,11 @@ public final class LevelRangeFilter extends AbstractFilter {
         return maxLevel;
     }
 
+    @Override
+    public MessageRequirement getMessageRequirement() {
+        return MessageRequirement.NONE;
+    }
+
     @Override
     public String toString() {
         return String.format("[%s,%s]", minLevel, maxLevel);
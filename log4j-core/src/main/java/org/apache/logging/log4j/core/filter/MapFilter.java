@@ -17,10 +17,14 @@
 package org.apache.logging.log4j.core.filter;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.core.Filter;
@@ -42,6 +46,11 @@ import org.apache.logging.log4j.util.SortedArrayStringMap;
 
 /**
  * A Filter that operates on a Map.
+ * <p>
+ * The configured values of each key are indexed in a hash set, so the cost of evaluating the filter does not depend on
+ * the number of values. The keys are checked starting from the one most likely to decide the result: the one with the
+ * fewest values for the {@code and} operator and the one with the most values for the {@code or} operator.
+ * </p>
  */
 @Plugin(name = "MapFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
 @PerformanceSensitive("allocation")
@@ -50,6 +59,16 @@ public class MapFilter extends AbstractFilter {
     private final IndexedStringMap map;
     private final boolean isAnd;
 
+    /**
+     * The configured keys, in evaluation order.
+     */
+    private final String[] indexKeys;
+
+    /**
+     * The configured values of each key of {@link #indexKeys}.
+     */
+    private final Set<String>[] indexValues;
+
     protected MapFilter(
             final Map<String, List<String>> map, final boolean oper, final Result onMatch, final Result onMismatch) {
         super(onMatch, onMismatch);
@@ -60,6 +79,50 @@ public class MapFilter extends AbstractFilter {
         for (final Map.Entry<String, List<String>> entry : map.entrySet()) {
             this.map.putValue(entry.getKey(), entry.getValue());
         }
+        this.indexKeys = new String[this.map.size()];
+        this.indexValues = createIndex(this.map, oper, indexKeys);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<String>[] createIndex(
+            final IndexedReadOnlyStringMap map, final boolean isAnd, final String[] indexKeys) {
+        final List<Integer> order = new ArrayList<>(map.size());
+        for (int i = 0; i < map.size(); i++) {
+            order.add(i);
+        }
+        final Comparator<Integer> bySize =
+                Comparator.comparingInt(i -> map.<List<String>>getValueAt(i).size());
+        // A key with few values is the most likely to fail a conjunction, one with many to satisfy a disjunction
+        order.sort(isAnd ? bySize : bySize.reversed());
+        final Set<String>[] indexValues = new Set[order.size()];
+        for (int i = 0; i < indexKeys.length; i++) {
+            final int mapIndex = order.get(i);
+            final List<String> values = map.getValueAt(mapIndex);
+            indexKeys[i] = map.getKeyAt(mapIndex);
+            indexValues[i] = values.size() == 1 ? Collections.singleton(values.get(0)) : new HashSet<>(values);
+        }
+        return indexValues;
+    }
+
+    /**
+     * Returns the number of configured keys.
+     */
+    int getIndexSize() {
+        return indexKeys.length;
+    }
+
+    /**
+     * Returns the configured key to check at the given position.
+     */
+    String getIndexKeyAt(final int index) {
+        return indexKeys[index];
+    }
+
+    /**
+     * Checks whether a value of the key at the given position matches.
+     */
+    boolean indexContainsValueAt(final int index, final String value) {
+        return value != null && indexValues[index].contains(value);
     }
 
     @Override
@@ -82,9 +145,8 @@ public class MapFilter extends AbstractFilter {
 
     protected boolean filter(final MapMessage<?, ?> mapMessage) {
         boolean match = false;
-        for (int i = 0; i < map.size(); i++) {
-            final String toMatch = mapMessage.get(map.getKeyAt(i));
-            match = toMatch != null && ((List<String>) map.getValueAt(i)).contains(toMatch);
+        for (int i = 0; i < indexKeys.length; i++) {
+            match = indexContainsValueAt(i, mapMessage.get(indexKeys[i]));
 
             if ((!isAnd && match) || (isAnd && !match)) {
                 break;
@@ -95,9 +157,8 @@ public class MapFilter extends AbstractFilter {
 
     protected boolean filter(final Map<String, String> data) {
         boolean match = false;
-        for (int i = 0; i < map.size(); i++) {
-            final String toMatch = data.get(map.getKeyAt(i));
-            match = toMatch != null && ((List<String>) map.getValueAt(i)).contains(toMatch);
+        for (int i = 0; i < indexKeys.length; i++) {
+            match = indexContainsValueAt(i, data.get(indexKeys[i]));
 
             if ((!isAnd && match) || (isAnd && !match)) {
                 break;
@@ -108,9 +169,8 @@ public class MapFilter extends AbstractFilter {
 
     protected boolean filter(final ReadOnlyStringMap data) {
         boolean match = false;
-        for (int i = 0; i < map.size(); i++) {
-            final String toMatch = data.getValue(map.getKeyAt(i));
-            match = toMatch != null && ((List<String>) map.getValueAt(i)).contains(toMatch);
+        for (int i = 0; i < indexKeys.length; i++) {
+            match = indexContainsValueAt(i, data.getValue(indexKeys[i]));
 
             if ((!isAnd && match) || (isAnd && !match)) {
                 break;
@@ -260,6 +320,11 @@ public class MapFilter extends AbstractFilter {
         return Result.NEUTRAL;
     }
 
+    @Override
+    public MessageRequirement getMessageRequirement() {
+        return MessageRequirement.RAW_MESSAGE;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
@@ -212,6 +212,11 @@ public final class MarkerFilter extends AbstractFilter {
         return filter(marker);
     }
 
+    @Override
+    public MessageRequirement getMessageRequirement() {
+        return MessageRequirement.NONE;
+    }
+
     @Override
     public String toString() {
         return name;
@@ -0,0 +1,316 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * This filter returns the onMatch result if the marker in the LogEvent or one of its parents has one of the
+ * configured names.
+ * <p>
+ *     Unlike a chain of {@link MarkerFilter}s, the marker of an event is looked up once in a hash set,
+ *     so the cost of the filter does not grow with the number of names for markers without parents.
+ *     Markers with parents are checked against each name with {@link Marker#isInstanceOf(String)}.
+ * </p>
+ *
+ * @since 2.27.0
+ */
+@Plugin(name = "MarkerSetFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
+@PerformanceSensitive("allocation")
+public final class MarkerSetFilter extends AbstractFilter {
+
+    private final Set<String> names;
+
+    private final String[] nameArray;
+
+    private MarkerSetFilter(final Set<String> names, final Result onMatch, final Result onMismatch) {
+        super(onMatch, onMismatch);
+        this.names = Collections.unmodifiableSet(names);
+        this.nameArray = names.toArray(new String[0]);
+    }
+
+    /**
+     * Returns the names of the matching markers.
+     *
+     * @return An unmodifiable set of marker names.
+     */
+    public Set<String> getNames() {
+        return names;
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final String msg, final Object... params) {
+        return filter(marker);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final Object msg, final Throwable t) {
+        return filter(marker);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final Message msg, final Throwable t) {
+        return filter(marker);
+    }
+
+    @Override
+    public Result filter(final LogEvent event) {
+        return filter(event.getMarker());
+    }
+
+    private Result filter(final Marker marker) {
+        return marker != null && matches(marker) ? onMatch : onMismatch;
+    }
+
+    private boolean matches(final Marker marker) {
+        if (names.contains(marker.getName())) {
+            return true;
+        }
+        if (marker.hasParents()) {
+            // Unlike `getParents()`, `isInstanceOf()` walks the ancestors without copying them
+            for (final String name : nameArray) {
+                if (marker.isInstanceOf(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final String msg, final Object p0) {
+        return filter(marker);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1) {
+        return filter(marker);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2) {
+        return filter(marker);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3) {
+        return filter(marker);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4) {
+        return filter(marker);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5) {
+        return filter(marker);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6) {
+        return filter(marker);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7) {
+        return filter(marker);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7,
+            final Object p8) {
+        return filter(marker);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7,
+            final Object p8,
+            final Object p9) {
+        return filter(marker);
+    }
+
+    @Override
+    public MessageRequirement getMessageRequirement() {
+        return MessageRequirement.NONE;
+    }
+
+    @Override
+    public String toString() {
+        return names.toString();
+    }
+
+    @PluginBuilderFactory
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static final class Builder extends AbstractFilterBuilder<Builder>
+            implements org.apache.logging.log4j.core.util.Builder<MarkerSetFilter> {
+
+        @PluginBuilderAttribute
+        private String markers;
+
+        @PluginBuilderAttribute
+        private String location;
+
+        private Builder() {}
+
+        /**
+         * Sets the names of the markers to match.
+         *
+         * @param markers A comma-separated list of marker names, in which a backslash escapes the next character.
+         * @return this instance.
+         */
+        public Builder setMarkers(final String markers) {
+            this.markers = markers;
+            return this;
+        }
+
+        /**
+         * Sets the location of a file with additional marker names.
+         *
+         * @param location The path or URI of a UTF-8 file with one marker name per line.
+         *                 Empty lines and lines starting with {@code #} are ignored.
+         * @return this instance.
+         */
+        public Builder setLocation(final String location) {
+            this.location = location;
+            return this;
+        }
+
+        @Override
+        public MarkerSetFilter build() {
+            final Set<String> entries;
+            try {
+                entries = FilterEntries.load(markers, location);
+            } catch (final IOException e) {
+                LOGGER.error("Unable to read the markers of MarkerSetFilter from {}", location, e);
+                return null;
+            }
+            if (entries.isEmpty()) {
+                LOGGER.error("No markers provided for MarkerSetFilter");
+                return null;
+            }
+            return new MarkerSetFilter(entries, getOnMatch(), getOnMismatch());
+        }
+    }
+}
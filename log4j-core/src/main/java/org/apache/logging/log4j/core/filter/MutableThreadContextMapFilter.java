@@ -23,8 +23,10 @@ import java.io.InputStream;
 import java.net.URI;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import org.apache.logging.log4j.Level;
@@ -46,6 +48,7 @@ import org.apache.logging.log4j.core.filter.mutable.KeyValuePairConfig;
 import org.apache.logging.log4j.core.internal.annotation.SuppressFBWarnings;
 import org.apache.logging.log4j.core.util.AuthorizationProvider;
 import org.apache.logging.log4j.core.util.KeyValuePair;
+import org.apache.logging.log4j.core.util.WatchManager;
 import org.apache.logging.log4j.core.util.internal.HttpInputStreamUtil;
 import org.apache.logging.log4j.core.util.internal.LastModifiedSource;
 import org.apache.logging.log4j.core.util.internal.Status;
@@ -55,6 +58,20 @@ import org.apache.logging.log4j.util.PropertiesUtil;
 
 /**
  * Filter based on a value in the Thread Context Map (MDC).
+ * <p>
+ *     The allowed values are read from a JSON document, which is checked for changes every {@code pollInterval}
+ *     seconds:
+ * </p>
+ * <ul>
+ *     <li>local files are registered with a {@link WatchManager} and are only read and parsed when their
+ *     modification time changes,</li>
+ *     <li>HTTP and HTTPS resources are retrieved with conditional requests ({@code If-Modified-Since} and
+ *     {@code If-None-Match}). After a failed request the following polls are skipped with an exponential backoff.</li>
+ * </ul>
+ * <p>
+ *     A new filter is only created if the set of allowed values actually changed and it replaces the previous one
+ *     in a single volatile write.
+ * </p>
  */
 @Plugin(
         name = "MutableThreadContextMapFilter",
@@ -71,14 +88,22 @@ public class MutableThreadContextMapFilter extends AbstractFilter {
     private static final ObjectMapper MAPPER =
             new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
     private static final KeyValuePair[] EMPTY_ARRAY = {};
+    /**
+     * The maximal number of poll intervals between two requests to an unavailable resource.
+     */
+    private static final int MAX_BACKOFF_INTERVALS = 64;
 
     private volatile Filter filter;
     private final long pollInterval;
     private final ConfigurationScheduler scheduler;
     private final LastModifiedSource source;
     private final AuthorizationProvider authorizationProvider;
-    private final List<FilterConfigUpdateListener> listeners = new ArrayList<>();
+    private final WatchManager watchManager;
+    private final List<FilterConfigUpdateListener> listeners = new CopyOnWriteArrayList<>();
     private ScheduledFuture<?> future = null;
+    // Guarded by `this`
+    private KeyValuePair[] pairs = EMPTY_ARRAY;
+    private boolean loaded;
 
     private MutableThreadContextMapFilter(
             final Filter filter,
@@ -94,11 +119,17 @@ public class MutableThreadContextMapFilter extends AbstractFilter {
         this.source = source;
         this.scheduler = configuration.getScheduler();
         this.authorizationProvider = authorizationProvider;
+        this.watchManager =
+                pollInterval > 0 && source != null && source.getFile() != null ? new WatchManager(scheduler) : null;
     }
 
     @Override
     public void start() {
         if (pollInterval > 0) {
+            if (watchManager != null) {
+                watchManager.watchFile(source.getFile(), file -> reload());
+                watchManager.start();
+            }
             future = scheduler.scheduleWithFixedDelay(new FileMonitor(), 0, pollInterval, TimeUnit.SECONDS);
             LOGGER.debug("Watching {} with poll interval {}", source.toString(), pollInterval);
         }
@@ -107,7 +138,12 @@ public class MutableThreadContextMapFilter extends AbstractFilter {
 
     @Override
     public boolean stop(final long timeout, final TimeUnit timeUnit) {
-        future.cancel(true);
+        if (future != null) {
+            future.cancel(true);
+        }
+        if (watchManager != null) {
+            watchManager.stop(timeout, timeUnit);
+        }
         return super.stop(timeout, timeUnit);
     }
 
@@ -120,6 +156,11 @@ public class MutableThreadContextMapFilter extends AbstractFilter {
         return new Builder();
     }
 
+    @Override
+    public MessageRequirement getMessageRequirement() {
+        return MessageRequirement.NONE;
+    }
+
     @Override
     public Result filter(final LogEvent event) {
         return filter.filter(event);
@@ -335,68 +376,99 @@ public class MutableThreadContextMapFilter extends AbstractFilter {
             }
             final AuthorizationProvider authorizationProvider =
                     ConfigurationFactory.authorizationProvider(PropertiesUtil.getProperties());
-            Filter filter;
+            final MutableThreadContextMapFilter filter = new MutableThreadContextMapFilter(
+                    new NoOpFilter(),
+                    source,
+                    pollInterval,
+                    authorizationProvider,
+                    getOnMatch(),
+                    getOnMismatch(),
+                    configuration);
             if (pollInterval <= 0) {
-                final ConfigResult result = getConfig(source, authorizationProvider);
-                if (result.status == Status.SUCCESS) {
-                    if (result.pairs.length > 0) {
-                        filter = ThreadContextMapFilter.createFilter(result.pairs, "or", getOnMatch(), getOnMismatch());
-                    } else {
-                        filter = new NoOpFilter();
-                    }
-                } else if (result.status == Status.NOT_FOUND || result.status == Status.EMPTY) {
-                    filter = new NoOpFilter();
-                } else {
-                    LOGGER.warn("Unexpected response returned on initial call: {}", result.status);
-                    filter = new NoOpFilter();
+                final Status status = filter.reload();
+                if (status != Status.SUCCESS && status != Status.NOT_FOUND && status != Status.EMPTY) {
+                    LOGGER.warn("Unexpected response returned on initial call: {}", status);
                 }
             } else {
-                filter = new NoOpFilter();
-            }
-
-            if (pollInterval > 0) {
                 configuration.getScheduler().incrementScheduledItems();
             }
-            return new MutableThreadContextMapFilter(
-                    filter, source, pollInterval, authorizationProvider, getOnMatch(), getOnMismatch(), configuration);
+            return filter;
+        }
+    }
+
+    /**
+     * Retrieves the configuration and replaces the current filter if the set of key/value pairs changed.
+     *
+     * @return The status of the retrieval or {@link Status#NOT_MODIFIED} if the content did not change.
+     */
+    private synchronized Status reload() {
+        final ConfigResult result = getConfig(source, authorizationProvider);
+        final KeyValuePair[] newPairs;
+        switch (result.status) {
+            case SUCCESS:
+                newPairs = result.pairs;
+                break;
+            case NOT_FOUND:
+            case EMPTY:
+                newPairs = EMPTY_ARRAY;
+                break;
+            // These results do not cause changes in the filter
+            default:
+                return result.status;
+        }
+        if (loaded && Arrays.equals(pairs, newPairs)) {
+            LOGGER.debug("MutableThreadContextMapFilter configuration did not change");
+            return Status.NOT_MODIFIED;
+        }
+        // The new filter is created before it is published
+        final Filter newFilter = newPairs.length > 0
+                ? ThreadContextMapFilter.createFilter(newPairs, "or", getOnMatch(), getOnMismatch())
+                : new NoOpFilter();
+        final boolean removed = pairs.length > 0 && result.status == Status.NOT_FOUND;
+        pairs = newPairs;
+        loaded = true;
+        filter = newFilter;
+        switch (result.status) {
+            case SUCCESS:
+                LOGGER.info("MutableThreadContextMapFilter configuration was updated: {}", newFilter.toString());
+                break;
+            case NOT_FOUND:
+                if (removed) {
+                    LOGGER.info("MutableThreadContextMapFilter configuration was removed");
+                }
+                break;
+            default:
+                LOGGER.debug("MutableThreadContextMapFilter configuration is empty");
         }
+        for (FilterConfigUpdateListener listener : listeners) {
+            listener.onEvent();
+        }
+        return result.status;
     }
 
     private class FileMonitor implements Runnable {
 
+        private boolean initialized;
+        private int failures;
+        private int skippedPolls;
+
         @Override
         public void run() {
-            final ConfigResult result = getConfig(source, authorizationProvider);
-            switch (result.status) {
-                case SUCCESS:
-                    filter = ThreadContextMapFilter.createFilter(result.pairs, "or", getOnMatch(), getOnMismatch());
-                    LOGGER.info("MutableThreadContextMapFilter configuration was updated: {}", filter.toString());
-                    break;
-                case NOT_FOUND:
-                    if (!(filter instanceof NoOpFilter)) {
-                        LOGGER.info("MutableThreadContextMapFilter configuration was removed");
-                        filter = new NoOpFilter();
-                    }
-                    break;
-                case EMPTY:
-                    LOGGER.debug("MutableThreadContextMapFilter configuration is empty");
-                    filter = new NoOpFilter();
-                    break;
-            }
-            switch (result.status) {
-                // These results cause changes in the filter
-                // We call the listeners
-                case SUCCESS:
-                case NOT_FOUND:
-                case EMPTY:
-                    for (FilterConfigUpdateListener listener : listeners) {
-                        listener.onEvent();
-                    }
-                    break;
-                // These results do no cause changes in the filter
-                case ERROR:
-                case NOT_MODIFIED:
-                    break;
+            if (initialized && watchManager != null) {
+                // Only calls `reload()` if the modification time of the file changed.
+                watchManager.checkFiles();
+            } else if (skippedPolls > 0) {
+                skippedPolls--;
+            } else if (reload() == Status.ERROR) {
+                failures++;
+                skippedPolls = Math.min(1 << Math.min(failures, 30), MAX_BACKOFF_INTERVALS) - 1;
+                LOGGER.debug(
+                        "MutableThreadContextMapFilter failed to retrieve {}, retrying in {} seconds",
+                        source,
+                        (skippedPolls + 1) * pollInterval);
+            } else {
+                initialized = true;
+                failures = 0;
             }
         }
     }
@@ -425,18 +497,13 @@ public class MutableThreadContextMapFilter extends AbstractFilter {
         final File inputFile = source.getFile();
         InputStream inputStream = null;
         HttpInputStreamUtil.Result result;
-        final long lastModified = source.getLastModified();
         URI uri = source.getURI();
         if (inputFile != null && inputFile.exists()) {
+            // Changes to local files are detected by the caller
             try {
-                final long modified = inputFile.lastModified();
-                if (modified > lastModified) {
-                    source.setLastModified(modified);
-                    inputStream = Files.newInputStream(inputFile.toPath());
-                    result = new HttpInputStreamUtil.Result(Status.SUCCESS);
-                } else {
-                    result = new HttpInputStreamUtil.Result(Status.NOT_MODIFIED);
-                }
+                source.setLastModified(inputFile.lastModified());
+                inputStream = Files.newInputStream(inputFile.toPath());
+                result = new HttpInputStreamUtil.Result(Status.SUCCESS);
             } catch (Exception ex) {
                 result = new HttpInputStreamUtil.Result(Status.ERROR);
             }
@@ -444,6 +511,11 @@ public class MutableThreadContextMapFilter extends AbstractFilter {
             try {
                 result = HttpInputStreamUtil.getInputStream(source, authorizationProvider);
                 inputStream = result.getInputStream();
+                if (result.getStatus() == Status.NOT_FOUND) {
+                    // The resource must be retrieved again, if it reappears with the same validators
+                    source.setLastModified(0);
+                    source.setEntityTag(null);
+                }
             } catch (ConfigurationException ex) {
                 result = new HttpInputStreamUtil.Result(Status.ERROR);
             }
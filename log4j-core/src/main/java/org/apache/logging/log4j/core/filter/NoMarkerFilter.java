@@ -206,6 +206,11 @@ public final class NoMarkerFilter extends AbstractFilter {
         return null == marker ? onMatch : onMismatch;
     }
 
+    @Override
+    public MessageRequirement getMessageRequirement() {
+        return MessageRequirement.NONE;
+    }
+
     @PluginBuilderFactory
     public static Builder newBuilder() {
         return new Builder();
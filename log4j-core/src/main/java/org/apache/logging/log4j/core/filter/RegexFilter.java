@@ -30,6 +30,9 @@ import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
 import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
 import org.apache.logging.log4j.core.config.plugins.validation.constraints.Required;
 import org.apache.logging.log4j.core.util.Assert;
+import org.apache.logging.log4j.core.util.internal.regex.CompiledRegex;
+import org.apache.logging.log4j.core.util.internal.regex.RegexEngine;
+import org.apache.logging.log4j.core.util.internal.regex.RegexEngines;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.MessageFormatMessage;
 import org.apache.logging.log4j.message.ParameterizedMessage;
@@ -42,13 +45,29 @@ import org.jspecify.annotations.Nullable;
 /**
  * This filter returns the {@code onMatch} result if the message exactly matches the configured
  * "{@code regex}" regular-expression pattern; otherwise, it returns the {@code onMismatch} result.
+ * <p>
+ *   The "{@code engine}" attribute selects the regular-expression engine used for matching: {@code jdk} (the default)
+ *   uses {@link Pattern}, whereas {@code linear} guarantees matching in time linear to the message length, which
+ *   protects against catastrophic backtracking on user-controlled messages.
+ * </p>
  */
 @Plugin(name = "RegexFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
 @NullMarked
 public final class RegexFilter extends AbstractFilter {
 
-    /** The pattern compiled from the regular-expression. */
-    private final Pattern pattern;
+    /**
+     * The JDK pattern compiled from the regular-expression on the first {@link #getPattern()} call.
+     * <p>
+     *   Matching is always performed by {@link #compiledRegex}, hence the {@code linear} engine never compiles it.
+     * </p>
+     */
+    private volatile @Nullable Pattern pattern;
+
+    /** The regular-expression compiled by the configured engine, used for matching. */
+    private final CompiledRegex compiledRegex;
+
+    /** The engine used for matching. */
+    private final RegexEngine engine;
 
     /** Flag: if {@code true} use message format-pattern / field for the match target. */
     private final boolean useRawMessage;
@@ -68,8 +87,10 @@ public final class RegexFilter extends AbstractFilter {
 
         this.useRawMessage = Boolean.TRUE.equals(builder.useRawMsg);
 
+        this.engine = RegexEngines.getEngine(builder.engine);
+
         try {
-            this.pattern = Pattern.compile(builder.regex);
+            this.compiledRegex = engine.compile(builder.regex);
         } catch (final Exception ex) {
             throw new IllegalArgumentException("Unable to compile regular expression: `" + builder.regex + "`.", ex);
         }
@@ -81,7 +102,12 @@ public final class RegexFilter extends AbstractFilter {
      * @since 2.27.0
      */
     public Pattern getPattern() {
-        return this.pattern;
+        Pattern pattern = this.pattern;
+        if (pattern == null) {
+            // Benign race: concurrent callers compile equivalent patterns
+            pattern = this.pattern = Pattern.compile(compiledRegex.getRegex());
+        }
+        return pattern;
     }
 
     /**
@@ -90,7 +116,16 @@ public final class RegexFilter extends AbstractFilter {
      * @since 2.27.0
      */
     public String getRegex() {
-        return this.pattern.pattern();
+        return this.compiledRegex.getRegex();
+    }
+
+    /**
+     * Returns the name of the regular-expression engine used for matching.
+     * @return the engine name (will never be {@code null})
+     * @since 2.27.0
+     */
+    public String getEngine() {
+        return this.engine.getName();
     }
 
     /**
@@ -202,7 +237,7 @@ public final class RegexFilter extends AbstractFilter {
      * @return the {@code onMatch} result if the pattern matches; otherwise, the {@code onMismatch} result
      */
     Result filter(final @Nullable String msg) {
-        return (msg != null && pattern.matcher(msg).matches()) ? onMatch : onMismatch;
+        return (msg != null && compiledRegex.matches(msg)) ? onMatch : onMismatch;
     }
 
     /**
@@ -241,10 +276,15 @@ public final class RegexFilter extends AbstractFilter {
                 : message.getFormattedMessage();
     }
 
+    @Override
+    public MessageRequirement getMessageRequirement() {
+        return useRawMessage ? MessageRequirement.RAW_MESSAGE : MessageRequirement.FORMATTED_MESSAGE;
+    }
+
     /** {@inheritDoc} */
     @Override
     public String toString() {
-        return "useRawMessage=" + useRawMessage + ", pattern=" + pattern;
+        return "useRawMessage=" + useRawMessage + ", pattern=" + compiledRegex.getRegex() + ", engine=" + engine.getName();
     }
 
     /**
@@ -279,6 +319,12 @@ public final class RegexFilter extends AbstractFilter {
         @PluginBuilderAttribute
         private @Nullable Boolean useRawMsg;
 
+        /**
+         * The regular-expression engine: {@code jdk} (the default) or {@code linear}.
+         */
+        @PluginBuilderAttribute
+        private @Nullable String engine;
+
         /** Private constructor. */
         private Builder() {
             super();
@@ -307,6 +353,17 @@ public final class RegexFilter extends AbstractFilter {
             return this;
         }
 
+        /**
+         * Sets the regular-expression engine.
+         *
+         * @param engine {@code jdk} (the default) or {@code linear}
+         * @return this builder
+         */
+        public Builder setEngine(final @Nullable String engine) {
+            this.engine = engine;
+            return this;
+        }
+
         /** {@inheritDoc} */
         @Override
         public boolean isValid() {
@@ -351,7 +408,8 @@ public final class RegexFilter extends AbstractFilter {
             final @Nullable Result onMismatch) {
         super(onMatch, onMismatch);
         Objects.requireNonNull(regex, "regex");
-        this.pattern = Pattern.compile(regex);
+        this.engine = RegexEngines.getEngine(null);
+        this.compiledRegex = engine.compile(regex);
         this.useRawMessage = useRawMessage;
     }
 
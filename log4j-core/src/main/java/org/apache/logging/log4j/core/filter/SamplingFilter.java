@@ -0,0 +1,558 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.ContextDataInjector;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
+import org.apache.logging.log4j.core.impl.ContextDataInjectorFactory;
+import org.apache.logging.log4j.core.util.NanoClock;
+import org.apache.logging.log4j.core.util.SystemNanoClock;
+import org.apache.logging.log4j.message.Message;
+
+/**
+ * The <code>SamplingFilter</code> keeps one out of every <code>sampleRate</code> log events at or below the configured
+ * level.
+ *
+ * <p>
+ * Events can be sampled:
+ * </p>
+ * <ul>
+ * <li>all together (<code>samplingKey="NONE"</code>, the default),</li>
+ * <li>per logger name (<code>samplingKey="LOGGER"</code>),</li>
+ * <li>per message pattern (<code>samplingKey="MESSAGE"</code>), so that rare log statements are not drowned by chatty
+ * ones, or</li>
+ * <li>per trace id (<code>samplingKey="TRACE_ID"</code>), looked up in the context data under
+ * <code>traceIdKey</code>. All events of a sampled trace are kept, so whole requests are either logged or dropped.
+ * Events without a trace id are sampled all together.</li>
+ * </ul>
+ * <p>
+ * Counters are striped by thread to avoid contention, hence the sampling is only approximately one out of
+ * <code>sampleRate</code> when many threads log at the same time. At most 1024 distinct logger names or message
+ * patterns get their own counter: any further ones share the counter of events without a key, and a warning is logged
+ * the first time this happens.
+ * </p>
+ * <p>
+ * If <code>maxEventsPerSecond</code> is positive, the filter works in adaptive mode: once per second it raises the
+ * effective sample rate, so that the number of events kept per second stays within that budget. The sample rate
+ * never drops below <code>sampleRate</code>.
+ * </p>
+ * <code>
+ * &lt;Console name="console"&gt;<br>
+ * &nbsp;&lt;PatternLayout pattern="%-5p %d{dd-MMM-yyyy HH:mm:ss} %x %t %m%n"/&gt;<br>
+ * &nbsp;&lt;Filters&gt;<br>
+ * &nbsp;&nbsp;&lt;SamplingFilter level="DEBUG" sampleRate="100" samplingKey="MESSAGE"/&gt;<br>
+ * &nbsp;&lt;/Filters&gt;<br>
+ * &lt;/Console&gt;<br>
+ * </code><br>
+ *
+ * @since 2.27.0
+ */
+@Plugin(name = "SamplingFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
+public final class SamplingFilter extends AbstractFilter {
+
+    private static final int DEFAULT_SAMPLE_RATE = 10;
+
+    private static final String DEFAULT_TRACE_ID_KEY = "traceId";
+
+    /**
+     * Maximum number of distinct logger names or message patterns tracked, further ones share a single counter.
+     */
+    private static final int MAX_KEYS = 1024;
+
+    private static final long ADAPTIVE_WINDOW_NANOS = 1000000000;
+
+    /**
+     * Number of distinct values of a 32-bit hash code.
+     */
+    private static final long HASH_RANGE = 1L << 32;
+
+    /**
+     * Selects the events sharing a sampling decision.
+     */
+    public enum SamplingKey {
+        /** All events are sampled together. */
+        NONE,
+        /** Events of each logger are sampled separately. */
+        LOGGER,
+        /** Events of each message pattern are sampled separately. */
+        MESSAGE,
+        /** Events are sampled by their trace id. */
+        TRACE_ID
+    }
+
+    private final Level level;
+
+    private final int sampleRate;
+
+    private final SamplingKey samplingKey;
+
+    private final String traceIdKey;
+
+    private final long maxEventsPerSecond;
+
+    private final NanoClock nanoClock;
+
+    private final ContextDataInjector injector = ContextDataInjectorFactory.createInjector();
+
+    private final Counter defaultCounter = new Counter();
+
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean maxKeysReached = new AtomicBoolean();
+
+    private final LongAdder events = new LongAdder();
+
+    private final AtomicLong windowEnd;
+
+    private volatile long windowStartEvents;
+
+    private volatile int effectiveSampleRate;
+
+    SamplingFilter(
+            final Level level,
+            final int sampleRate,
+            final SamplingKey samplingKey,
+            final String traceIdKey,
+            final long maxEventsPerSecond,
+            final NanoClock nanoClock,
+            final Result onMatch,
+            final Result onMismatch) {
+        super(onMatch, onMismatch);
+        this.level = level;
+        this.sampleRate = sampleRate;
+        this.samplingKey = samplingKey;
+        this.traceIdKey = traceIdKey;
+        this.maxEventsPerSecond = maxEventsPerSecond;
+        this.nanoClock = nanoClock;
+        this.windowEnd = new AtomicLong(nanoClock.nanoTime() + ADAPTIVE_WINDOW_NANOS);
+        this.effectiveSampleRate = sampleRate;
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final String msg, final Object... params) {
+        return filter(level, logger.getName(), msg, null);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final Object msg, final Throwable t) {
+        return filter(level, logger.getName(), msg instanceof String ? (String) msg : null, null);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final Message msg, final Throwable t) {
+        return filter(level, logger.getName(), msg, null);
+    }
+
+    @Override
+    public Result filter(final LogEvent event) {
+        return filter(event.getLevel(), event.getLoggerName(), event.getMessage(), event);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final String msg, final Object p0) {
+        return filter(level, logger.getName(), msg, null);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1) {
+        return filter(level, logger.getName(), msg, null);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2) {
+        return filter(level, logger.getName(), msg, null);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3) {
+        return filter(level, logger.getName(), msg, null);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4) {
+        return filter(level, logger.getName(), msg, null);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5) {
+        return filter(level, logger.getName(), msg, null);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6) {
+        return filter(level, logger.getName(), msg, null);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7) {
+        return filter(level, logger.getName(), msg, null);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7,
+            final Object p8) {
+        return filter(level, logger.getName(), msg, null);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7,
+            final Object p8,
+            final Object p9) {
+        return filter(level, logger.getName(), msg, null);
+    }
+
+    private Result filter(final Level level, final String loggerName, final Message message, final LogEvent event) {
+        if (!this.level.isMoreSpecificThan(level)) {
+            return onMatch;
+        }
+        // Only look up the message pattern, if it is needed
+        final String pattern = samplingKey == SamplingKey.MESSAGE && message != null ? message.getFormat() : null;
+        return sample(loggerName, pattern, event);
+    }
+
+    private Result filter(final Level level, final String loggerName, final String pattern, final LogEvent event) {
+        if (!this.level.isMoreSpecificThan(level)) {
+            return onMatch;
+        }
+        return sample(loggerName, pattern, event);
+    }
+
+    /**
+     * Decides whether to keep an event at or below the configured level.
+     *
+     * @param loggerName The name of the logger.
+     * @param pattern The message pattern, may be {@code null}.
+     * @param event The log event, or {@code null} if the filter is called before the event is created.
+     * @return The onMatch value if the event is sampled, onMismatch otherwise.
+     */
+    private Result sample(final String loggerName, final String pattern, final LogEvent event) {
+        final int rate = getSampleRate();
+        if (rate <= 1) {
+            return onMatch;
+        }
+        switch (samplingKey) {
+            case LOGGER:
+                return getCounter(loggerName).sample(rate) ? onMatch : onMismatch;
+            case MESSAGE:
+                return getCounter(pattern).sample(rate) ? onMatch : onMismatch;
+            case TRACE_ID:
+                final Object traceId =
+                        event != null ? event.getContextData().getValue(traceIdKey) : injector.getValue(traceIdKey);
+                if (traceId != null) {
+                    return Integer.toUnsignedLong(mix(traceId.hashCode())) < HASH_RANGE / rate ? onMatch : onMismatch;
+                }
+                return defaultCounter.sample(rate) ? onMatch : onMismatch;
+            default:
+                return defaultCounter.sample(rate) ? onMatch : onMismatch;
+        }
+    }
+
+    /**
+     * Spreads the bits of a hash code, so that similar trace ids are sampled independently.
+     * <p>
+     * Since a trace is kept if its mixed hash is below a threshold, the traces kept at a higher sample rate are a
+     * subset of the ones kept at a lower rate: raising the rate in adaptive mode never starts sampling a new trace.
+     * </p>
+     */
+    private static int mix(final int hashCode) {
+        int h = hashCode;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private Counter getCounter(final String key) {
+        if (key == null) {
+            return defaultCounter;
+        }
+        final Counter counter = counters.get(key);
+        if (counter != null) {
+            return counter;
+        }
+        if (counters.size() >= MAX_KEYS) {
+            if (maxKeysReached.compareAndSet(false, true)) {
+                LOGGER.warn(
+                        "SamplingFilter tracks at most {} distinct keys, further ones are sampled together with events"
+                                + " without a key, starting with `{}`.",
+                        MAX_KEYS,
+                        key);
+            }
+            return defaultCounter;
+        }
+        final Counter newCounter = new Counter();
+        final Counter oldCounter = counters.putIfAbsent(key, newCounter);
+        return oldCounter != null ? oldCounter : newCounter;
+    }
+
+    /**
+     * Returns the sample rate in effect, updating it once per second in adaptive mode.
+     */
+    private int getSampleRate() {
+        if (maxEventsPerSecond <= 0) {
+            return sampleRate;
+        }
+        events.increment();
+        final long now = nanoClock.nanoTime();
+        final long end = windowEnd.get();
+        if (now - end >= 0 && windowEnd.compareAndSet(end, now + ADAPTIVE_WINDOW_NANOS)) {
+            // The total is never reset, so events counted concurrently are attributed to one window or the next,
+            // but never lost.
+            final long totalEvents = events.sum();
+            final long windowEvents = totalEvents - windowStartEvents;
+            windowStartEvents = totalEvents;
+            final double seconds = (double) (now - end + ADAPTIVE_WINDOW_NANOS) / ADAPTIVE_WINDOW_NANOS;
+            final double rate = Math.ceil(windowEvents / seconds / maxEventsPerSecond);
+            effectiveSampleRate = (int) Math.max(sampleRate, Math.min(Integer.MAX_VALUE, rate));
+        }
+        return effectiveSampleRate;
+    }
+
+    /**
+     * Returns the sample rate in effect. Used for unit testing.
+     * @return The sample rate in effect.
+     */
+    public int getEffectiveSampleRate() {
+        return maxEventsPerSecond <= 0 ? sampleRate : effectiveSampleRate;
+    }
+
+    @Override
+    public String toString() {
+        return "level=" + level.toString() + ", sampleRate=" + sampleRate + ", samplingKey=" + samplingKey
+                + (samplingKey == SamplingKey.TRACE_ID ? ", traceIdKey=" + traceIdKey : "")
+                + (maxEventsPerSecond > 0 ? ", maxEventsPerSecond=" + maxEventsPerSecond : "");
+    }
+
+    /**
+     * Event counter striped by thread. Each stripe is padded to its own cache line.
+     */
+    private static final class Counter {
+
+        private static final int STRIPES = 8;
+
+        private static final int PADDING = 8;
+
+        private final AtomicLongArray stripes = new AtomicLongArray(STRIPES * PADDING);
+
+        boolean sample(final int rate) {
+            final int index = ((int) Thread.currentThread().getId() & (STRIPES - 1)) * PADDING;
+            return stripes.getAndIncrement(index) % rate == 0;
+        }
+    }
+
+    @PluginBuilderFactory
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder extends AbstractFilterBuilder<Builder>
+            implements org.apache.logging.log4j.core.util.Builder<SamplingFilter> {
+
+        @PluginBuilderAttribute
+        private Level level = Level.INFO;
+
+        @PluginBuilderAttribute
+        private int sampleRate = DEFAULT_SAMPLE_RATE;
+
+        @PluginBuilderAttribute
+        private SamplingKey samplingKey = SamplingKey.NONE;
+
+        @PluginBuilderAttribute
+        private String traceIdKey = DEFAULT_TRACE_ID_KEY;
+
+        @PluginBuilderAttribute
+        private long maxEventsPerSecond;
+
+        /**
+         * Sets the logging level to use.
+         * @param level the most severe level that is sampled, more severe events always match.
+         * @return this
+         */
+        public Builder setLevel(final Level level) {
+            this.level = level;
+            return this;
+        }
+
+        /**
+         * Sets the sample rate.
+         * @param sampleRate one out of every {@code sampleRate} events is kept. This must be a positive number.
+         * @return this
+         */
+        public Builder setSampleRate(final int sampleRate) {
+            this.sampleRate = sampleRate;
+            return this;
+        }
+
+        /**
+         * Sets the key used to group events sharing a sampling decision.
+         * @param samplingKey the key used to group events. The default samples all events together.
+         * @return this
+         */
+        public Builder setSamplingKey(final SamplingKey samplingKey) {
+            this.samplingKey = samplingKey;
+            return this;
+        }
+
+        /**
+         * Sets the context data key of the trace id.
+         * @param traceIdKey the context data key of the trace id, used if sampling by trace id.
+         * @return this
+         */
+        public Builder setTraceIdKey(final String traceIdKey) {
+            this.traceIdKey = traceIdKey;
+            return this;
+        }
+
+        /**
+         * Enables the adaptive mode.
+         * @param maxEventsPerSecond the maximum number of events kept per second, or {@code 0} to disable the adaptive
+         * mode.
+         * @return this
+         */
+        public Builder setMaxEventsPerSecond(final long maxEventsPerSecond) {
+            this.maxEventsPerSecond = maxEventsPerSecond;
+            return this;
+        }
+
+        @Override
+        public SamplingFilter build() {
+            if (this.sampleRate <= 0) {
+                LOGGER.warn("Invalid sample rate {}, using {} instead.", this.sampleRate, DEFAULT_SAMPLE_RATE);
+                this.sampleRate = DEFAULT_SAMPLE_RATE;
+            }
+            if (this.traceIdKey == null) {
+                this.traceIdKey = DEFAULT_TRACE_ID_KEY;
+            }
+            return new SamplingFilter(
+                    this.level,
+                    this.sampleRate,
+                    this.samplingKey == null ? SamplingKey.NONE : this.samplingKey,
+                    this.traceIdKey,
+                    this.maxEventsPerSecond,
+                    new SystemNanoClock(),
+                    this.getOnMatch(),
+                    this.getOnMismatch());
+        }
+    }
+}
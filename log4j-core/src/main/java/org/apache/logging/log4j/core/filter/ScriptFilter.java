@@ -16,6 +16,10 @@
  */
 package org.apache.logging.log4j.core.filter;
 
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import javax.script.SimpleBindings;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Marker;
@@ -25,12 +29,14 @@ import org.apache.logging.log4j.core.Logger;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.Node;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
-import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
 import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
-import org.apache.logging.log4j.core.config.plugins.PluginFactory;
 import org.apache.logging.log4j.core.script.AbstractScript;
 import org.apache.logging.log4j.core.script.ScriptRef;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.core.util.internal.ScriptBindingsRecycler;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.ObjectMessage;
 import org.apache.logging.log4j.message.SimpleMessage;
@@ -38,83 +44,191 @@ import org.apache.logging.log4j.status.StatusLogger;
 
 /**
  * Returns the onMatch result if the script returns True and returns the onMismatch value otherwise.
+ * <p>
+ *     The bindings passed to the script are reused by each thread.
+ *     If the filter is declared {@code cacheable}, the result of the script is also cached for each combination of
+ *     logger name, level and marker.
+ * </p>
  */
 @Plugin(name = "ScriptFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
 public final class ScriptFilter extends AbstractFilter {
 
     private static org.apache.logging.log4j.Logger logger = StatusLogger.getLogger();
 
+    /**
+     * The maximal number of results kept by each cache.
+     */
+    private static final int MAX_CACHE_SIZE = 1024;
+
+    private static final String KEY_LOGGER = "logger";
+    private static final String KEY_LEVEL = "level";
+    private static final String KEY_MARKER = "marker";
+    private static final String KEY_MESSAGE = "message";
+    private static final String KEY_PARAMETERS = "parameters";
+    private static final String KEY_THROWABLE = "throwable";
+    private static final String KEY_LOG_EVENT = "logEvent";
+
+    /**
+     * Key reused by each thread to look up the caches without allocating.
+     */
+    private static final ThreadLocal<CacheKey> LOOKUP_KEY =
+            Constants.ENABLE_THREADLOCALS ? ThreadLocal.withInitial(CacheKey::new) : null;
+
     private final AbstractScript script;
     private final Configuration configuration;
+    private final ScriptBindingsRecycler loggerBindings;
+    private final ScriptBindingsRecycler eventBindings;
+    // Results of the global filter and of the other stages are kept separately, since the bindings differ.
+    private final ConcurrentMap<CacheKey, Result> loggerCache;
+    private final ConcurrentMap<CacheKey, Result> eventCache;
 
     private ScriptFilter(
             final AbstractScript script,
             final Configuration configuration,
+            final boolean cacheable,
             final Result onMatch,
             final Result onMismatch) {
         super(onMatch, onMismatch);
         this.script = script;
         this.configuration = configuration;
+        this.loggerBindings = new ScriptBindingsRecycler(
+                configuration, KEY_LOGGER, KEY_LEVEL, KEY_MARKER, KEY_MESSAGE, KEY_PARAMETERS, KEY_THROWABLE);
+        this.eventBindings = new ScriptBindingsRecycler(configuration, KEY_LOG_EVENT);
+        this.loggerCache = cacheable ? new ConcurrentHashMap<>() : null;
+        this.eventCache = cacheable ? new ConcurrentHashMap<>() : null;
+    }
+
+    /**
+     * Indicates whether the results of the script are cached.
+     *
+     * @return {@code true} if the results are cached.
+     * @since 2.27.0
+     */
+    public boolean isCacheable() {
+        return loggerCache != null;
     }
 
     @Override
     public Result filter(
             final Logger logger, final Level level, final Marker marker, final String msg, final Object... params) {
-        final SimpleBindings bindings = new SimpleBindings();
-        bindings.put("logger", logger);
-        bindings.put("level", level);
-        bindings.put("marker", marker);
-        bindings.put("message", new SimpleMessage(msg));
-        bindings.put("parameters", params);
-        bindings.put("throwable", null);
-        bindings.putAll(configuration.getProperties());
-        bindings.put("substitutor", configuration.getStrSubstitutor());
-        final Object object = configuration.getScriptManager().execute(script.getId(), bindings);
-        return object == null || !Boolean.TRUE.equals(object) ? onMismatch : onMatch;
+        if (loggerCache != null) {
+            final Result result = getCachedResult(loggerCache, logger.getName(), level, marker);
+            if (result != null) {
+                return result;
+            }
+        }
+        return cache(
+                loggerCache,
+                logger.getName(),
+                level,
+                marker,
+                filter(logger, level, marker, new SimpleMessage(msg), params, null));
     }
 
     @Override
     public Result filter(
             final Logger logger, final Level level, final Marker marker, final Object msg, final Throwable t) {
-        final SimpleBindings bindings = new SimpleBindings();
-        bindings.put("logger", logger);
-        bindings.put("level", level);
-        bindings.put("marker", marker);
-        bindings.put("message", msg instanceof String ? new SimpleMessage((String) msg) : new ObjectMessage(msg));
-        bindings.put("parameters", null);
-        bindings.put("throwable", t);
-        bindings.putAll(configuration.getProperties());
-        bindings.put("substitutor", configuration.getStrSubstitutor());
-        final Object object = configuration.getScriptManager().execute(script.getId(), bindings);
-        return object == null || !Boolean.TRUE.equals(object) ? onMismatch : onMatch;
+        if (loggerCache != null) {
+            final Result result = getCachedResult(loggerCache, logger.getName(), level, marker);
+            if (result != null) {
+                return result;
+            }
+        }
+        final Message message = msg instanceof String ? new SimpleMessage((String) msg) : new ObjectMessage(msg);
+        return cache(loggerCache, logger.getName(), level, marker, filter(logger, level, marker, message, null, t));
     }
 
     @Override
     public Result filter(
             final Logger logger, final Level level, final Marker marker, final Message msg, final Throwable t) {
-        final SimpleBindings bindings = new SimpleBindings();
-        bindings.put("logger", logger);
-        bindings.put("level", level);
-        bindings.put("marker", marker);
-        bindings.put("message", msg);
-        bindings.put("parameters", null);
-        bindings.put("throwable", t);
-        bindings.putAll(configuration.getProperties());
-        bindings.put("substitutor", configuration.getStrSubstitutor());
-        final Object object = configuration.getScriptManager().execute(script.getId(), bindings);
-        return object == null || !Boolean.TRUE.equals(object) ? onMismatch : onMatch;
+        if (loggerCache != null) {
+            final Result result = getCachedResult(loggerCache, logger.getName(), level, marker);
+            if (result != null) {
+                return result;
+            }
+        }
+        return cache(loggerCache, logger.getName(), level, marker, filter(logger, level, marker, msg, null, t));
     }
 
     @Override
     public Result filter(final LogEvent event) {
-        final SimpleBindings bindings = new SimpleBindings();
-        bindings.put("logEvent", event);
-        bindings.putAll(configuration.getProperties());
-        bindings.put("substitutor", configuration.getStrSubstitutor());
+        if (eventCache != null) {
+            final Result result =
+                    getCachedResult(eventCache, event.getLoggerName(), event.getLevel(), event.getMarker());
+            if (result != null) {
+                return result;
+            }
+        }
+        final SimpleBindings bindings = eventBindings.acquire();
+        try {
+            bindings.put(KEY_LOG_EVENT, event);
+            return cache(eventCache, event.getLoggerName(), event.getLevel(), event.getMarker(), execute(bindings));
+        } finally {
+            eventBindings.release(bindings);
+        }
+    }
+
+    private Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final Message msg,
+            final Object[] params,
+            final Throwable t) {
+        final SimpleBindings bindings = loggerBindings.acquire();
+        try {
+            bindings.put(KEY_LOGGER, logger);
+            bindings.put(KEY_LEVEL, level);
+            bindings.put(KEY_MARKER, marker);
+            bindings.put(KEY_MESSAGE, msg);
+            bindings.put(KEY_PARAMETERS, params);
+            bindings.put(KEY_THROWABLE, t);
+            return execute(bindings);
+        } finally {
+            loggerBindings.release(bindings);
+        }
+    }
+
+    private Result execute(final SimpleBindings bindings) {
         final Object object = configuration.getScriptManager().execute(script.getId(), bindings);
         return object == null || !Boolean.TRUE.equals(object) ? onMismatch : onMatch;
     }
 
+    private static Result getCachedResult(
+            final ConcurrentMap<CacheKey, Result> cache,
+            final String loggerName,
+            final Level level,
+            final Marker marker) {
+        final CacheKey lookupKey = LOOKUP_KEY != null ? LOOKUP_KEY.get() : new CacheKey();
+        lookupKey.set(loggerName, level, marker);
+        try {
+            return cache.get(lookupKey);
+        } finally {
+            lookupKey.set(null, null, null);
+        }
+    }
+
+    private static Result cache(
+            final ConcurrentMap<CacheKey, Result> cache,
+            final String loggerName,
+            final Level level,
+            final Marker marker,
+            final Result result) {
+        if (cache != null && cache.size() < MAX_CACHE_SIZE) {
+            final CacheKey key = new CacheKey();
+            key.set(loggerName, level, marker);
+            cache.putIfAbsent(key, result);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean stop(final long timeout, final TimeUnit timeUnit) {
+        loggerBindings.stop();
+        eventBindings.stop();
+        return super.stop(timeout, timeUnit);
+    }
+
     @Override
     public String toString() {
         return script.getId();
@@ -128,34 +242,144 @@ public final class ScriptFilter extends AbstractFilter {
      * @param mismatch The action to take if no match occurs.
      * @param configuration the configuration
      * @return A ScriptFilter.
+     * @deprecated Use {@link #newBuilder()} instead.
      */
-    // TODO Consider refactoring to use AbstractFilter.AbstractFilterBuilder
-    @PluginFactory
+    @Deprecated
     public static ScriptFilter createFilter(
-            @PluginElement("Script") final AbstractScript script,
-            @PluginAttribute("onMatch") final Result match,
-            @PluginAttribute("onMismatch") final Result mismatch,
-            @PluginConfiguration final Configuration configuration) {
-
-        if (script == null) {
-            LOGGER.error("A Script, ScriptFile or ScriptRef element must be provided for this ScriptFilter");
-            return null;
+            final AbstractScript script,
+            final Result match,
+            final Result mismatch,
+            final Configuration configuration) {
+        return newBuilder()
+                .setScript(script)
+                .setOnMatch(match)
+                .setOnMismatch(mismatch)
+                .setConfiguration(configuration)
+                .build();
+    }
+
+    /**
+     * Creates a builder for a ScriptFilter.
+     *
+     * @return a ScriptFilter builder.
+     * @since 2.27.0
+     */
+    @PluginBuilderFactory
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Builds a ScriptFilter.
+     *
+     * @since 2.27.0
+     */
+    public static final class Builder extends AbstractFilterBuilder<Builder>
+            implements org.apache.logging.log4j.core.util.Builder<ScriptFilter> {
+
+        @PluginElement("Script")
+        private AbstractScript script;
+
+        @PluginBuilderAttribute
+        private boolean cacheable;
+
+        @PluginConfiguration
+        private Configuration configuration;
+
+        private Builder() {}
+
+        /**
+         * Sets the script to run.
+         * @param script The script to run. The script must return a boolean value.
+         * @return this.
+         */
+        public Builder setScript(final AbstractScript script) {
+            this.script = script;
+            return this;
         }
-        if (configuration.getScriptManager() == null) {
-            LOGGER.error("Script support is not enabled");
-            return null;
+
+        /**
+         * Declares that the result of the script only depends on the logger name, level and marker and that the script
+         * has no side effects.
+         * <p>
+         *     In this case, the result of the script is cached for each combination of these values.
+         * </p>
+         * @param cacheable If {@code true}, the results of the script are cached.
+         * @return this.
+         */
+        public Builder setCacheable(final boolean cacheable) {
+            this.cacheable = cacheable;
+            return this;
+        }
+
+        /**
+         * Sets the configuration.
+         * @param configuration The configuration.
+         * @return this.
+         */
+        public Builder setConfiguration(final Configuration configuration) {
+            this.configuration = configuration;
+            return this;
         }
-        if (script instanceof ScriptRef) {
-            if (configuration.getScriptManager().getScript(script.getId()) == null) {
-                logger.error("No script with name {} has been declared.", script.getId());
+
+        @Override
+        public ScriptFilter build() {
+            if (script == null) {
+                LOGGER.error("A Script, ScriptFile or ScriptRef element must be provided for this ScriptFilter");
                 return null;
             }
-        } else {
-            if (!configuration.getScriptManager().addScript(script)) {
+            if (configuration.getScriptManager() == null) {
+                LOGGER.error("Script support is not enabled");
                 return null;
             }
+            if (script instanceof ScriptRef) {
+                if (configuration.getScriptManager().getScript(script.getId()) == null) {
+                    logger.error("No script with name {} has been declared.", script.getId());
+                    return null;
+                }
+            } else {
+                if (!configuration.getScriptManager().addScript(script)) {
+                    return null;
+                }
+            }
+            return new ScriptFilter(script, configuration, cacheable, getOnMatch(), getOnMismatch());
         }
+    }
+
+    /**
+     * Key of the cached results. Keys stored in a cache are never modified.
+     */
+    private static final class CacheKey {
 
-        return new ScriptFilter(script, configuration, match, mismatch);
+        private String loggerName;
+        private Level level;
+        private Marker marker;
+
+        private void set(final String loggerName, final Level level, final Marker marker) {
+            this.loggerName = loggerName;
+            this.level = level;
+            this.marker = marker;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CacheKey)) {
+                return false;
+            }
+            final CacheKey other = (CacheKey) obj;
+            return Objects.equals(loggerName, other.loggerName)
+                    && Objects.equals(level, other.level)
+                    && Objects.equals(marker, other.marker);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Objects.hashCode(loggerName);
+            result = 31 * result + Objects.hashCode(level);
+            return 31 * result + Objects.hashCode(marker);
+        }
     }
 }
@@ -225,6 +225,11 @@ public final class StringMatchFilter extends AbstractFilter {
                 .getFormattedMessage());
     }
 
+    @Override
+    public MessageRequirement getMessageRequirement() {
+        return MessageRequirement.FORMATTED_MESSAGE;
+    }
+
     @Override
     public String toString() {
         return text;
@@ -0,0 +1,306 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.io.IOException;
+import java.util.Set;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * This filter returns the onMatch result if the formatted message contains any of a set of texts.
+ * <p>
+ *     Unlike a chain of {@link StringMatchFilter}s, the message is scanned once with an Aho-Corasick automaton,
+ *     so the cost of the filter does not grow with the number of texts.
+ * </p>
+ *
+ * @since 2.27.0
+ */
+@Plugin(name = "StringSetMatchFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
+@PerformanceSensitive("allocation")
+public final class StringSetMatchFilter extends AbstractFilter {
+
+    private final Set<String> texts;
+    private final AhoCorasickMatcher matcher;
+
+    private StringSetMatchFilter(final Set<String> texts, final Result onMatch, final Result onMismatch) {
+        super(onMatch, onMismatch);
+        this.texts = texts;
+        this.matcher = AhoCorasickMatcher.compile(texts);
+    }
+
+    /**
+     * Returns the number of texts searched in each message.
+     *
+     * @return The number of texts.
+     */
+    public int getTextCount() {
+        return texts.size();
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final String msg, final Object... params) {
+        return filter(logger.getMessageFactory().newMessage(msg, params));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final Object msg, final Throwable t) {
+        return filter(logger.getMessageFactory().newMessage(msg));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final Message msg, final Throwable t) {
+        return filter(msg.getFormattedMessage());
+    }
+
+    @Override
+    public Result filter(final LogEvent event) {
+        return filter(event.getMessage().getFormattedMessage());
+    }
+
+    private Result filter(final Message msg) {
+        try {
+            return filter(msg.getFormattedMessage());
+        } finally {
+            ReusableMessageFactory.release(msg);
+        }
+    }
+
+    private Result filter(final String msg) {
+        return matcher.matches(msg) ? onMatch : onMismatch;
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final String msg, final Object p0) {
+        return filter(logger.getMessageFactory().newMessage(msg, p0));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1) {
+        return filter(logger.getMessageFactory().newMessage(msg, p0, p1));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2) {
+        return filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3) {
+        return filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4) {
+        return filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5) {
+        return filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6) {
+        return filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5, p6));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7) {
+        return filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5, p6, p7));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7,
+            final Object p8) {
+        return filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5, p6, p7, p8));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7,
+            final Object p8,
+            final Object p9) {
+        return filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5, p6, p7, p8, p9));
+    }
+
+    @Override
+    public MessageRequirement getMessageRequirement() {
+        return MessageRequirement.FORMATTED_MESSAGE;
+    }
+
+    @Override
+    public String toString() {
+        return "texts=" + texts.size();
+    }
+
+    @PluginBuilderFactory
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static final class Builder extends AbstractFilterBuilder<Builder>
+            implements org.apache.logging.log4j.core.util.Builder<StringSetMatchFilter> {
+
+        @PluginBuilderAttribute
+        private String texts;
+
+        @PluginBuilderAttribute
+        private String location;
+
+        private Builder() {}
+
+        /**
+         * Sets the texts to search in event messages.
+         *
+         * @param texts A comma-separated list of texts, in which a backslash escapes the next character.
+         * @return this instance.
+         */
+        public Builder setTexts(final String texts) {
+            this.texts = texts;
+            return this;
+        }
+
+        /**
+         * Sets the location of a file with additional texts.
+         *
+         * @param location The path or URI of a UTF-8 file with one text per line.
+         *                 Empty lines and lines starting with {@code #} are ignored.
+         * @return this instance.
+         */
+        public Builder setLocation(final String location) {
+            this.location = location;
+            return this;
+        }
+
+        @Override
+        public StringSetMatchFilter build() {
+            final Set<String> entries;
+            try {
+                entries = FilterEntries.load(texts, location);
+            } catch (final IOException e) {
+                LOGGER.error("Unable to read the texts of StringSetMatchFilter from {}", location, e);
+                return null;
+            }
+            if (entries.isEmpty()) {
+                LOGGER.error("No texts provided for StringSetMatchFilter");
+                return null;
+            }
+            return new StringSetMatchFilter(entries, getOnMatch(), getOnMismatch());
+        }
+    }
+}
@@ -38,7 +38,6 @@ import org.apache.logging.log4j.core.impl.ContextDataFactory;
 import org.apache.logging.log4j.core.impl.ContextDataInjectorFactory;
 import org.apache.logging.log4j.core.util.KeyValuePair;
 import org.apache.logging.log4j.message.Message;
-import org.apache.logging.log4j.util.IndexedReadOnlyStringMap;
 import org.apache.logging.log4j.util.PerformanceSensitive;
 import org.apache.logging.log4j.util.StringMap;
 
@@ -109,10 +108,8 @@ public class ThreadContextMapFilter extends MapFilter {
     private Result filter() {
         boolean match = false;
         if (useMap) {
-            final IndexedReadOnlyStringMap map = getStringMap();
-            for (int i = 0; i < map.size(); i++) {
-                final String toMatch = getContextValue(map.getKeyAt(i));
-                match = toMatch != null && map.<List<String>>getValueAt(i).contains(toMatch);
+            for (int i = 0; i < getIndexSize(); i++) {
+                match = indexContainsValueAt(i, getContextValue(getIndexKeyAt(i)));
                 if ((!isAnd() && match) || (isAnd() && !match)) {
                     break;
                 }
@@ -273,6 +270,11 @@ public class ThreadContextMapFilter extends MapFilter {
         return filter();
     }
 
+    @Override
+    public MessageRequirement getMessageRequirement() {
+        return MessageRequirement.NONE;
+    }
+
     // TODO Consider refactoring to use AbstractFilter.AbstractFilterBuilder
     @PluginFactory
     public static ThreadContextMapFilter createFilter(
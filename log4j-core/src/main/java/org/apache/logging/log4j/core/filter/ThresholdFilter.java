@@ -222,6 +222,11 @@ public final class ThresholdFilter extends AbstractFilter {
         return level;
     }
 
+    @Override
+    public MessageRequirement getMessageRequirement() {
+        return MessageRequirement.NONE;
+    }
+
     @Override
     public String toString() {
         return level.toString();
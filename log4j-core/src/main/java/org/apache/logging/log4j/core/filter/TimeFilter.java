@@ -328,6 +328,11 @@ public final class TimeFilter extends AbstractFilter {
         return filter();
     }
 
+    @Override
+    public MessageRequirement getMessageRequirement() {
+        return MessageRequirement.NONE;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
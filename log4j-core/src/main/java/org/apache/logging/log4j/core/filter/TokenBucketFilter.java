@@ -0,0 +1,535 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
+import org.apache.logging.log4j.core.util.NanoClock;
+import org.apache.logging.log4j.core.util.SystemNanoClock;
+import org.apache.logging.log4j.message.Message;
+
+/**
+ * The <code>TokenBucketFilter</code> is a logging filter that regulates logging traffic, like {@link BurstFilter},
+ * without locking or allocating on the logging path.
+ *
+ * <p>
+ * Each bucket holds up to <code>maxBurst</code> tokens and is refilled with <code>rate</code> tokens per second. Log
+ * events at or below the configured level consume a token and are rejected if the bucket is empty. The bucket is
+ * implemented as a single {@link AtomicLong} holding the time at which it will be full again (the <em>Generic Cell
+ * Rate Algorithm</em>), updated with a compare-and-set loop. Once the bucket is empty, rejected events do not write
+ * to it at all.
+ * </p>
+ * <p>
+ * By default all log events share a single bucket. Setting <code>bucketKey</code> to <code>LOGGER</code> or
+ * <code>MARKER</code> gives each logger name or marker name its own bucket. Events without a marker share the default
+ * bucket. At most 1024 buckets are kept besides the default one: once this limit is reached, full buckets are evicted,
+ * since they are equivalent to new ones, and the events of further keys share the default bucket until some bucket
+ * becomes full. A warning is logged the first time this happens.
+ * </p>
+ * <code>
+ * &lt;Console name="console"&gt;<br>
+ * &nbsp;&lt;PatternLayout pattern="%-5p %d{dd-MMM-yyyy HH:mm:ss} %x %t %m%n"/&gt;<br>
+ * &nbsp;&lt;Filters&gt;<br>
+ * &nbsp;&nbsp;&lt;TokenBucketFilter level="INFO" rate="16" maxBurst="100" bucketKey="LOGGER"/&gt;<br>
+ * &nbsp;&lt;/Filters&gt;<br>
+ * &lt;/Console&gt;<br>
+ * </code><br>
+ *
+ * @since 2.27.0
+ */
+@Plugin(name = "TokenBucketFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
+public final class TokenBucketFilter extends AbstractFilter {
+
+    private static final long NANOS_IN_SECONDS = 1000000000;
+
+    private static final int DEFAULT_RATE = 10;
+
+    private static final int DEFAULT_RATE_MULTIPLE = 100;
+
+    /**
+     * Maximum number of logger or marker names having their own bucket.
+     */
+    private static final int MAX_KEYS = 1024;
+
+    /**
+     * Upper bound of the intervals, so that adding them to a time never overflows.
+     */
+    private static final long MAX_INTERVAL = Long.MAX_VALUE / 4;
+
+    /**
+     * Selects the events sharing a bucket.
+     */
+    public enum BucketKey {
+        /** All events share a single bucket. */
+        NONE,
+        /** Events of each logger have their own bucket. */
+        LOGGER,
+        /** Events of each marker have their own bucket. */
+        MARKER
+    }
+
+    private final Level level;
+
+    private final float rate;
+
+    private final long maxBurst;
+
+    private final BucketKey bucketKey;
+
+    /**
+     * Time in nanoseconds it takes to refill one token.
+     */
+    private final long emissionInterval;
+
+    /**
+     * Time in nanoseconds it takes to refill an empty bucket.
+     */
+    private final long burstInterval;
+
+    private final NanoClock nanoClock;
+
+    private final Bucket defaultBucket;
+
+    private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final AtomicLong nextEvictionTime;
+
+    private final AtomicBoolean maxKeysReached = new AtomicBoolean();
+
+    TokenBucketFilter(
+            final Level level,
+            final float rate,
+            final long maxBurst,
+            final BucketKey bucketKey,
+            final NanoClock nanoClock,
+            final Result onMatch,
+            final Result onMismatch) {
+        super(onMatch, onMismatch);
+        this.level = level;
+        this.rate = rate;
+        this.maxBurst = maxBurst;
+        this.bucketKey = bucketKey;
+        this.emissionInterval = (long) Math.min(NANOS_IN_SECONDS / (double) rate, MAX_INTERVAL);
+        this.burstInterval = multiplySaturated(emissionInterval, maxBurst);
+        this.nanoClock = nanoClock;
+        final long now = nanoClock.nanoTime();
+        this.defaultBucket = new Bucket(now);
+        this.nextEvictionTime = new AtomicLong(now);
+    }
+
+    private static long multiplySaturated(final long interval, final long count) {
+        try {
+            return Math.min(Math.multiplyExact(interval, count), MAX_INTERVAL);
+        } catch (final ArithmeticException e) {
+            return MAX_INTERVAL;
+        }
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final String msg, final Object... params) {
+        return filter(level, logger.getName(), marker);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final Object msg, final Throwable t) {
+        return filter(level, logger.getName(), marker);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final Message msg, final Throwable t) {
+        return filter(level, logger.getName(), marker);
+    }
+
+    @Override
+    public Result filter(final LogEvent event) {
+        return filter(event.getLevel(), event.getLoggerName(), event.getMarker());
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final String msg, final Object p0) {
+        return filter(level, logger.getName(), marker);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1) {
+        return filter(level, logger.getName(), marker);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2) {
+        return filter(level, logger.getName(), marker);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3) {
+        return filter(level, logger.getName(), marker);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4) {
+        return filter(level, logger.getName(), marker);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5) {
+        return filter(level, logger.getName(), marker);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6) {
+        return filter(level, logger.getName(), marker);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7) {
+        return filter(level, logger.getName(), marker);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7,
+            final Object p8) {
+        return filter(level, logger.getName(), marker);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7,
+            final Object p8,
+            final Object p9) {
+        return filter(level, logger.getName(), marker);
+    }
+
+    /**
+     * Decide if we're going to log an event based on whether its bucket has any tokens left.
+     *
+     * @param level The log level.
+     * @param loggerName The name of the logger.
+     * @param marker The marker, may be {@code null}.
+     * @return The onMatch value if the filter passes, onMismatch otherwise.
+     */
+    private Result filter(final Level level, final String loggerName, final Marker marker) {
+        if (this.level.isMoreSpecificThan(level)) {
+            final long now = nanoClock.nanoTime();
+            return getBucket(loggerName, marker, now).tryAcquire(now) ? onMatch : onMismatch;
+        }
+        return onMatch;
+    }
+
+    private Bucket getBucket(final String loggerName, final Marker marker, final long now) {
+        final String key;
+        switch (bucketKey) {
+            case LOGGER:
+                key = loggerName;
+                break;
+            case MARKER:
+                key = marker != null ? marker.getName() : null;
+                break;
+            default:
+                key = null;
+        }
+        if (key == null) {
+            return defaultBucket;
+        }
+        final Bucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= MAX_KEYS) {
+            evictFullBuckets(now);
+            if (buckets.size() >= MAX_KEYS) {
+                if (maxKeysReached.compareAndSet(false, true)) {
+                    LOGGER.warn(
+                            "TokenBucketFilter keeps at most {} buckets, further keys share the default bucket,"
+                                    + " starting with `{}`.",
+                            MAX_KEYS,
+                            key);
+                }
+                return defaultBucket;
+            }
+        }
+        final Bucket newBucket = new Bucket(now);
+        final Bucket oldBucket = buckets.putIfAbsent(key, newBucket);
+        return oldBucket != null ? oldBucket : newBucket;
+    }
+
+    /**
+     * Removes the buckets that are full, since they behave like new ones. Runs at most once per second.
+     * <p>
+     * A thread that acquired a bucket before its eviction might still take a token from it, so that a key can exceed
+     * its burst by the number of such threads.
+     * </p>
+     */
+    private void evictFullBuckets(final long now) {
+        final long evictionTime = nextEvictionTime.get();
+        if (now - evictionTime >= 0 && nextEvictionTime.compareAndSet(evictionTime, now + NANOS_IN_SECONDS)) {
+            for (final Map.Entry<String, Bucket> entry : buckets.entrySet()) {
+                if (entry.getValue().isFull(now)) {
+                    buckets.remove(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of buckets besides the default one. Used for unit testing.
+     * @return The number of buckets besides the default one.
+     */
+    int getBucketCount() {
+        return buckets.size();
+    }
+
+    /**
+     * Returns the number of tokens left in the default bucket. Used for unit testing.
+     * @return The number of tokens left in the default bucket.
+     */
+    public long getAvailable() {
+        return defaultBucket.available(nanoClock.nanoTime());
+    }
+
+    /**
+     * Refills all buckets. Used for unit testing.
+     */
+    public void clear() {
+        final long now = nanoClock.nanoTime();
+        defaultBucket.set(now);
+        buckets.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "level=" + level.toString() + ", rate=" + rate + ", maxBurst=" + maxBurst + ", bucketKey=" + bucketKey;
+    }
+
+    /**
+     * A token bucket storing its <em>theoretical arrival time</em>: the time at which it will be full again, plus
+     * one emission interval.
+     */
+    private final class Bucket extends AtomicLong {
+
+        private static final long serialVersionUID = 1L;
+
+        Bucket(final long now) {
+            super(now);
+        }
+
+        boolean tryAcquire(final long now) {
+            while (true) {
+                final long arrivalTime = get();
+                final long nextArrivalTime = (arrivalTime - now < 0 ? now : arrivalTime) + emissionInterval;
+                if (nextArrivalTime - now > burstInterval) {
+                    return false;
+                }
+                if (compareAndSet(arrivalTime, nextArrivalTime)) {
+                    return true;
+                }
+            }
+        }
+
+        boolean isFull(final long now) {
+            return get() - now <= 0;
+        }
+
+        long available(final long now) {
+            if (emissionInterval == 0) {
+                return maxBurst;
+            }
+            final long backlog = Math.max(0, get() - now);
+            return Math.max(0, burstInterval - backlog) / emissionInterval;
+        }
+    }
+
+    @PluginBuilderFactory
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder extends AbstractFilterBuilder<Builder>
+            implements org.apache.logging.log4j.core.util.Builder<TokenBucketFilter> {
+
+        @PluginBuilderAttribute
+        private Level level = Level.WARN;
+
+        @PluginBuilderAttribute
+        private float rate = DEFAULT_RATE;
+
+        @PluginBuilderAttribute
+        private long maxBurst;
+
+        @PluginBuilderAttribute
+        private BucketKey bucketKey = BucketKey.NONE;
+
+        /**
+         * Sets the logging level to use.
+         * @param level the logging level to use.
+         * @return this
+         */
+        public Builder setLevel(final Level level) {
+            this.level = level;
+            return this;
+        }
+
+        /**
+         * Sets the average number of events per second to allow.
+         * @param rate the average number of events per second to allow. This must be a positive number.
+         * @return this
+         */
+        public Builder setRate(final float rate) {
+            this.rate = rate;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of events that can occur before events are filtered for exceeding the average rate.
+         * @param maxBurst the size of each bucket. The default is 100 times the rate.
+         * @return this
+         */
+        public Builder setMaxBurst(final long maxBurst) {
+            this.maxBurst = maxBurst;
+            return this;
+        }
+
+        /**
+         * Sets the key used to select the bucket of each event.
+         * @param bucketKey the key used to select the bucket of each event. The default is a single shared bucket.
+         * @return this
+         */
+        public Builder setBucketKey(final BucketKey bucketKey) {
+            this.bucketKey = bucketKey;
+            return this;
+        }
+
+        @Override
+        public TokenBucketFilter build() {
+            if (this.rate <= 0) {
+                this.rate = DEFAULT_RATE;
+            }
+            if (this.maxBurst <= 0) {
+                this.maxBurst = (long) (this.rate * DEFAULT_RATE_MULTIPLE);
+            }
+            return new TokenBucketFilter(
+                    this.level,
+                    this.rate,
+                    this.maxBurst,
+                    this.bucketKey == null ? BucketKey.NONE : this.bucketKey,
+                    new SystemNanoClock(),
+                    this.getOnMatch(),
+                    this.getOnMismatch());
+        }
+    }
+}
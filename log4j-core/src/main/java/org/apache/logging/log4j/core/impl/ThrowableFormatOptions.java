@@ -19,11 +19,14 @@ package org.apache.logging.log4j.core.impl;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
+import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.pattern.JAnsiTextRenderer;
 import org.apache.logging.log4j.core.pattern.PlainTextRenderer;
 import org.apache.logging.log4j.core.pattern.TextRenderer;
 import org.apache.logging.log4j.core.util.Integers;
 import org.apache.logging.log4j.core.util.Patterns;
+import org.apache.logging.log4j.core.util.internal.throwable.ThrowableDeduplicator;
+import org.apache.logging.log4j.status.StatusLogger;
 import org.apache.logging.log4j.util.Strings;
 
 /**
@@ -31,6 +34,8 @@ import org.apache.logging.log4j.util.Strings;
  */
 public final class ThrowableFormatOptions {
 
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
     private static final int DEFAULT_LINES = Integer.MAX_VALUE;
 
     /**
@@ -53,6 +58,11 @@ public final class ThrowableFormatOptions {
      */
     private static final String SHORT = "short";
 
+    /**
+     * Render the stack trace only once per window.
+     */
+    private static final String DEDUP = "dedup";
+
     /**
      * ANSI renderer
      */
@@ -75,6 +85,11 @@ public final class ThrowableFormatOptions {
      */
     private final List<String> ignorePackages;
 
+    /**
+     * The stack trace de-duplication window in seconds, or zero, if disabled.
+     */
+    private final int deduplicationWindowSeconds;
+
     public static final String CLASS_NAME = "short.className";
     public static final String METHOD_NAME = "short.methodName";
     public static final String LINE_NUMBER = "short.lineNumber";
@@ -101,11 +116,22 @@ public final class ThrowableFormatOptions {
             final List<String> ignorePackages,
             final TextRenderer textRenderer,
             final String suffix) {
+        this(lines, separator, ignorePackages, textRenderer, suffix, 0);
+    }
+
+    private ThrowableFormatOptions(
+            final int lines,
+            final String separator,
+            final List<String> ignorePackages,
+            final TextRenderer textRenderer,
+            final String suffix,
+            final int deduplicationWindowSeconds) {
         this.lines = lines;
         this.separator = separator == null ? Strings.LINE_SEPARATOR : separator;
         this.ignorePackages = ignorePackages;
         this.textRenderer = textRenderer == null ? PlainTextRenderer.getInstance() : textRenderer;
         this.suffix = suffix;
+        this.deduplicationWindowSeconds = deduplicationWindowSeconds;
     }
 
     /**
@@ -161,6 +187,16 @@ public final class ThrowableFormatOptions {
         return this.ignorePackages;
     }
 
+    /**
+     * Returns the stack trace de-duplication window in seconds.
+     *
+     * @return the stack trace de-duplication window in seconds, or zero, if de-duplication is disabled
+     * @since 2.27.0
+     */
+    public int getDeduplicationWindowSeconds() {
+        return deduplicationWindowSeconds;
+    }
+
     /**
      * Determines if all lines should be printed.
      *
@@ -217,6 +253,9 @@ public final class ThrowableFormatOptions {
             s.deleteCharAt(s.length() - 1);
             s.append(")}");
         }
+        if (deduplicationWindowSeconds > 0) {
+            s.append("{dedup(").append(deduplicationWindowSeconds).append(")}");
+        }
         return s.toString();
     }
 
@@ -256,6 +295,7 @@ public final class ThrowableFormatOptions {
         List<String> packages = DEFAULT.ignorePackages;
         TextRenderer ansiRenderer = DEFAULT.textRenderer;
         String suffix = DEFAULT.getSuffix();
+        int deduplicationWindowSeconds = DEFAULT.deduplicationWindowSeconds;
         for (final String rawOption : options) {
             if (rawOption != null) {
                 final String option = rawOption.trim();
@@ -277,6 +317,12 @@ public final class ThrowableFormatOptions {
                             }
                         }
                     }
+                } else if (option.equalsIgnoreCase(DEDUP)) {
+                    deduplicationWindowSeconds = ThrowableDeduplicator.DEFAULT_WINDOW_SECONDS;
+                } else if (option.regionMatches(true, 0, DEDUP + '(', 0, DEDUP.length() + 1)
+                        && option.endsWith(")")) {
+                    deduplicationWindowSeconds =
+                            parseDeduplicationWindowSeconds(option.substring(DEDUP.length() + 1, option.length() - 1));
                 } else if (option.equalsIgnoreCase(NONE)) {
                     lines = 0;
                 } else if (option.equalsIgnoreCase(SHORT)
@@ -302,7 +348,30 @@ public final class ThrowableFormatOptions {
                 }
             }
         }
-        return new ThrowableFormatOptions(lines, separator, packages, ansiRenderer, suffix);
+        return new ThrowableFormatOptions(lines, separator, packages, ansiRenderer, suffix, deduplicationWindowSeconds);
+    }
+
+    /**
+     * Parses the window of the {@code dedup(seconds)} option.
+     *
+     * @param value the number of seconds
+     * @return the window in seconds, or {@code 0} to disable the deduplication if the window is invalid
+     */
+    private static int parseDeduplicationWindowSeconds(final String value) {
+        int windowSeconds;
+        try {
+            windowSeconds = Integers.parseInt(value);
+        } catch (final NumberFormatException e) {
+            windowSeconds = 0;
+        }
+        if (windowSeconds <= 0) {
+            LOGGER.error(
+                    "Invalid deduplication window `{}`, was expecting a positive number of seconds. Stack traces will"
+                            + " not be deduplicated.",
+                    value);
+            return 0;
+        }
+        return windowSeconds;
     }
 
     public String getSuffix() {
@@ -146,6 +146,16 @@ final class ThrowableProxyHelper {
         return null;
     }
 
+    /**
+     * Caches the exact and inexact CacheEntry per Class, since extracting the Class's information is expensive.
+     */
+    private static final ClassValue<CacheEntry[]> CACHE_ENTRIES = new ClassValue<CacheEntry[]>() {
+        @Override
+        protected CacheEntry[] computeValue(final Class<?> callerClass) {
+            return new CacheEntry[] {createCacheEntry(callerClass, false), createCacheEntry(callerClass, true)};
+        }
+    };
+
     /**
      * Construct the CacheEntry from the Class's information.
      *
@@ -154,39 +164,43 @@ final class ThrowableProxyHelper {
      * @return The CacheEntry.
      */
     private static CacheEntry toCacheEntry(final Class<?> callerClass, final boolean exact) {
+        return callerClass != null
+                ? CACHE_ENTRIES.get(callerClass)[exact ? 1 : 0]
+                : new CacheEntry(new ExtendedClassInfo(exact, "?", "?"), null);
+    }
+
+    private static CacheEntry createCacheEntry(final Class<?> callerClass, final boolean exact) {
         String location = "?";
         String version = "?";
         ClassLoader lastLoader = null;
-        if (callerClass != null) {
-            try {
-                final CodeSource source = callerClass.getProtectionDomain().getCodeSource();
-                if (source != null) {
-                    final URL locationURL = source.getLocation();
-                    if (locationURL != null) {
-                        final String str = locationURL.toString().replace('\\', '/');
-                        int index = str.lastIndexOf("/");
-                        if (index >= 0 && index == str.length() - 1) {
-                            index = str.lastIndexOf("/", index - 1);
-                        }
-                        location = str.substring(index + 1);
+        try {
+            final CodeSource source = callerClass.getProtectionDomain().getCodeSource();
+            if (source != null) {
+                final URL locationURL = source.getLocation();
+                if (locationURL != null) {
+                    final String str = locationURL.toString().replace('\\', '/');
+                    int index = str.lastIndexOf("/");
+                    if (index >= 0 && index == str.length() - 1) {
+                        index = str.lastIndexOf("/", index - 1);
                     }
+                    location = str.substring(index + 1);
                 }
-            } catch (final Exception ex) {
-                // Ignore the exception.
             }
-            final Package pkg = callerClass.getPackage();
-            if (pkg != null) {
-                final String ver = pkg.getImplementationVersion();
-                if (ver != null) {
-                    version = ver;
-                }
-            }
-            try {
-                lastLoader = callerClass.getClassLoader();
-            } catch (final SecurityException e) {
-                lastLoader = null;
+        } catch (final Exception ex) {
+            // Ignore the exception.
+        }
+        final Package pkg = callerClass.getPackage();
+        if (pkg != null) {
+            final String ver = pkg.getImplementationVersion();
+            if (ver != null) {
+                version = ver;
             }
         }
+        try {
+            lastLoader = callerClass.getClassLoader();
+        } catch (final SecurityException e) {
+            lastLoader = null;
+        }
         return new CacheEntry(new ExtendedClassInfo(exact, location, version), lastLoader);
     }
 
@@ -16,13 +16,16 @@
  */
 package org.apache.logging.log4j.core.jmx;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import javax.management.ObjectName;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.config.AppenderRef;
 import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.util.Strings;
 
 /**
  * Implementation of the {@code LoggerConfigAdminMBean} interface.
@@ -80,6 +83,25 @@ public class LoggerConfigAdmin implements LoggerConfigAdminMBean {
         loggerContext.updateLoggers();
     }
 
+    @Override
+    public void setContextLevel(final String key, final String value, final String level) {
+        loggerConfig.setContextLevel(key, value, Strings.isEmpty(level) ? null : Level.valueOf(level));
+    }
+
+    @Override
+    public void clearContextLevels() {
+        loggerConfig.clearContextLevels();
+    }
+
+    @Override
+    public String[] getContextLevels() {
+        final List<String> result = new ArrayList<>();
+        for (final Map.Entry<String, Map<String, Level>> entry : loggerConfig.getContextLevels().entrySet()) {
+            entry.getValue().forEach((value, level) -> result.add(entry.getKey() + "=" + value + ":" + level.name()));
+        }
+        return result.toArray(Strings.EMPTY_ARRAY);
+    }
+
     @Override
     public boolean isAdditive() {
         return loggerConfig.isAdditive();
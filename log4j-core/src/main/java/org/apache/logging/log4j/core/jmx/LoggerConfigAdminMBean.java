@@ -71,6 +71,35 @@ public interface LoggerConfigAdminMBean {
      */
     void setLevel(String level);
 
+    /**
+     * Enables a more verbose level for the log events whose context data contain a given value, e.g. the events of a
+     * single request.
+     *
+     * @param key the context data key, e.g. the key of a trace id.
+     * @param value the context data value.
+     * @param level the level enabled for the matching events, or an empty string to remove the override.
+     * @throws IllegalArgumentException if the specified level is not a known level
+     * @see org.apache.logging.log4j.core.config.LoggerConfig#setContextLevel
+     * @since 2.27.0
+     */
+    void setContextLevel(String key, String value, String level);
+
+    /**
+     * Removes all the overrides set by {@link #setContextLevel(String, String, String)}.
+     *
+     * @since 2.27.0
+     */
+    void clearContextLevels();
+
+    /**
+     * Returns the overrides set by {@link #setContextLevel(String, String, String)}, as {@code key=value:LEVEL}
+     * strings.
+     *
+     * @return the context level overrides of the instrumented {@code LoggerConfig}.
+     * @since 2.27.0
+     */
+    String[] getContextLevels();
+
     /**
      * Returns whether the instrumented {@code LoggerConfig} is additive.
      *
@@ -65,6 +65,7 @@ import org.apache.logging.log4j.util.TriConsumer;
  * This layout compresses JSON to GZIP or ZLIB (the {@code compressionType}) if
  * log event data is larger than 1024 bytes (the {@code compressionThreshold}).
  * This layout does not implement chunking.
+ * See {@link org.apache.logging.log4j.core.appender.GelfUdpAppender} for sending chunked GELF messages over UDP.
  * </p>
  *
  * @see <a href="https://go2docs.graylog.org/current/getting_in_log_data/gelf.html#GELFPayloadSpecification">GELF specification</a>
@@ -0,0 +1,742 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
+import org.apache.logging.log4j.core.time.Instant;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.core.util.NetUtils;
+import org.apache.logging.log4j.core.util.StringBuilderWriter;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.apache.logging.log4j.util.StringBuilders;
+import org.apache.logging.log4j.util.TriConsumer;
+
+/**
+ * Encodes a {@link LogEvent} into an
+ * <a href="https://opentelemetry.io/docs/specs/otlp/">OpenTelemetry Protocol (OTLP)</a> {@code LogRecord} in the
+ * Protocol Buffers wire format.
+ * <p>
+ * The encoder is hand-written and does not depend on a Protocol Buffers runtime. The mapping is as follows:
+ * </p>
+ * <ul>
+ * <li>the event instant is mapped to {@code time_unix_nano} and {@code observed_time_unix_nano}</li>
+ * <li>the level is mapped to {@code severity_number} and {@code severity_text}</li>
+ * <li>the formatted message is mapped to the string {@code body}</li>
+ * <li>the context data is mapped to {@code attributes}, except the trace ID, span ID, and trace flags, which are
+ * mapped to {@code trace_id}, {@code span_id}, and {@code flags}, respectively</li>
+ * <li>the thread name and ID are mapped to the {@code thread.name} and {@code thread.id} attributes</li>
+ * <li>the thrown exception is mapped to the {@code exception.type}, {@code exception.message}, and
+ * {@code exception.stacktrace} attributes</li>
+ * </ul>
+ * <p>
+ * Records can optionally be wrapped into an OTLP {@code ExportLogsServiceRequest}, where the logger name becomes the
+ * instrumentation scope name, to post them to an OTLP/HTTP endpoint using {@code HttpAppender}.
+ * Records can also be prefixed with their length as a varint, as {@code writeDelimitedTo()} of Protocol Buffers does,
+ * to stream them over a socket or to a file.
+ * </p>
+ * <p>
+ * Encoding is garbage-free, unless the event contains an exception, a message not implementing
+ * {@link StringBuilderFormattable}, or context data values other than strings, booleans, and numbers.
+ * </p>
+ *
+ * @since 2.27.0
+ */
+@Plugin(name = "OtlpLayout", category = Node.CATEGORY, elementType = Layout.ELEMENT_TYPE, printObject = true)
+public final class OtlpLayout extends AbstractLayout<byte[]> {
+
+    private static final String CONTENT_TYPE = "application/x-protobuf";
+
+    private static final int WIRE_TYPE_VARINT = 0;
+
+    private static final int WIRE_TYPE_FIXED64 = 1;
+
+    private static final int WIRE_TYPE_LENGTH_DELIMITED = 2;
+
+    private static final int WIRE_TYPE_FIXED32 = 5;
+
+    // `ExportLogsServiceRequest` fields
+    private static final int EXPORT_REQUEST_RESOURCE_LOGS = 1;
+
+    // `ResourceLogs` fields
+    private static final int RESOURCE_LOGS_RESOURCE = 1;
+
+    private static final int RESOURCE_LOGS_SCOPE_LOGS = 2;
+
+    // `Resource` fields
+    private static final int RESOURCE_ATTRIBUTES = 1;
+
+    // `ScopeLogs` fields
+    private static final int SCOPE_LOGS_SCOPE = 1;
+
+    private static final int SCOPE_LOGS_LOG_RECORDS = 2;
+
+    // `InstrumentationScope` fields
+    private static final int SCOPE_NAME = 1;
+
+    // `LogRecord` fields
+    private static final int LOG_RECORD_TIME_UNIX_NANO = 1;
+
+    private static final int LOG_RECORD_SEVERITY_NUMBER = 2;
+
+    private static final int LOG_RECORD_SEVERITY_TEXT = 3;
+
+    private static final int LOG_RECORD_BODY = 5;
+
+    private static final int LOG_RECORD_ATTRIBUTES = 6;
+
+    private static final int LOG_RECORD_FLAGS = 8;
+
+    private static final int LOG_RECORD_TRACE_ID = 9;
+
+    private static final int LOG_RECORD_SPAN_ID = 10;
+
+    private static final int LOG_RECORD_OBSERVED_TIME_UNIX_NANO = 11;
+
+    // `KeyValue` fields
+    private static final int KEY_VALUE_KEY = 1;
+
+    private static final int KEY_VALUE_VALUE = 2;
+
+    // `AnyValue` fields
+    private static final int ANY_VALUE_STRING = 1;
+
+    private static final int ANY_VALUE_BOOL = 2;
+
+    private static final int ANY_VALUE_INT = 3;
+
+    private static final int ANY_VALUE_DOUBLE = 4;
+
+    private final boolean lengthDelimited;
+
+    private final boolean exportRequest;
+
+    private final String serviceName;
+
+    private final String hostName;
+
+    private final String traceIdKey;
+
+    private final String spanIdKey;
+
+    private final String traceFlagsKey;
+
+    private final boolean includeStacktrace;
+
+    private final boolean includeThreadContext;
+
+    private final Supplier<ProtobufWriter> writerSupplier;
+
+    private final TriConsumer<String, Object, ProtobufWriter> contextDataWriter = this::writeContextData;
+
+    private OtlpLayout(final Builder<?> builder) {
+        super(builder.getConfiguration(), null, null);
+        this.lengthDelimited = builder.lengthDelimited;
+        this.exportRequest = builder.exportRequest;
+        this.serviceName = builder.serviceName;
+        this.hostName = builder.exportRequest ? NetUtils.getLocalHostname() : null;
+        this.traceIdKey = builder.traceIdKey;
+        this.spanIdKey = builder.spanIdKey;
+        this.traceFlagsKey = builder.traceFlagsKey;
+        this.includeStacktrace = builder.includeStacktrace;
+        this.includeThreadContext = builder.includeThreadContext;
+        final Supplier<ProtobufWriter> supplier = ProtobufWriter::new;
+        this.writerSupplier = Constants.ENABLE_THREADLOCALS ? ThreadLocal.withInitial(supplier)::get : supplier;
+    }
+
+    public static class Builder<B extends Builder<B>> extends AbstractLayout.Builder<B>
+            implements org.apache.logging.log4j.core.util.Builder<OtlpLayout> {
+
+        @PluginBuilderAttribute
+        private boolean lengthDelimited = true;
+
+        @PluginBuilderAttribute
+        private boolean exportRequest;
+
+        @PluginBuilderAttribute
+        private String serviceName;
+
+        @PluginBuilderAttribute
+        private String traceIdKey = "trace_id";
+
+        @PluginBuilderAttribute
+        private String spanIdKey = "span_id";
+
+        @PluginBuilderAttribute
+        private String traceFlagsKey = "trace_flags";
+
+        @PluginBuilderAttribute
+        private boolean includeStacktrace = true;
+
+        @PluginBuilderAttribute
+        private boolean includeThreadContext = true;
+
+        public Builder() {
+            setConfiguration(null);
+        }
+
+        @Override
+        public OtlpLayout build() {
+            return new OtlpLayout(this);
+        }
+
+        public boolean isLengthDelimited() {
+            return lengthDelimited;
+        }
+
+        public boolean isExportRequest() {
+            return exportRequest;
+        }
+
+        public String getServiceName() {
+            return serviceName;
+        }
+
+        public String getTraceIdKey() {
+            return traceIdKey;
+        }
+
+        public String getSpanIdKey() {
+            return spanIdKey;
+        }
+
+        public String getTraceFlagsKey() {
+            return traceFlagsKey;
+        }
+
+        public boolean isIncludeStacktrace() {
+            return includeStacktrace;
+        }
+
+        public boolean isIncludeThreadContext() {
+            return includeThreadContext;
+        }
+
+        /**
+         * Whether to prefix each message with its length as a varint (optional, defaults to true).
+         * Disable it when each event is sent on its own, e.g., using {@code HttpAppender}.
+         *
+         * @return this builder
+         */
+        public B setLengthDelimited(final boolean lengthDelimited) {
+            this.lengthDelimited = lengthDelimited;
+            return asBuilder();
+        }
+
+        /**
+         * Whether to wrap each {@code LogRecord} into an {@code ExportLogsServiceRequest}
+         * (optional, defaults to false).
+         *
+         * @return this builder
+         */
+        public B setExportRequest(final boolean exportRequest) {
+            this.exportRequest = exportRequest;
+            return asBuilder();
+        }
+
+        /**
+         * The {@code service.name} resource attribute of export requests (optional).
+         *
+         * @return this builder
+         */
+        public B setServiceName(final String serviceName) {
+            this.serviceName = serviceName;
+            return asBuilder();
+        }
+
+        /**
+         * The context data key of the hex-encoded trace ID (optional, defaults to {@code trace_id}).
+         *
+         * @return this builder
+         */
+        public B setTraceIdKey(final String traceIdKey) {
+            this.traceIdKey = traceIdKey;
+            return asBuilder();
+        }
+
+        /**
+         * The context data key of the hex-encoded span ID (optional, defaults to {@code span_id}).
+         *
+         * @return this builder
+         */
+        public B setSpanIdKey(final String spanIdKey) {
+            this.spanIdKey = spanIdKey;
+            return asBuilder();
+        }
+
+        /**
+         * The context data key of the hex-encoded trace flags (optional, defaults to {@code trace_flags}).
+         *
+         * @return this builder
+         */
+        public B setTraceFlagsKey(final String traceFlagsKey) {
+            this.traceFlagsKey = traceFlagsKey;
+            return asBuilder();
+        }
+
+        /**
+         * Whether to include the stack trace of logged exceptions (optional, defaults to true).
+         *
+         * @return this builder
+         */
+        public B setIncludeStacktrace(final boolean includeStacktrace) {
+            this.includeStacktrace = includeStacktrace;
+            return asBuilder();
+        }
+
+        /**
+         * Whether to include the context data as attributes (optional, defaults to true).
+         *
+         * @return this builder
+         */
+        public B setIncludeThreadContext(final boolean includeThreadContext) {
+            this.includeThreadContext = includeThreadContext;
+            return asBuilder();
+        }
+    }
+
+    @PluginBuilderFactory
+    public static <B extends Builder<B>> B newBuilder() {
+        return new Builder<B>().asBuilder();
+    }
+
+    @Override
+    public byte[] toByteArray(final LogEvent event) {
+        final ProtobufWriter writer = encode(event);
+        try {
+            return Arrays.copyOf(writer.buffer, writer.length);
+        } finally {
+            writer.recycle();
+        }
+    }
+
+    @Override
+    public byte[] toSerializable(final LogEvent event) {
+        return toByteArray(event);
+    }
+
+    @Override
+    public void encode(final LogEvent event, final ByteBufferDestination destination) {
+        final ProtobufWriter writer = encode(event);
+        try {
+            destination.writeBytes(writer.buffer, 0, writer.length);
+        } finally {
+            writer.recycle();
+        }
+    }
+
+    private ProtobufWriter encode(final LogEvent event) {
+        final ProtobufWriter writer = writerSupplier.get();
+        writer.length = 0;
+        final int messageStart = lengthDelimited ? writer.startMessage() : 0;
+        if (exportRequest) {
+            final int resourceLogsStart = writer.startField(EXPORT_REQUEST_RESOURCE_LOGS);
+            encodeResource(writer);
+            final int scopeLogsStart = writer.startField(RESOURCE_LOGS_SCOPE_LOGS);
+            final int scopeStart = writer.startField(SCOPE_LOGS_SCOPE);
+            final String loggerName = event.getLoggerName();
+            if (loggerName != null) {
+                writer.writeString(SCOPE_NAME, loggerName);
+            }
+            writer.endMessage(scopeStart);
+            final int logRecordStart = writer.startField(SCOPE_LOGS_LOG_RECORDS);
+            encodeLogRecord(event, writer);
+            writer.endMessage(logRecordStart);
+            writer.endMessage(scopeLogsStart);
+            writer.endMessage(resourceLogsStart);
+        } else {
+            encodeLogRecord(event, writer);
+        }
+        if (lengthDelimited) {
+            writer.endMessage(messageStart);
+        }
+        return writer;
+    }
+
+    private void encodeResource(final ProtobufWriter writer) {
+        final int resourceStart = writer.startField(RESOURCE_LOGS_RESOURCE);
+        if (serviceName != null) {
+            writer.writeAttribute(RESOURCE_ATTRIBUTES, "service.name", serviceName);
+        }
+        if (hostName != null) {
+            writer.writeAttribute(RESOURCE_ATTRIBUTES, "host.name", hostName);
+        }
+        writer.endMessage(resourceStart);
+    }
+
+    private void encodeLogRecord(final LogEvent event, final ProtobufWriter writer) {
+
+        // Encode the timestamps.
+        final Instant instant = event.getInstant();
+        final long timeUnixNano = instant.getEpochSecond() * 1_000_000_000L + instant.getNanoOfSecond();
+        writer.writeFixed64(LOG_RECORD_TIME_UNIX_NANO, timeUnixNano);
+        writer.writeFixed64(LOG_RECORD_OBSERVED_TIME_UNIX_NANO, timeUnixNano);
+
+        // Encode the level.
+        final Level level = event.getLevel();
+        if (level != null) {
+            writer.writeVarint(LOG_RECORD_SEVERITY_NUMBER, toSeverityNumber(level));
+            writer.writeString(LOG_RECORD_SEVERITY_TEXT, level.name());
+        }
+
+        // Encode the message.
+        final Message message = event.getMessage();
+        if (message != null) {
+            final int bodyStart = writer.startField(LOG_RECORD_BODY);
+            if (message instanceof StringBuilderFormattable) {
+                final StringBuilder stringBuilder = writer.stringBuilder;
+                stringBuilder.setLength(0);
+                ((StringBuilderFormattable) message).formatTo(stringBuilder);
+                writer.writeString(ANY_VALUE_STRING, stringBuilder);
+            } else {
+                writer.writeString(ANY_VALUE_STRING, message.getFormattedMessage());
+            }
+            writer.endMessage(bodyStart);
+        }
+
+        // Encode the context data.
+        final ReadOnlyStringMap contextData = event.getContextData();
+        if (contextData != null && !contextData.isEmpty()) {
+            writer.writeTraceContext(contextData, traceIdKey, LOG_RECORD_TRACE_ID, 16);
+            writer.writeTraceContext(contextData, spanIdKey, LOG_RECORD_SPAN_ID, 8);
+            final Object traceFlags = contextData.getValue(traceFlagsKey);
+            if (traceFlags instanceof CharSequence) {
+                final int flags = ProtobufWriter.parseHex((CharSequence) traceFlags);
+                if (flags >= 0) {
+                    writer.writeFixed32(LOG_RECORD_FLAGS, flags);
+                }
+            }
+            if (includeThreadContext) {
+                contextData.forEach(contextDataWriter, writer);
+            }
+        }
+
+        // Encode the thread.
+        final String threadName = event.getThreadName();
+        if (threadName != null) {
+            writer.writeAttribute(LOG_RECORD_ATTRIBUTES, "thread.name", threadName);
+        }
+        writer.writeAttribute(LOG_RECORD_ATTRIBUTES, "thread.id", event.getThreadId());
+
+        // Encode the exception.
+        final Throwable thrown = event.getThrown();
+        if (thrown != null) {
+            writer.writeAttribute(LOG_RECORD_ATTRIBUTES, "exception.type", thrown.getClass().getName());
+            final String thrownMessage = thrown.getMessage();
+            if (thrownMessage != null) {
+                writer.writeAttribute(LOG_RECORD_ATTRIBUTES, "exception.message", thrownMessage);
+            }
+            if (includeStacktrace) {
+                final StringBuilderWriter stackTraceWriter = new StringBuilderWriter();
+                thrown.printStackTrace(new PrintWriter(stackTraceWriter));
+                writer.writeAttribute(LOG_RECORD_ATTRIBUTES, "exception.stacktrace", stackTraceWriter.getBuilder());
+            }
+        }
+    }
+
+    private void writeContextData(final String key, final Object value, final ProtobufWriter writer) {
+        if (value != null && !key.equals(traceIdKey) && !key.equals(spanIdKey) && !key.equals(traceFlagsKey)) {
+            writer.writeAttribute(LOG_RECORD_ATTRIBUTES, key, value);
+        }
+    }
+
+    /**
+     * Maps the level to an OpenTelemetry {@code SeverityNumber}.
+     */
+    static int toSeverityNumber(final Level level) {
+        final int intLevel = level.intLevel();
+        if (intLevel <= Level.FATAL.intLevel()) {
+            return 21;
+        } else if (intLevel <= Level.ERROR.intLevel()) {
+            return 17;
+        } else if (intLevel <= Level.WARN.intLevel()) {
+            return 13;
+        } else if (intLevel <= Level.INFO.intLevel()) {
+            return 9;
+        } else if (intLevel <= Level.DEBUG.intLevel()) {
+            return 5;
+        } else {
+            return 1;
+        }
+    }
+
+    @Override
+    public String getContentType() {
+        return CONTENT_TYPE;
+    }
+
+    /**
+     * Recyclable Protocol Buffers wire format writer.
+     */
+    private static final class ProtobufWriter {
+
+        private static final int INITIAL_BUFFER_SIZE = 1024;
+
+        private static final int MAX_RETAINED_BUFFER_SIZE =
+                Math.max(INITIAL_BUFFER_SIZE, Constants.ENCODER_BYTE_BUFFER_SIZE);
+
+        private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+
+        private int length;
+
+        private final StringBuilder stringBuilder = new StringBuilder();
+
+        private final byte[] idBuffer = new byte[16];
+
+        private void writeTag(final int fieldNumber, final int wireType) {
+            writeRawVarint((fieldNumber << 3) | wireType);
+        }
+
+        private void writeVarint(final int fieldNumber, final long value) {
+            writeTag(fieldNumber, WIRE_TYPE_VARINT);
+            writeRawVarint(value);
+        }
+
+        private void writeFixed32(final int fieldNumber, final int value) {
+            writeTag(fieldNumber, WIRE_TYPE_FIXED32);
+            ensureCapacity(4);
+            for (int i = 0; i < 4; i++) {
+                buffer[length++] = (byte) (value >>> (8 * i));
+            }
+        }
+
+        private void writeFixed64(final int fieldNumber, final long value) {
+            writeTag(fieldNumber, WIRE_TYPE_FIXED64);
+            ensureCapacity(8);
+            for (int i = 0; i < 8; i++) {
+                buffer[length++] = (byte) (value >>> (8 * i));
+            }
+        }
+
+        private void writeString(final int fieldNumber, final CharSequence value) {
+            final int valueLength = value.length();
+            int utf8Length = 0;
+            for (int i = 0; i < valueLength; i++) {
+                final char c = value.charAt(i);
+                if (c < 0x80) {
+                    utf8Length++;
+                } else if (c < 0x800) {
+                    utf8Length += 2;
+                } else if (Character.isHighSurrogate(c)
+                        && i + 1 < valueLength
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    utf8Length += 4;
+                    i++;
+                } else if (Character.isSurrogate(c)) {
+                    utf8Length++;
+                } else {
+                    utf8Length += 3;
+                }
+            }
+            writeTag(fieldNumber, WIRE_TYPE_LENGTH_DELIMITED);
+            writeRawVarint(utf8Length);
+            ensureCapacity(utf8Length);
+            final byte[] buffer = this.buffer;
+            int length = this.length;
+            for (int i = 0; i < valueLength; i++) {
+                final char c = value.charAt(i);
+                if (c < 0x80) {
+                    buffer[length++] = (byte) c;
+                } else if (c < 0x800) {
+                    buffer[length++] = (byte) (0xC0 | (c >> 6));
+                    buffer[length++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c)
+                        && i + 1 < valueLength
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer[length++] = (byte) (0xF0 | (codePoint >> 18));
+                    buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buffer[length++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    buffer[length++] = '?';
+                } else {
+                    buffer[length++] = (byte) (0xE0 | (c >> 12));
+                    buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buffer[length++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            this.length = length;
+        }
+
+        /**
+         * Writes a {@code KeyValue} message.
+         */
+        private void writeAttribute(final int fieldNumber, final String key, final Object value) {
+            final int keyValueStart = startField(fieldNumber);
+            writeString(KEY_VALUE_KEY, key);
+            final int valueStart = startField(KEY_VALUE_VALUE);
+            if (value instanceof CharSequence) {
+                writeString(ANY_VALUE_STRING, (CharSequence) value);
+            } else if (value instanceof Boolean) {
+                writeVarint(ANY_VALUE_BOOL, (Boolean) value ? 1 : 0);
+            } else if (value instanceof Long
+                    || value instanceof Integer
+                    || value instanceof Short
+                    || value instanceof Byte) {
+                writeVarint(ANY_VALUE_INT, ((Number) value).longValue());
+            } else if (value instanceof Double || value instanceof Float) {
+                writeFixed64(ANY_VALUE_DOUBLE, Double.doubleToRawLongBits(((Number) value).doubleValue()));
+            } else {
+                writeString(ANY_VALUE_STRING, String.valueOf(value));
+            }
+            endMessage(valueStart);
+            endMessage(keyValueStart);
+        }
+
+        private void writeAttribute(final int fieldNumber, final String key, final long value) {
+            final int keyValueStart = startField(fieldNumber);
+            writeString(KEY_VALUE_KEY, key);
+            final int valueStart = startField(KEY_VALUE_VALUE);
+            writeVarint(ANY_VALUE_INT, value);
+            endMessage(valueStart);
+            endMessage(keyValueStart);
+        }
+
+        /**
+         * Writes the hex-encoded trace or span ID found in the context data as bytes, if it is valid.
+         */
+        private void writeTraceContext(
+                final ReadOnlyStringMap contextData, final String key, final int fieldNumber, final int byteCount) {
+            final Object value = contextData.getValue(key);
+            if (!(value instanceof CharSequence)) {
+                return;
+            }
+            final CharSequence hex = (CharSequence) value;
+            if (hex.length() != 2 * byteCount) {
+                return;
+            }
+            for (int i = 0; i < byteCount; i++) {
+                final int high = Character.digit(hex.charAt(2 * i), 16);
+                final int low = Character.digit(hex.charAt(2 * i + 1), 16);
+                if (high < 0 || low < 0) {
+                    return;
+                }
+                idBuffer[i] = (byte) ((high << 4) | low);
+            }
+            writeTag(fieldNumber, WIRE_TYPE_LENGTH_DELIMITED);
+            writeRawVarint(byteCount);
+            ensureCapacity(byteCount);
+            System.arraycopy(idBuffer, 0, buffer, length, byteCount);
+            length += byteCount;
+        }
+
+        /**
+         * @return the value of the given hex string of at most 8 digits, or {@code -1}, if it is invalid
+         */
+        private static int parseHex(final CharSequence hex) {
+            final int hexLength = hex.length();
+            if (hexLength == 0 || hexLength > 8) {
+                return -1;
+            }
+            int value = 0;
+            for (int i = 0; i < hexLength; i++) {
+                final int digit = Character.digit(hex.charAt(i), 16);
+                if (digit < 0) {
+                    return -1;
+                }
+                value = (value << 4) | digit;
+            }
+            return value;
+        }
+
+        /**
+         * Starts an embedded message field.
+         *
+         * @return the start position of the message, to be passed to {@link #endMessage(int)}
+         */
+        private int startField(final int fieldNumber) {
+            writeTag(fieldNumber, WIRE_TYPE_LENGTH_DELIMITED);
+            return startMessage();
+        }
+
+        /**
+         * Starts a length-prefixed message by reserving a byte for its length.
+         *
+         * @return the start position of the message, to be passed to {@link #endMessage(int)}
+         */
+        private int startMessage() {
+            ensureCapacity(1);
+            length++;
+            return length;
+        }
+
+        /**
+         * Writes the length of the message started at the given position, shifting its contents if the length does
+         * not fit into the reserved byte.
+         */
+        private void endMessage(final int start) {
+            final int messageLength = length - start;
+            final int extraByteCount = varintSize(messageLength) - 1;
+            if (extraByteCount > 0) {
+                ensureCapacity(extraByteCount);
+                System.arraycopy(buffer, start, buffer, start + extraByteCount, messageLength);
+            }
+            final int end = length + extraByteCount;
+            length = start - 1;
+            writeRawVarint(messageLength);
+            length = end;
+        }
+
+        private static int varintSize(final int value) {
+            int size = 1;
+            for (int remaining = value >>> 7; remaining != 0; remaining >>>= 7) {
+                size++;
+            }
+            return size;
+        }
+
+        private void writeRawVarint(final long value) {
+            ensureCapacity(10);
+            long remaining = value;
+            while ((remaining & ~0x7FL) != 0) {
+                buffer[length++] = (byte) ((remaining & 0x7F) | 0x80);
+                remaining >>>= 7;
+            }
+            buffer[length++] = (byte) remaining;
+        }
+
+        /**
+         * Releases the memory retained after encoding an oversized event.
+         */
+        private void recycle() {
+            if (buffer.length > MAX_RETAINED_BUFFER_SIZE) {
+                buffer = new byte[INITIAL_BUFFER_SIZE];
+            }
+            length = 0;
+            StringBuilders.trimToMaxSize(stringBuilder, Constants.MAX_REUSABLE_MESSAGE_SIZE);
+        }
+
+        private void ensureCapacity(final int byteCount) {
+            final int requiredCapacity = length + byteCount;
+            if (requiredCapacity > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(requiredCapacity, 2 * buffer.length));
+            }
+        }
+    }
+}
@@ -19,15 +19,12 @@ package org.apache.logging.log4j.core.layout;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.SortedMap;
 import java.util.TreeMap;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LoggingException;
@@ -50,19 +47,27 @@ import org.apache.logging.log4j.core.pattern.PatternConverter;
 import org.apache.logging.log4j.core.pattern.PatternFormatter;
 import org.apache.logging.log4j.core.pattern.PatternParser;
 import org.apache.logging.log4j.core.pattern.ThrowablePatternConverter;
+import org.apache.logging.log4j.core.time.Instant;
 import org.apache.logging.log4j.core.util.NetUtils;
 import org.apache.logging.log4j.core.util.Patterns;
+import org.apache.logging.log4j.core.util.internal.instant.InstantPatternFormatter;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.MessageCollectionMessage;
 import org.apache.logging.log4j.message.StructuredDataCollectionMessage;
 import org.apache.logging.log4j.message.StructuredDataId;
 import org.apache.logging.log4j.message.StructuredDataMessage;
+import org.apache.logging.log4j.util.IndexedReadOnlyStringMap;
 import org.apache.logging.log4j.util.ProcessIdUtil;
-import org.apache.logging.log4j.util.StringBuilders;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
 import org.apache.logging.log4j.util.Strings;
 
 /**
  * Formats a log event in accordance with RFC 5424.
+ * <p>
+ * Unless the TLS message format is used, {@link #encode(LogEvent, ByteBufferDestination)} is garbage-free for events
+ * carrying neither structured data messages nor {@link LoggerFields}.
+ * </p>
  *
  * @see <a href="https://tools.ietf.org/html/rfc5424">RFC 5424</a>
  */
@@ -100,10 +105,6 @@ public final class Rfc5424Layout extends AbstractStringLayout {
     private static final int SD_PARAM_NAME_MAX_LENGTH = 32;
 
     private static final String LF = "\n";
-    private static final int TWO_DIGITS = 10;
-    private static final int THREE_DIGITS = 100;
-    private static final int MILLIS_PER_MINUTE = 60000;
-    private static final int MINUTES_PER_HOUR = 60;
     private static final String COMPONENT_KEY = "RFC5424-Converter";
 
     private final Facility facility;
@@ -112,6 +113,7 @@ public final class Rfc5424Layout extends AbstractStringLayout {
     private final boolean includeMdc;
     private final String mdcId;
     private final StructuredDataId mdcSdId;
+    private final String mdcSdIdString;
     private final String localHostName;
     private final String appName;
     private final String messageId;
@@ -125,9 +127,8 @@ public final class Rfc5424Layout extends AbstractStringLayout {
     private final boolean includeNewLine;
     private final String escapeNewLine;
     private final boolean useTlsMessageFormat;
-
-    private long lastTimestamp = -1;
-    private String timestamppStr;
+    private final InstantPatternFormatter timestampFormatter =
+            SyslogLayoutHelper.createTimestampFormatter("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
 
     private final List<PatternFormatter> exceptionFormatters;
     private final Map<String, FieldFormatter> fieldFormatters;
@@ -161,9 +162,10 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         this.enterpriseNumber = ein;
         this.includeMdc = includeMDC;
         this.includeNewLine = includeNL;
-        this.escapeNewLine = escapeNL == null ? null : Matcher.quoteReplacement(escapeNL);
+        this.escapeNewLine = escapeNL;
         this.mdcId = mdcId != null ? mdcId : id == null ? DEFAULT_MDCID : id;
         this.mdcSdId = new StructuredDataId(this.mdcId, enterpriseNumber, null, null);
+        this.mdcSdIdString = mdcSdId.toString();
         this.mdcPrefix = mdcPrefix;
         this.eventPrefix = eventPrefix;
         this.appName = appName;
@@ -291,8 +293,37 @@ public final class Rfc5424Layout extends AbstractStringLayout {
     @Override
     public String toSerializable(final LogEvent event) {
         final StringBuilder buf = getStringBuilder();
+        formatTo(event, buf);
+        if (useTlsMessageFormat) {
+            return new TlsSyslogFrame(buf.toString()).toString();
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Encodes the RFC 5424 Syslog representation of the given event into the given destination, without creating an
+     * intermediate {@link String}.
+     *
+     * @param event the log event
+     * @param destination the destination to write to
+     * @since 2.27.0
+     */
+    @Override
+    public void encode(final LogEvent event, final ByteBufferDestination destination) {
+        // The TLS frame is prefixed with the byte length of the message, hence needs the message to be encoded first
+        if (useTlsMessageFormat) {
+            super.encode(event, destination);
+            return;
+        }
+        final StringBuilder text = getStringBuilder();
+        formatTo(event, text);
+        getStringBuilderEncoder().encode(text, destination);
+        trimToMaxSize(text);
+    }
+
+    private void formatTo(final LogEvent event, final StringBuilder buf) {
         appendPriority(buf, event.getLevel());
-        appendTimestamp(buf, event.getTimeMillis());
+        appendTimestamp(buf, event.getInstant());
         appendSpace(buf);
         appendHostName(buf);
         appendSpace(buf);
@@ -304,10 +335,6 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         appendSpace(buf);
         appendStructuredElements(buf, event);
         appendMessage(buf, event);
-        if (useTlsMessageFormat) {
-            return new TlsSyslogFrame(buf.toString()).toString();
-        }
-        return buf.toString();
     }
 
     private void appendPriority(final StringBuilder buffer, final Level logLevel) {
@@ -316,8 +343,8 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         buffer.append(">1 ");
     }
 
-    private void appendTimestamp(final StringBuilder buffer, final long milliseconds) {
-        buffer.append(computeTimeStampString(milliseconds));
+    private void appendTimestamp(final StringBuilder buffer, final Instant instant) {
+        timestampFormatter.formatTo(buffer, instant);
     }
 
     private void appendSpace(final StringBuilder buffer) {
@@ -356,27 +383,40 @@ public final class Rfc5424Layout extends AbstractStringLayout {
 
     private void appendMessage(final StringBuilder buffer, final LogEvent event) {
         final Message message = event.getMessage();
+        final int textStartIndex = buffer.length() + 1;
         // This layout formats StructuredDataMessages instead of delegating to the Message itself.
-        final String text = (message instanceof StructuredDataMessage || message instanceof MessageCollectionMessage)
-                ? message.getFormat()
-                : message.getFormattedMessage();
-
-        if (text != null && text.length() > 0) {
-            buffer.append(' ').append(escapeNewlines(text, escapeNewLine));
+        if (message instanceof StructuredDataMessage || message instanceof MessageCollectionMessage) {
+            appendMessageText(buffer, message.getFormat());
+        } else if (message instanceof StringBuilderFormattable) {
+            buffer.append(' ');
+            ((StringBuilderFormattable) message).formatTo(buffer);
+            if (buffer.length() == textStartIndex) {
+                buffer.setLength(textStartIndex - 1);
+            }
+        } else {
+            appendMessageText(buffer, message.getFormattedMessage());
         }
+        SyslogLayoutHelper.escapeNewLines(buffer, textStartIndex, escapeNewLine);
 
         if (exceptionFormatters != null && event.getThrown() != null) {
-            final StringBuilder exception = new StringBuilder(LF);
+            final int exceptionStartIndex = buffer.length();
+            buffer.append(LF);
             for (final PatternFormatter formatter : exceptionFormatters) {
-                formatter.format(event, exception);
+                formatter.format(event, buffer);
             }
-            buffer.append(escapeNewlines(exception.toString(), escapeNewLine));
+            SyslogLayoutHelper.escapeNewLines(buffer, exceptionStartIndex, escapeNewLine);
         }
         if (includeNewLine) {
             buffer.append(LF);
         }
     }
 
+    private static void appendMessageText(final StringBuilder buffer, final String text) {
+        if (text != null && text.length() > 0) {
+            buffer.append(' ').append(text);
+        }
+    }
+
     private void appendStructuredElements(final StringBuilder buffer, final LogEvent event) {
         final Message message = event.getMessage();
         final boolean isStructured =
@@ -387,6 +427,15 @@ public final class Rfc5424Layout extends AbstractStringLayout {
             return;
         }
 
+        // Write the context data element straight from the (sorted) context data, if it is the only element
+        final ReadOnlyStringMap contextData = event.getContextData();
+        if (!isStructured
+                && (fieldFormatters == null || fieldFormatters.isEmpty())
+                && contextData instanceof IndexedReadOnlyStringMap) {
+            appendContextDataElement(buffer, (IndexedReadOnlyStringMap) contextData);
+            return;
+        }
+
         final Map<String, StructuredDataElement> sdElements = new HashMap<>();
         final Map<String, String> contextMap = event.getContextData().toMap();
 
@@ -403,7 +452,7 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         }
 
         if (includeMdc && contextMap.size() > 0) {
-            final String mdcSdIdStr = mdcSdId.toString();
+            final String mdcSdIdStr = mdcSdIdString;
             final StructuredDataElement union = sdElements.get(mdcSdIdStr);
             if (union != null) {
                 union.union(contextMap);
@@ -435,6 +484,43 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         }
     }
 
+    /**
+     * Appends the context data structured data element, equivalent to {@link #formatStructuredElement}, but without
+     * copying the context data to an intermediate map.
+     */
+    private void appendContextDataElement(final StringBuilder buffer, final IndexedReadOnlyStringMap contextData) {
+        if (mdcRequired != null) {
+            for (final String key : mdcRequired) {
+                if (contextData.getValue(key) == null) {
+                    throw new LoggingException("Required key " + key + " is missing from the " + mdcId);
+                }
+            }
+        }
+        if (!includeMdc || contextData.isEmpty()) {
+            buffer.append('-');
+            return;
+        }
+        buffer.append('[');
+        buffer.append(mdcSdIdString);
+        for (int entryIndex = 0; entryIndex < contextData.size(); entryIndex++) {
+            final String key = contextData.getKeyAt(entryIndex);
+            final Object value = contextData.getValueAt(entryIndex);
+            if (listChecker.check(key) && value != null) {
+                buffer.append(' ');
+                if (mdcPrefix != null) {
+                    buffer.append(mdcPrefix);
+                }
+                appendParamName(buffer, key);
+                buffer.append('=').append('"');
+                final int valueStartIndex = buffer.length();
+                appendParamValue(buffer, value instanceof String ? (String) value : String.valueOf(value));
+                SyslogLayoutHelper.escapeNewLines(buffer, valueStartIndex, escapeNewLine);
+                buffer.append('"');
+            }
+        }
+        buffer.append(']');
+    }
+
     private void addStructuredData(
             final Map<String, StructuredDataElement> sdElements, final StructuredDataMessage data) {
         final Map<String, String> map = data.getData();
@@ -451,13 +537,6 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         }
     }
 
-    private String escapeNewlines(final String text, final String replacement) {
-        if (null == replacement) {
-            return text;
-        }
-        return NEWLINE_PATTERN.matcher(text).replaceAll(replacement);
-    }
-
     protected String getProcId() {
         return procId;
     }
@@ -490,67 +569,6 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         return useTlsMessageFormat;
     }
 
-    private String computeTimeStampString(final long now) {
-        long last;
-        synchronized (this) {
-            last = lastTimestamp;
-            if (now == lastTimestamp) {
-                return timestamppStr;
-            }
-        }
-
-        final StringBuilder buffer = new StringBuilder();
-        final Calendar cal = new GregorianCalendar();
-        cal.setTimeInMillis(now);
-        buffer.append(Integer.toString(cal.get(Calendar.YEAR)));
-        buffer.append('-');
-        pad(cal.get(Calendar.MONTH) + 1, TWO_DIGITS, buffer);
-        buffer.append('-');
-        pad(cal.get(Calendar.DAY_OF_MONTH), TWO_DIGITS, buffer);
-        buffer.append('T');
-        pad(cal.get(Calendar.HOUR_OF_DAY), TWO_DIGITS, buffer);
-        buffer.append(':');
-        pad(cal.get(Calendar.MINUTE), TWO_DIGITS, buffer);
-        buffer.append(':');
-        pad(cal.get(Calendar.SECOND), TWO_DIGITS, buffer);
-        buffer.append('.');
-        pad(cal.get(Calendar.MILLISECOND), THREE_DIGITS, buffer);
-
-        int tzmin = (cal.get(Calendar.ZONE_OFFSET) + cal.get(Calendar.DST_OFFSET)) / MILLIS_PER_MINUTE;
-        if (tzmin == 0) {
-            buffer.append('Z');
-        } else {
-            if (tzmin < 0) {
-                tzmin = -tzmin;
-                buffer.append('-');
-            } else {
-                buffer.append('+');
-            }
-            final int tzhour = tzmin / MINUTES_PER_HOUR;
-            tzmin -= tzhour * MINUTES_PER_HOUR;
-            pad(tzhour, TWO_DIGITS, buffer);
-            buffer.append(':');
-            pad(tzmin, TWO_DIGITS, buffer);
-        }
-        synchronized (this) {
-            if (last == lastTimestamp) {
-                lastTimestamp = now;
-                timestamppStr = buffer.toString();
-            }
-        }
-        return buffer.toString();
-    }
-
-    private void pad(final int val, int max, final StringBuilder buf) {
-        while (max > 1) {
-            if (val < max) {
-                buf.append('0');
-            }
-            max = max / TWO_DIGITS;
-        }
-        buf.append(Integer.toString(val));
-    }
-
     private void formatStructuredElement(
             final String id, final StructuredDataElement data, final StringBuilder sb, final ListChecker checker) {
         if ((id == null && defaultId == null) || data.discard()) {
@@ -559,7 +577,7 @@ public final class Rfc5424Layout extends AbstractStringLayout {
 
         sb.append('[');
         sb.append(id);
-        if (!mdcSdId.toString().equals(id)) {
+        if (!mdcSdIdString.equals(id)) {
             appendMap(data.getPrefix(), data.getFields(), sb, ListChecker.NOOP_CHECKER);
         } else {
             appendMap(data.getPrefix(), data.getFields(), sb, checker);
@@ -603,9 +621,11 @@ public final class Rfc5424Layout extends AbstractStringLayout {
                     sb.append(prefix);
                 }
                 // No need to escape new lines, since parameter names cannot contain them.
-                final String safeKey = sanitizeParamName(entry.getKey());
-                final String safeValue = escapeNewlines(escapeParamValue(entry.getValue()), escapeNewLine);
-                StringBuilders.appendKeyDqValue(sb, safeKey, safeValue);
+                sb.append(sanitizeParamName(entry.getKey())).append('=').append('"');
+                final int valueStartIndex = sb.length();
+                sb.append(escapeParamValue(entry.getValue()));
+                SyslogLayoutHelper.escapeNewLines(sb, valueStartIndex, escapeNewLine);
+                sb.append('"');
             }
         }
     }
@@ -635,6 +655,22 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         return key;
     }
 
+    /**
+     * Appends the sanitized form of the given {@code PARAM-NAME}, equivalent to {@link #sanitizeParamName(String)}.
+     */
+    private static void appendParamName(final StringBuilder buffer, final String key) {
+        final int length = key.length();
+        if (length == 0) {
+            buffer.append('?');
+            return;
+        }
+        final int maxLength = Math.min(length, SD_PARAM_NAME_MAX_LENGTH);
+        for (int i = 0; i < maxLength; i++) {
+            final char c = key.charAt(i);
+            buffer.append(isParamNameCharacterValid(c) ? c : '?');
+        }
+    }
+
     private String sanitizeParamNameSlowPath(final String key) {
         final StringBuilder sb = new StringBuilder(SD_PARAM_NAME_MAX_LENGTH);
         final int maxLength = Math.min(key.length(), SD_PARAM_NAME_MAX_LENGTH);
@@ -665,6 +701,19 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         return c > 32 && c <= 126 && c != '=' && c != ']' && c != '"';
     }
 
+    /**
+     * Appends the escaped form of the given {@code PARAM-VALUE}, equivalent to {@link #escapeParamValue(String)}.
+     */
+    private static void appendParamValue(final StringBuilder buffer, final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == ']' || c == '\\') {
+                buffer.append('\\');
+            }
+            buffer.append(c);
+        }
+    }
+
     private String escapeParamValue(final String value) {
         StringBuilder output = null;
         for (int i = 0; i < value.length(); i++) {
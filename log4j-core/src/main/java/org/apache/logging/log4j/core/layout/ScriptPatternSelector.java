@@ -34,6 +34,7 @@ import org.apache.logging.log4j.core.pattern.PatternFormatter;
 import org.apache.logging.log4j.core.pattern.PatternParser;
 import org.apache.logging.log4j.core.script.AbstractScript;
 import org.apache.logging.log4j.core.script.ScriptRef;
+import org.apache.logging.log4j.core.util.internal.ScriptBindingsRecycler;
 import org.apache.logging.log4j.status.StatusLogger;
 
 /**
@@ -160,8 +161,10 @@ public class ScriptPatternSelector implements PatternSelector, LocationAware {
     private final String defaultPattern;
 
     private static Logger LOGGER = StatusLogger.getLogger();
+    private static final String KEY_LOG_EVENT = "logEvent";
     private final AbstractScript script;
     private final Configuration configuration;
+    private final ScriptBindingsRecycler bindingsRecycler;
     private final boolean requiresLocation;
 
     private ScriptPatternSelector(
@@ -174,6 +177,7 @@ public class ScriptPatternSelector implements PatternSelector, LocationAware {
             final boolean noConsoleNoAnsi) {
         this.script = script;
         this.configuration = config;
+        this.bindingsRecycler = new ScriptBindingsRecycler(config, KEY_LOG_EVENT);
         final PatternParser parser = PatternLayout.createPatternParser(config);
         boolean needsLocation = false;
         for (final PatternMatch property : properties) {
@@ -218,6 +222,7 @@ public class ScriptPatternSelector implements PatternSelector, LocationAware {
             final Configuration config) {
         this.script = script;
         this.configuration = config;
+        this.bindingsRecycler = new ScriptBindingsRecycler(config, KEY_LOG_EVENT);
         if (!(script instanceof ScriptRef)) {
             config.getScriptManager().addScript(script);
         }
@@ -258,11 +263,14 @@ public class ScriptPatternSelector implements PatternSelector, LocationAware {
 
     @Override
     public PatternFormatter[] getFormatters(final LogEvent event) {
-        final SimpleBindings bindings = new SimpleBindings();
-        bindings.putAll(configuration.getProperties());
-        bindings.put("substitutor", configuration.getStrSubstitutor());
-        bindings.put("logEvent", event);
-        final Object object = configuration.getScriptManager().execute(script.getId(), bindings);
+        final SimpleBindings bindings = bindingsRecycler.acquire();
+        final Object object;
+        try {
+            bindings.put(KEY_LOG_EVENT, event);
+            object = configuration.getScriptManager().execute(script.getId(), bindings);
+        } finally {
+            bindingsRecycler.release(bindings);
+        }
         if (object == null) {
             return defaultFormatters;
         }
@@ -18,12 +18,8 @@ package org.apache.logging.log4j.core.layout;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.HashMap;
-import java.util.Locale;
 import java.util.Map;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
@@ -34,10 +30,16 @@ import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
 import org.apache.logging.log4j.core.net.Facility;
 import org.apache.logging.log4j.core.net.Priority;
 import org.apache.logging.log4j.core.util.NetUtils;
+import org.apache.logging.log4j.core.util.internal.instant.InstantPatternFormatter;
+import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.util.Chars;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
 
 /**
  * Formats a log event as a BSD Log record.
+ * <p>
+ * {@link #encode(LogEvent, ByteBufferDestination)} is garbage-free.
+ * </p>
  */
 @Plugin(name = "SyslogLayout", category = Node.CATEGORY, elementType = Layout.ELEMENT_TYPE, printObject = true)
 public final class SyslogLayout extends AbstractStringLayout {
@@ -114,12 +116,14 @@ public final class SyslogLayout extends AbstractStringLayout {
 
     private final Facility facility;
     private final boolean includeNewLine;
-    private final String escapeNewLine;
+    private final String newLineReplacement;
+
+    private static final String DATE_PATTERN = "MMM dd HH:mm:ss";
 
     /**
-     * Date format used if header = true.
+     * Date formatter used if header = true.
      */
-    private final SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd HH:mm:ss", Locale.ENGLISH);
+    private final InstantPatternFormatter timestampFormatter = SyslogLayoutHelper.createTimestampFormatter(DATE_PATTERN);
 
     /**
      * Host name used to identify messages from this appender.
@@ -131,7 +135,7 @@ public final class SyslogLayout extends AbstractStringLayout {
         super(charset);
         this.facility = facility;
         this.includeNewLine = includeNL;
-        this.escapeNewLine = escapeNL == null ? null : Matcher.quoteReplacement(escapeNL);
+        this.newLineReplacement = escapeNL;
     }
 
     /**
@@ -143,30 +147,52 @@ public final class SyslogLayout extends AbstractStringLayout {
     @Override
     public String toSerializable(final LogEvent event) {
         final StringBuilder buf = getStringBuilder();
+        formatTo(event, buf);
+        return buf.toString();
+    }
+
+    /**
+     * Encodes the BSD Log record of the given event into the given destination, without creating an intermediate
+     * {@link String}.
+     *
+     * @param event the log event
+     * @param destination the destination to write to
+     * @since 2.27.0
+     */
+    @Override
+    public void encode(final LogEvent event, final ByteBufferDestination destination) {
+        final StringBuilder text = getStringBuilder();
+        formatTo(event, text);
+        getStringBuilderEncoder().encode(text, destination);
+        trimToMaxSize(text);
+    }
 
+    private void formatTo(final LogEvent event, final StringBuilder buf) {
         buf.append('<');
         buf.append(Priority.getPriority(facility, event.getLevel()));
         buf.append('>');
-        addDate(event.getTimeMillis(), buf);
+        addDate(event, buf);
         buf.append(Chars.SPACE);
         buf.append(localHostname);
         buf.append(Chars.SPACE);
 
-        String message = event.getMessage().getFormattedMessage();
-        if (null != escapeNewLine) {
-            message = NEWLINE_PATTERN.matcher(message).replaceAll(escapeNewLine);
+        final Message message = event.getMessage();
+        final int messageStartIndex = buf.length();
+        if (message instanceof StringBuilderFormattable) {
+            ((StringBuilderFormattable) message).formatTo(buf);
+        } else {
+            buf.append(message.getFormattedMessage());
         }
-        buf.append(message);
+        SyslogLayoutHelper.escapeNewLines(buf, messageStartIndex, newLineReplacement);
 
         if (includeNewLine) {
             buf.append(Chars.LF);
         }
-        return buf.toString();
     }
 
-    private synchronized void addDate(final long timestamp, final StringBuilder buf) {
+    private void addDate(final LogEvent event, final StringBuilder buf) {
         final int index = buf.length() + 4;
-        buf.append(dateFormat.format(new Date(timestamp)));
+        timestampFormatter.formatTo(buf, event.getInstant());
         //  RFC 3164 says leading space, not leading zero on days 1-9
         if (buf.charAt(index) == '0') {
             buf.setCharAt(index, Chars.SPACE);
@@ -190,7 +216,7 @@ public final class SyslogLayout extends AbstractStringLayout {
         final Map<String, String> result = new HashMap<>();
         result.put("structured", "false");
         result.put("formatType", "logfilepatternreceiver");
-        result.put("dateFormat", dateFormat.toPattern());
+        result.put("dateFormat", DATE_PATTERN);
         result.put("format", "<LEVEL>TIMESTAMP PROP(HOSTNAME) MESSAGE");
         return result;
     }
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.util.Locale;
+import java.util.TimeZone;
+import org.apache.logging.log4j.core.util.internal.StringBuilderRecycler;
+import org.apache.logging.log4j.core.util.internal.instant.InstantPatternFormatter;
+
+/**
+ * Allocation-free formatting helpers shared by {@link SyslogLayout} and {@link Rfc5424Layout}.
+ */
+final class SyslogLayoutHelper {
+
+    private SyslogLayoutHelper() {}
+
+    /**
+     * Creates a thread-safe formatter using the given pattern, the default time zone, and English month names.
+     */
+    static InstantPatternFormatter createTimestampFormatter(final String pattern) {
+        return InstantPatternFormatter.newBuilder()
+                .setPattern(pattern)
+                .setLocale(Locale.ENGLISH)
+                .setTimeZone(TimeZone.getDefault())
+                .build();
+    }
+
+    /**
+     * Replaces each {@code \n} or {@code \r\n} sequence found after the given index with the given replacement.
+     *
+     * @param buffer the buffer to escape in place
+     * @param startIndex the index to start escaping from
+     * @param replacement the (literal) replacement, or {@code null} to disable escaping
+     */
+    static void escapeNewLines(final StringBuilder buffer, final int startIndex, final String replacement) {
+        if (replacement == null) {
+            return;
+        }
+
+        // Short-circuit if there are no new lines.
+        final int length = buffer.length();
+        int newLineIndex = startIndex;
+        while (newLineIndex < length && buffer.charAt(newLineIndex) != '\n') {
+            newLineIndex++;
+        }
+        if (newLineIndex == length) {
+            return;
+        }
+
+        // Copy the escaped text starting from the first new line in a single pass, and replace the original with it.
+        final int escapeStartIndex =
+                newLineIndex > startIndex && buffer.charAt(newLineIndex - 1) == '\r' ? newLineIndex - 1 : newLineIndex;
+        final StringBuilder escapedText = StringBuilderRecycler.acquire();
+        try {
+            int copyStartIndex = escapeStartIndex;
+            for (int index = newLineIndex; index < length; index++) {
+                if (buffer.charAt(index) == '\n') {
+                    final boolean crlf = index > copyStartIndex && buffer.charAt(index - 1) == '\r';
+                    escapedText.append(buffer, copyStartIndex, crlf ? index - 1 : index);
+                    escapedText.append(replacement);
+                    copyStartIndex = index + 1;
+                }
+            }
+            escapedText.append(buffer, copyStartIndex, length);
+            buffer.setLength(escapeStartIndex);
+            buffer.append(escapedText);
+        } finally {
+            StringBuilderRecycler.release(escapedText);
+        }
+    }
+}
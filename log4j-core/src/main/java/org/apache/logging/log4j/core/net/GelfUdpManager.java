@@ -0,0 +1,483 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.net;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AbstractManager;
+import org.apache.logging.log4j.core.appender.AppenderLoggingException;
+import org.apache.logging.log4j.core.appender.ManagerFactory;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.layout.ByteBufferDestinationHelper;
+import org.apache.logging.log4j.core.layout.GelfLayout.CompressionType;
+import org.apache.logging.log4j.core.util.internal.StripedPool;
+import org.apache.logging.log4j.util.Strings;
+
+/**
+ * Manager sending log events as <a href="https://go2docs.graylog.org/current/getting_in_log_data/gelf.html">GELF</a>
+ * messages over UDP.
+ * <p>
+ * Each event is encoded by the layout into a pooled buffer, optionally compressed using a pooled {@link Deflater}, and
+ * sent in a single datagram.
+ * Buffers and deflaters are pooled in a lock-free {@link StripedPool}, and the deflaters are ended once the manager
+ * is released.
+ * Messages exceeding the chunk size are split into GELF chunks sharing a random message ID.
+ * Once warmed up, sending a message does not allocate.
+ * </p>
+ *
+ * @since 2.27.0
+ */
+public class GelfUdpManager extends AbstractManager {
+
+    /**
+     * The maximum number of chunks a GELF message can be split into.
+     */
+    public static final int MAX_CHUNK_COUNT = 128;
+
+    /**
+     * The length of the header preceding the payload of a GELF chunk.
+     * <p>
+     * That is, the magic bytes {@code 0x1e 0x0f} followed by an 8-byte message ID, a 1-byte sequence number, and a 1-byte
+     * sequence count.
+     * </p>
+     */
+    public static final int CHUNK_HEADER_LENGTH = 12;
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+    private static final int GZIP_TRAILER_LENGTH = 8;
+
+    private static final GelfUdpManagerFactory FACTORY = new GelfUdpManagerFactory();
+
+    private final InetSocketAddress socketAddress;
+
+    /**
+     * The socket to send datagrams with.
+     * <p>
+     * Unlike a {@link java.nio.channels.DatagramChannel}, it is not closed if a thread sending on it is interrupted.
+     * </p>
+     */
+    private final DatagramSocket socket;
+
+    private final int chunkSize;
+
+    private final CompressionType compressionType;
+
+    private final int compressionThreshold;
+
+    private final StripedPool<Context> contexts;
+
+    /**
+     * Set once the manager is released, so that the contexts in use by senders are closed instead of being pooled.
+     */
+    private volatile boolean released;
+
+    protected GelfUdpManager(
+            final LoggerContext loggerContext,
+            final String name,
+            final InetSocketAddress socketAddress,
+            final DatagramSocket socket,
+            final int chunkSize,
+            final CompressionType compressionType,
+            final int compressionThreshold) {
+        super(loggerContext, name);
+        this.socketAddress = socketAddress;
+        this.socket = socket;
+        this.chunkSize = chunkSize;
+        this.compressionType = compressionType;
+        this.compressionThreshold = compressionThreshold;
+        this.contexts = new StripedPool<>(Runtime.getRuntime().availableProcessors(), 1);
+    }
+
+    /**
+     * Obtains a {@link GelfUdpManager}.
+     *
+     * @param loggerContext the logger context, can be {@code null}
+     * @param host the host to send messages to
+     * @param port the port on the host
+     * @param chunkSize the maximum length of a datagram, including the chunk header
+     * @param compressionType the compression to apply to messages
+     * @param compressionThreshold the message length above which compression is applied
+     * @return a {@link GelfUdpManager}
+     */
+    public static GelfUdpManager getManager(
+            final LoggerContext loggerContext,
+            final String host,
+            final int port,
+            final int chunkSize,
+            final CompressionType compressionType,
+            final int compressionThreshold) {
+        if (Strings.isEmpty(host)) {
+            throw new IllegalArgumentException("A host name is required");
+        }
+        if (port <= 0) {
+            throw new IllegalArgumentException("A port value is required");
+        }
+        if (chunkSize <= CHUNK_HEADER_LENGTH) {
+            throw new IllegalArgumentException(
+                    "was expecting a chunk size greater than " + CHUNK_HEADER_LENGTH + ", found: " + chunkSize);
+        }
+        if (compressionThreshold < 0) {
+            throw new IllegalArgumentException(
+                    "was expecting a non-negative compression threshold, found: " + compressionThreshold);
+        }
+        final CompressionType effectiveCompressionType =
+                compressionType != null ? compressionType : CompressionType.OFF;
+        // Managers are shared by name, hence it contains all the settings.
+        final String name = "GELF-UDP:" + host + ':' + port + "?chunkSize=" + chunkSize + "&compressionType="
+                + effectiveCompressionType + "&compressionThreshold=" + compressionThreshold;
+        final FactoryData data = new FactoryData(
+                loggerContext, host, port, chunkSize, effectiveCompressionType, compressionThreshold);
+        return getManager(name, FACTORY, data);
+    }
+
+    /**
+     * Encodes the given event using the given layout and sends it, in chunks if needed.
+     *
+     * @param layout the layout to encode the event with
+     * @param event the event to send
+     * @throws AppenderLoggingException on send failures, or if the message needs more than {@value #MAX_CHUNK_COUNT}
+     * chunks
+     */
+    public void send(final Layout<? extends Serializable> layout, final LogEvent event) {
+        Context context = contexts.poll();
+        if (context == null) {
+            context = new Context(socketAddress, chunkSize, compressionType);
+        }
+        try {
+            context.reset();
+            layout.encode(event, context);
+            final ByteBuffer message = context.compress(compressionThreshold);
+            send(context, message);
+        } catch (final IOException error) {
+            throw new AppenderLoggingException("Unable to send GELF message to " + socketAddress, error);
+        } finally {
+            recycle(context);
+        }
+    }
+
+    private void send(final Context context, final ByteBuffer message) throws IOException {
+
+        // Send the message as is, if it fits into a single datagram.
+        final int messageLength = message.remaining();
+        if (messageLength <= chunkSize) {
+            send(context.packet, message);
+            return;
+        }
+
+        // Check the chunk count.
+        final int chunkPayloadLength = chunkSize - CHUNK_HEADER_LENGTH;
+        final int chunkCount = (messageLength + chunkPayloadLength - 1) / chunkPayloadLength;
+        if (chunkCount > MAX_CHUNK_COUNT) {
+            throw new AppenderLoggingException("GELF message of " + messageLength + " bytes needs " + chunkCount
+                    + " chunks, exceeding the maximum of " + MAX_CHUNK_COUNT);
+        }
+
+        // Send the chunks.
+        final long messageId = ThreadLocalRandom.current().nextLong();
+        final int messageLimit = message.limit();
+        final ByteBuffer datagramBuffer = context.datagramBuffer;
+        for (int chunkIndex = 0; chunkIndex < chunkCount; chunkIndex++) {
+            message.limit(Math.min(messageLimit, message.position() + chunkPayloadLength));
+            datagramBuffer.clear();
+            datagramBuffer.put((byte) 0x1e);
+            datagramBuffer.put((byte) 0x0f);
+            datagramBuffer.putLong(messageId);
+            datagramBuffer.put((byte) chunkIndex);
+            datagramBuffer.put((byte) chunkCount);
+            datagramBuffer.put(message);
+            datagramBuffer.flip();
+            send(context.packet, datagramBuffer);
+        }
+    }
+
+    private void send(final DatagramPacket packet, final ByteBuffer datagram) throws IOException {
+        packet.setData(datagram.array(), datagram.arrayOffset() + datagram.position(), datagram.remaining());
+        socket.send(packet);
+    }
+
+    private void recycle(final Context context) {
+        context.trim();
+        if (released || !contexts.offer(context)) {
+            context.close();
+        }
+        // Close the context pooled while the manager was being released.
+        else if (released) {
+            contexts.drain(Context::close);
+        }
+    }
+
+    @Override
+    protected boolean releaseSub(final long timeout, final TimeUnit timeUnit) {
+        released = true;
+        socket.close();
+        contexts.drain(Context::close);
+        return true;
+    }
+
+    /**
+     * Gets this manager's content format. Specified by:
+     * <ul>
+     * <li>Key: "protocol" Value: "udp"</li>
+     * <li>Key: "direction" Value: "out"</li>
+     * <li>Key: "format" Value: "gelf"</li>
+     * </ul>
+     *
+     * @return Map of content format keys supporting GelfUdpManager
+     */
+    @Override
+    public Map<String, String> getContentFormat() {
+        final Map<String, String> result = new HashMap<>(super.getContentFormat());
+        result.put("protocol", "udp");
+        result.put("direction", "out");
+        result.put("format", "gelf");
+        return result;
+    }
+
+    public InetSocketAddress getSocketAddress() {
+        return socketAddress;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public CompressionType getCompressionType() {
+        return compressionType;
+    }
+
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    /**
+     * Pooled per-message state: the destination the layout encodes into, the compression and datagram buffers, and
+     * the packet to send them with.
+     */
+    private static final class Context implements ByteBufferDestination {
+
+        private final int initialCapacity;
+
+        private final int retainedCapacity;
+
+        private final Deflater deflater;
+
+        private final CRC32 crc32;
+
+        private final ByteBuffer datagramBuffer;
+
+        private final DatagramPacket packet;
+
+        private ByteBuffer encodedBuffer;
+
+        private ByteBuffer compressedBuffer;
+
+        private Context(
+                final InetSocketAddress socketAddress, final int chunkSize, final CompressionType compressionType) {
+            this.initialCapacity = chunkSize;
+            this.retainedCapacity = MAX_CHUNK_COUNT * chunkSize;
+            this.deflater = compressionType == CompressionType.OFF
+                    ? null
+                    : new Deflater(Deflater.DEFAULT_COMPRESSION, compressionType == CompressionType.GZIP);
+            this.crc32 = compressionType == CompressionType.GZIP ? new CRC32() : null;
+            this.datagramBuffer = ByteBuffer.allocate(chunkSize);
+            this.packet = new DatagramPacket(datagramBuffer.array(), 0, socketAddress);
+            this.encodedBuffer = ByteBuffer.allocate(initialCapacity);
+            this.compressedBuffer = deflater != null ? ByteBuffer.allocate(initialCapacity) : null;
+        }
+
+        private void reset() {
+            encodedBuffer.clear();
+        }
+
+        @Override
+        public ByteBuffer getByteBuffer() {
+            return encodedBuffer;
+        }
+
+        @Override
+        public ByteBuffer drain(final ByteBuffer buf) {
+            encodedBuffer = grow(buf, buf.capacity() + 1);
+            return encodedBuffer;
+        }
+
+        @Override
+        public void writeBytes(final ByteBuffer data) {
+            ByteBufferDestinationHelper.writeToUnsynchronized(data, this);
+        }
+
+        @Override
+        public void writeBytes(final byte[] data, final int offset, final int length) {
+            ByteBufferDestinationHelper.writeToUnsynchronized(data, offset, length, this);
+        }
+
+        /**
+         * Returns the message to send, that is, the encoded message compressed, if it is longer than the given
+         * threshold.
+         */
+        private ByteBuffer compress(final int compressionThreshold) {
+            encodedBuffer.flip();
+            final int encodedLength = encodedBuffer.remaining();
+            if (deflater == null || encodedLength <= compressionThreshold) {
+                return encodedBuffer;
+            }
+            final byte[] encodedBytes = encodedBuffer.array();
+            final int encodedOffset = encodedBuffer.arrayOffset() + encodedBuffer.position();
+            compressedBuffer.clear();
+            if (crc32 != null) {
+                compressedBuffer.put(GZIP_HEADER);
+                crc32.reset();
+                crc32.update(encodedBytes, encodedOffset, encodedLength);
+            }
+            deflater.reset();
+            deflater.setInput(encodedBytes, encodedOffset, encodedLength);
+            deflater.finish();
+            while (!deflater.finished()) {
+                if (!compressedBuffer.hasRemaining()) {
+                    compressedBuffer = grow(compressedBuffer, compressedBuffer.capacity() + 1);
+                }
+                final int compressedLength = deflater.deflate(
+                        compressedBuffer.array(),
+                        compressedBuffer.arrayOffset() + compressedBuffer.position(),
+                        compressedBuffer.remaining());
+                compressedBuffer.position(compressedBuffer.position() + compressedLength);
+            }
+            if (crc32 != null) {
+                if (compressedBuffer.remaining() < GZIP_TRAILER_LENGTH) {
+                    compressedBuffer = grow(compressedBuffer, compressedBuffer.position() + GZIP_TRAILER_LENGTH);
+                }
+                writeIntLittleEndian(compressedBuffer, (int) crc32.getValue());
+                writeIntLittleEndian(compressedBuffer, encodedLength);
+            }
+            compressedBuffer.flip();
+            return compressedBuffer;
+        }
+
+        private static void writeIntLittleEndian(final ByteBuffer buffer, final int value) {
+            buffer.put((byte) value);
+            buffer.put((byte) (value >>> 8));
+            buffer.put((byte) (value >>> 16));
+            buffer.put((byte) (value >>> 24));
+        }
+
+        /**
+         * Returns a buffer with at least the given capacity, containing the written bytes of the given buffer.
+         */
+        private static ByteBuffer grow(final ByteBuffer buffer, final int minCapacity) {
+            final int newCapacity = Math.max(minCapacity, 2 * buffer.capacity());
+            final ByteBuffer newBuffer = ByteBuffer.allocate(newCapacity);
+            buffer.flip();
+            newBuffer.put(buffer);
+            return newBuffer;
+        }
+
+        /**
+         * Drops buffers grown by excessively large messages, so that the pool does not retain them.
+         */
+        private void trim() {
+            if (encodedBuffer.capacity() > retainedCapacity) {
+                encodedBuffer = ByteBuffer.allocate(initialCapacity);
+            }
+            if (compressedBuffer != null && compressedBuffer.capacity() > retainedCapacity) {
+                compressedBuffer = ByteBuffer.allocate(initialCapacity);
+            }
+        }
+
+        private void close() {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+    }
+
+    /**
+     * Data for the factory.
+     */
+    private static final class FactoryData {
+
+        private final LoggerContext loggerContext;
+
+        private final String host;
+
+        private final int port;
+
+        private final int chunkSize;
+
+        private final CompressionType compressionType;
+
+        private final int compressionThreshold;
+
+        private FactoryData(
+                final LoggerContext loggerContext,
+                final String host,
+                final int port,
+                final int chunkSize,
+                final CompressionType compressionType,
+                final int compressionThreshold) {
+            this.loggerContext = loggerContext;
+            this.host = host;
+            this.port = port;
+            this.chunkSize = chunkSize;
+            this.compressionType = compressionType;
+            this.compressionThreshold = compressionThreshold;
+        }
+    }
+
+    /**
+     * Factory to create the {@link GelfUdpManager}.
+     */
+    private static final class GelfUdpManagerFactory implements ManagerFactory<GelfUdpManager, FactoryData> {
+
+        @Override
+        public GelfUdpManager createManager(final String name, final FactoryData data) {
+            final InetSocketAddress socketAddress = new InetSocketAddress(data.host, data.port);
+            if (socketAddress.isUnresolved()) {
+                LOGGER.error("Could not find address of {}", data.host);
+                return null;
+            }
+            final DatagramSocket socket;
+            try {
+                socket = new DatagramSocket();
+            } catch (final SocketException error) {
+                LOGGER.error("Could not open datagram socket to {}", data.host, error);
+                return null;
+            }
+            return new GelfUdpManager(
+                    data.loggerContext,
+                    name,
+                    socketAddress,
+                    socket,
+                    data.chunkSize,
+                    data.compressionType,
+                    data.compressionThreshold);
+        }
+    }
+}
@@ -25,7 +25,7 @@
  * </ul>
  */
 @Export
-@Version("2.25.3")
+@Version("2.27.0")
 package org.apache.logging.log4j.core.net;
 
 import org.osgi.annotation.bundle.Export;
@@ -39,14 +39,32 @@ final class ClassResourceInfo {
         clazz = null;
     }
 
+    /**
+     * Caches the exact and inexact resource information per class, since their extraction is expensive.
+     */
+    private static final ClassValue<ClassResourceInfo[]> INFOS_BY_CLASS = new ClassValue<ClassResourceInfo[]>() {
+        @Override
+        protected ClassResourceInfo[] computeValue(final Class<?> clazz) {
+            final String location = getLocation(clazz);
+            final String version = getVersion(clazz);
+            return new ClassResourceInfo[] {
+                new ClassResourceInfo(clazz, false, location, version),
+                new ClassResourceInfo(clazz, true, location, version)
+            };
+        }
+    };
+
     /**
      * @param clazz the class
      * @param exact {@code true}, if the class was obtained via reflection; {@code false}, otherwise
+     * @return the resource information of the class
      */
-    ClassResourceInfo(final Class<?> clazz, final boolean exact) {
+    static ClassResourceInfo of(final Class<?> clazz, final boolean exact) {
+        return INFOS_BY_CLASS.get(clazz)[exact ? 1 : 0];
+    }
+
+    private ClassResourceInfo(final Class<?> clazz, final boolean exact, final String location, final String version) {
         final String exactnessPrefix = exact ? "" : "~";
-        final String location = getLocation(clazz);
-        final String version = getVersion(clazz);
         this.renderer = (buffer) -> {
             buffer.append(exactnessPrefix);
             buffer.append("[");
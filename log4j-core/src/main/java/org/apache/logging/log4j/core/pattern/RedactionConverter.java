@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.pattern;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.core.util.internal.StringBuilderRecycler;
+import org.apache.logging.log4j.core.util.internal.regex.Redactor;
+
+/**
+ * Redaction pattern converter.
+ * <p>
+ * Replaces the matches of multiple regular expressions in a single pass, see {@link Redactor}.
+ * Options are the pattern to format followed by pairs of regular expressions and their substitutions.
+ * </p>
+ *
+ * @since 2.27.0
+ */
+@Plugin(name = "redact", category = PatternConverter.CATEGORY)
+@ConverterKeys({"redact"})
+public final class RedactionConverter extends LogEventPatternConverter {
+
+    private final Redactor redactor;
+
+    private final List<PatternFormatter> formatters;
+
+    /**
+     * Construct the converter.
+     * @param formatters The PatternFormatters to generate the text to manipulate.
+     * @param redactor The compiled redaction rules.
+     */
+    private RedactionConverter(final List<PatternFormatter> formatters, final Redactor redactor) {
+        super("redact", "redact");
+        this.redactor = redactor;
+        this.formatters = formatters;
+    }
+
+    /**
+     * Gets an instance of the class.
+     *
+     * @param config The current Configuration.
+     * @param options pattern options, the pattern followed by one or more pairs of regular expressions and
+     *                substitutions.
+     * @return instance of class.
+     */
+    public static RedactionConverter newInstance(final Configuration config, final String[] options) {
+        if (options.length < 3 || options.length % 2 == 0) {
+            LOGGER.error(
+                    "Incorrect number of options on redact. Expected a pattern followed by pairs of regular "
+                            + "expressions and substitutions, received " + options.length);
+            return null;
+        }
+        if (options[0] == null) {
+            LOGGER.error("No pattern supplied on redact");
+            return null;
+        }
+        final List<Redactor.Rule> rules = new ArrayList<>(options.length / 2);
+        for (int optionIndex = 1; optionIndex < options.length; optionIndex += 2) {
+            final String regex = options[optionIndex];
+            final String substitution = options[optionIndex + 1];
+            if (regex == null || substitution == null) {
+                LOGGER.error("No regular expression or substitution supplied on redact");
+                return null;
+            }
+            rules.add(Redactor.Rule.ofRegex(regex, substitution));
+        }
+        final Redactor redactor;
+        try {
+            redactor = Redactor.compile(rules);
+        } catch (final IllegalArgumentException error) {
+            LOGGER.error("Invalid regular expression or substitution supplied on redact", error);
+            return null;
+        }
+        final PatternParser parser = PatternLayout.createPatternParser(config);
+        final List<PatternFormatter> formatters = parser.parse(options[0]);
+        return new RedactionConverter(formatters, redactor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void format(final LogEvent event, final StringBuilder toAppendTo) {
+        final StringBuilder buf = StringBuilderRecycler.acquire();
+        try {
+            for (final PatternFormatter formatter : formatters) {
+                formatter.format(event, buf);
+            }
+            redactor.redact(buf, toAppendTo);
+        } finally {
+            StringBuilderRecycler.release(buf);
+        }
+    }
+
+    @Override
+    public boolean handlesThrowable() {
+        return formatters.stream()
+                .map(PatternFormatter::getConverter)
+                .anyMatch(LogEventPatternConverter::handlesThrowable);
+    }
+}
@@ -17,35 +17,41 @@
 package org.apache.logging.log4j.core.pattern;
 
 import java.util.List;
-import java.util.regex.Pattern;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.core.util.internal.StringBuilderRecycler;
+import org.apache.logging.log4j.core.util.internal.regex.CompiledRegex;
+import org.apache.logging.log4j.core.util.internal.regex.RegexEngines;
+import org.apache.logging.log4j.core.util.internal.regex.Replacement;
 
 /**
  * Replacement pattern converter.
+ * <p>
+ * Accepts an optional fourth option denoting the regular expression engine, see {@link RegexEngines}.
+ * </p>
  */
 @Plugin(name = "replace", category = PatternConverter.CATEGORY)
 @ConverterKeys({"replace"})
 public final class RegexReplacementConverter extends LogEventPatternConverter {
 
-    private final Pattern pattern;
+    private final CompiledRegex regex;
 
-    private final String substitution;
+    private final Replacement substitution;
 
     private final List<PatternFormatter> formatters;
 
     /**
      * Construct the converter.
      * @param formatters The PatternFormatters to generate the text to manipulate.
-     * @param pattern The regular expression Pattern.
-     * @param substitution The substitution string.
+     * @param regex The compiled regular expression.
+     * @param substitution The compiled substitution.
      */
     private RegexReplacementConverter(
-            final List<PatternFormatter> formatters, final Pattern pattern, final String substitution) {
+            final List<PatternFormatter> formatters, final CompiledRegex regex, final Replacement substitution) {
         super("replace", "replace");
-        this.pattern = pattern;
+        this.regex = regex;
         this.substitution = substitution;
         this.formatters = formatters;
     }
@@ -59,8 +65,8 @@ public final class RegexReplacementConverter extends LogEventPatternConverter {
      * @return instance of class.
      */
     public static RegexReplacementConverter newInstance(final Configuration config, final String[] options) {
-        if (options.length != 3) {
-            LOGGER.error("Incorrect number of options on replace. Expected 3 received " + options.length);
+        if (options.length != 3 && options.length != 4) {
+            LOGGER.error("Incorrect number of options on replace. Expected 3 or 4 received " + options.length);
             return null;
         }
         if (options[0] == null) {
@@ -75,10 +81,18 @@ public final class RegexReplacementConverter extends LogEventPatternConverter {
             LOGGER.error("No substitution supplied on replace");
             return null;
         }
-        final Pattern p = Pattern.compile(options[1]);
+        final CompiledRegex regex;
+        final Replacement substitution;
+        try {
+            regex = RegexEngines.getEngine(options.length == 4 ? options[3] : null).compile(options[1]);
+            substitution = regex.compileReplacement(options[2]);
+        } catch (final IllegalArgumentException error) {
+            LOGGER.error("Invalid regular expression or substitution supplied on replace", error);
+            return null;
+        }
         final PatternParser parser = PatternLayout.createPatternParser(config);
         final List<PatternFormatter> formatters = parser.parse(options[0]);
-        return new RegexReplacementConverter(formatters, p, options[2]);
+        return new RegexReplacementConverter(formatters, regex, substitution);
     }
 
     /**
@@ -86,11 +100,15 @@ public final class RegexReplacementConverter extends LogEventPatternConverter {
      */
     @Override
     public void format(final LogEvent event, final StringBuilder toAppendTo) {
-        final StringBuilder buf = new StringBuilder();
-        for (final PatternFormatter formatter : formatters) {
-            formatter.format(event, buf);
+        final StringBuilder buf = StringBuilderRecycler.acquire();
+        try {
+            for (final PatternFormatter formatter : formatters) {
+                formatter.format(event, buf);
+            }
+            regex.replaceAll(buf, substitution, toAppendTo);
+        } finally {
+            StringBuilderRecycler.release(buf);
         }
-        toAppendTo.append(pattern.matcher(buf.toString()).replaceAll(substitution));
     }
 
     @Override
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.pattern;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.apache.logging.log4j.util.PropertiesUtil;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A bounded cache of rendered stack trace elements keyed by the content of the stack trace.
+ * <p>
+ * Applications tend to log the same exception over and over again, e.g., during an outage.
+ * Rendering stack trace elements (and, for the extended renderer, resolving their class resource information) is
+ * expensive, whereas comparing them to a previously rendered stack trace is not.
+ * </p>
+ * <p>
+ * Entries are immutable and stored in a direct-mapped table, that is, an entry evicts the one occupying the same slot.
+ * This keeps lookups lock-free and the footprint bounded, at the expense of misses on collisions.
+ * </p>
+ * <p>
+ * Note that the exactness of the class resource information rendered by {@link ThrowableExtendedStackTraceRenderer}
+ * (i.e., the {@code ~} prefix) depends on the call site, hence it reflects the call site of the first rendering.
+ * </p>
+ */
+@NullMarked
+final class StackTraceRenderingCache {
+
+    /**
+     * The number of cached stack traces per renderer, configured by the {@code log4j2.stackTraceRenderingCacheSize}
+     * property.
+     * A value less than or equal to zero disables caching.
+     */
+    static final int DEFAULT_SIZE =
+            PropertiesUtil.getProperties().getIntegerProperty("log4j2.stackTraceRenderingCacheSize", 64);
+
+    private static final int MAX_SIZE = 1 << 16;
+
+    private final AtomicReferenceArray<Entry> entries;
+
+    private final int mask;
+
+    private StackTraceRenderingCache(final int size) {
+        final int effectiveSize = Integer.highestOneBit(Math.min(size, MAX_SIZE) * 2 - 1);
+        this.entries = new AtomicReferenceArray<>(effectiveSize);
+        this.mask = effectiveSize - 1;
+    }
+
+    /**
+     * @param size the maximum number of entries
+     * @return a new cache, or {@code null} if {@code size} is not positive
+     */
+    static @Nullable StackTraceRenderingCache ofSize(final int size) {
+        return size > 0 ? new StackTraceRenderingCache(size) : null;
+    }
+
+    static int hash(
+            final StackTraceElement[] stackTrace,
+            final int stackLength,
+            final int commonElementCount,
+            final String prefix,
+            final String lineSeparator) {
+        int hash = commonElementCount;
+        for (int i = 0; i < stackLength; i++) {
+            hash = 31 * hash + stackTrace[i].hashCode();
+        }
+        hash = 31 * hash + prefix.hashCode();
+        hash = 31 * hash + lineSeparator.hashCode();
+        // Spread the higher bits, since only the lower ones are used for indexing
+        return hash ^ (hash >>> 16);
+    }
+
+    @Nullable
+    Entry get(
+            final int hash,
+            final StackTraceElement[] stackTrace,
+            final int stackLength,
+            final int commonElementCount,
+            final String prefix,
+            final String lineSeparator) {
+        final Entry entry = entries.get(hash & mask);
+        return entry != null && entry.matches(hash, stackTrace, stackLength, commonElementCount, prefix, lineSeparator)
+                ? entry
+                : null;
+    }
+
+    void put(
+            final int hash,
+            final StackTraceElement[] stackTrace,
+            final int stackLength,
+            final int commonElementCount,
+            final String prefix,
+            final String lineSeparator,
+            final String rendering,
+            final int lineCount) {
+        final Entry entry =
+                new Entry(hash, stackTrace, stackLength, commonElementCount, prefix, lineSeparator, rendering, lineCount);
+        entries.set(hash & mask, entry);
+    }
+
+    static final class Entry {
+
+        private final int hash;
+
+        /**
+         * The stack trace, which is a private copy captured by {@link ThrowableStackTraceRenderer.Context.Metadata}.
+         */
+        private final StackTraceElement[] stackTrace;
+
+        private final int stackLength;
+
+        private final int commonElementCount;
+
+        private final String prefix;
+
+        private final String lineSeparator;
+
+        /**
+         * The rendered stack trace elements.
+         */
+        final String rendering;
+
+        /**
+         * The number of lines in {@link #rendering}.
+         */
+        final int lineCount;
+
+        private Entry(
+                final int hash,
+                final StackTraceElement[] stackTrace,
+                final int stackLength,
+                final int commonElementCount,
+                final String prefix,
+                final String lineSeparator,
+                final String rendering,
+                final int lineCount) {
+            this.hash = hash;
+            this.stackTrace = stackTrace;
+            this.stackLength = stackLength;
+            this.commonElementCount = commonElementCount;
+            this.prefix = prefix;
+            this.lineSeparator = lineSeparator;
+            this.rendering = rendering;
+            this.lineCount = lineCount;
+        }
+
+        private boolean matches(
+                final int hash,
+                final StackTraceElement[] stackTrace,
+                final int stackLength,
+                final int commonElementCount,
+                final String prefix,
+                final String lineSeparator) {
+            if (this.hash != hash
+                    || this.stackLength != stackLength
+                    || this.commonElementCount != commonElementCount
+                    || !this.prefix.equals(prefix)
+                    || !this.lineSeparator.equals(lineSeparator)) {
+                return false;
+            }
+            for (int i = 0; i < stackLength; i++) {
+                if (!this.stackTrace[i].equals(stackTrace[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -27,6 +27,7 @@ import java.util.Queue;
 import java.util.Set;
 import org.apache.logging.log4j.util.LoaderUtil;
 import org.apache.logging.log4j.util.StackLocatorUtil;
+import org.jspecify.annotations.Nullable;
 
 /**
  * {@link ThrowableStackTraceRenderer} variant where the rendered {@link StackTraceElement}s are enriched with the enclosing JAR file and its version information, if available.
@@ -38,6 +39,11 @@ final class ThrowableExtendedStackTraceRenderer
         super(ignoredPackageNames, maxLineCount);
     }
 
+    ThrowableExtendedStackTraceRenderer(
+            final List<String> ignoredPackageNames, final int maxLineCount, final int renderingCacheSize) {
+        super(ignoredPackageNames, maxLineCount, renderingCacheSize);
+    }
+
     @Override
     ExtendedContext createContext(final Throwable throwable) {
         return ExtendedContext.ofThrowable(throwable);
@@ -70,7 +76,7 @@ final class ThrowableExtendedStackTraceRenderer
         buffer.append("\tat ");
         buffer.append(stackTraceElement);
         final ClassResourceInfo classResourceInfo =
-                context.classResourceInfoByName.get(stackTraceElement.getClassName());
+                context.getClassResourceInfoByName().get(stackTraceElement.getClassName());
         if (classResourceInfo != null) {
             buffer.append(' ');
             classResourceInfo.render(buffer);
@@ -80,21 +86,35 @@ final class ThrowableExtendedStackTraceRenderer
 
     static final class ExtendedContext extends ThrowableStackTraceRenderer.Context {
 
-        private final Map<String, ClassResourceInfo> classResourceInfoByName;
+        private final Throwable rootThrowable;
+
+        /**
+         * Class resource information per class name, populated on first access.
+         * <p>
+         * Stack traces whose rendering is cached don't need this at all.
+         * </p>
+         */
+        @Nullable
+        private Map<String, ClassResourceInfo> classResourceInfoByName;
 
         private ExtendedContext(
                 final int ignoredStackTraceElementCount,
                 final Map<Throwable, Metadata> metadataByThrowable,
-                final Map<String, ClassResourceInfo> classResourceInfoByName) {
+                final Throwable rootThrowable) {
             super(ignoredStackTraceElementCount, metadataByThrowable);
-            this.classResourceInfoByName = classResourceInfoByName;
+            this.rootThrowable = rootThrowable;
         }
 
         private static ExtendedContext ofThrowable(final Throwable throwable) {
             final Map<Throwable, Metadata> metadataByThrowable = Metadata.ofThrowable(throwable);
-            final Map<String, ClassResourceInfo> classResourceInfoByName =
-                    createClassResourceInfoByName(throwable, metadataByThrowable);
-            return new ExtendedContext(0, metadataByThrowable, classResourceInfoByName);
+            return new ExtendedContext(0, metadataByThrowable, throwable);
+        }
+
+        private Map<String, ClassResourceInfo> getClassResourceInfoByName() {
+            if (classResourceInfoByName == null) {
+                classResourceInfoByName = createClassResourceInfoByName(rootThrowable, metadataByThrowable);
+            }
+            return classResourceInfoByName;
         }
 
         private static Map<String, ClassResourceInfo> createClassResourceInfoByName(
@@ -153,7 +173,7 @@ final class ThrowableExtendedStackTraceRenderer
                     // See if we get a match from the execution stack trace
                     else if (executionStackTraceElementClass != null
                             && throwableStackTraceElementClassName.equals(executionStackTraceElementClass.getName())) {
-                        classResourceInfo = new ClassResourceInfo(executionStackTraceElementClass, true);
+                        classResourceInfo = ClassResourceInfo.of(executionStackTraceElementClass, true);
                         classResourceInfoByName.put(throwableStackTraceElementClassName, classResourceInfo);
                         lastLoader = classResourceInfo.clazz.getClassLoader();
                         executionStackTrace.pollLast();
@@ -165,7 +185,7 @@ final class ThrowableExtendedStackTraceRenderer
                         final Class<?> stackTraceElementClass =
                                 loadClass(lastLoader, throwableStackTraceElementClassName);
                         classResourceInfo = stackTraceElementClass != null
-                                ? new ClassResourceInfo(stackTraceElementClass, false)
+                                ? ClassResourceInfo.of(stackTraceElementClass, false)
                                 : ClassResourceInfo.UNKNOWN;
                         classResourceInfoByName.put(throwableStackTraceElementClassName, classResourceInfo);
                     }
@@ -32,6 +32,11 @@ final class ThrowableInvertedStackTraceRenderer
         super(ignoredPackageNames, maxLineCount);
     }
 
+    ThrowableInvertedStackTraceRenderer(
+            final List<String> ignoredPackageNames, final int maxLineCount, final int renderingCacheSize) {
+        super(ignoredPackageNames, maxLineCount, renderingCacheSize);
+    }
+
     @Override
     void renderThrowable(
             final StringBuilder buffer,
@@ -27,6 +27,7 @@ import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.impl.ThrowableFormatOptions;
 import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.core.util.internal.throwable.ThrowableDeduplicator;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
@@ -52,6 +53,8 @@ public class ThrowablePatternConverter extends LogEventPatternConverter {
 
     private final ThrowableRenderer renderer;
 
+    private final @Nullable ThrowableDeduplicator deduplicator;
+
     /**
      * @deprecated Use {@link #ThrowablePatternConverter(String, String, String[], Configuration, ThrowablePropertyRendererFactory, ThrowableStackTraceRendererFactory)} instead.
      */
@@ -103,6 +106,13 @@ public class ThrowablePatternConverter extends LogEventPatternConverter {
         // Create the effective renderer
         this.renderer =
                 createEffectiveRenderer(options, this.options, propertyRendererFactory, stackTraceRendererFactory);
+
+        // Create the deduplicator, if requested
+        this.deduplicator = renderer instanceof ThrowableStackTraceRenderer
+                        && this.options.anyLines()
+                        && this.options.getDeduplicationWindowSeconds() > 0
+                ? ThrowableDeduplicator.ofWindowSeconds(this.options.getDeduplicationWindowSeconds())
+                : null;
     }
 
     /**
@@ -127,6 +137,18 @@ public class ThrowablePatternConverter extends LogEventPatternConverter {
         final Throwable throwable = event.getThrown();
         if (throwable != null) {
             final String lineSeparator = effectiveLineSeparatorProvider.apply(event);
+            if (deduplicator != null) {
+                final long fingerprint = ThrowableDeduplicator.fingerprint(throwable);
+                final long occurrenceCount = deduplicator.register(fingerprint, event.getTimeMillis());
+                if (occurrenceCount > 1) {
+                    ThrowableDeduplicator.appendReference(buffer, fingerprint, occurrenceCount);
+                    buffer.append(' ').append(throwable).append(lineSeparator);
+                    return;
+                }
+                buffer.append('[');
+                ThrowableDeduplicator.appendId(buffer, fingerprint);
+                buffer.append("] ");
+            }
             renderer.renderThrowable(buffer, throwable, lineSeparator);
         }
     }
@@ -42,9 +42,23 @@ class ThrowableStackTraceRenderer<C extends ThrowableStackTraceRenderer.Context>
 
     final int maxLineCount;
 
+    @Nullable
+    private final StackTraceRenderingCache renderingCache;
+
     ThrowableStackTraceRenderer(final List<String> ignoredPackageNames, final int maxLineCount) {
+        this(ignoredPackageNames, maxLineCount, StackTraceRenderingCache.DEFAULT_SIZE);
+    }
+
+    /**
+     * @param ignoredPackageNames the package names whose stack trace elements will be suppressed
+     * @param maxLineCount the maximum number of lines to render
+     * @param renderingCacheSize the number of stack traces whose rendering will be cached, or zero to disable caching
+     */
+    ThrowableStackTraceRenderer(
+            final List<String> ignoredPackageNames, final int maxLineCount, final int renderingCacheSize) {
         this.ignoredPackageNames = ignoredPackageNames;
         this.maxLineCount = maxLineCount;
+        this.renderingCache = StackTraceRenderingCache.ofSize(renderingCacheSize);
     }
 
     @Override
@@ -150,6 +164,48 @@ class ThrowableStackTraceRenderer<C extends ThrowableStackTraceRenderer.Context>
             final Context.Metadata metadata,
             final String prefix,
             final String lineSeparator) {
+
+        // Short-circuit if caching is disabled
+        if (renderingCache == null) {
+            renderStackTraceElementsUncached(buffer, context, metadata, prefix, lineSeparator);
+            return;
+        }
+
+        // Try to copy the rendering of an identical stack trace, unless it would exceed the line capacity
+        final StackTraceElement[] stackTrace = metadata.stackTrace;
+        final int hash = StackTraceRenderingCache.hash(
+                stackTrace, metadata.stackLength, metadata.commonElementCount, prefix, lineSeparator);
+        final StackTraceRenderingCache.Entry entry = renderingCache.get(
+                hash, stackTrace, metadata.stackLength, metadata.commonElementCount, prefix, lineSeparator);
+        if (entry != null && entry.lineCount <= maxLineCount - context.lineCount) {
+            buffer.append(entry.rendering);
+            context.lineCount += entry.lineCount;
+            return;
+        }
+
+        // Render and cache the rendering
+        final int startIndex = buffer.length();
+        final int startLineCount = context.lineCount;
+        renderStackTraceElementsUncached(buffer, context, metadata, prefix, lineSeparator);
+        if (entry == null) {
+            renderingCache.put(
+                    hash,
+                    stackTrace,
+                    metadata.stackLength,
+                    metadata.commonElementCount,
+                    prefix,
+                    lineSeparator,
+                    buffer.substring(startIndex),
+                    context.lineCount - startLineCount);
+        }
+    }
+
+    private void renderStackTraceElementsUncached(
+            final StringBuilder buffer,
+            final C context,
+            final Context.Metadata metadata,
+            final String prefix,
+            final String lineSeparator) {
         context.ignoredStackTraceElementCount = 0;
         final StackTraceElement[] stackTraceElements = metadata.stackTrace;
         for (int i = 0; i < metadata.stackLength; i++) {
@@ -310,8 +366,10 @@ class ThrowableStackTraceRenderer<C extends ThrowableStackTraceRenderer.Context>
                     final Throwable throwable) {
 
                 // Populate metadata of the current throwable
+                // The parent's stack trace is reused from its metadata to avoid cloning it once more
                 @Nullable
-                final StackTraceElement[] rootTrace = parentThrowable == null ? null : parentThrowable.getStackTrace();
+                final StackTraceElement[] rootTrace =
+                        parentThrowable == null ? null : metadataByThrowable.get(parentThrowable).stackTrace;
                 final Metadata metadata =
                         populateMetadata(rootTrace, throwable.getStackTrace(), throwable.getSuppressed());
                 metadataByThrowable.put(throwable, metadata);
@@ -47,12 +47,17 @@ public final class HttpInputStreamUtil {
     private static final int NOT_FOUND = 404;
     private static final int OK = 200;
     private static final int BUF_SIZE = 1024;
+    private static final String ETAG = "ETag";
+    private static final String IF_NONE_MATCH = "If-None-Match";
 
     /**
      * Retrieves an HTTP resource if it has been modified.
      * <p>
-     *     Side effects: if the request is successful, the last modified time of the {@code source}
-     *     parameter is modified.
+     *     The request is conditional on the last modified time and the entity tag of the {@code source} parameter.
+     * </p>
+     * <p>
+     *     Side effects: if the request is successful, the last modified time and the entity tag of the {@code source}
+     *     parameter are modified.
      * </p>
      * @param source The location of the HTTP resource
      * @param authorizationProvider The authentication data for the HTTP request
@@ -68,6 +73,10 @@ public final class HttpInputStreamUtil {
                     lastModified,
                     SslConfigurationFactory.getSslConfiguration(),
                     authorizationProvider);
+            final String entityTag = source.getEntityTag();
+            if (entityTag != null) {
+                connection.setRequestProperty(IF_NONE_MATCH, entityTag);
+            }
             connection.connect();
             try {
                 final int code = connection.getResponseCode();
@@ -89,6 +98,7 @@ public final class HttpInputStreamUtil {
                     case OK: {
                         try (final InputStream is = connection.getInputStream()) {
                             source.setLastModified(connection.getLastModified());
+                            source.setEntityTag(connection.getHeaderField(ETAG));
                             LOGGER.debug(
                                     "{} resource {}: last modified on {}",
                                     formatProtocol(source),
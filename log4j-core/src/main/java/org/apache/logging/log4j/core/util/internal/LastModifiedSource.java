@@ -19,12 +19,14 @@ package org.apache.logging.log4j.core.util.internal;
 import java.io.File;
 import java.net.URI;
 import org.apache.logging.log4j.core.util.Source;
+import org.jspecify.annotations.Nullable;
 
 /**
- * A Source that includes the last modified time.
+ * A Source that includes the last modified time and the entity tag of the last retrieved version.
  */
 public class LastModifiedSource extends Source {
     private volatile long lastModified;
+    private volatile @Nullable String entityTag;
 
     public LastModifiedSource(final File file) {
         super(file);
@@ -47,4 +49,17 @@ public class LastModifiedSource extends Source {
     public void setLastModified(long lastModified) {
         this.lastModified = lastModified;
     }
+
+    /**
+     * Returns the HTTP entity tag of the last retrieved version of the resource.
+     *
+     * @return The value of the {@code ETag} header or {@code null} if the server did not provide one.
+     */
+    public @Nullable String getEntityTag() {
+        return entityTag;
+    }
+
+    public void setEntityTag(final @Nullable String entityTag) {
+        this.entityTag = entityTag;
+    }
 }
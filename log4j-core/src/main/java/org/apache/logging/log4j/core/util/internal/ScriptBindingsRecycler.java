@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util.internal;
+
+import java.util.HashSet;
+import java.util.Set;
+import javax.script.SimpleBindings;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.util.Constants;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Recycles the bindings of a script that is evaluated for each log event.
+ * <p>
+ *     The bindings contain the properties of the configuration, the {@code substitutor} and a fixed set of keys
+ *     with per-event values.
+ *     If {@link Constants#ENABLE_THREADLOCALS} is enabled, each thread reuses its bindings:
+ *     the per-event values are cleared and the configuration values are restored after each evaluation, while
+ *     bindings to which the script added new variables are discarded.
+ * </p>
+ * <p>
+ *     Since the recycled bindings reference the configuration, the owner must call {@link #stop} when it is stopped.
+ * </p>
+ */
+public final class ScriptBindingsRecycler {
+
+    private static final String SUBSTITUTOR = "substitutor";
+
+    private final Configuration configuration;
+    private final String[] eventKeys;
+    private final int expectedSize;
+    private volatile @Nullable ThreadLocal<SimpleBindings> recycledBindings;
+
+    /**
+     * @param configuration The configuration that provides the properties and the substitutor.
+     * @param eventKeys The keys of the per-event values.
+     */
+    public ScriptBindingsRecycler(final Configuration configuration, final String... eventKeys) {
+        this.configuration = configuration;
+        this.eventKeys = eventKeys.clone();
+        final Set<String> keys = new HashSet<>(configuration.getProperties().keySet());
+        keys.add(SUBSTITUTOR);
+        for (final String key : eventKeys) {
+            keys.add(key);
+        }
+        this.expectedSize = keys.size();
+        this.recycledBindings = Constants.ENABLE_THREADLOCALS ? new ThreadLocal<>() : null;
+    }
+
+    /**
+     * Returns bindings that contain the configuration properties and the substitutor.
+     * <p>
+     *     The caller must put a value for each event key and pass the bindings to {@link #release} after the
+     *     evaluation of the script.
+     * </p>
+     *
+     * @return Some bindings, which are not used by any other caller.
+     */
+    public SimpleBindings acquire() {
+        final ThreadLocal<SimpleBindings> recycledBindings = this.recycledBindings;
+        if (recycledBindings != null) {
+            final SimpleBindings bindings = recycledBindings.get();
+            if (bindings != null) {
+                // A recursive call on the same thread gets new bindings
+                recycledBindings.set(null);
+                return bindings;
+            }
+        }
+        final SimpleBindings bindings = new SimpleBindings();
+        putConfigurationValues(bindings);
+        return bindings;
+    }
+
+    /**
+     * Makes the bindings available for the next evaluation on the current thread.
+     *
+     * @param bindings Bindings returned by {@link #acquire}.
+     */
+    public void release(final SimpleBindings bindings) {
+        final ThreadLocal<SimpleBindings> recycledBindings = this.recycledBindings;
+        if (recycledBindings != null) {
+            for (final String key : eventKeys) {
+                bindings.put(key, null);
+            }
+            // The script might have replaced or removed any of the configuration values
+            putConfigurationValues(bindings);
+            if (bindings.size() == expectedSize) {
+                recycledBindings.set(bindings);
+            }
+        }
+    }
+
+    /**
+     * Stops recycling bindings.
+     * <p>
+     *     The bindings of the current thread are released immediately.
+     *     Those of the other threads become unreachable with the thread-local and are expunged by the JVM lazily.
+     * </p>
+     */
+    public void stop() {
+        final ThreadLocal<SimpleBindings> recycledBindings = this.recycledBindings;
+        if (recycledBindings != null) {
+            this.recycledBindings = null;
+            recycledBindings.remove();
+        }
+    }
+
+    private void putConfigurationValues(final SimpleBindings bindings) {
+        bindings.putAll(configuration.getProperties());
+        bindings.put(SUBSTITUTOR, configuration.getStrSubstitutor());
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util.internal;
+
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.util.StringBuilders;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Recycles the {@link StringBuilder}s holding intermediate text, e.g., the output of nested pattern converters.
+ * <p>
+ *     If {@link Constants#ENABLE_THREADLOCALS} is enabled, each thread reuses its builder, which is trimmed to
+ *     {@link Constants#MAX_REUSABLE_MESSAGE_SIZE} on release.
+ *     A recursive acquisition on the same thread, e.g., by a converter nested in another one, gets a new builder.
+ * </p>
+ */
+public final class StringBuilderRecycler {
+
+    private static final @Nullable ThreadLocal<StringBuilder> RECYCLED_BUILDERS =
+            Constants.ENABLE_THREADLOCALS ? new ThreadLocal<>() : null;
+
+    private StringBuilderRecycler() {}
+
+    /**
+     * Returns an empty builder.
+     * <p>
+     *     The caller must pass the builder to {@link #release} once done.
+     * </p>
+     *
+     * @return An empty builder, which is not used by any other caller.
+     */
+    public static StringBuilder acquire() {
+        if (RECYCLED_BUILDERS != null) {
+            final StringBuilder builder = RECYCLED_BUILDERS.get();
+            if (builder != null) {
+                RECYCLED_BUILDERS.set(null);
+                return builder;
+            }
+        }
+        return new StringBuilder();
+    }
+
+    /**
+     * Makes the builder available for the next acquisition on the current thread.
+     *
+     * @param builder A builder returned by {@link #acquire}.
+     */
+    public static void release(final StringBuilder builder) {
+        if (RECYCLED_BUILDERS != null) {
+            StringBuilders.trimToMaxSize(builder, Constants.MAX_REUSABLE_MESSAGE_SIZE);
+            builder.setLength(0);
+            RECYCLED_BUILDERS.set(builder);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util.internal;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A bounded, lock-free pool of instances held in stripes.
+ * <p>
+ *     Each thread is mapped to a stripe using its ID.
+ *     Instances are taken from and returned to the stripe of the current thread first, and to the other stripes
+ *     next, using a compare-and-set on a single slot.
+ *     Hence, the number of pooled instances never exceeds {@code stripeCount * stripeCapacity}, regardless of the
+ *     number of threads, which makes this pool suitable for virtual threads.
+ * </p>
+ */
+public final class StripedPool<V> {
+
+    /**
+     * Number of slots spanning a typical 64-byte cache line, assuming compressed references.
+     * Stripes are aligned to this size to avoid false sharing between threads mapped to adjacent stripes.
+     */
+    private static final int CACHE_LINE_SLOT_COUNT = 16;
+
+    private final int stripeMask;
+
+    private final int stripeCapacity;
+
+    private final int stripeStride;
+
+    private final AtomicReferenceArray<V> slots;
+
+    /**
+     * @param stripeCount The number of stripes, rounded up to the next power of two.
+     * @param stripeCapacity The number of instances each stripe can hold.
+     */
+    public StripedPool(final int stripeCount, final int stripeCapacity) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("was expecting a positive stripe count: " + stripeCount);
+        }
+        if (stripeCapacity <= 0) {
+            throw new IllegalArgumentException("was expecting a positive stripe capacity: " + stripeCapacity);
+        }
+        final int effectiveStripeCount = stripeCount == 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripeMask = effectiveStripeCount - 1;
+        this.stripeCapacity = stripeCapacity;
+        final int stripeCacheLineCount = (stripeCapacity + CACHE_LINE_SLOT_COUNT - 1) / CACHE_LINE_SLOT_COUNT;
+        this.stripeStride = stripeCacheLineCount * CACHE_LINE_SLOT_COUNT;
+        this.slots = new AtomicReferenceArray<>(effectiveStripeCount * stripeStride);
+    }
+
+    public int getStripeCount() {
+        return stripeMask + 1;
+    }
+
+    public int getStripeCapacity() {
+        return stripeCapacity;
+    }
+
+    /**
+     * Takes an instance out of the pool.
+     *
+     * @return A pooled instance, or {@code null}, if the pool is empty.
+     */
+    public @Nullable V poll() {
+        final int firstStripeIndex = currentStripeIndex();
+        for (int stripeOffset = 0; stripeOffset <= stripeMask; stripeOffset++) {
+            final int slotStartIndex = ((firstStripeIndex + stripeOffset) & stripeMask) * stripeStride;
+            final int slotEndIndex = slotStartIndex + stripeCapacity;
+            for (int slotIndex = slotStartIndex; slotIndex < slotEndIndex; slotIndex++) {
+                final V value = slots.get(slotIndex);
+                if (value != null && slots.compareAndSet(slotIndex, value, null)) {
+                    return value;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Puts the instance into the pool.
+     *
+     * @param value An instance, which is not used by the caller anymore.
+     * @return {@code true}, if the instance is pooled; {@code false}, if the pool is full.
+     */
+    public boolean offer(final V value) {
+        final int firstStripeIndex = currentStripeIndex();
+        for (int stripeOffset = 0; stripeOffset <= stripeMask; stripeOffset++) {
+            final int slotStartIndex = ((firstStripeIndex + stripeOffset) & stripeMask) * stripeStride;
+            final int slotEndIndex = slotStartIndex + stripeCapacity;
+            for (int slotIndex = slotStartIndex; slotIndex < slotEndIndex; slotIndex++) {
+                if (slots.get(slotIndex) == null && slots.compareAndSet(slotIndex, null, value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Takes all instances out of the pool, passing each to the given consumer exactly once.
+     *
+     * @param consumer The consumer of the pooled instances, e.g., to release their resources.
+     */
+    public void drain(final Consumer<V> consumer) {
+        final int slotCount = slots.length();
+        for (int slotIndex = 0; slotIndex < slotCount; slotIndex++) {
+            final V value = slots.getAndSet(slotIndex, null);
+            if (value != null) {
+                consumer.accept(value);
+            }
+        }
+    }
+
+    private int currentStripeIndex() {
+        // `Thread#getId()` is unique for both platform and virtual threads.
+        // Consecutive IDs are scattered using the Fibonacci hashing multiplier.
+        final long threadId = Thread.currentThread().getId();
+        final int hash = (int) (threadId ^ (threadId >>> 32)) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & stripeMask;
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util.internal.regex;
+
+import java.util.Arrays;
+
+/**
+ * An immutable set of characters used by {@link LinearRegexProgram}.
+ * <p>
+ * Membership of ASCII characters is resolved through a bitmap, others through a binary search on sorted ranges.
+ * </p>
+ */
+final class CharClass {
+
+    private final long lowBits;
+
+    private final long highBits;
+
+    /** Sorted, non-overlapping, inclusive {@code [start, end]} pairs of non-ASCII characters. */
+    private final int[] ranges;
+
+    private CharClass(final long lowBits, final long highBits, final int[] ranges) {
+        this.lowBits = lowBits;
+        this.highBits = highBits;
+        this.ranges = ranges;
+    }
+
+    boolean matches(final char c) {
+        if (c < 64) {
+            return (lowBits & (1L << c)) != 0;
+        }
+        if (c < 128) {
+            return (highBits & (1L << (c - 64))) != 0;
+        }
+        int low = 0;
+        int high = (ranges.length >> 1) - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            if (c < ranges[middle << 1]) {
+                high = middle - 1;
+            } else if (c > ranges[(middle << 1) + 1]) {
+                low = middle + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "CharClass{lowBits=" + Long.toHexString(lowBits) + ", highBits=" + Long.toHexString(highBits)
+                + ", ranges=" + Arrays.toString(ranges) + '}';
+    }
+
+    /**
+     * Accumulates character ranges into a {@link CharClass}.
+     */
+    static final class Builder {
+
+        private int[] ranges = new int[8];
+
+        private int size;
+
+        Builder addChar(final char c) {
+            return addRange(c, c);
+        }
+
+        Builder addRange(final int start, final int end) {
+            if (start > end) {
+                throw new IllegalArgumentException("illegal character range: " + start + '-' + end);
+            }
+            if (size + 2 > ranges.length) {
+                ranges = Arrays.copyOf(ranges, ranges.length << 1);
+            }
+            ranges[size++] = start;
+            ranges[size++] = end;
+            return this;
+        }
+
+        Builder addAll(final Builder other) {
+            for (int i = 0; i < other.size; i += 2) {
+                addRange(other.ranges[i], other.ranges[i + 1]);
+            }
+            return this;
+        }
+
+        /**
+         * Adds the other case of every ASCII letter contained, following the default case-insensitive matching of
+         * {@link java.util.regex.Pattern}.
+         */
+        Builder foldAsciiCase() {
+            final int currentSize = size;
+            for (int i = 0; i < currentSize; i += 2) {
+                final int start = ranges[i];
+                final int end = ranges[i + 1];
+                final int upperStart = Math.max(start, 'A');
+                final int upperEnd = Math.min(end, 'Z');
+                if (upperStart <= upperEnd) {
+                    addRange(upperStart + ('a' - 'A'), upperEnd + ('a' - 'A'));
+                }
+                final int lowerStart = Math.max(start, 'a');
+                final int lowerEnd = Math.min(end, 'z');
+                if (lowerStart <= lowerEnd) {
+                    addRange(lowerStart - ('a' - 'A'), lowerEnd - ('a' - 'A'));
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Replaces the contained ranges with their complement in {@code [0, Character.MAX_VALUE]}.
+         */
+        Builder negate() {
+            final int[] normalized = normalize();
+            size = 0;
+            int next = 0;
+            for (int i = 0; i < normalized.length; i += 2) {
+                if (normalized[i] > next) {
+                    addRange(next, normalized[i] - 1);
+                }
+                next = normalized[i + 1] + 1;
+            }
+            if (next <= Character.MAX_VALUE) {
+                addRange(next, Character.MAX_VALUE);
+            }
+            return this;
+        }
+
+        private int[] normalize() {
+            final int pairCount = size >> 1;
+            final long[] pairs = new long[pairCount];
+            for (int i = 0; i < pairCount; i++) {
+                pairs[i] = ((long) ranges[i << 1] << 32) | ranges[(i << 1) + 1];
+            }
+            Arrays.sort(pairs);
+            final int[] merged = new int[size];
+            int mergedSize = 0;
+            for (final long pair : pairs) {
+                final int start = (int) (pair >>> 32);
+                final int end = (int) pair;
+                if (mergedSize > 0 && start <= merged[mergedSize - 1] + 1) {
+                    merged[mergedSize - 1] = Math.max(merged[mergedSize - 1], end);
+                } else {
+                    merged[mergedSize++] = start;
+                    merged[mergedSize++] = end;
+                }
+            }
+            return Arrays.copyOf(merged, mergedSize);
+        }
+
+        CharClass build() {
+            final int[] normalized = normalize();
+            long lowBits = 0;
+            long highBits = 0;
+            int nonAsciiIndex = normalized.length;
+            for (int i = 0; i < normalized.length; i += 2) {
+                final int start = normalized[i];
+                final int end = normalized[i + 1];
+                for (int c = start; c <= Math.min(end, 127); c++) {
+                    if (c < 64) {
+                        lowBits |= 1L << c;
+                    } else {
+                        highBits |= 1L << (c - 64);
+                    }
+                }
+                if (end >= 128 && nonAsciiIndex == normalized.length) {
+                    nonAsciiIndex = i;
+                }
+            }
+            final int[] nonAsciiRanges = Arrays.copyOfRange(normalized, nonAsciiIndex, normalized.length);
+            if (nonAsciiRanges.length > 0 && nonAsciiRanges[0] < 128) {
+                nonAsciiRanges[0] = 128;
+            }
+            return new CharClass(lowBits, highBits, nonAsciiRanges);
+        }
+    }
+}
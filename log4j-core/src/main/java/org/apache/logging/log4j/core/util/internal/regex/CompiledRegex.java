@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util.internal.regex;
+
+/**
+ * A compiled regular expression.
+ * <p>
+ * Implementations are thread-safe and, where possible, reuse their matching state to avoid allocating on every
+ * invocation.
+ * Input character sequences are never retained after a method returns.
+ * </p>
+ *
+ * @since 2.27.0
+ */
+public interface CompiledRegex {
+
+    /**
+     * @return the source of the regular expression
+     */
+    String getRegex();
+
+    /**
+     * @param input a character sequence
+     * @return {@code true}, if the <em>entire</em> input matches the expression; {@code false}, otherwise
+     */
+    boolean matches(CharSequence input);
+
+    /**
+     * @param input a character sequence
+     * @return {@code true}, if a subsequence of the input matches the expression; {@code false}, otherwise
+     */
+    boolean find(CharSequence input);
+
+    /**
+     * Compiles the given replacement string, which might contain group references in the form of {@code $n} and
+     * {@code ${name}}, following the semantics of {@link java.util.regex.Matcher#appendReplacement}.
+     *
+     * @param replacement a replacement string
+     * @return the compiled replacement
+     * @throws IllegalArgumentException if the replacement is malformed or refers to a non-existing group
+     */
+    Replacement compileReplacement(String replacement);
+
+    /**
+     * Appends the input to the output, replacing every subsequence that matches the expression with the given
+     * replacement.
+     *
+     * @param input a character sequence
+     * @param replacement a replacement compiled by this instance
+     * @param output the buffer to append to
+     */
+    void replaceAll(CharSequence input, Replacement replacement, StringBuilder output);
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util.internal.regex;
+
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.logging.log4j.core.util.Constants;
+
+/**
+ * A {@link RegexEngine} backed by {@link java.util.regex.Pattern}.
+ * <p>
+ * {@link Matcher}s are recycled per thread if {@link Constants#ENABLE_THREADLOCALS} is enabled.
+ * </p>
+ */
+final class JdkRegexEngine implements RegexEngine {
+
+    static final JdkRegexEngine INSTANCE = new JdkRegexEngine();
+
+    static final String NAME = "jdk";
+
+    private JdkRegexEngine() {}
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public CompiledRegex compile(final String regex) {
+        return new JdkCompiledRegex(Pattern.compile(regex));
+    }
+
+    @Override
+    public String toString() {
+        return NAME;
+    }
+
+    private static final class JdkCompiledRegex implements CompiledRegex {
+
+        private final Pattern pattern;
+
+        private final Supplier<MatcherGroups> matcherSupplier;
+
+        private JdkCompiledRegex(final Pattern pattern) {
+            this.pattern = pattern;
+            final Supplier<MatcherGroups> supplier = () -> new MatcherGroups(pattern.matcher(""));
+            this.matcherSupplier = Constants.ENABLE_THREADLOCALS ? ThreadLocal.withInitial(supplier)::get : supplier;
+        }
+
+        @Override
+        public String getRegex() {
+            return pattern.pattern();
+        }
+
+        @Override
+        public boolean matches(final CharSequence input) {
+            final Matcher matcher = matcherSupplier.get().matcher;
+            try {
+                return matcher.reset(input).matches();
+            } finally {
+                matcher.reset("");
+            }
+        }
+
+        @Override
+        public boolean find(final CharSequence input) {
+            final Matcher matcher = matcherSupplier.get().matcher;
+            try {
+                return matcher.reset(input).find();
+            } finally {
+                matcher.reset("");
+            }
+        }
+
+        @Override
+        public Replacement compileReplacement(final String replacement) {
+            return Replacement.parse(replacement, pattern.matcher("").groupCount(), null);
+        }
+
+        @Override
+        public void replaceAll(final CharSequence input, final Replacement replacement, final StringBuilder output) {
+            final MatcherGroups groups = matcherSupplier.get();
+            final Matcher matcher = groups.matcher;
+            try {
+                matcher.reset(input);
+                int appendPosition = 0;
+                while (matcher.find()) {
+                    output.append(input, appendPosition, matcher.start());
+                    replacement.appendTo(input, groups, output);
+                    appendPosition = matcher.end();
+                }
+                output.append(input, appendPosition, input.length());
+            } finally {
+                matcher.reset("");
+            }
+        }
+
+        @Override
+        public String toString() {
+            return pattern.pattern();
+        }
+    }
+
+    private static final class MatcherGroups implements Replacement.Groups {
+
+        private final Matcher matcher;
+
+        private MatcherGroups(final Matcher matcher) {
+            this.matcher = matcher;
+        }
+
+        @Override
+        public int start(final int group) {
+            return matcher.start(group);
+        }
+
+        @Override
+        public int end(final int group) {
+            return matcher.end(group);
+        }
+
+        @Override
+        public int start(final String name) {
+            return matcher.start(name);
+        }
+
+        @Override
+        public int end(final String name) {
+            return matcher.end(name);
+        }
+    }
+}
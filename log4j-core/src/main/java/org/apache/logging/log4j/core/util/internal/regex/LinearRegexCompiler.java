@@ -0,0 +1,848 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util.internal.regex;
+
+import static org.apache.logging.log4j.core.util.internal.regex.LinearRegexProgram.ASSERT_BEGIN_INPUT;
+import static org.apache.logging.log4j.core.util.internal.regex.LinearRegexProgram.ASSERT_BEGIN_LINE;
+import static org.apache.logging.log4j.core.util.internal.regex.LinearRegexProgram.ASSERT_END_INPUT;
+import static org.apache.logging.log4j.core.util.internal.regex.LinearRegexProgram.ASSERT_END_INPUT_OR_FINAL_TERMINATOR;
+import static org.apache.logging.log4j.core.util.internal.regex.LinearRegexProgram.ASSERT_END_LINE;
+import static org.apache.logging.log4j.core.util.internal.regex.LinearRegexProgram.ASSERT_NOT_WORD_BOUNDARY;
+import static org.apache.logging.log4j.core.util.internal.regex.LinearRegexProgram.ASSERT_WORD_BOUNDARY;
+import static org.apache.logging.log4j.core.util.internal.regex.LinearRegexProgram.OP_ANY;
+import static org.apache.logging.log4j.core.util.internal.regex.LinearRegexProgram.OP_ASSERT;
+import static org.apache.logging.log4j.core.util.internal.regex.LinearRegexProgram.OP_CHAR;
+import static org.apache.logging.log4j.core.util.internal.regex.LinearRegexProgram.OP_CLASS;
+import static org.apache.logging.log4j.core.util.internal.regex.LinearRegexProgram.OP_JUMP;
+import static org.apache.logging.log4j.core.util.internal.regex.LinearRegexProgram.OP_MATCH;
+import static org.apache.logging.log4j.core.util.internal.regex.LinearRegexProgram.OP_SAVE;
+import static org.apache.logging.log4j.core.util.internal.regex.LinearRegexProgram.OP_SPLIT;
+import static org.apache.logging.log4j.core.util.internal.regex.LinearRegexProgram.isLineTerminator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Compiles a regular expression into a {@link LinearRegexProgram}.
+ * <p>
+ * The supported syntax is the subset of {@link java.util.regex.Pattern} that can be matched without backtracking:
+ * </p>
+ * <ul>
+ *   <li>literals and escapes, e.g., {@code \t}, {@code \n}, {@code \xhh}, {@code \Q...\E}</li>
+ *   <li>character classes with ranges and negation</li>
+ *   <li>{@code .}, {@code \d}, {@code \w}, {@code \s} and their negations</li>
+ *   <li>capturing, named ({@code (?<name>...)}) and non-capturing groups, alternation</li>
+ *   <li>greedy and reluctant quantifiers, i.e., {@code *}, {@code +}, {@code ?}, {@code {n}}, {@code {n,}} and
+ *   {@code {n,m}}</li>
+ *   <li>anchors: {@code ^}, {@code $}, {@code \A}, {@code \z}, {@code \Z}, {@code \b}, {@code \B}</li>
+ *   <li>inline flags {@code i}, {@code m}, {@code s} and {@code x}, both global and scoped</li>
+ * </ul>
+ * <p>
+ * Back-references, look-around, atomic groups, possessive quantifiers, Unicode properties and class
+ * intersections are rejected with an {@link IllegalArgumentException}.
+ * </p>
+ */
+final class LinearRegexCompiler {
+
+    /** Caps the instruction count to prevent counted repetitions from exploding the program. */
+    static final int MAX_PROGRAM_SIZE = 100_000;
+
+    private static final int FLAG_CASE_INSENSITIVE = 1;
+
+    private static final int FLAG_MULTILINE = 1 << 1;
+
+    private static final int FLAG_DOTALL = 1 << 2;
+
+    private static final int FLAG_COMMENTS = 1 << 3;
+
+    private String regex;
+
+    private int cursor;
+
+    private int flags;
+
+    private int groupCount;
+
+    private final Map<String, Integer> groupIndexByName = new HashMap<>();
+
+    private byte[] opcodes = new byte[16];
+
+    private int[] args = new int[16];
+
+    private int[] args2 = new int[16];
+
+    private int size;
+
+    private final List<CharClass> classes = new ArrayList<>();
+
+    private LinearRegexCompiler(final String regex) {
+        this.regex = regex;
+    }
+
+    static LinearRegexProgram compile(final String regex) {
+        return new LinearRegexCompiler(regex).compile();
+    }
+
+    /**
+     * Compiles the given expressions into a single program matching their alternation.
+     * <p>
+     * Each expression is wrapped in a capturing group and groups are numbered in the order of the expressions, i.e.,
+     * the wrapping group of an expression precedes its own groups.
+     * Inline flags are scoped to the expression they appear in, whereas group names must be unique across all
+     * expressions.
+     * </p>
+     *
+     * @param regexes the expressions
+     * @return the compiled program
+     */
+    static LinearRegexProgram compileUnion(final List<String> regexes) {
+        if (regexes.isEmpty()) {
+            throw new IllegalArgumentException("was expecting at least one expression");
+        }
+        final StringBuilder union = new StringBuilder();
+        for (final String regex : regexes) {
+            if (union.length() > 0) {
+                union.append('|');
+            }
+            union.append('(').append(regex).append(')');
+        }
+        return new LinearRegexCompiler(union.toString()).compileAlternatives(regexes);
+    }
+
+    private LinearRegexProgram compile() {
+        return emitProgram(parseRoot());
+    }
+
+    private LinearRegexProgram compileAlternatives(final List<String> regexes) {
+        final String union = regex;
+        final List<Node> alternatives = new ArrayList<>(regexes.size());
+        for (final String alternative : regexes) {
+            regex = alternative;
+            cursor = 0;
+            flags = 0;
+            final int index = ++groupCount;
+            alternatives.add(new GroupNode(parseRoot(), index));
+        }
+        regex = union;
+        return emitProgram(alternatives.size() == 1 ? alternatives.get(0) : new AlternationNode(alternatives));
+    }
+
+    private Node parseRoot() {
+        final Node root = parseAlternation();
+        if (cursor < regex.length()) {
+            throw error("unmatched closing ')'");
+        }
+        return root;
+    }
+
+    private LinearRegexProgram emitProgram(final Node root) {
+        emit(OP_SAVE, 0, 0);
+        emit(root);
+        emit(OP_SAVE, 1, 0);
+        emit(OP_MATCH, 0, 0);
+        return new LinearRegexProgram(
+                regex,
+                Arrays.copyOf(opcodes, size),
+                Arrays.copyOf(args, size),
+                Arrays.copyOf(args2, size),
+                classes.toArray(new CharClass[0]),
+                groupCount,
+                groupIndexByName.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(groupIndexByName));
+    }
+
+    // Parsing
+
+    private abstract static class Node {}
+
+    private static final class CharNode extends Node {
+
+        private final char c;
+
+        private CharNode(final char c) {
+            this.c = c;
+        }
+    }
+
+    private static final class ClassNode extends Node {
+
+        private final CharClass charClass;
+
+        private ClassNode(final CharClass charClass) {
+            this.charClass = charClass;
+        }
+    }
+
+    private static final class AnyNode extends Node {}
+
+    private static final class AssertNode extends Node {
+
+        private final int assertion;
+
+        private AssertNode(final int assertion) {
+            this.assertion = assertion;
+        }
+    }
+
+    private static final class ConcatNode extends Node {
+
+        private final List<Node> children;
+
+        private ConcatNode(final List<Node> children) {
+            this.children = children;
+        }
+    }
+
+    private static final class AlternationNode extends Node {
+
+        private final List<Node> children;
+
+        private AlternationNode(final List<Node> children) {
+            this.children = children;
+        }
+    }
+
+    private static final class RepeatNode extends Node {
+
+        private final Node child;
+
+        private final int min;
+
+        /** The maximum repetition count, or {@code -1} for unbounded. */
+        private final int max;
+
+        private final boolean greedy;
+
+        private RepeatNode(final Node child, final int min, final int max, final boolean greedy) {
+            this.child = child;
+            this.min = min;
+            this.max = max;
+            this.greedy = greedy;
+        }
+    }
+
+    private static final class GroupNode extends Node {
+
+        private final Node child;
+
+        private final int index;
+
+        private GroupNode(final Node child, final int index) {
+            this.child = child;
+            this.index = index;
+        }
+    }
+
+    private Node parseAlternation() {
+        final List<Node> alternatives = new ArrayList<>();
+        alternatives.add(parseConcatenation());
+        while (cursor < regex.length() && regex.charAt(cursor) == '|') {
+            cursor++;
+            alternatives.add(parseConcatenation());
+        }
+        return alternatives.size() == 1 ? alternatives.get(0) : new AlternationNode(alternatives);
+    }
+
+    private Node parseConcatenation() {
+        final List<Node> nodes = new ArrayList<>();
+        while (true) {
+            skipComments();
+            if (cursor >= regex.length()) {
+                break;
+            }
+            final char c = regex.charAt(cursor);
+            if (c == '|' || c == ')') {
+                break;
+            }
+            final Node atom = parseAtom();
+            if (atom != null) {
+                nodes.add(parseQuantifier(atom));
+            }
+        }
+        return nodes.size() == 1 ? nodes.get(0) : new ConcatNode(nodes);
+    }
+
+    private Node parseQuantifier(final Node atom) {
+        skipComments();
+        if (cursor >= regex.length()) {
+            return atom;
+        }
+        final int min;
+        final int max;
+        final char c = regex.charAt(cursor);
+        if (c == '*') {
+            min = 0;
+            max = -1;
+            cursor++;
+        } else if (c == '+') {
+            min = 1;
+            max = -1;
+            cursor++;
+        } else if (c == '?') {
+            min = 0;
+            max = 1;
+            cursor++;
+        } else if (c == '{') {
+            cursor++;
+            min = parseNumber();
+            if (cursor < regex.length() && regex.charAt(cursor) == ',') {
+                cursor++;
+                max = cursor < regex.length() && regex.charAt(cursor) == '}' ? -1 : parseNumber();
+            } else {
+                max = min;
+            }
+            if (cursor >= regex.length() || regex.charAt(cursor) != '}') {
+                throw error("unclosed counted closure");
+            }
+            cursor++;
+            if (max >= 0 && max < min) {
+                throw error("illegal repetition range");
+            }
+        } else {
+            return atom;
+        }
+        boolean greedy = true;
+        if (cursor < regex.length()) {
+            final char modifier = regex.charAt(cursor);
+            if (modifier == '?') {
+                greedy = false;
+                cursor++;
+            } else if (modifier == '+') {
+                throw error("possessive quantifiers are not supported");
+            }
+        }
+        if (atom instanceof AssertNode) {
+            return atom;
+        }
+        final RepeatNode repeat = new RepeatNode(atom, min, max, greedy);
+        skipComments();
+        if (cursor < regex.length() && "*+?{".indexOf(regex.charAt(cursor)) >= 0) {
+            throw error("dangling meta character '" + regex.charAt(cursor) + "'");
+        }
+        return repeat;
+    }
+
+    private int parseNumber() {
+        final int start = cursor;
+        while (cursor < regex.length() && Character.isDigit(regex.charAt(cursor))) {
+            cursor++;
+        }
+        if (start == cursor) {
+            throw error("illegal repetition");
+        }
+        try {
+            return Integer.parseInt(regex.substring(start, cursor));
+        } catch (final NumberFormatException error) {
+            throw error("illegal repetition");
+        }
+    }
+
+    private @Nullable Node parseAtom() {
+        final char c = regex.charAt(cursor++);
+        switch (c) {
+            case '(':
+                return parseGroup();
+            case '[':
+                return new ClassNode(parseClass().build());
+            case '.':
+                return (flags & FLAG_DOTALL) != 0
+                        ? new AnyNode()
+                        : new ClassNode(new CharClass.Builder()
+                                .addChar('\n')
+                                .addChar('\r')
+                                .addChar('\u0085')
+                                .addRange('\u2028', '\u2029')
+                                .negate()
+                                .build());
+            case '^':
+                return new AssertNode((flags & FLAG_MULTILINE) != 0 ? ASSERT_BEGIN_LINE : ASSERT_BEGIN_INPUT);
+            case '$':
+                return new AssertNode(
+                        (flags & FLAG_MULTILINE) != 0 ? ASSERT_END_LINE : ASSERT_END_INPUT_OR_FINAL_TERMINATOR);
+            case '\\':
+                return parseEscape();
+            case '*':
+            case '+':
+            case '?':
+            case '{':
+                throw error("dangling meta character '" + c + "'");
+            default:
+                return literal(c);
+        }
+    }
+
+    private Node literal(final char c) {
+        if ((flags & FLAG_CASE_INSENSITIVE) != 0 && isAsciiLetter(c)) {
+            return new ClassNode(new CharClass.Builder().addChar(c).foldAsciiCase().build());
+        }
+        return new CharNode(c);
+    }
+
+    private static boolean isAsciiLetter(final char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private @Nullable Node parseGroup() {
+        final int enclosingFlags = flags;
+        int index = -1;
+        if (cursor < regex.length() && regex.charAt(cursor) == '?') {
+            cursor++;
+            if (cursor >= regex.length()) {
+                throw error("unknown group type");
+            }
+            final char type = regex.charAt(cursor);
+            if (type == ':') {
+                cursor++;
+            } else if (type == '<') {
+                cursor++;
+                if (cursor < regex.length() && (regex.charAt(cursor) == '=' || regex.charAt(cursor) == '!')) {
+                    throw error("look-behind is not supported");
+                }
+                final int nameEnd = regex.indexOf('>', cursor);
+                if (nameEnd <= cursor) {
+                    throw error("named capturing group is missing trailing '>'");
+                }
+                final String name = regex.substring(cursor, nameEnd);
+                if (!isValidGroupName(name)) {
+                    throw error("invalid group name `" + name + "`");
+                }
+                index = ++groupCount;
+                if (groupIndexByName.put(name, index) != null) {
+                    throw error("named capturing group `" + name + "` is already defined");
+                }
+                cursor = nameEnd + 1;
+            } else if (type == '=' || type == '!') {
+                throw error("look-ahead is not supported");
+            } else if (type == '>') {
+                throw error("atomic groups are not supported");
+            } else {
+                final int groupFlags = parseFlags();
+                final char terminator = regex.charAt(cursor++);
+                if (terminator == ')') {
+                    // Flags apply to the rest of the enclosing group
+                    flags = groupFlags;
+                    return null;
+                }
+                flags = groupFlags;
+            }
+        } else {
+            index = ++groupCount;
+        }
+        final Node child = parseAlternation();
+        if (cursor >= regex.length() || regex.charAt(cursor) != ')') {
+            throw error("unclosed group");
+        }
+        cursor++;
+        flags = enclosingFlags;
+        return new GroupNode(child, index);
+    }
+
+    private static boolean isValidGroupName(final String name) {
+        if (!isAsciiLetter(name.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (!isAsciiLetter(c) && !(c >= '0' && c <= '9')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int parseFlags() {
+        int newFlags = flags;
+        boolean enable = true;
+        while (cursor < regex.length()) {
+            final char c = regex.charAt(cursor);
+            final int flag;
+            switch (c) {
+                case 'i':
+                    flag = FLAG_CASE_INSENSITIVE;
+                    break;
+                case 'm':
+                    flag = FLAG_MULTILINE;
+                    break;
+                case 's':
+                    flag = FLAG_DOTALL;
+                    break;
+                case 'x':
+                    flag = FLAG_COMMENTS;
+                    break;
+                case '-':
+                    enable = false;
+                    cursor++;
+                    continue;
+                case ')':
+                case ':':
+                    return newFlags;
+                default:
+                    throw error("unsupported inline flag '" + c + "'");
+            }
+            newFlags = enable ? newFlags | flag : newFlags & ~flag;
+            cursor++;
+        }
+        throw error("unclosed group");
+    }
+
+    private CharClass.Builder parseClass() {
+        final CharClass.Builder builder = new CharClass.Builder();
+        boolean negated = false;
+        if (cursor < regex.length() && regex.charAt(cursor) == '^') {
+            negated = true;
+            cursor++;
+        }
+        boolean first = true;
+        while (true) {
+            if (cursor >= regex.length()) {
+                throw error("unclosed character class");
+            }
+            final char c = regex.charAt(cursor);
+            if (c == ']' && !first) {
+                cursor++;
+                break;
+            }
+            first = false;
+            if (c == '[') {
+                throw error("nested character classes are not supported");
+            }
+            if (c == '&' && cursor + 1 < regex.length() && regex.charAt(cursor + 1) == '&') {
+                throw error("character class intersections are not supported");
+            }
+            final int start;
+            cursor++;
+            if (c == '\\') {
+                final CharClass.Builder predefined = parsePredefinedClass();
+                if (predefined != null) {
+                    builder.addAll(predefined);
+                    continue;
+                }
+                start = parseCharEscape();
+            } else {
+                start = c;
+            }
+            if (cursor + 1 < regex.length() && regex.charAt(cursor) == '-' && regex.charAt(cursor + 1) != ']') {
+                cursor++;
+                final char endChar = regex.charAt(cursor++);
+                final int end = endChar == '\\' ? parseCharEscape() : endChar;
+                if (end < start) {
+                    throw error("illegal character range");
+                }
+                builder.addRange(start, end);
+            } else {
+                builder.addChar((char) start);
+            }
+        }
+        if ((flags & FLAG_CASE_INSENSITIVE) != 0) {
+            builder.foldAsciiCase();
+        }
+        return negated ? builder.negate() : builder;
+    }
+
+    /**
+     * Parses the escape sequence following a {@code \}, if it denotes a predefined character class.
+     *
+     * @return the predefined character class, or {@code null} if the escape sequence denotes something else
+     */
+    private CharClass.@Nullable Builder parsePredefinedClass() {
+        if (cursor >= regex.length()) {
+            throw error("unexpected trailing '\\'");
+        }
+        final CharClass.Builder builder;
+        switch (regex.charAt(cursor)) {
+            case 'd':
+            case 'D':
+                builder = new CharClass.Builder().addRange('0', '9');
+                break;
+            case 'w':
+            case 'W':
+                builder = new CharClass.Builder()
+                        .addRange('a', 'z')
+                        .addRange('A', 'Z')
+                        .addRange('0', '9')
+                        .addChar('_');
+                break;
+            case 's':
+            case 'S':
+                builder = new CharClass.Builder().addRange('\t', '\r').addChar(' ');
+                break;
+            case 'p':
+            case 'P':
+                throw error("Unicode properties are not supported");
+            default:
+                return null;
+        }
+        if (Character.isUpperCase(regex.charAt(cursor++))) {
+            builder.negate();
+        }
+        return builder;
+    }
+
+    private Node parseEscape() {
+        final CharClass.Builder predefined = parsePredefinedClass();
+        if (predefined != null) {
+            return new ClassNode(predefined.build());
+        }
+        final char c = regex.charAt(cursor);
+        switch (c) {
+            case 'A':
+                cursor++;
+                return new AssertNode(ASSERT_BEGIN_INPUT);
+            case 'z':
+                cursor++;
+                return new AssertNode(ASSERT_END_INPUT);
+            case 'Z':
+                cursor++;
+                return new AssertNode(ASSERT_END_INPUT_OR_FINAL_TERMINATOR);
+            case 'b':
+                cursor++;
+                return new AssertNode(ASSERT_WORD_BOUNDARY);
+            case 'B':
+                cursor++;
+                return new AssertNode(ASSERT_NOT_WORD_BOUNDARY);
+            case 'Q':
+                return parseQuotation();
+            case 'k':
+                throw error("back-references are not supported");
+            default:
+                if (c >= '1' && c <= '9') {
+                    throw error("back-references are not supported");
+                }
+                return literal((char) parseCharEscape());
+        }
+    }
+
+    private Node parseQuotation() {
+        cursor++;
+        int end = regex.indexOf("\\E", cursor);
+        if (end < 0) {
+            end = regex.length();
+        }
+        final List<Node> nodes = new ArrayList<>(end - cursor);
+        for (int i = cursor; i < end; i++) {
+            nodes.add(literal(regex.charAt(i)));
+        }
+        cursor = Math.min(end + 2, regex.length());
+        return nodes.size() == 1 ? nodes.get(0) : new ConcatNode(nodes);
+    }
+
+    /**
+     * Parses the escape sequence following a {@code \} that denotes a single character.
+     */
+    private int parseCharEscape() {
+        if (cursor >= regex.length()) {
+            throw error("unexpected trailing '\\'");
+        }
+        final char c = regex.charAt(cursor++);
+        switch (c) {
+            case 't':
+                return '\t';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 'f':
+                return '\f';
+            case 'a':
+                return '\u0007';
+            case 'e':
+                return '\u001B';
+            case '0':
+                return parseOctalEscape();
+            case 'x':
+                return parseHexEscape();
+            case 'u':
+                return parseHexDigits(4);
+            case 'c':
+                if (cursor >= regex.length()) {
+                    throw error("illegal control escape sequence");
+                }
+                return regex.charAt(cursor++) ^ 64;
+            default:
+                if (isAsciiLetter(c) || (c >= '0' && c <= '9')) {
+                    throw error("illegal or unsupported escape sequence '\\" + c + "'");
+                }
+                return c;
+        }
+    }
+
+    private int parseOctalEscape() {
+        int value = 0;
+        int digits = 0;
+        while (digits < 3 && cursor < regex.length()) {
+            final int digit = regex.charAt(cursor) - '0';
+            if (digit < 0 || digit > 7 || (digits == 2 && value > 037)) {
+                break;
+            }
+            value = value * 8 + digit;
+            digits++;
+            cursor++;
+        }
+        if (digits == 0) {
+            throw error("illegal octal escape sequence");
+        }
+        return value;
+    }
+
+    private int parseHexEscape() {
+        if (cursor < regex.length() && regex.charAt(cursor) == '{') {
+            final int end = regex.indexOf('}', ++cursor);
+            if (end < 0) {
+                throw error("unclosed hexadecimal escape sequence");
+            }
+            final int value = parseHexDigits(end - cursor);
+            cursor++;
+            if (value > Character.MAX_VALUE) {
+                throw error("supplementary characters are not supported");
+            }
+            return value;
+        }
+        return parseHexDigits(2);
+    }
+
+    private int parseHexDigits(final int count) {
+        if (count <= 0 || cursor + count > regex.length()) {
+            throw error("illegal hexadecimal escape sequence");
+        }
+        int value = 0;
+        for (int i = 0; i < count; i++) {
+            final int digit = Character.digit(regex.charAt(cursor++), 16);
+            if (digit < 0) {
+                throw error("illegal hexadecimal escape sequence");
+            }
+            value = value * 16 + digit;
+        }
+        return value;
+    }
+
+    private void skipComments() {
+        if ((flags & FLAG_COMMENTS) == 0) {
+            return;
+        }
+        while (cursor < regex.length()) {
+            final char c = regex.charAt(cursor);
+            if (Character.isWhitespace(c)) {
+                cursor++;
+            } else if (c == '#') {
+                while (cursor < regex.length() && !isLineTerminator(regex.charAt(cursor))) {
+                    cursor++;
+                }
+            } else {
+                break;
+            }
+        }
+    }
+
+    private IllegalArgumentException error(final String message) {
+        return new IllegalArgumentException(message + " near index " + cursor + ": `" + regex + "`");
+    }
+
+    // Emission
+
+    private void emit(final Node node) {
+        if (node instanceof CharNode) {
+            emit(OP_CHAR, ((CharNode) node).c, 0);
+        } else if (node instanceof ClassNode) {
+            classes.add(((ClassNode) node).charClass);
+            emit(OP_CLASS, classes.size() - 1, 0);
+        } else if (node instanceof AnyNode) {
+            emit(OP_ANY, 0, 0);
+        } else if (node instanceof AssertNode) {
+            emit(OP_ASSERT, ((AssertNode) node).assertion, 0);
+        } else if (node instanceof ConcatNode) {
+            for (final Node child : ((ConcatNode) node).children) {
+                emit(child);
+            }
+        } else if (node instanceof AlternationNode) {
+            emitAlternation(((AlternationNode) node).children);
+        } else if (node instanceof RepeatNode) {
+            emitRepeat((RepeatNode) node);
+        } else if (node instanceof GroupNode) {
+            final GroupNode group = (GroupNode) node;
+            if (group.index >= 0) {
+                emit(OP_SAVE, group.index << 1, 0);
+                emit(group.child);
+                emit(OP_SAVE, (group.index << 1) + 1, 0);
+            } else {
+                emit(group.child);
+            }
+        }
+    }
+
+    private void emitAlternation(final List<Node> alternatives) {
+        final int[] jumps = new int[alternatives.size() - 1];
+        for (int i = 0; i < alternatives.size() - 1; i++) {
+            final int split = emit(OP_SPLIT, size + 1, 0);
+            emit(alternatives.get(i));
+            jumps[i] = emit(OP_JUMP, 0, 0);
+            args2[split] = size;
+        }
+        emit(alternatives.get(alternatives.size() - 1));
+        for (final int jump : jumps) {
+            args[jump] = size;
+        }
+    }
+
+    private void emitRepeat(final RepeatNode repeat) {
+        for (int i = 0; i < repeat.min; i++) {
+            emit(repeat.child);
+        }
+        if (repeat.max < 0) {
+            // `x*` compiles to `L1: split L2, L3; L2: x; jump L1; L3:`
+            final int split = emit(OP_SPLIT, 0, 0);
+            emit(repeat.child);
+            emit(OP_JUMP, split, 0);
+            setSplitTargets(split, split + 1, size, repeat.greedy);
+            return;
+        }
+        // `x{0,n}` compiles to nested optionals `(x(x(x)?)?)?`, each skipping to the very end
+        final int optionalCount = repeat.max - repeat.min;
+        final int[] splits = new int[optionalCount];
+        for (int i = 0; i < optionalCount; i++) {
+            splits[i] = emit(OP_SPLIT, 0, 0);
+            emit(repeat.child);
+        }
+        for (final int split : splits) {
+            setSplitTargets(split, split + 1, size, repeat.greedy);
+        }
+    }
+
+    private void setSplitTargets(final int split, final int body, final int exit, final boolean greedy) {
+        args[split] = greedy ? body : exit;
+        args2[split] = greedy ? exit : body;
+    }
+
+    private int emit(final byte opcode, final int arg, final int arg2) {
+        if (size == MAX_PROGRAM_SIZE) {
+            throw new IllegalArgumentException("regular expression is too large: `" + regex + "`");
+        }
+        if (size == opcodes.length) {
+            final int capacity = size << 1;
+            opcodes = Arrays.copyOf(opcodes, capacity);
+            args = Arrays.copyOf(args, capacity);
+            args2 = Arrays.copyOf(args2, capacity);
+        }
+        opcodes[size] = opcode;
+        args[size] = arg;
+        args2[size] = arg2;
+        return size++;
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util.internal.regex;
+
+import static org.apache.logging.log4j.core.util.internal.regex.LinearRegexProgram.OP_ANY;
+import static org.apache.logging.log4j.core.util.internal.regex.LinearRegexProgram.OP_ASSERT;
+import static org.apache.logging.log4j.core.util.internal.regex.LinearRegexProgram.OP_CHAR;
+import static org.apache.logging.log4j.core.util.internal.regex.LinearRegexProgram.OP_CLASS;
+import static org.apache.logging.log4j.core.util.internal.regex.LinearRegexProgram.OP_JUMP;
+import static org.apache.logging.log4j.core.util.internal.regex.LinearRegexProgram.OP_MATCH;
+import static org.apache.logging.log4j.core.util.internal.regex.LinearRegexProgram.OP_SAVE;
+import static org.apache.logging.log4j.core.util.internal.regex.LinearRegexProgram.OP_SPLIT;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.core.util.Constants;
+
+/**
+ * A {@link RegexEngine} that matches in time linear to the input length by simulating all automaton states in
+ * lockstep (i.e., Pike VM) instead of backtracking.
+ * <p>
+ * Hence, unlike {@link java.util.regex.Pattern}, it is immune to catastrophic backtracking on expressions such as
+ * {@code (a+)+b}, which makes it suitable for matching user-controlled input, e.g., log messages.
+ * Only the backtracking-free subset of the {@link java.util.regex.Pattern} syntax is supported, see
+ * {@link LinearRegexCompiler}.
+ * Submatch semantics (i.e., leftmost-first with greedy and reluctant quantifiers) are the same as
+ * {@link java.util.regex.Pattern}, except for the captures of groups repeated with zero-length iterations, e.g.,
+ * {@code (a*)*}.
+ * </p>
+ * <p>
+ * The matching state is recycled per thread if {@link Constants#ENABLE_THREADLOCALS} is enabled.
+ * </p>
+ */
+final class LinearRegexEngine implements RegexEngine {
+
+    static final LinearRegexEngine INSTANCE = new LinearRegexEngine();
+
+    static final String NAME = "linear";
+
+    private LinearRegexEngine() {}
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public CompiledRegex compile(final String regex) {
+        return new LinearCompiledRegex(LinearRegexCompiler.compile(regex));
+    }
+
+    /**
+     * Compiles the alternation of the given expressions, see {@link LinearRegexCompiler#compileUnion(List)}.
+     *
+     * @param regexes the expressions
+     * @return the compiled alternation
+     * @throws IllegalArgumentException if any of the expressions is invalid or unsupported
+     */
+    CompiledRegex compileUnion(final List<String> regexes) {
+        return new LinearCompiledRegex(LinearRegexCompiler.compileUnion(regexes));
+    }
+
+    @Override
+    public String toString() {
+        return NAME;
+    }
+
+    private static final class LinearCompiledRegex implements CompiledRegex {
+
+        private final LinearRegexProgram program;
+
+        private final Supplier<Machine> machineSupplier;
+
+        private LinearCompiledRegex(final LinearRegexProgram program) {
+            this.program = program;
+            final Supplier<Machine> supplier = () -> new Machine(program);
+            this.machineSupplier = Constants.ENABLE_THREADLOCALS ? ThreadLocal.withInitial(supplier)::get : supplier;
+        }
+
+        @Override
+        public String getRegex() {
+            return program.regex;
+        }
+
+        @Override
+        public boolean matches(final CharSequence input) {
+            return machineSupplier.get().run(input, 0, true, false);
+        }
+
+        @Override
+        public boolean find(final CharSequence input) {
+            return machineSupplier.get().run(input, 0, false, false);
+        }
+
+        @Override
+        public Replacement compileReplacement(final String replacement) {
+            return Replacement.parse(replacement, program.groupCount, program::groupIndex);
+        }
+
+        @Override
+        public void replaceAll(final CharSequence input, final Replacement replacement, final StringBuilder output) {
+            final Machine machine = machineSupplier.get();
+            final int length = input.length();
+            int appendPosition = 0;
+            int searchPosition = 0;
+            while (searchPosition <= length && machine.run(input, searchPosition, false, true)) {
+                final int start = machine.matchSlots[0];
+                final int end = machine.matchSlots[1];
+                output.append(input, appendPosition, start);
+                replacement.appendTo(input, machine, output);
+                appendPosition = end;
+                // Advance past empty matches to guarantee progress
+                searchPosition = end == start ? end + 1 : end;
+            }
+            output.append(input, appendPosition, length);
+        }
+
+        @Override
+        public String toString() {
+            return program.regex;
+        }
+    }
+
+    /**
+     * A set of automaton states (i.e., threads) ordered by priority, along with their capture slots.
+     */
+    private static final class ThreadList {
+
+        private final int[] dense;
+
+        private final int[] sparse;
+
+        private final int[] slots;
+
+        private int size;
+
+        private ThreadList(final int programSize, final int slotCount) {
+            this.dense = new int[programSize];
+            this.sparse = new int[programSize];
+            this.slots = new int[programSize * slotCount];
+        }
+
+        private boolean add(final int pc) {
+            final int index = sparse[pc];
+            if (index < size && dense[index] == pc) {
+                return false;
+            }
+            sparse[pc] = size;
+            dense[size++] = pc;
+            return true;
+        }
+    }
+
+    /**
+     * Reusable matching state of a {@link LinearRegexProgram}.
+     */
+    private static final class Machine implements Replacement.Groups {
+
+        private final LinearRegexProgram program;
+
+        private final int slotCount;
+
+        private ThreadList currentThreads;
+
+        private ThreadList nextThreads;
+
+        /** Capture slots of the thread being followed. */
+        private final int[] slots;
+
+        /** Capture slots of the last match. */
+        private final int[] matchSlots;
+
+        /** Pending {@code (pc, 0)} follow and {@code (-slot - 1, value)} restore operations. */
+        private final int[] stack;
+
+        private Machine(final LinearRegexProgram program) {
+            this.program = program;
+            this.slotCount = (program.groupCount + 1) << 1;
+            this.currentThreads = new ThreadList(program.size(), slotCount);
+            this.nextThreads = new ThreadList(program.size(), slotCount);
+            this.slots = new int[slotCount];
+            this.matchSlots = new int[slotCount];
+            this.stack = new int[(program.size() << 2) + 2];
+        }
+
+        /**
+         * Searches for a match starting at the given position.
+         *
+         * @param input the input
+         * @param from the position to start searching from
+         * @param entire if {@code true}, the match must start at {@code from} and span until the end of the input
+         * @param capture if {@code true}, the search continues until the leftmost-first match is determined and its
+         *                capture slots are stored in {@link #matchSlots}; otherwise, the search stops at the first
+         *                match
+         * @return {@code true} if a match is found; {@code false}, otherwise
+         */
+        private boolean run(final CharSequence input, final int from, final boolean entire, final boolean capture) {
+            final byte[] opcodes = program.opcodes;
+            final int[] args = program.args;
+            final CharClass[] classes = program.classes;
+            final int length = input.length();
+            currentThreads.size = 0;
+            boolean matched = false;
+            for (int position = from; ; position++) {
+                if (!matched && (!entire || position == from)) {
+                    Arrays.fill(slots, -1);
+                    follow(currentThreads, 0, input, position);
+                }
+                if (currentThreads.size == 0 && (matched || entire)) {
+                    break;
+                }
+                nextThreads.size = 0;
+                final boolean available = position < length;
+                final char c = available ? input.charAt(position) : 0;
+                for (int threadIndex = 0; threadIndex < currentThreads.size; threadIndex++) {
+                    final int pc = currentThreads.dense[threadIndex];
+                    final boolean advance;
+                    switch (opcodes[pc]) {
+                        case OP_MATCH:
+                            if (entire && position != length) {
+                                continue;
+                            }
+                            if (!capture) {
+                                return true;
+                            }
+                            matched = true;
+                            System.arraycopy(currentThreads.slots, pc * slotCount, matchSlots, 0, slotCount);
+                            // Cut off the threads of lower priority
+                            threadIndex = currentThreads.size;
+                            continue;
+                        case OP_CHAR:
+                            advance = available && c == args[pc];
+                            break;
+                        case OP_CLASS:
+                            advance = available && classes[args[pc]].matches(c);
+                            break;
+                        case OP_ANY:
+                            advance = available;
+                            break;
+                        default:
+                            // Non-consuming instructions are only tracked to visit them once
+                            continue;
+                    }
+                    if (advance) {
+                        System.arraycopy(currentThreads.slots, pc * slotCount, slots, 0, slotCount);
+                        follow(nextThreads, pc + 1, input, position + 1);
+                    }
+                }
+                final ThreadList threads = currentThreads;
+                currentThreads = nextThreads;
+                nextThreads = threads;
+                if (position >= length) {
+                    break;
+                }
+            }
+            return matched;
+        }
+
+        /**
+         * Adds the thread at {@code startPc} to the list, following non-consuming instructions depth-first to
+         * preserve thread priorities.
+         */
+        private void follow(final ThreadList threads, final int startPc, final CharSequence input, final int position) {
+            final byte[] opcodes = program.opcodes;
+            final int[] args = program.args;
+            final int[] args2 = program.args2;
+            int stackSize = 0;
+            stack[stackSize++] = startPc;
+            stack[stackSize++] = 0;
+            while (stackSize > 0) {
+                final int value = stack[--stackSize];
+                final int pc = stack[--stackSize];
+                if (pc < 0) {
+                    slots[-pc - 1] = value;
+                    continue;
+                }
+                if (!threads.add(pc)) {
+                    continue;
+                }
+                switch (opcodes[pc]) {
+                    case OP_JUMP:
+                        stack[stackSize++] = args[pc];
+                        stack[stackSize++] = 0;
+                        break;
+                    case OP_SPLIT:
+                        stack[stackSize++] = args2[pc];
+                        stack[stackSize++] = 0;
+                        stack[stackSize++] = args[pc];
+                        stack[stackSize++] = 0;
+                        break;
+                    case OP_SAVE:
+                        final int slot = args[pc];
+                        stack[stackSize++] = -slot - 1;
+                        stack[stackSize++] = slots[slot];
+                        slots[slot] = position;
+                        stack[stackSize++] = pc + 1;
+                        stack[stackSize++] = 0;
+                        break;
+                    case OP_ASSERT:
+                        if (LinearRegexProgram.assertionHolds(args[pc], input, position)) {
+                            stack[stackSize++] = pc + 1;
+                            stack[stackSize++] = 0;
+                        }
+                        break;
+                    default:
+                        System.arraycopy(slots, 0, threads.slots, pc * slotCount, slotCount);
+                }
+            }
+        }
+
+        @Override
+        public int start(final int group) {
+            return matchSlots[group << 1];
+        }
+
+        @Override
+        public int end(final int group) {
+            return matchSlots[(group << 1) + 1];
+        }
+
+        @Override
+        public int start(final String name) {
+            return start(program.groupIndex(name));
+        }
+
+        @Override
+        public int end(final String name) {
+            return end(program.groupIndex(name));
+        }
+    }
+}
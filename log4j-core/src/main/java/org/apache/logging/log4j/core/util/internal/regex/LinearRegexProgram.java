@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util.internal.regex;
+
+import java.util.Map;
+
+/**
+ * A regular expression compiled into instructions of a Thompson-style non-deterministic automaton.
+ *
+ * @see LinearRegexCompiler
+ * @see LinearRegexEngine
+ */
+final class LinearRegexProgram {
+
+    /** Consumes the character in {@link #args}. */
+    static final byte OP_CHAR = 0;
+
+    /** Consumes a character of the {@link CharClass} indexed by {@link #args}. */
+    static final byte OP_CLASS = 1;
+
+    /** Consumes any character. */
+    static final byte OP_ANY = 2;
+
+    /** Continues only if the assertion in {@link #args} holds. */
+    static final byte OP_ASSERT = 3;
+
+    /** Forks to {@link #args} (preferred) and {@link #args2}. */
+    static final byte OP_SPLIT = 4;
+
+    /** Jumps to {@link #args}. */
+    static final byte OP_JUMP = 5;
+
+    /** Saves the current position into the capture slot in {@link #args}. */
+    static final byte OP_SAVE = 6;
+
+    /** Accepts the input. */
+    static final byte OP_MATCH = 7;
+
+    static final int ASSERT_BEGIN_INPUT = 0;
+
+    static final int ASSERT_BEGIN_LINE = 1;
+
+    static final int ASSERT_END_INPUT = 2;
+
+    static final int ASSERT_END_INPUT_OR_FINAL_TERMINATOR = 3;
+
+    static final int ASSERT_END_LINE = 4;
+
+    static final int ASSERT_WORD_BOUNDARY = 5;
+
+    static final int ASSERT_NOT_WORD_BOUNDARY = 6;
+
+    final String regex;
+
+    final byte[] opcodes;
+
+    final int[] args;
+
+    final int[] args2;
+
+    final CharClass[] classes;
+
+    /** The number of capturing groups, excluding the implicit group zero. */
+    final int groupCount;
+
+    final Map<String, Integer> groupIndexByName;
+
+    LinearRegexProgram(
+            final String regex,
+            final byte[] opcodes,
+            final int[] args,
+            final int[] args2,
+            final CharClass[] classes,
+            final int groupCount,
+            final Map<String, Integer> groupIndexByName) {
+        this.regex = regex;
+        this.opcodes = opcodes;
+        this.args = args;
+        this.args2 = args2;
+        this.classes = classes;
+        this.groupCount = groupCount;
+        this.groupIndexByName = groupIndexByName;
+    }
+
+    int size() {
+        return opcodes.length;
+    }
+
+    int groupIndex(final String name) {
+        final Integer index = groupIndexByName.get(name);
+        return index != null ? index : -1;
+    }
+
+    static boolean assertionHolds(final int assertion, final CharSequence input, final int position) {
+        final int length = input.length();
+        switch (assertion) {
+            case ASSERT_BEGIN_INPUT:
+                return position == 0;
+            case ASSERT_BEGIN_LINE:
+                if (position == 0) {
+                    return true;
+                }
+                if (position == length) {
+                    return false;
+                }
+                final char previous = input.charAt(position - 1);
+                return isLineTerminator(previous) && !(previous == '\r' && input.charAt(position) == '\n');
+            case ASSERT_END_INPUT:
+                return position == length;
+            case ASSERT_END_INPUT_OR_FINAL_TERMINATOR:
+                if (position == length) {
+                    return true;
+                }
+                if (position == length - 1) {
+                    final char c = input.charAt(position);
+                    return isLineTerminator(c) && !(c == '\n' && position > 0 && input.charAt(position - 1) == '\r');
+                }
+                return position == length - 2 && input.charAt(position) == '\r' && input.charAt(position + 1) == '\n';
+            case ASSERT_END_LINE:
+                if (position == length) {
+                    return true;
+                }
+                final char current = input.charAt(position);
+                return isLineTerminator(current)
+                        && !(current == '\n' && position > 0 && input.charAt(position - 1) == '\r');
+            case ASSERT_WORD_BOUNDARY:
+                return isWordBoundary(input, position);
+            case ASSERT_NOT_WORD_BOUNDARY:
+                return !isWordBoundary(input, position);
+            default:
+                throw new IllegalStateException("unknown assertion: " + assertion);
+        }
+    }
+
+    static boolean isLineTerminator(final char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private static boolean isWordBoundary(final CharSequence input, final int position) {
+        final boolean previousIsWord = position > 0 && isWordChar(input.charAt(position - 1));
+        final boolean currentIsWord = position < input.length() && isWordChar(input.charAt(position));
+        return previousIsWord != currentIsWord;
+    }
+
+    private static boolean isWordChar(final char c) {
+        return c == '_' || Character.isLetterOrDigit(c);
+    }
+
+    @Override
+    public String toString() {
+        return regex;
+    }
+}
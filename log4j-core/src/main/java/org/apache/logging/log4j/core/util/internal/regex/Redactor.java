@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util.internal.regex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Rewrites all occurrences of a set of literals and regular expressions in a single pass.
+ * <p>
+ * All rules are compiled into a single automaton, i.e., the alternation of the rules, executed by the
+ * {@link LinearRegexEngine}.
+ * Hence, the input is scanned once, instead of once per rule.
+ * Since the engine tracks all the rules simultaneously, the time spent per input character is not constant: in the
+ * worst case, it is proportional to the total size of the rules, i.e., the rewriting takes {@code O(n * m)} time for an
+ * input of length {@code n} and rules of total size {@code m}.
+ * At every position, the leftmost match wins and, among the rules matching at the same position, the one declared
+ * first wins.
+ * </p>
+ * <p>
+ * Each rule is replaced by its own replacement, where group references (e.g., {@code $1}, {@code ${name}}) are
+ * relative to the regular expression of the rule.
+ * Group names must be unique across all rules.
+ * </p>
+ *
+ * @since 2.27.0
+ */
+public final class Redactor {
+
+    /**
+     * A literal or regular expression to be replaced.
+     */
+    public static final class Rule {
+
+        private final String regex;
+
+        private final String replacement;
+
+        private final boolean literal;
+
+        private Rule(final String regex, final String replacement, final boolean literal) {
+            this.regex = Objects.requireNonNull(regex, "regex");
+            this.replacement = Objects.requireNonNull(replacement, "replacement");
+            this.literal = literal;
+        }
+
+        /**
+         * Creates a rule replacing the matches of a regular expression.
+         *
+         * @param regex a regular expression supported by the {@link RegexEngines#LINEAR} engine
+         * @param replacement a replacement that can refer to the groups of {@code regex}
+         * @return the rule
+         */
+        public static Rule ofRegex(final String regex, final String replacement) {
+            return new Rule(regex, replacement, false);
+        }
+
+        /**
+         * Creates a rule replacing the occurrences of a literal.
+         *
+         * @param literal a literal
+         * @param replacement a replacement to be emitted as is
+         * @return the rule
+         */
+        public static Rule ofLiteral(final String literal, final String replacement) {
+            if (literal.isEmpty()) {
+                throw new IllegalArgumentException("was expecting a non-empty literal");
+            }
+            return new Rule(literal, replacement, true);
+        }
+
+        public String getRegex() {
+            return regex;
+        }
+
+        public String getReplacement() {
+            return replacement;
+        }
+
+        public boolean isLiteral() {
+            return literal;
+        }
+
+        private String getEffectiveRegex() {
+            return literal ? quote(regex) : regex;
+        }
+
+        @Override
+        public String toString() {
+            return (literal ? "literal" : "regex") + "=`" + regex + "`, replacement=`" + replacement + "`";
+        }
+    }
+
+    private final List<Rule> rules;
+
+    private final CompiledRegex regex;
+
+    private final Replacement replacement;
+
+    private Redactor(final List<Rule> rules, final CompiledRegex regex, final Replacement replacement) {
+        this.rules = rules;
+        this.regex = regex;
+        this.replacement = replacement;
+    }
+
+    /**
+     * Compiles the given rules.
+     *
+     * @param rules the rules in the order of precedence
+     * @return the compiled redactor
+     * @throws IllegalArgumentException if there are no rules, or any of the rules is invalid
+     */
+    public static Redactor compile(final List<Rule> rules) {
+        if (rules.isEmpty()) {
+            throw new IllegalArgumentException("was expecting at least one rule");
+        }
+        final List<String> regexes = new ArrayList<>(rules.size());
+        final Replacement[] replacements = new Replacement[rules.size()];
+        final int[] ruleGroups = new int[rules.size()];
+        // The union wraps every rule into a group preceding the groups of the rule
+        int ruleGroup = 1;
+        for (int ruleIndex = 0; ruleIndex < rules.size(); ruleIndex++) {
+            final Rule rule = rules.get(ruleIndex);
+            final String ruleRegex = rule.getEffectiveRegex();
+            final LinearRegexProgram program;
+            final Replacement ruleReplacement;
+            try {
+                program = LinearRegexCompiler.compile(ruleRegex);
+                ruleReplacement = rule.literal
+                        ? Replacement.literal(rule.replacement)
+                        : Replacement.parse(rule.replacement, program.groupCount, program::groupIndex);
+            } catch (final IllegalArgumentException error) {
+                throw new IllegalArgumentException("invalid rule: " + rule, error);
+            }
+            regexes.add(ruleRegex);
+            replacements[ruleIndex] = ruleReplacement.shift(ruleGroup);
+            ruleGroups[ruleIndex] = ruleGroup;
+            ruleGroup += 1 + program.groupCount;
+        }
+        final CompiledRegex regex = LinearRegexEngine.INSTANCE.compileUnion(regexes);
+        final Replacement replacement = Replacement.select(replacements, ruleGroups);
+        return new Redactor(Collections.unmodifiableList(new ArrayList<>(rules)), regex, replacement);
+    }
+
+    /**
+     * Quotes the given literal such that it is matched as is.
+     */
+    private static String quote(final String literal) {
+        final StringBuilder quoted = new StringBuilder(literal.length() + 4).append("\\Q");
+        int start = 0;
+        int end;
+        while ((end = literal.indexOf("\\E", start)) >= 0) {
+            quoted.append(literal, start, end).append("\\E\\\\E\\Q");
+            start = end + 2;
+        }
+        return quoted.append(literal, start, literal.length()).append("\\E").toString();
+    }
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Appends the given input to the output with the matches of all rules replaced.
+     *
+     * @param input the input
+     * @param output the buffer to append to
+     */
+    public void redact(final CharSequence input, final StringBuilder output) {
+        regex.replaceAll(input, replacement, output);
+    }
+
+    @Override
+    public String toString() {
+        return rules.toString();
+    }
+}
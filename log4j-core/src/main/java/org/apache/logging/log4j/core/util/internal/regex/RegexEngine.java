@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util.internal.regex;
+
+/**
+ * A regular expression engine capable of compiling expressions into reusable {@link CompiledRegex} instances.
+ * <p>
+ * This is an internal abstraction: only the built-in implementations, resolved through
+ * {@link RegexEngines#getEngine(String)}, are supported.
+ * </p>
+ *
+ * @since 2.27.0
+ */
+public interface RegexEngine {
+
+    /**
+     * @return the name of the engine
+     */
+    String getName();
+
+    /**
+     * Compiles the given regular expression.
+     *
+     * @param regex a regular expression
+     * @return the compiled regular expression
+     * @throws IllegalArgumentException if the expression is invalid or not supported by this engine
+     */
+    CompiledRegex compile(String regex);
+}
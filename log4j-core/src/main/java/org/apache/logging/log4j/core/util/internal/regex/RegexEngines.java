@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util.internal.regex;
+
+import org.apache.logging.log4j.util.Strings;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Resolves the built-in {@link RegexEngine}s by name.
+ *
+ * @since 2.27.0
+ */
+public final class RegexEngines {
+
+    /**
+     * The name of the engine backed by {@link java.util.regex.Pattern}, which is the default.
+     */
+    public static final String JDK = JdkRegexEngine.NAME;
+
+    /**
+     * The name of the engine guaranteeing matching in time linear to the input length.
+     */
+    public static final String LINEAR = LinearRegexEngine.NAME;
+
+    private RegexEngines() {}
+
+    /**
+     * Resolves the engine with the given name.
+     *
+     * @param name either {@value #JDK} or {@value #LINEAR}, case-insensitive; if blank, the {@value #JDK} engine is
+     *             returned
+     * @return the engine
+     * @throws IllegalArgumentException if no built-in engine has the given name
+     */
+    public static RegexEngine getEngine(final @Nullable String name) {
+        if (Strings.isBlank(name) || JDK.equalsIgnoreCase(name.trim())) {
+            return JdkRegexEngine.INSTANCE;
+        }
+        final String trimmedName = name.trim();
+        if (LINEAR.equalsIgnoreCase(trimmedName)) {
+            return LinearRegexEngine.INSTANCE;
+        }
+        throw new IllegalArgumentException(
+                "Unknown regular expression engine: `" + name + "`, expecting `" + JDK + "` or `" + LINEAR + "`");
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util.internal.regex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A replacement string compiled into literal and group reference segments.
+ * <p>
+ * Instances are obtained through {@link CompiledRegex#compileReplacement(String)} and can only be used with the
+ * {@link CompiledRegex} that created them.
+ * </p>
+ *
+ * @since 2.27.0
+ */
+public final class Replacement {
+
+    /**
+     * Provides access to the group boundaries of the last match.
+     */
+    interface Groups {
+
+        int start(int group);
+
+        int end(int group);
+
+        int start(String name);
+
+        int end(String name);
+    }
+
+    private final String source;
+
+    private final String[] literals;
+
+    private final int[] groupIndices;
+
+    private final @Nullable String[] groupNames;
+
+    /** If not {@code null}, the first alternative whose selector group participated in the match is applied. */
+    private final Replacement @Nullable [] alternatives;
+
+    private final int @Nullable [] selectorGroups;
+
+    private Replacement(
+            final String source,
+            final String[] literals,
+            final int[] groupIndices,
+            final @Nullable String[] groupNames) {
+        this.source = source;
+        this.literals = literals;
+        this.groupIndices = groupIndices;
+        this.groupNames = groupNames;
+        this.alternatives = null;
+        this.selectorGroups = null;
+    }
+
+    private Replacement(final String source, final Replacement[] alternatives, final int[] selectorGroups) {
+        this.source = source;
+        this.literals = new String[0];
+        this.groupIndices = new int[0];
+        this.groupNames = new String[0];
+        this.alternatives = alternatives;
+        this.selectorGroups = selectorGroups;
+    }
+
+    /**
+     * Creates a replacement emitting the given text as is.
+     *
+     * @param text a text
+     * @return the replacement
+     */
+    static Replacement literal(final String text) {
+        Objects.requireNonNull(text, "text");
+        return new Replacement(text, new String[] {text}, new int[] {-1}, new String[] {null});
+    }
+
+    /**
+     * Creates a replacement choosing among the given alternatives by the groups that participated in the match.
+     *
+     * @param alternatives the replacements to choose from
+     * @param selectorGroups the group index per alternative, the first alternative whose group participated in the
+     *                       match is applied
+     * @return the replacement
+     */
+    static Replacement select(final Replacement[] alternatives, final int[] selectorGroups) {
+        if (alternatives.length != selectorGroups.length) {
+            throw new IllegalArgumentException("was expecting a selector group per alternative");
+        }
+        final StringBuilder source = new StringBuilder();
+        for (final Replacement alternative : alternatives) {
+            source.append(source.length() == 0 ? "" : "|").append(alternative.source);
+        }
+        return new Replacement(source.toString(), alternatives.clone(), selectorGroups.clone());
+    }
+
+    /**
+     * Creates a copy of this replacement with group references shifted by the given offset.
+     * <p>
+     * This is used to adapt the replacement of an expression to the group numbering of an enclosing expression
+     * wrapping it into the group with the given index, e.g., {@code $0} becomes a reference to the wrapping group.
+     * </p>
+     *
+     * @param offset the index of the wrapping group
+     * @return the shifted replacement
+     */
+    Replacement shift(final int offset) {
+        if (alternatives != null) {
+            throw new IllegalStateException("cannot shift a selecting replacement");
+        }
+        final int[] shiftedGroupIndices = new int[groupIndices.length];
+        for (int segmentIndex = 0; segmentIndex < groupIndices.length; segmentIndex++) {
+            final int groupIndex = groupIndices[segmentIndex];
+            if (groupNames[segmentIndex] != null) {
+                throw new IllegalStateException("cannot shift unresolved group names: `" + source + "`");
+            }
+            shiftedGroupIndices[segmentIndex] = groupIndex < 0 ? groupIndex : groupIndex + offset;
+        }
+        return new Replacement(source, literals, shiftedGroupIndices, groupNames);
+    }
+
+    /**
+     * Parses the given replacement.
+     *
+     * @param replacement a replacement string
+     * @param groupCount the number of capturing groups of the expression
+     * @param groupNameResolver if not {@code null}, used to resolve group names to indices eagerly; otherwise, group
+     *                          names are resolved at match time
+     * @return the compiled replacement
+     */
+    static Replacement parse(
+            final String replacement,
+            final int groupCount,
+            final @Nullable ToIntFunction<String> groupNameResolver) {
+        Objects.requireNonNull(replacement, "replacement");
+        final List<String> literals = new ArrayList<>();
+        final List<Integer> groupIndices = new ArrayList<>();
+        final List<@Nullable String> groupNames = new ArrayList<>();
+        final StringBuilder buffer = new StringBuilder();
+        final int length = replacement.length();
+        int cursor = 0;
+        while (cursor < length) {
+            final char c = replacement.charAt(cursor);
+            if (c == '\\') {
+                if (++cursor >= length) {
+                    throw new IllegalArgumentException("character to be escaped is missing: `" + replacement + "`");
+                }
+                buffer.append(replacement.charAt(cursor++));
+            } else if (c == '$') {
+                if (++cursor >= length) {
+                    throw new IllegalArgumentException("illegal group reference: `" + replacement + "`");
+                }
+                int groupIndex = -1;
+                String groupName = null;
+                if (replacement.charAt(cursor) == '{') {
+                    final int nameEnd = replacement.indexOf('}', ++cursor);
+                    if (nameEnd < 0 || nameEnd == cursor) {
+                        throw new IllegalArgumentException("named capturing group is malformed: `" + replacement + "`");
+                    }
+                    final String name = replacement.substring(cursor, nameEnd);
+                    cursor = nameEnd + 1;
+                    if (groupNameResolver != null) {
+                        groupIndex = groupNameResolver.applyAsInt(name);
+                        if (groupIndex < 0) {
+                            throw new IllegalArgumentException("no group with name `" + name + "`");
+                        }
+                    } else {
+                        groupName = name;
+                    }
+                } else {
+                    // The first digit is always part of the reference, following digits only if they form a valid one
+                    groupIndex = replacement.charAt(cursor++) - '0';
+                    if (groupIndex < 0 || groupIndex > 9) {
+                        throw new IllegalArgumentException("illegal group reference: `" + replacement + "`");
+                    }
+                    if (groupIndex > groupCount) {
+                        throw new IllegalArgumentException("no group " + groupIndex);
+                    }
+                    while (cursor < length) {
+                        final int digit = replacement.charAt(cursor) - '0';
+                        if (digit < 0 || digit > 9) {
+                            break;
+                        }
+                        final int candidate = groupIndex * 10 + digit;
+                        if (candidate > groupCount) {
+                            break;
+                        }
+                        groupIndex = candidate;
+                        cursor++;
+                    }
+                }
+                literals.add(buffer.toString());
+                groupIndices.add(groupIndex);
+                groupNames.add(groupName);
+                buffer.setLength(0);
+            } else {
+                buffer.append(c);
+                cursor++;
+            }
+        }
+        if (buffer.length() > 0 || literals.isEmpty()) {
+            literals.add(buffer.toString());
+            groupIndices.add(-1);
+            groupNames.add(null);
+        }
+        return new Replacement(
+                replacement,
+                literals.toArray(new String[0]),
+                groupIndices.stream().mapToInt(Integer::intValue).toArray(),
+                groupNames.toArray(new String[0]));
+    }
+
+    /**
+     * Appends the replacement of the last match to the given output.
+     *
+     * @param input the input the match was performed on
+     * @param groups the boundaries of the last match
+     * @param output the buffer to append to
+     */
+    void appendTo(final CharSequence input, final Groups groups, final StringBuilder output) {
+        if (alternatives != null && selectorGroups != null) {
+            for (int alternativeIndex = 0; alternativeIndex < alternatives.length; alternativeIndex++) {
+                if (groups.start(selectorGroups[alternativeIndex]) >= 0) {
+                    alternatives[alternativeIndex].appendTo(input, groups, output);
+                    return;
+                }
+            }
+            return;
+        }
+        for (int segmentIndex = 0; segmentIndex < literals.length; segmentIndex++) {
+            output.append(literals[segmentIndex]);
+            final int groupIndex = groupIndices[segmentIndex];
+            final String groupName = groupNames[segmentIndex];
+            final int start;
+            final int end;
+            if (groupIndex >= 0) {
+                start = groups.start(groupIndex);
+                end = groups.end(groupIndex);
+            } else if (groupName != null) {
+                start = groups.start(groupName);
+                end = groups.end(groupName);
+            } else {
+                continue;
+            }
+            // Groups that did not participate in the match are skipped
+            if (start >= 0) {
+                output.append(input, start, end);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util.internal.throwable;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.apache.logging.log4j.core.util.Constants;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Counts the occurrences of {@link Throwable}s with identical stack traces within a time window.
+ * <p>
+ * Layouts employ it to render the stack trace of a {@link Throwable} only on its first occurrence in a window, and a
+ * short reference (e.g., {@code [same as #a1b2c3, seen 4,211 times]}) on the subsequent ones.
+ * </p>
+ * <p>
+ * Throwables are identified by a 64-bit fingerprint of the class names and stack trace elements of the throwable,
+ * its causes, and its suppressed throwables.
+ * Messages are not a part of the fingerprint.
+ * </p>
+ * <p>
+ * Windows are tracked in a bounded direct-mapped table, that is, a fingerprint evicts the one occupying the same slot.
+ * This keeps the footprint bounded, at the expense of rendering colliding stack traces more often than necessary.
+ * </p>
+ *
+ * @since 2.27.0
+ */
+public final class ThrowableDeduplicator {
+
+    /**
+     * The default window length in seconds.
+     */
+    public static final int DEFAULT_WINDOW_SECONDS = 60;
+
+    private static final int TABLE_SIZE = 1024;
+
+    /**
+     * The maximal number of throwables in a visited set that is recycled, since an {@link IdentityHashMap} never
+     * shrinks.
+     */
+    private static final int MAX_RECYCLED_VISITED_SET_SIZE = 64;
+
+    private static final @Nullable ThreadLocal<Set<Throwable>> RECYCLED_VISITED_SETS =
+            Constants.ENABLE_THREADLOCALS ? new ThreadLocal<>() : null;
+
+    private final long windowMillis;
+
+    private final AtomicReferenceArray<Window> windows = new AtomicReferenceArray<>(TABLE_SIZE);
+
+    private ThrowableDeduplicator(final long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * @param windowSeconds the window length in seconds
+     * @return a new instance
+     * @throws IllegalArgumentException if {@code windowSeconds} is not positive
+     */
+    public static ThrowableDeduplicator ofWindowSeconds(final int windowSeconds) {
+        if (windowSeconds <= 0) {
+            throw new IllegalArgumentException("was expecting a positive window, found: " + windowSeconds);
+        }
+        return new ThrowableDeduplicator(windowSeconds * 1_000L);
+    }
+
+    /**
+     * Computes the fingerprint of the stack trace of the given {@link Throwable}, its causes, and its suppressed
+     * throwables.
+     *
+     * @param throwable a throwable
+     * @return the fingerprint
+     */
+    public static long fingerprint(final Throwable throwable) {
+        final Set<Throwable> visitedThrowables = acquireVisitedSet();
+        try {
+            return fingerprint(0, throwable, visitedThrowables);
+        } finally {
+            releaseVisitedSet(visitedThrowables);
+        }
+    }
+
+    private static Set<Throwable> acquireVisitedSet() {
+        if (RECYCLED_VISITED_SETS != null) {
+            final Set<Throwable> visitedThrowables = RECYCLED_VISITED_SETS.get();
+            if (visitedThrowables != null) {
+                // A recursive call on the same thread, e.g., from an overridden `getCause()`, gets a new set
+                RECYCLED_VISITED_SETS.set(null);
+                return visitedThrowables;
+            }
+        }
+        // `IdentityHashMap` is needed for exceptions with identity malfunction.
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    private static void releaseVisitedSet(final Set<Throwable> visitedThrowables) {
+        if (RECYCLED_VISITED_SETS != null && visitedThrowables.size() <= MAX_RECYCLED_VISITED_SET_SIZE) {
+            visitedThrowables.clear();
+            RECYCLED_VISITED_SETS.set(visitedThrowables);
+        }
+    }
+
+    private static long fingerprint(long hash, final Throwable throwable, final Set<Throwable> visitedThrowables) {
+        if (!visitedThrowables.add(throwable)) {
+            return mix(hash, -1);
+        }
+        hash = mix(hash, throwable.getClass().getName().hashCode());
+        final StackTraceElement[] stackTrace = throwable.getStackTrace();
+        hash = mix(hash, stackTrace.length);
+        for (final StackTraceElement stackTraceElement : stackTrace) {
+            hash = mix(hash, stackTraceElement.hashCode());
+        }
+        for (final Throwable suppressed : throwable.getSuppressed()) {
+            hash = fingerprint(mix(hash, 'S'), suppressed, visitedThrowables);
+        }
+        final Throwable cause = throwable.getCause();
+        if (cause != null) {
+            hash = fingerprint(mix(hash, 'C'), cause, visitedThrowables);
+        }
+        return hash;
+    }
+
+    private static long mix(final long hash, final int value) {
+        final long mixed = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        return mixed ^ (mixed >>> 29);
+    }
+
+    /**
+     * Registers an occurrence of the stack trace with the given fingerprint.
+     *
+     * @param fingerprint a fingerprint obtained from {@link #fingerprint(Throwable)}
+     * @param timeMillis the time of the occurrence, e.g., the timestamp of the log event
+     * @return the number of occurrences in the current window, including this one; that is, {@code 1} if this is the
+     * first occurrence and the stack trace should be rendered in full
+     */
+    public long register(final long fingerprint, final long timeMillis) {
+        final int index = (int) (fingerprint ^ (fingerprint >>> 32)) & (TABLE_SIZE - 1);
+        @Nullable Window newWindow = null;
+        for (; ; ) {
+            final @Nullable Window window = windows.get(index);
+            // Use the absolute difference to not get stuck with a window started in the future, e.g., due to clock
+            // adjustments
+            if (window != null
+                    && window.fingerprint == fingerprint
+                    && Math.abs(timeMillis - window.startMillis) < windowMillis) {
+                return window.occurrenceCount.incrementAndGet();
+            }
+            if (newWindow == null) {
+                newWindow = new Window(fingerprint, timeMillis);
+            }
+            if (windows.compareAndSet(index, window, newWindow)) {
+                return 1;
+            }
+        }
+    }
+
+    /**
+     * Appends the short identifier of the given fingerprint, e.g., {@code #a1b2c3}.
+     *
+     * @param buffer the buffer to append to
+     * @param fingerprint a fingerprint obtained from {@link #fingerprint(Throwable)}
+     */
+    public static void appendId(final StringBuilder buffer, final long fingerprint) {
+        buffer.append('#');
+        for (int shift = 20; shift >= 0; shift -= 4) {
+            buffer.append(Character.forDigit((int) (fingerprint >>> shift) & 0xF, 16));
+        }
+    }
+
+    /**
+     * Appends the reference to a previously rendered stack trace, e.g., {@code [same as #a1b2c3, seen 4,211 times]}.
+     *
+     * @param buffer the buffer to append to
+     * @param fingerprint a fingerprint obtained from {@link #fingerprint(Throwable)}
+     * @param occurrenceCount the number of occurrences obtained from {@link #register(long, long)}
+     */
+    public static void appendReference(final StringBuilder buffer, final long fingerprint, final long occurrenceCount) {
+        buffer.append("[same as ");
+        appendId(buffer, fingerprint);
+        buffer.append(", seen ");
+        appendGrouped(buffer, occurrenceCount);
+        buffer.append(" times]");
+    }
+
+    private static void appendGrouped(final StringBuilder buffer, final long number) {
+        if (number < 1_000) {
+            buffer.append(number);
+            return;
+        }
+        appendGrouped(buffer, number / 1_000);
+        buffer.append(',');
+        final int remainder = (int) (number % 1_000);
+        if (remainder < 100) {
+            buffer.append('0');
+        }
+        if (remainder < 10) {
+            buffer.append('0');
+        }
+        buffer.append(remainder);
+    }
+
+    private static final class Window {
+
+        private final long fingerprint;
+
+        private final long startMillis;
+
+        private final AtomicLong occurrenceCount = new AtomicLong(1);
+
+        private Window(final long fingerprint, final long startMillis) {
+            this.fingerprint = fingerprint;
+            this.startMillis = startMillis;
+        }
+    }
+}
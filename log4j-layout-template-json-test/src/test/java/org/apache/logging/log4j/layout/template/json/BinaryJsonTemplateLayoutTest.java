@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.layout.template.json;
+
+import static org.apache.logging.log4j.layout.template.json.TestHelpers.CONFIGURATION;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.layout.template.json.util.BinaryJsonEncoder;
+import org.apache.logging.log4j.layout.template.json.util.JsonWriter;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class BinaryJsonTemplateLayoutTest {
+
+    @Test
+    void should_write_CBOR_frames() {
+
+        // Create the layout.
+        final BinaryJsonTemplateLayout layout = BinaryJsonTemplateLayout.newBuilder()
+                .setFormat(BinaryJsonEncoder.Format.CBOR)
+                .setJsonTemplateLayout(JsonTemplateLayout.newBuilder()
+                        .setConfiguration(CONFIGURATION)
+                        .setEventTemplate("{\"message\": {\"$resolver\": \"message\"}}")
+                        .build())
+                .build();
+        assertThat(layout.getContentType()).isEqualTo("application/cbor");
+
+        // Create the log event.
+        final LogEvent logEvent = Log4jLogEvent.newBuilder()
+                .setLoggerName(BinaryJsonTemplateLayoutTest.class.getSimpleName())
+                .setMessage(new SimpleMessage("foo"))
+                .build();
+
+        // Check the toByteArray() output.
+        final byte[] expectedBytes = {
+            0, 0, 0, 14, // frame length
+            (byte) 0xBF, // object start
+            0x67, 'm', 'e', 's', 's', 'a', 'g', 'e', // "message"
+            0x63, 'f', 'o', 'o', // "foo"
+            (byte) 0xFF // object end
+        };
+        assertThat(layout.toByteArray(logEvent)).isEqualTo(expectedBytes);
+        assertThat(layout.toSerializable(logEvent)).isEqualTo(expectedBytes);
+
+        // Check the encode() output.
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final ByteBufferDestination byteBufferDestination = new ByteBufferDestination() {
+
+            @Override
+            public ByteBuffer getByteBuffer() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public ByteBuffer drain(final ByteBuffer ignored) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void writeBytes(final ByteBuffer data) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void writeBytes(final byte[] buffer, final int offset, final int length) {
+                outputStream.write(buffer, offset, length);
+            }
+        };
+        layout.encode(logEvent, byteBufferDestination);
+        assertThat(outputStream.toByteArray()).isEqualTo(expectedBytes);
+    }
+
+    @ParameterizedTest
+    @EnumSource(BinaryJsonEncoder.Format.class)
+    void should_match_transcoded_JSON(final BinaryJsonEncoder.Format format) {
+
+        // Create the layouts.
+        final JsonTemplateLayout jsonLayout = JsonTemplateLayout.newBuilder()
+                .setConfiguration(CONFIGURATION)
+                .setEventTemplateUri("classpath:EcsLayout.json")
+                .setStackTraceEnabled(true)
+                .build();
+        final BinaryJsonTemplateLayout binaryLayout = BinaryJsonTemplateLayout.newBuilder()
+                .setFormat(format)
+                .setJsonTemplateLayout(jsonLayout)
+                .build();
+
+        // Compare the binary output with the transcoded JSON output.
+        final JsonWriter transcoder = JsonWriter.newBuilder()
+                .setMaxStringLength(JsonTemplateLayoutDefaults.getMaxStringLength())
+                .setTruncatedStringSuffix(JsonTemplateLayoutDefaults.getTruncatedStringSuffix())
+                .setBinaryFormat(format)
+                .build();
+        final List<LogEvent> logEvents = LogEventFixture.createFullLogEvents(10);
+        for (final LogEvent logEvent : logEvents) {
+            transcoder.writeRawString(jsonLayout.toSerializable(logEvent));
+            final int expectedFrameLength = transcoder.completeBinaryFrame();
+            final byte[] expectedFrame = Arrays.copyOf(transcoder.getBinaryBuffer(), expectedFrameLength);
+            transcoder.close();
+            assertThat(binaryLayout.toByteArray(logEvent)).isEqualTo(expectedFrame);
+        }
+    }
+}
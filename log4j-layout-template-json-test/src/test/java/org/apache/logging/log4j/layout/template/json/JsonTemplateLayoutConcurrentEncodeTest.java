@@ -64,7 +64,9 @@ class JsonTemplateLayoutConcurrentEncodeTest {
                 "dummy",
                 "threadLocal",
                 "queue:supplier=java.util.concurrent.ArrayBlockingQueue.new",
-                "queue:supplier=org.jctools.queues.MpmcArrayQueue.new"
+                "queue:supplier=org.jctools.queues.MpmcArrayQueue.new",
+                "striped",
+                "striped:stripes=2,stripeCapacity=1"
             })
     void test_concurrent_encode(final String recyclerFactory) throws IOException {
         final Path appenderFilepath = createAppenderFilepath(recyclerFactory);
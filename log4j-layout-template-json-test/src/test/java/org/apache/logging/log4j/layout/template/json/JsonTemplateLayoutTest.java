@@ -37,6 +37,7 @@ import java.net.ServerSocket;
 import java.net.Socket;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.temporal.ChronoField;
 import java.time.temporal.TemporalAccessor;
@@ -66,6 +67,7 @@ import org.apache.logging.log4j.core.lookup.MainMapLookup;
 import org.apache.logging.log4j.core.net.Severity;
 import org.apache.logging.log4j.core.test.AvailablePortFinder;
 import org.apache.logging.log4j.core.time.MutableInstant;
+import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.layout.template.json.JsonTemplateLayout.EventTemplateAdditionalField;
 import org.apache.logging.log4j.layout.template.json.resolver.EventResolver;
 import org.apache.logging.log4j.layout.template.json.resolver.EventResolverContext;
@@ -74,6 +76,7 @@ import org.apache.logging.log4j.layout.template.json.resolver.TemplateResolver;
 import org.apache.logging.log4j.layout.template.json.resolver.TemplateResolverConfig;
 import org.apache.logging.log4j.layout.template.json.resolver.TemplateResolverFactory;
 import org.apache.logging.log4j.layout.template.json.util.JsonWriter;
+import org.apache.logging.log4j.layout.template.json.util.ThreadLocalRecyclerFactory;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.MessageFactory;
 import org.apache.logging.log4j.message.ObjectMessage;
@@ -81,6 +84,7 @@ import org.apache.logging.log4j.message.ParameterizedMessageFactory;
 import org.apache.logging.log4j.message.ReusableMessageFactory;
 import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.message.StringMapMessage;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
 import org.apache.logging.log4j.util.Strings;
 import org.junit.jupiter.api.Test;
 
@@ -671,6 +675,228 @@ class JsonTemplateLayoutTest {
         assertThat(toByteArrayOutput).isEqualTo(encodeOutput);
     }
 
+    @Test
+    void test_UTF8_encode_output() {
+
+        // Create the layout.
+        final JsonTemplateLayout layout = JsonTemplateLayout.newBuilder()
+                .setConfiguration(CONFIGURATION)
+                .setCharset(StandardCharsets.UTF_8)
+                .setEventTemplate("{\"message\": {\"$resolver\": \"message\"}}")
+                .setMaxStringLength(100_000)
+                .build();
+
+        // Create a message mixing 1-, 2-, 3-, and 4-byte characters, and an unpaired surrogate.
+        // The message is repeated to exceed the encoder buffer and trigger chunked writes.
+        final String messageChunk = "ascii, \u00e9t\u00e9, \u20ac, \ud83d\ude00, \ud83d, ";
+        final StringBuilder messageBuilder = new StringBuilder();
+        while (messageBuilder.length() < 3 * 8 * 1024) {
+            messageBuilder.append(messageChunk);
+        }
+        final LogEvent logEvent = Log4jLogEvent.newBuilder()
+                .setLoggerName(LOGGER_NAME)
+                .setMessage(new SimpleMessage(messageBuilder.toString()))
+                .build();
+
+        // Get encode() output.
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final ByteBufferDestination byteBufferDestination = new ByteBufferDestination() {
+
+            @Override
+            public ByteBuffer getByteBuffer() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public ByteBuffer drain(final ByteBuffer ignored) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void writeBytes(final ByteBuffer data) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void writeBytes(final byte[] buffer, final int offset, final int length) {
+                outputStream.write(buffer, offset, length);
+            }
+        };
+        layout.encode(logEvent, byteBufferDestination);
+
+        // Compare the output with the one of `String#getBytes()`.
+        final byte[] expectedBytes = layout.toSerializable(logEvent).getBytes(StandardCharsets.UTF_8);
+        assertThat(outputStream.toByteArray()).isEqualTo(expectedBytes);
+    }
+
+    @Test
+    void test_chunkedEncodeThreshold() throws Exception {
+
+        // Create the layouts.
+        final Map<String, Object> loggerNameResolver = asMap("$resolver", "logger", "field", "name");
+        final String eventTemplate = writeJson(asMap(
+                "message", asMap("$resolver", "message"),
+                "logger", asMap("$resolver", "caseConverter", "case", "upper", "input", loggerNameResolver),
+                "mdc", asMap("$resolver", "mdc", "flatten", true)));
+        final int chunkedEncodeThreshold = 1_024;
+        final JsonTemplateLayout chunkedLayout = JsonTemplateLayout.newBuilder()
+                .setConfiguration(CONFIGURATION)
+                .setCharset(StandardCharsets.UTF_8)
+                .setEventTemplate(eventTemplate)
+                .setMaxStringLength(100_000)
+                .setRecyclerFactory(ThreadLocalRecyclerFactory.getInstance())
+                .setChunkedEncodeThreshold(chunkedEncodeThreshold)
+                .build();
+        final JsonTemplateLayout layout = JsonTemplateLayout.newBuilder()
+                .setConfiguration(CONFIGURATION)
+                .setCharset(StandardCharsets.UTF_8)
+                .setEventTemplate(eventTemplate)
+                .setMaxStringLength(100_000)
+                .build();
+
+        // Create a log event with a large message and context data.
+        final String messageChunk = "ascii, \"quoted\", \u00e9t\u00e9, \ud83d\ude00, ";
+        final StringBuilder messageBuilder = new StringBuilder();
+        while (messageBuilder.length() < 64 * 1024) {
+            messageBuilder.append(messageChunk);
+        }
+        final SortedArrayStringMap contextData = new SortedArrayStringMap();
+        for (int entryIndex = 0; entryIndex < 1_000; entryIndex++) {
+            contextData.putValue("key" + entryIndex, Strings.repeat("v", 100));
+        }
+        final LogEvent logEvent = Log4jLogEvent.newBuilder()
+                .setLoggerName(LOGGER_NAME)
+                .setMessage(new SimpleMessage(messageBuilder.toString()))
+                .setContextData(contextData)
+                .build();
+
+        // Get encode() output, while tracking the writes.
+        final ChunkRecordingByteBufferDestination destination = new ChunkRecordingByteBufferDestination();
+        chunkedLayout.encode(logEvent, destination);
+
+        // Verify the output is written in bounded chunks.
+        final byte[] expectedBytes = layout.toSerializable(logEvent).getBytes(StandardCharsets.UTF_8);
+        assertThat(destination.getBytes()).isEqualTo(expectedBytes);
+        assertThat(destination.chunkLengths).hasSizeGreaterThan(1);
+        assertThat(destination.chunkLengths).allSatisfy(chunkLength -> assertThat(chunkLength)
+                .isLessThanOrEqualTo(Constants.ENCODER_BYTE_BUFFER_SIZE));
+
+        // Verify a small event is written at once.
+        final LogEvent smallLogEvent = Log4jLogEvent.newBuilder()
+                .setLoggerName(LOGGER_NAME)
+                .setMessage(new SimpleMessage("message"))
+                .build();
+        final ChunkRecordingByteBufferDestination smallDestination = new ChunkRecordingByteBufferDestination();
+        chunkedLayout.encode(smallLogEvent, smallDestination);
+        final byte[] expectedSmallBytes = layout.toSerializable(smallLogEvent).getBytes(StandardCharsets.UTF_8);
+        assertThat(smallDestination.getBytes()).isEqualTo(expectedSmallBytes);
+        assertThat(smallDestination.chunkLengths).hasSize(1);
+    }
+
+    @Test
+    void test_chunkedEncodeThreshold_with_failing_resolver() {
+
+        // Create the layout rendering the message after large context data.
+        final String eventTemplate = writeJson(asMap(
+                "mdc", asMap("$resolver", "mdc", "flatten", true),
+                "message", asMap("$resolver", "message")));
+        final JsonTemplateLayout layout = JsonTemplateLayout.newBuilder()
+                .setConfiguration(CONFIGURATION)
+                .setCharset(StandardCharsets.UTF_8)
+                .setEventTemplate(eventTemplate)
+                .setRecyclerFactory(ThreadLocalRecyclerFactory.getInstance())
+                .setChunkedEncodeThreshold(1_024)
+                .build();
+
+        // Create a failing message.
+        final Message failingMessage = new Message() {
+
+            @Override
+            public String getFormattedMessage() {
+                throw new IllegalStateException("failing message");
+            }
+
+            @Override
+            public Object[] getParameters() {
+                return null;
+            }
+
+            @Override
+            public Throwable getThrowable() {
+                return null;
+            }
+        };
+
+        // Verify that a failing event fitting into the chunk buffer writes nothing.
+        final LogEvent smallFailingLogEvent = Log4jLogEvent.newBuilder()
+                .setLoggerName(LOGGER_NAME)
+                .setMessage(failingMessage)
+                .build();
+        final ChunkRecordingByteBufferDestination destination = new ChunkRecordingByteBufferDestination();
+        assertThatThrownBy(() -> layout.encode(smallFailingLogEvent, destination))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("failing message");
+        assertThat(destination.chunkLengths).isEmpty();
+
+        // Verify that a failing event exceeding the chunk buffer is terminated by the event delimiter.
+        final SortedArrayStringMap contextData = new SortedArrayStringMap();
+        for (int entryIndex = 0; entryIndex < 100; entryIndex++) {
+            contextData.putValue("key" + entryIndex, Strings.repeat("v", 100));
+        }
+        final LogEvent largeFailingLogEvent = Log4jLogEvent.newBuilder()
+                .setLoggerName(LOGGER_NAME)
+                .setMessage(failingMessage)
+                .setContextData(contextData)
+                .build();
+        assertThatThrownBy(() -> layout.encode(largeFailingLogEvent, destination))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("failing message");
+        final String failedOutput = new String(destination.getBytes(), StandardCharsets.UTF_8);
+        assertThat(failedOutput).startsWith("{\"key0\":").endsWith(System.lineSeparator());
+
+        // Verify that the succeeding event is intact.
+        final LogEvent logEvent = Log4jLogEvent.newBuilder()
+                .setLoggerName(LOGGER_NAME)
+                .setMessage(new SimpleMessage("message"))
+                .setContextData(contextData)
+                .build();
+        layout.encode(logEvent, destination);
+        final String expectedOutput = failedOutput + layout.toSerializable(logEvent);
+        assertThat(new String(destination.getBytes(), StandardCharsets.UTF_8)).isEqualTo(expectedOutput);
+    }
+
+    private static final class ChunkRecordingByteBufferDestination implements ByteBufferDestination {
+
+        private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        private final List<Integer> chunkLengths = new ArrayList<>();
+
+        @Override
+        public ByteBuffer getByteBuffer() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ByteBuffer drain(final ByteBuffer ignored) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void writeBytes(final ByteBuffer data) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void writeBytes(final byte[] buffer, final int offset, final int length) {
+            chunkLengths.add(length);
+            outputStream.write(buffer, offset, length);
+        }
+
+        private byte[] getBytes() {
+            return outputStream.toByteArray();
+        }
+    }
+
     @Test
     void test_maxStringLength() {
 
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.layout.template.json.resolver;
+
+import static org.apache.logging.log4j.layout.template.json.TestHelpers.CONFIGURATION;
+import static org.apache.logging.log4j.layout.template.json.TestHelpers.asMap;
+import static org.apache.logging.log4j.layout.template.json.TestHelpers.usingSerializedLogEventAccessor;
+import static org.apache.logging.log4j.layout.template.json.TestHelpers.writeJson;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.layout.template.json.JsonTemplateLayout;
+import org.junit.jupiter.api.Test;
+
+class ExceptionResolverTest {
+
+    private static JsonTemplateLayout createLayout(final Object stackTraceConfig) {
+        final String eventTemplate = writeJson(asMap(
+                "stackTrace",
+                asMap("$resolver", "exception", "field", "stackTrace", "stackTrace", stackTraceConfig)));
+        return JsonTemplateLayout.newBuilder()
+                .setConfiguration(CONFIGURATION)
+                .setEventTemplate(eventTemplate)
+                .setStackTraceEnabled(true)
+                .build();
+    }
+
+    @Test
+    void deduplicated_stack_trace_should_reference_the_first_occurrence() {
+
+        // Create the layout
+        final JsonTemplateLayout layout =
+                createLayout(asMap("stringified", true, "deduplication", asMap("windowSeconds", 60)));
+
+        // Verify the first occurrence
+        final Exception exception = new IllegalStateException("foo");
+        final String fullStackTrace = stackTrace(exception);
+        final AtomicReference<String> idRef = new AtomicReference<>();
+        usingSerializedLogEventAccessor(layout, createLogEvent(exception, 1_000_000), accessor -> {
+            final String stackTrace = accessor.getString("stackTrace");
+            assertThat(stackTrace).matches("(?s)\\[#[0-9a-f]{6}] .*").endsWith(fullStackTrace);
+            idRef.set(stackTrace.substring(1, 8));
+        });
+        final String id = idRef.get();
+
+        // Verify the subsequent occurrences
+        for (int occurrenceIndex = 2; occurrenceIndex < 5; occurrenceIndex++) {
+            final String expectedStackTrace = "[same as " + id + ", seen " + occurrenceIndex + " times]";
+            usingSerializedLogEventAccessor(layout, createLogEvent(exception, 1_059_999), accessor -> assertThat(
+                            accessor.getString("stackTrace"))
+                    .isEqualTo(expectedStackTrace));
+        }
+
+        // Verify the occurrence after the window has expired
+        usingSerializedLogEventAccessor(layout, createLogEvent(exception, 1_060_000), accessor -> assertThat(
+                        accessor.getString("stackTrace"))
+                .isEqualTo("[" + id + "] " + fullStackTrace));
+    }
+
+    @Test
+    void deduplication_should_require_stringified_stack_traces() {
+        assertThatThrownBy(() -> createLayout(asMap("deduplication", true)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("stack trace deduplication requires stringified stack traces");
+    }
+
+    @Test
+    void non_positive_deduplication_window_should_fail() {
+        assertThatThrownBy(() ->
+                        createLayout(asMap("stringified", true, "deduplication", asMap("windowSeconds", 0))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("was expecting a positive deduplication window");
+    }
+
+    private static LogEvent createLogEvent(final Throwable throwable, final long timeMillis) {
+        return Log4jLogEvent.newBuilder()
+                .setThrown(throwable)
+                .setTimeMillis(timeMillis)
+                .build();
+    }
+
+    private static String stackTrace(final Throwable throwable) {
+        final StringWriter writer = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(writer));
+        return writer.toString();
+    }
+}
@@ -23,6 +23,7 @@ import static org.apache.logging.log4j.layout.template.json.TestHelpers.writeJso
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -36,9 +37,11 @@ import org.apache.logging.log4j.core.test.junit.LoggerContextSource;
 import org.apache.logging.log4j.core.test.junit.Named;
 import org.apache.logging.log4j.layout.template.json.JsonTemplateLayout;
 import org.apache.logging.log4j.layout.template.json.util.JsonReader;
+import org.apache.logging.log4j.message.MapMessage;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.MultiformatMessage;
 import org.apache.logging.log4j.message.ObjectMessage;
+import org.apache.logging.log4j.message.ReusableObjectMessage;
 import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.message.StringMapMessage;
 import org.assertj.core.api.Assertions;
@@ -203,6 +206,78 @@ class MessageResolverTest {
         });
     }
 
+    @Test
+    void test_MapMessage_primitive_values() {
+
+        // Create the event template.
+        final String eventTemplate = writeJson(asMap("message", asMap("$resolver", "message")));
+
+        // Create the layout.
+        final JsonTemplateLayout layout = JsonTemplateLayout.newBuilder()
+                .setConfiguration(CONFIGURATION)
+                .setEventTemplate(eventTemplate)
+                .build();
+
+        // Create the log event with a MapMessage containing primitives.
+        final MapMessage<?, ?> mapMessage = new MapMessage<>()
+                .with("boolean", true)
+                .with("byte", (byte) 1)
+                .with("char", '"')
+                .with("double", 2.5D)
+                .with("float", 3.5F)
+                .with("int", 4)
+                .with("long", Long.MAX_VALUE)
+                .with("short", (short) 5)
+                .with("nan", Double.NaN);
+        final LogEvent logEvent = Log4jLogEvent.newBuilder()
+                .setMessage(mapMessage)
+                .setTimeMillis(System.currentTimeMillis())
+                .build();
+
+        // Check the serialized event.
+        final String expectedSerializedMessage = "{"
+                + "\"boolean\":true,"
+                + "\"byte\":1,"
+                + "\"char\":\"\\\"\","
+                + "\"double\":2.5,"
+                + "\"float\":3.5,"
+                + "\"int\":4,"
+                + "\"long\":" + Long.MAX_VALUE + ","
+                + "\"nan\":\"NaN\","
+                + "\"short\":5"
+                + "}";
+        assertThat(layout.toSerializable(logEvent))
+                .isEqualTo("{\"message\":" + expectedSerializedMessage + "}" + System.lineSeparator());
+    }
+
+    @Test
+    void test_ReusableObjectMessage() {
+
+        // Create the log event.
+        final Map<String, Object> attachment = new LinkedHashMap<>();
+        attachment.put("id", 1);
+        attachment.put("tags", Arrays.asList("foo", "bar"));
+        final ReusableObjectMessage message = new ReusableObjectMessage();
+        message.set(attachment);
+        final LogEvent logEvent = Log4jLogEvent.newBuilder().setMessage(message).build();
+
+        // Create the event template.
+        final String eventTemplate = writeJson(asMap("message", asMap("$resolver", "message")));
+
+        // Create the layout.
+        final JsonTemplateLayout layout = JsonTemplateLayout.newBuilder()
+                .setConfiguration(CONFIGURATION)
+                .setEventTemplate(eventTemplate)
+                .build();
+
+        // Check the serialized event.
+        usingSerializedLogEventAccessor(layout, logEvent, accessor -> {
+            assertThat(accessor.getInteger(new String[] {"message", "id"})).isEqualTo(1);
+            assertThat(accessor.getList(new String[] {"message", "tags"}, String.class))
+                    .containsExactly("foo", "bar");
+        });
+    }
+
     @Test
     void test_MultiformatMessage() {
 
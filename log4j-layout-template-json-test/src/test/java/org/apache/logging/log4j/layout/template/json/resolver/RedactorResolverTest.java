@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.layout.template.json.resolver;
+
+import static org.apache.logging.log4j.layout.template.json.TestHelpers.CONFIGURATION;
+import static org.apache.logging.log4j.layout.template.json.TestHelpers.asMap;
+import static org.apache.logging.log4j.layout.template.json.TestHelpers.readJson;
+import static org.apache.logging.log4j.layout.template.json.TestHelpers.usingSerializedLogEventAccessor;
+import static org.apache.logging.log4j.layout.template.json.TestHelpers.writeJson;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.layout.template.json.JsonTemplateLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+
+class RedactorResolverTest {
+
+    private static final List<Object> RULES = Arrays.asList(
+            asMap("regex", "(password=)\\S+", "replacement", "$1***"),
+            asMap("regex", "\\b(\\d{4})\\d{8}(\\d{4})\\b", "replacement", "$1********$2"),
+            asMap("literal", "s3cr3t", "replacement", "***"));
+
+    private static JsonTemplateLayout createLayout(final Object input, final Object rules) {
+        final String eventTemplate =
+                writeJson(asMap("output", asMap("$resolver", "redactor", "input", input, "rules", rules)));
+        return JsonTemplateLayout.newBuilder()
+                .setConfiguration(CONFIGURATION)
+                .setEventTemplate(eventTemplate)
+                .build();
+    }
+
+    @Test
+    void message_should_be_redacted() {
+        final JsonTemplateLayout layout = createLayout(asMap("$resolver", "message", "stringified", true), RULES);
+        final LogEvent logEvent = Log4jLogEvent.newBuilder()
+                .setMessage(new SimpleMessage(
+                        "\"user\"=jdoe\n\tpassword=hunter2 card=4111111111111111 token=s3cr3t\u0001"))
+                .build();
+        usingSerializedLogEventAccessor(layout, logEvent, accessor -> assertThat(accessor.getString("output"))
+                .isEqualTo("\"user\"=jdoe\n\tpassword=*** card=4111********1111 token=***\u0001"));
+    }
+
+    @Test
+    void non_string_values_should_be_passed_as_is() {
+        final Object input = readJson("4111111111111111");
+        final JsonTemplateLayout layout = createLayout(input, RULES);
+        final LogEvent logEvent = Log4jLogEvent.newBuilder().build();
+        usingSerializedLogEventAccessor(layout, logEvent, accessor -> assertThat(accessor.getObject("output"))
+                .isEqualTo(input));
+    }
+
+    @Test
+    void invalid_rules_should_fail() {
+        final Object input = asMap("$resolver", "message", "stringified", true);
+        assertThatThrownBy(() -> createLayout(input, Collections.emptyList()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("was expecting rules");
+        assertThatThrownBy(() -> createLayout(
+                        input, Collections.singletonList(asMap("regex", "a", "literal", "b", "replacement", "c"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("was expecting either a regex or a literal");
+        assertThatThrownBy(() -> createLayout(
+                        input, Collections.singletonList(asMap("regex", "(?=a)", "replacement", "b"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("invalid rule");
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.layout.template.json.resolver;
+
+import static org.apache.logging.log4j.layout.template.json.TestHelpers.CONFIGURATION;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.layout.template.json.JsonTemplateLayout;
+import org.apache.logging.log4j.util.StringMap;
+import org.junit.jupiter.api.Test;
+
+class TemplateResolversTest {
+
+    @Test
+    void constant_fields_should_be_rendered_around_unresolvable_fields() {
+
+        // Create the layout.
+        final JsonTemplateLayout layout = createLayout("{"
+                + "\"a\": 1,"
+                + "\"b\": \"x\","
+                + "\"marker\": {\"$resolver\": \"marker\", \"field\": \"name\"},"
+                + "\"c\": [1, \"y\", true],"
+                + "\"d\": {\"e\": false, \"f\": {\"g\": 2}}"
+                + "}");
+
+        // Check the serialized event without a marker.
+        final LogEvent logEvent = Log4jLogEvent.newBuilder().build();
+        assertThat(layout.toSerializable(logEvent))
+                .isEqualTo("{\"a\":1,\"b\":\"x\",\"c\":[1,\"y\",true],\"d\":{\"e\":false,\"f\":{\"g\":2}}}");
+
+        // Check the serialized event with a marker.
+        final LogEvent markedLogEvent = Log4jLogEvent.newBuilder()
+                .setMarker(MarkerManager.getMarker("M"))
+                .build();
+        assertThat(layout.toSerializable(markedLogEvent))
+                .isEqualTo("{\"a\":1,\"b\":\"x\",\"marker\":\"M\","
+                        + "\"c\":[1,\"y\",true],\"d\":{\"e\":false,\"f\":{\"g\":2}}}");
+    }
+
+    @Test
+    void constant_fields_should_be_rendered_around_flattening_fields() {
+
+        // Create the layout.
+        final JsonTemplateLayout layout = createLayout("{"
+                + "\"mdc\": {\"$resolver\": \"mdc\", \"flatten\": true},"
+                + "\"a\": 1,"
+                + "\"marker\": {\"$resolver\": \"marker\", \"field\": \"name\"},"
+                + "\"b\": [\"x\", {\"$resolver\": \"marker\", \"field\": \"name\"}]"
+                + "}");
+
+        // Check the serialized event with an empty MDC.
+        final LogEvent logEvent = Log4jLogEvent.newBuilder().build();
+        assertThat(layout.toSerializable(logEvent)).isEqualTo("{\"a\":1,\"b\":[\"x\",null]}");
+
+        // Check the serialized event with a populated MDC.
+        final StringMap contextData = ContextDataFactory.createContextData();
+        contextData.putValue("k", "v");
+        final LogEvent mdcLogEvent =
+                Log4jLogEvent.newBuilder().setContextData(contextData).build();
+        assertThat(layout.toSerializable(mdcLogEvent)).isEqualTo("{\"k\":\"v\",\"a\":1,\"b\":[\"x\",null]}");
+    }
+
+    private static JsonTemplateLayout createLayout(final String eventTemplate) {
+        return JsonTemplateLayout.newBuilder()
+                .setConfiguration(CONFIGURATION)
+                .setEventTemplate(eventTemplate)
+                .setEventDelimiter("")
+                .build();
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.layout.template.json.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import org.apache.logging.log4j.layout.template.json.util.BinaryJsonEncoder.Format;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class BinaryJsonEncoderTest {
+
+    private static final String JSON = "{\"a\": [1, -1, 256, true, false, null], \"b\": \"\\u00e9\\n\", \"c\": {}}";
+
+    @ParameterizedTest
+    @EnumSource(Format.class)
+    void should_encode_written_values(final Format format) {
+        final JsonWriter writer = newWriter(format, 128);
+        // Write twice to verify the recycling.
+        for (int i = 0; i < 2; i++) {
+            writer.writeObjectStart();
+            writer.writeObjectKey("a");
+            writer.writeArrayStart();
+            writer.writeNumber(1);
+            writer.writeSeparator();
+            writer.writeNumber(-1L);
+            writer.writeSeparator();
+            writer.writeNumber((short) 256);
+            writer.writeSeparator();
+            writer.writeBoolean(true);
+            writer.writeSeparator();
+            writer.writeBoolean(false);
+            writer.writeSeparator();
+            writer.writeNull();
+            writer.writeArrayEnd();
+            writer.writeSeparator();
+            writer.writeObjectKey("b");
+            writer.writeString("é\n");
+            writer.writeSeparator();
+            writer.writeObjectKey("c");
+            writer.writeObjectStart();
+            writer.writeObjectEnd();
+            writer.writeObjectEnd();
+            assertThat(completeFrame(writer)).isEqualTo(createExpectedFrame(format));
+            writer.close();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Format.class)
+    void should_transcode_raw_JSON(final Format format) {
+        final JsonWriter writer = newWriter(format, 128);
+        writer.writeRawString(JSON);
+        assertThat(completeFrame(writer)).isEqualTo(createExpectedFrame(format));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Format.class)
+    void should_encode_raw_JSON_interleaved_with_written_values(final Format format) {
+        final JsonWriter writer = newWriter(format, 128);
+        writer.writeRawString("{\"a\": [1, -1");
+        writer.writeSeparator();
+        writer.writeNumber(256);
+        writer.writeSeparator();
+        writer.writeBoolean(true);
+        writer.writeRawString(", false, null]");
+        writer.writeSeparator();
+        writer.writeObjectKey("b");
+        writer.writeString("é\n");
+        writer.writeRawString(", \"c\": {}");
+        writer.writeObjectEnd();
+        assertThat(completeFrame(writer)).isEqualTo(createExpectedFrame(format));
+    }
+
+    private static byte[] createExpectedFrame(final Format format) {
+        final int[] expectedPayload = Format.CBOR.equals(format)
+                ? new int[] {
+                    0xBF, // object start
+                    0x61, 'a', // "a"
+                    0x9F, 0x01, 0x20, 0x19, 0x01, 0x00, 0xF5, 0xF4, 0xF6, 0xFF, // [1, -1, 256, true, false, null]
+                    0x61, 'b', // "b"
+                    0x63, 0xC3, 0xA9, '\n', // 3-byte string: e-acute and LF
+                    0x61, 'c', // "c"
+                    0xBF, 0xFF, // {}
+                    0xFF // object end
+                }
+                : new int[] {
+                    0x83, // 3-entry object
+                    0xA1, 'a', // "a"
+                    0x96, 0x01, 0xFF, 0xD1, 0x01, 0x00, 0xC3, 0xC2, 0xC0, // [1, -1, 256, true, false, null]
+                    0xA1, 'b', // "b"
+                    0xA3, 0xC3, 0xA9, '\n', // 3-byte string: e-acute and LF
+                    0xA1, 'c', // "c"
+                    0x80 // {}
+                };
+        return createFrame(expectedPayload);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Format.class)
+    void should_encode_container_sizes(final Format format) {
+        final JsonWriter writer = newWriter(format, 128);
+        writer.writeObjectStart();
+        writer.writeObjectKey("a");
+        writer.writeArray(new int[16]);
+        writer.writeSeparator();
+        writer.writeObjectKey("b");
+        writer.writeArrayStart();
+        writer.writeArrayEnd();
+        writer.writeObjectEnd();
+        final int[] expectedPayload = new int[Format.CBOR.equals(format) ? 26 : 25];
+        final int[] expectedHeader = Format.CBOR.equals(format)
+                ? new int[] {0xBF, 0x61, 'a', 0x9F}
+                : new int[] {0x82, 0xA1, 'a', 0xDC, 0x00, 0x10};
+        System.arraycopy(expectedHeader, 0, expectedPayload, 0, expectedHeader.length);
+        final int[] expectedFooter = Format.CBOR.equals(format)
+                ? new int[] {0xFF, 0x61, 'b', 0x9F, 0xFF, 0xFF}
+                : new int[] {0xA1, 'b', 0x90};
+        System.arraycopy(
+                expectedFooter,
+                0,
+                expectedPayload,
+                expectedPayload.length - expectedFooter.length,
+                expectedFooter.length);
+        assertThat(completeFrame(writer)).isEqualTo(createFrame(expectedPayload));
+    }
+
+    @Test
+    void should_truncate_strings() {
+        final JsonWriter writer = newWriter(Format.CBOR, 3);
+        writer.writeString("abcdef");
+        final int[] expectedPayload = {0x66, 'a', 'b', 'c', 0xE2, 0x80, 0xA6};
+        assertThat(completeFrame(writer)).isEqualTo(createFrame(expectedPayload));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Format.class)
+    void should_trim_buffer_on_close(final Format format) {
+        final JsonWriter writer = newWriter(format, 2048);
+        final char[] chars = new char[10_000];
+        Arrays.fill(chars, 'x');
+        writer.writeRawString('"' + new String(chars) + '"');
+        writer.completeBinaryFrame();
+        assertThat(writer.getBinaryBuffer().length).isGreaterThan(10_000);
+        writer.close();
+        assertThat(writer.getBinaryBuffer().length).isEqualTo(2048);
+        assertThat(writer.getPosition()).isZero();
+    }
+
+    @ParameterizedTest
+    @EnumSource(Format.class)
+    void should_fail_on_malformed_JSON(final Format format) {
+        final JsonWriter writer = newWriter(format, 128);
+        writer.writeRawString("{\"a\": tru}");
+        assertThatThrownBy(writer::completeBinaryFrame)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("malformed JSON at index");
+    }
+
+    @Test
+    void should_fail_on_incomplete_frame() {
+        final JsonWriter writer = newWriter(Format.CBOR, 128);
+        writer.writeObjectStart();
+        assertThatThrownBy(writer::completeBinaryFrame)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("was expecting all objects and arrays to be closed");
+    }
+
+    private static JsonWriter newWriter(final Format format, final int maxStringLength) {
+        return JsonWriter.newBuilder()
+                .setMaxStringLength(maxStringLength)
+                .setTruncatedStringSuffix("…")
+                .setBinaryFormat(format)
+                .build();
+    }
+
+    private static byte[] completeFrame(final JsonWriter writer) {
+        final int frameLength = writer.completeBinaryFrame();
+        return Arrays.copyOf(writer.getBinaryBuffer(), frameLength);
+    }
+
+    private static byte[] createFrame(final int[] payload) {
+        final byte[] frame = new byte[4 + payload.length];
+        frame[3] = (byte) payload.length;
+        for (int i = 0; i < payload.length; i++) {
+            frame[4 + i] = (byte) payload[i];
+        }
+        return frame;
+    }
+}
@@ -20,11 +20,13 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Random;
 import java.util.function.BiConsumer;
@@ -122,6 +124,26 @@ class JsonWriterTest {
         Assertions.assertThat(actualJson).isEqualTo(expectedJson);
     }
 
+    @Test
+    void test_writeValue_leaf_types() {
+        final Object[] values = {
+            "a\tb", 1, 2L, true, 3.5D, 4.5F, (short) 5, (byte) 6, 'c', '\n', '"', Double.NaN, Float.NEGATIVE_INFINITY
+        };
+        final String expectedJson =
+                "['a\\tb',1,2,true,3.5,4.5,5,6,'c','\\n','\\'','NaN','-Infinity']".replace('\'', '"');
+        final String actualJson = withLockedWriterReturning(writer -> writer.use(() -> {
+            writer.writeArrayStart();
+            for (int valueIndex = 0; valueIndex < values.length; valueIndex++) {
+                if (valueIndex > 0) {
+                    writer.writeSeparator();
+                }
+                writer.writeValue(values[valueIndex]);
+            }
+            writer.writeArrayEnd();
+        }));
+        Assertions.assertThat(actualJson).isEqualTo(expectedJson);
+    }
+
     @Test
     void test_writeObject_null_StringMap() {
         expectNull(writer -> writer.writeObject((StringMap) null));
@@ -504,6 +526,180 @@ class JsonWriterTest {
         });
     }
 
+    @Test
+    void test_writeCachedString_null() {
+        expectNull(writer -> writer.writeCachedString(null));
+    }
+
+    @Test
+    void test_writeCachedString() {
+        final JsonWriter writer = newCachingWriter(1_024);
+        final String string = "\"quoted\"\t";
+        final String expectedJson = "\"\\\"quoted\\\"\\t\"";
+        // Cache miss
+        Assertions.assertThat(writer.use(() -> writer.writeCachedString(string)))
+                .isEqualTo(expectedJson);
+        Assertions.assertThat(getCachedQuotedStringByteCount(writer)).isEqualTo(expectedJson.length());
+        // Cache hit using the same instance
+        Assertions.assertThat(writer.use(() -> writer.writeCachedString(string)))
+                .isEqualTo(expectedJson);
+        // Cache hit using an equal instance
+        final String equalString = new String(string.toCharArray());
+        Assertions.assertThat(writer.use(() -> writer.writeCachedString(equalString)))
+                .isEqualTo(expectedJson);
+        Assertions.assertThat(getCachedQuotedStringByteCount(writer)).isEqualTo(expectedJson.length());
+    }
+
+    @Test
+    void test_writeCachedString_disabled() {
+        withLockedWriter(writer -> {
+            Assertions.assertThat(writer.use(() -> writer.writeCachedString("x")))
+                    .isEqualTo("\"x\"");
+            Assertions.assertThat(getCachedQuotedStringByteCount(writer)).isZero();
+        });
+    }
+
+    @Test
+    void test_writeCachedString_non_ascii_string() {
+        final JsonWriter writer = newCachingWriter(1_024);
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertThat(writer.use(() -> writer.writeCachedString("\u00e9t\u00e9")))
+                    .isEqualTo("\"\u00e9t\u00e9\"");
+        }
+        Assertions.assertThat(getCachedQuotedStringByteCount(writer)).isZero();
+    }
+
+    @Test
+    void test_writeCachedString_byte_count_limit() {
+        final JsonWriter writer = newCachingWriter(16);
+        // 12 bytes get cached
+        final String string1 = "0123456789";
+        Assertions.assertThat(writer.use(() -> writer.writeCachedString(string1)))
+                .isEqualTo("\"0123456789\"");
+        Assertions.assertThat(getCachedQuotedStringByteCount(writer)).isEqualTo(12);
+        // Another 10 bytes would exceed the limit
+        final String string2 = "abcdefgh";
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertThat(writer.use(() -> writer.writeCachedString(string2)))
+                    .isEqualTo("\"abcdefgh\"");
+        }
+        Assertions.assertThat(getCachedQuotedStringByteCount(writer)).isEqualTo(12);
+        // Longer than the limit
+        final String string3 = Strings.repeat("x", 15);
+        Assertions.assertThat(writer.use(() -> writer.writeCachedString(string3)))
+                .isEqualTo('"' + string3 + '"');
+        Assertions.assertThat(getCachedQuotedStringByteCount(writer)).isEqualTo(12);
+    }
+
+    @Test
+    void test_writeCachedString_excessive_string() {
+        final JsonWriter writer = newCachingWriter(1_024);
+        final String string = Strings.repeat("x", writer.getMaxStringLength()) + 'y';
+        final String expectedJson =
+                "\"" + Strings.repeat("x", writer.getMaxStringLength()) + writer.getTruncatedStringSuffix() + '"';
+        for (int i = 0; i < 2; i++) {
+            final String actualJson = writer.use(() -> writer.writeCachedString(string));
+            Assertions.assertThat(actualJson).isEqualTo(expectedJson);
+        }
+    }
+
+    @Test
+    void test_writeCachedString_colliding_strings() {
+        // Both strings have the same hash code, hence share the cache slot
+        final String string1 = "Aa";
+        final String string2 = "BB";
+        final JsonWriter writer = newCachingWriter(1_024);
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertThat(writer.use(() -> writer.writeCachedString(string1)))
+                    .isEqualTo("\"Aa\"");
+            Assertions.assertThat(writer.use(() -> writer.writeCachedString(string2)))
+                    .isEqualTo("\"BB\"");
+        }
+        // The slot is reused
+        Assertions.assertThat(getCachedQuotedStringByteCount(writer)).isEqualTo(4);
+    }
+
+    @Test
+    void test_writeCachedObjectKey() {
+        final JsonWriter writer = newCachingWriter(1_024);
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertThat(writer.use(() -> writer.writeCachedObjectKey("key\n")))
+                    .isEqualTo("\"key\\n\":");
+        }
+    }
+
+    private static JsonWriter newCachingWriter(final int quotedStringCacheByteCount) {
+        return JsonWriter.newBuilder()
+                .setMaxStringLength(128)
+                .setTruncatedStringSuffix("~")
+                .setQuotedStringCacheByteCount(quotedStringCacheByteCount)
+                .build();
+    }
+
+    private static int getCachedQuotedStringByteCount(final JsonWriter writer) {
+        try {
+            final Field field = JsonWriter.class.getDeclaredField("cachedQuotedStringByteCount");
+            field.setAccessible(true);
+            return (int) field.get(writer);
+        } catch (Exception error) {
+            throw new RuntimeException(error);
+        }
+    }
+
+    @Test
+    void test_chunking() {
+        final JsonWriter writer = JsonWriter.newBuilder()
+                .setMaxStringLength(10_000)
+                .setTruncatedStringSuffix("~")
+                .build();
+        final StringBuilder flushedJson = new StringBuilder();
+        final List<Integer> chunkLengths = new ArrayList<>();
+        writer.startChunking(8, (final StringBuilder chunk) -> {
+            flushedJson.append(chunk);
+            chunkLengths.add(chunk.length());
+        });
+        try {
+
+            // Write a string long enough to be flushed in slices, ending with a surrogate pair at a slice boundary.
+            final String string = Strings.repeat("x", 1023) + "\ud83d\ude00";
+            writer.writeArrayStart();
+            writer.writeString(string);
+            Assertions.assertThat(chunkLengths).isNotEmpty();
+            Assertions.assertThat(flushedJson.charAt(flushedJson.length() - 1)).isNotEqualTo('\ud83d');
+
+            // Verify flushing is suspended while rewriting.
+            final int chunkCount = chunkLengths.size();
+            writer.writeAndRewrite(
+                    (value, jsonWriter) -> {
+                        jsonWriter.writeSeparator();
+                        jsonWriter.writeString(value.toUpperCase(Locale.US));
+                    },
+                    (value, jsonWriter, startIndex) -> {
+                        Assertions.assertThat(chunkLengths).hasSize(chunkCount);
+                        final StringBuilder stringBuilder = jsonWriter.getStringBuilder();
+                        Assertions.assertThat(stringBuilder.charAt(startIndex)).isEqualTo(',');
+                        stringBuilder.setLength(startIndex);
+                        jsonWriter.writeSeparator();
+                        jsonWriter.writeString(value);
+                    },
+                    string);
+            Assertions.assertThat(chunkLengths).hasSize(chunkCount);
+            writer.writeSeparator();
+            Assertions.assertThat(chunkLengths).hasSize(chunkCount + 1);
+
+            // Verify the entire output.
+            writer.writeNumber(1);
+            writer.writeArrayEnd();
+            final String expectedJson = "[\"" + string + "\",\"" + string + "\",1]";
+            Assertions.assertThat(writer.getPosition()).isEqualTo(expectedJson.length());
+            Assertions.assertThat(flushedJson.toString() + writer.getStringBuilder()).isEqualTo(expectedJson);
+
+        } finally {
+            writer.close();
+        }
+        Assertions.assertThat(writer.getPosition()).isZero();
+    }
+
     @Test
     void test_writeString_null_buffer_1() {
         expectNull(writer -> writer.writeString((char[]) null));
@@ -87,6 +87,29 @@ class RecyclerFactoriesTest {
             final ArrayBlockingQueue<Object> queue = (ArrayBlockingQueue<Object>) queueingRecycler.getQueue();
             Assertions.assertThat(queue.remainingCapacity()).isEqualTo(100);
         }
+
+        // Check striped recycler factory.
+        {
+            final Object recyclerFactory = converter.convert("striped");
+            Assertions.assertThat(recyclerFactory).isInstanceOf(StripedRecyclerFactory.class);
+        }
+
+        // Check striped recycler factory with stripe count and capacity.
+        {
+            final Object recyclerFactory = converter.convert("striped:stripes=3,stripeCapacity=5");
+            Assertions.assertThat(recyclerFactory).isInstanceOf(StripedRecyclerFactory.class);
+            final StripedRecyclerFactory stripedRecyclerFactory = (StripedRecyclerFactory) recyclerFactory;
+            final Recycler<Object> recycler = stripedRecyclerFactory.create(Object::new);
+            Assertions.assertThat(recycler).isInstanceOf(StripedRecycler.class);
+            final StripedRecycler<Object> stripedRecycler = (StripedRecycler<Object>) recycler;
+            Assertions.assertThat(stripedRecycler.getStripeCount()).isEqualTo(4);
+            Assertions.assertThat(stripedRecycler.getStripeCapacity()).isEqualTo(5);
+        }
+
+        // Check striped recycler factory with invalid stripe count.
+        Assertions.assertThatThrownBy(() -> converter.convert("striped:stripes=0"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("stripes");
     }
 
     @Test
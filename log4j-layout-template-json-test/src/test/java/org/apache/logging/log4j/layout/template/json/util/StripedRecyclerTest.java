@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.layout.template.json.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class StripedRecyclerTest {
+
+    @Test
+    void released_instances_should_be_recycled_and_cleaned() {
+        final List<StringBuilder> cleanedValues = new ArrayList<>();
+        final StripedRecycler<StringBuilder> recycler = new StripedRecycler<>(
+                StringBuilder::new,
+                (final StringBuilder value) -> {
+                    value.setLength(0);
+                    cleanedValues.add(value);
+                },
+                1,
+                1);
+        final StringBuilder value = recycler.acquire();
+        value.append("foo");
+        recycler.release(value);
+        final StringBuilder recycledValue = recycler.acquire();
+        Assertions.assertThat(recycledValue).isSameAs(value);
+        Assertions.assertThat(recycledValue).isEmpty();
+        Assertions.assertThat(cleanedValues).containsExactly(value);
+    }
+
+    @Test
+    void pool_size_should_be_bounded() {
+        final AtomicInteger createdInstanceCount = new AtomicInteger();
+        final StripedRecycler<Object> recycler =
+                new StripedRecycler<>(createdInstanceCount::incrementAndGet, ignored -> {}, 2, 3);
+        final int capacity = recycler.getStripeCount() * recycler.getStripeCapacity();
+
+        // Acquire more than the capacity, and release all.
+        final List<Object> values = new ArrayList<>();
+        for (int i = 0; i < 2 * capacity; i++) {
+            values.add(recycler.acquire());
+        }
+        values.forEach(recycler::release);
+        Assertions.assertThat(createdInstanceCount).hasValue(2 * capacity);
+
+        // Verify only the capacity is pooled, independent of the stripe of the current thread.
+        for (int i = 0; i < capacity; i++) {
+            recycler.acquire();
+        }
+        Assertions.assertThat(createdInstanceCount).hasValue(2 * capacity);
+        recycler.acquire();
+        Assertions.assertThat(createdInstanceCount).hasValue(2 * capacity + 1);
+    }
+
+    @Test
+    void stripe_count_should_be_rounded_to_power_of_two() {
+        final int[][] expectedStripeCounts = {{1, 1}, {2, 2}, {3, 4}, {4, 4}, {5, 8}, {17, 32}};
+        for (final int[] expectedStripeCount : expectedStripeCounts) {
+            final StripedRecycler<Object> recycler =
+                    new StripedRecycler<>(Object::new, ignored -> {}, expectedStripeCount[0], 1);
+            Assertions.assertThat(recycler.getStripeCount()).isEqualTo(expectedStripeCount[1]);
+        }
+    }
+
+    @Test
+    void invalid_arguments_should_be_rejected() {
+        Assertions.assertThatThrownBy(() -> new StripedRecycler<>(Object::new, ignored -> {}, 0, 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("was expecting a positive stripe count: 0");
+        Assertions.assertThatThrownBy(() -> new StripedRecycler<>(Object::new, ignored -> {}, 1, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("was expecting a positive stripe capacity: 0");
+    }
+
+    @Test
+    void concurrent_access_should_not_share_instances() throws InterruptedException {
+        final StripedRecycler<AtomicInteger> recycler =
+                new StripedRecycler<>(AtomicInteger::new, ignored -> {}, 2, 2);
+        final int threadCount = 8;
+        final int iterationCount = 10_000;
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final AtomicInteger sharedInstanceCount = new AtomicInteger();
+        final List<Thread> threads = new ArrayList<>();
+        for (int threadIndex = 0; threadIndex < threadCount; threadIndex++) {
+            final Thread thread = new Thread(() -> {
+                try {
+                    startLatch.await();
+                } catch (final InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int iterationIndex = 0; iterationIndex < iterationCount; iterationIndex++) {
+                    final AtomicInteger value = recycler.acquire();
+                    if (value.getAndIncrement() != 0) {
+                        sharedInstanceCount.incrementAndGet();
+                    }
+                    value.decrementAndGet();
+                    recycler.release(value);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        startLatch.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertThat(sharedInstanceCount).hasValue(0);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.layout.template.json;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginBuilderFactory;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.impl.LocationAware;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.layout.template.json.util.BinaryJsonEncoder;
+import org.apache.logging.log4j.layout.template.json.util.JsonWriter;
+import org.apache.logging.log4j.layout.template.json.util.Recycler;
+
+/**
+ * Renders events using the template of a nested {@link JsonTemplateLayout} into a binary format, i.e., CBOR or
+ * MessagePack.
+ * <p>
+ * Each event is written as a length-prefixed frame: a 4-byte big-endian payload length followed by the payload.
+ * Resolved values are encoded directly into the binary format; only the JSON text pre-rendered at configuration time,
+ * e.g., constant template fields, and the JSON text written in raw by resolvers are transcoded.
+ * The event delimiter and chunked encoding settings of the nested layout are not used.
+ * </p>
+ *
+ * @since 2.27.0
+ */
+@Plugin(name = "BinaryJsonTemplateLayout", category = Node.CATEGORY, elementType = Layout.ELEMENT_TYPE)
+public final class BinaryJsonTemplateLayout implements Layout<byte[]>, LocationAware {
+
+    private static final Map<String, String> CONTENT_FORMAT = Collections.singletonMap("version", "1");
+
+    private final BinaryJsonEncoder.Format format;
+
+    private final JsonTemplateLayout jsonTemplateLayout;
+
+    private final Recycler<JsonWriter> jsonWriterRecycler;
+
+    private BinaryJsonTemplateLayout(final Builder builder) {
+        this.format = builder.format;
+        this.jsonTemplateLayout = builder.jsonTemplateLayout;
+        this.jsonWriterRecycler = jsonTemplateLayout.createBinaryJsonWriterRecycler(format);
+    }
+
+    @Override
+    public byte[] toByteArray(final LogEvent event) {
+
+        // Acquire a writer.
+        final Recycler<JsonWriter> jsonWriterRecycler = this.jsonWriterRecycler;
+        final JsonWriter jsonWriter = jsonWriterRecycler.acquire();
+
+        // Render the frame.
+        try {
+            jsonTemplateLayout.resolve(event, jsonWriter);
+            final int frameLength = jsonWriter.completeBinaryFrame();
+            return Arrays.copyOf(jsonWriter.getBinaryBuffer(), frameLength);
+        }
+
+        // Release the writer.
+        finally {
+            jsonWriterRecycler.release(jsonWriter);
+        }
+    }
+
+    @Override
+    public byte[] toSerializable(final LogEvent event) {
+        return toByteArray(event);
+    }
+
+    @Override
+    public void encode(final LogEvent event, final ByteBufferDestination destination) {
+
+        // Acquire a writer.
+        final Recycler<JsonWriter> jsonWriterRecycler = this.jsonWriterRecycler;
+        final JsonWriter jsonWriter = jsonWriterRecycler.acquire();
+
+        // Render & write the frame.
+        try {
+            jsonTemplateLayout.resolve(event, jsonWriter);
+            final int frameLength = jsonWriter.completeBinaryFrame();
+            destination.writeBytes(jsonWriter.getBinaryBuffer(), 0, frameLength);
+        }
+
+        // Release the writer.
+        finally {
+            jsonWriterRecycler.release(jsonWriter);
+        }
+    }
+
+    @Override
+    public byte[] getFooter() {
+        return null;
+    }
+
+    @Override
+    public byte[] getHeader() {
+        return null;
+    }
+
+    @Override
+    public boolean requiresLocation() {
+        return jsonTemplateLayout.requiresLocation();
+    }
+
+    @Override
+    public String getContentType() {
+        return format.getContentType();
+    }
+
+    @Override
+    public Map<String, String> getContentFormat() {
+        return CONTENT_FORMAT;
+    }
+
+    @PluginBuilderFactory
+    @SuppressWarnings("WeakerAccess")
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    @SuppressWarnings({"unused", "WeakerAccess"})
+    public static final class Builder
+            implements org.apache.logging.log4j.core.util.Builder<BinaryJsonTemplateLayout> {
+
+        @PluginBuilderAttribute
+        private BinaryJsonEncoder.Format format = JsonTemplateLayoutDefaults.getBinaryFormat();
+
+        @PluginElement("Layout")
+        private JsonTemplateLayout jsonTemplateLayout;
+
+        private Builder() {
+            // Do nothing.
+        }
+
+        public BinaryJsonEncoder.Format getFormat() {
+            return format;
+        }
+
+        public Builder setFormat(final BinaryJsonEncoder.Format format) {
+            this.format = format;
+            return this;
+        }
+
+        public JsonTemplateLayout getJsonTemplateLayout() {
+            return jsonTemplateLayout;
+        }
+
+        /**
+         * Sets the layout providing the event template and the resolver settings, e.g., the maximum string length.
+         */
+        public Builder setJsonTemplateLayout(final JsonTemplateLayout jsonTemplateLayout) {
+            this.jsonTemplateLayout = jsonTemplateLayout;
+            return this;
+        }
+
+        @Override
+        public BinaryJsonTemplateLayout build() {
+            validate();
+            return new BinaryJsonTemplateLayout(this);
+        }
+
+        private void validate() {
+            Objects.requireNonNull(format, "format");
+            Objects.requireNonNull(jsonTemplateLayout, "jsonTemplateLayout");
+        }
+    }
+}
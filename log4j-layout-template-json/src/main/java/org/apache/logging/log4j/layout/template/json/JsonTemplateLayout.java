@@ -21,10 +21,12 @@ import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
 import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
@@ -38,6 +40,7 @@ import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.impl.LocationAware;
 import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.layout.ByteBufferDestinationHelper;
 import org.apache.logging.log4j.core.layout.Encoder;
 import org.apache.logging.log4j.core.layout.TextEncoderHelper;
 import org.apache.logging.log4j.core.util.Constants;
@@ -50,6 +53,7 @@ import org.apache.logging.log4j.layout.template.json.resolver.EventResolverInter
 import org.apache.logging.log4j.layout.template.json.resolver.EventResolverStringSubstitutor;
 import org.apache.logging.log4j.layout.template.json.resolver.TemplateResolver;
 import org.apache.logging.log4j.layout.template.json.resolver.TemplateResolvers;
+import org.apache.logging.log4j.layout.template.json.util.BinaryJsonEncoder;
 import org.apache.logging.log4j.layout.template.json.util.JsonWriter;
 import org.apache.logging.log4j.layout.template.json.util.Recycler;
 import org.apache.logging.log4j.layout.template.json.util.RecyclerFactory;
@@ -72,6 +76,12 @@ public class JsonTemplateLayout implements StringLayout, LocationAware {
 
     private final String eventDelimiter;
 
+    private final int chunkedEncodeThreshold;
+
+    private final RecyclerFactory recyclerFactory;
+
+    private final JsonWriter jsonWriter;
+
     private final Recycler<Context> contextRecycler;
 
     private static final class Context implements AutoCloseable {
@@ -80,9 +90,25 @@ public class JsonTemplateLayout implements StringLayout, LocationAware {
 
         final Encoder<StringBuilder> encoder;
 
-        private Context(final JsonWriter jsonWriter, final Encoder<StringBuilder> encoder) {
+        /**
+         * Collects the encoded chunks of an event before writing them to the destination, if chunked encoding is
+         * enabled.
+         */
+        final ChunkBuffer chunkBuffer;
+
+        /**
+         * Encodes the chunks flushed by the {@link JsonWriter} to {@link #chunkBuffer}.
+         */
+        final Consumer<StringBuilder> chunkEncoder;
+
+        private Context(
+                final JsonWriter jsonWriter,
+                final Encoder<StringBuilder> encoder,
+                final ChunkBuffer chunkBuffer) {
             this.jsonWriter = jsonWriter;
             this.encoder = encoder;
+            this.chunkBuffer = chunkBuffer;
+            this.chunkEncoder = chunkBuffer != null ? chunk -> encoder.encode(chunk, chunkBuffer) : null;
         }
 
         @Override
@@ -93,6 +119,8 @@ public class JsonTemplateLayout implements StringLayout, LocationAware {
 
     private JsonTemplateLayout(final Builder builder) {
         this.charset = builder.charset;
+        this.chunkedEncodeThreshold = builder.chunkedEncodeThreshold;
+        this.recyclerFactory = builder.recyclerFactory;
         this.contentType = "application/json; charset=" + charset;
         this.locationInfoEnabled = builder.locationInfoEnabled;
         final String eventDelimiterSuffix = builder.isNullEventDelimiterEnabled() ? "\0" : "";
@@ -101,7 +129,9 @@ public class JsonTemplateLayout implements StringLayout, LocationAware {
         final JsonWriter jsonWriter = JsonWriter.newBuilder()
                 .setMaxStringLength(builder.maxStringLength)
                 .setTruncatedStringSuffix(builder.truncatedStringSuffix)
+                .setQuotedStringCacheByteCount(builder.quotedStringCacheByteCount)
                 .build();
+        this.jsonWriter = jsonWriter;
         this.eventResolver = createEventResolver(builder, configuration, charset, jsonWriter);
         this.contextRecycler = createContextRecycler(builder, jsonWriter);
     }
@@ -171,15 +201,20 @@ public class JsonTemplateLayout implements StringLayout, LocationAware {
     }
 
     private static Recycler<Context> createContextRecycler(final Builder builder, final JsonWriter jsonWriter) {
-        final Supplier<Context> supplier = createContextSupplier(builder.charset, jsonWriter);
+        final Supplier<Context> supplier =
+                createContextSupplier(builder.charset, builder.chunkedEncodeThreshold, jsonWriter);
         return builder.recyclerFactory.create(supplier, Context::close);
     }
 
-    private static Supplier<Context> createContextSupplier(final Charset charset, final JsonWriter jsonWriter) {
+    private static Supplier<Context> createContextSupplier(
+            final Charset charset, final int chunkedEncodeThreshold, final JsonWriter jsonWriter) {
         return () -> {
             final JsonWriter clonedJsonWriter = jsonWriter.clone();
-            final Encoder<StringBuilder> encoder = new StringBuilderEncoder(charset);
-            return new Context(clonedJsonWriter, encoder);
+            final Encoder<StringBuilder> encoder = StandardCharsets.UTF_8.equals(charset)
+                    ? new Utf8StringBuilderEncoder()
+                    : new StringBuilderEncoder(charset);
+            final ChunkBuffer chunkBuffer = chunkedEncodeThreshold > 0 ? new ChunkBuffer() : null;
+            return new Context(clonedJsonWriter, encoder, chunkBuffer);
         };
     }
 
@@ -225,6 +260,108 @@ public class JsonTemplateLayout implements StringLayout, LocationAware {
         }
     }
 
+    /**
+     * {@link Encoder} writing UTF-8 directly from the {@link StringBuilder} to the destination.
+     * <p>
+     * Compared to {@link StringBuilderEncoder}, this avoids the intermediate {@link CharBuffer} copy and the
+     * {@link CharsetEncoder} state machine. Unpaired surrogates are replaced with {@code ?}, as
+     * {@link CodingErrorAction#REPLACE} does for UTF-8.
+     * </p>
+     */
+    private static final class Utf8StringBuilderEncoder implements Encoder<StringBuilder> {
+
+        /**
+         * Maximum number of bytes a single iteration of the encoding loop can emit, i.e., a surrogate pair.
+         */
+        private static final int MAX_BYTE_COUNT_PER_ITERATION = 4;
+
+        private final byte[] buffer;
+
+        /**
+         * Number of bytes written to {@link #buffer} by the last {@link #encodeChunk(StringBuilder, int, int)} call.
+         */
+        private int position;
+
+        private Utf8StringBuilderEncoder() {
+            this.buffer = new byte[Constants.ENCODER_BYTE_BUFFER_SIZE];
+        }
+
+        @Override
+        public void encode(final StringBuilder source, final ByteBufferDestination destination) {
+            final int length = source.length();
+            int index = encodeChunk(source, 0, length);
+            if (index >= length) {
+                destination.writeBytes(buffer, 0, position);
+                return;
+            }
+            // Chunks of a single event must not interleave with other writers.
+            synchronized (destination) {
+                destination.writeBytes(buffer, 0, position);
+                while (index < length) {
+                    index = encodeChunk(source, index, length);
+                    destination.writeBytes(buffer, 0, position);
+                }
+            }
+        }
+
+        /**
+         * Encodes characters starting from {@code startIndex} until either the input or {@link #buffer} is exhausted.
+         *
+         * @return the index of the first character not encoded
+         */
+        private int encodeChunk(final StringBuilder source, final int startIndex, final int length) {
+            final byte[] buffer = this.buffer;
+            final int positionLimit = buffer.length - MAX_BYTE_COUNT_PER_ITERATION;
+            int position = 0;
+            int index = startIndex;
+            for (; index < length && position <= positionLimit; index++) {
+                final char c = source.charAt(index);
+                if (c < 0x80) {
+                    buffer[position++] = (byte) c;
+                } else if (c < 0x800) {
+                    buffer[position++] = (byte) (0xC0 | (c >> 6));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3F));
+                } else if (!Character.isSurrogate(c)) {
+                    buffer[position++] = (byte) (0xE0 | (c >> 12));
+                    buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c)
+                        && index + 1 < length
+                        && Character.isLowSurrogate(source.charAt(index + 1))) {
+                    final int codePoint = Character.toCodePoint(c, source.charAt(++index));
+                    buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    buffer[position++] = '?';
+                }
+            }
+            this.position = position;
+            return index;
+        }
+    }
+
+    /**
+     * Creates a recycler of {@link JsonWriter}s encoding into the given binary format, to be passed to
+     * {@link #resolve(LogEvent, JsonWriter)} by {@link BinaryJsonTemplateLayout}.
+     */
+    Recycler<JsonWriter> createBinaryJsonWriterRecycler(final BinaryJsonEncoder.Format binaryFormat) {
+        final Supplier<JsonWriter> supplier = () -> JsonWriter.newBuilder()
+                .setMaxStringLength(jsonWriter.getMaxStringLength())
+                .setTruncatedStringSuffix(jsonWriter.getTruncatedStringSuffix())
+                .setBinaryFormat(binaryFormat)
+                .build();
+        return recyclerFactory.create(supplier, JsonWriter::close);
+    }
+
+    /**
+     * Renders the event to the given {@link JsonWriter}, without the event delimiter.
+     */
+    void resolve(final LogEvent event, final JsonWriter jsonWriter) {
+        eventResolver.resolve(event, jsonWriter);
+    }
+
     @Override
     public byte[] toByteArray(final LogEvent event) {
         final String eventJson = toSerializable(event);
@@ -265,6 +402,10 @@ public class JsonTemplateLayout implements StringLayout, LocationAware {
 
         // Render & write the JSON.
         try {
+            if (chunkedEncodeThreshold > 0) {
+                encodeChunked(event, destination, context);
+                return;
+            }
             eventResolver.resolve(event, jsonWriter);
             stringBuilder.append(eventDelimiter);
             encoder.encode(stringBuilder, destination);
@@ -276,6 +417,107 @@ public class JsonTemplateLayout implements StringLayout, LocationAware {
         }
     }
 
+    /**
+     * Renders the event while encoding the JSON rendered so far each time the rendering buffer crosses
+     * {@link #chunkedEncodeThreshold}.
+     * <p>
+     * The encoded bytes are collected in the fixed-size {@link Context#chunkBuffer}, which is written to the
+     * destination each time it is full; hence, the memory used does not depend on the size of the event, and events
+     * fitting into the chunk buffer are still written at once.
+     * The destination is locked until the event is complete, so that the chunks of concurrent events do not
+     * interleave.
+     * If a resolver fails after a part of the event is written, the event delimiter is still written, so that the
+     * succeeding events stay intact.
+     * </p>
+     */
+    private void encodeChunked(final LogEvent event, final ByteBufferDestination destination, final Context context) {
+        final JsonWriter jsonWriter = context.jsonWriter;
+        final StringBuilder stringBuilder = jsonWriter.getStringBuilder();
+        final ChunkBuffer chunkBuffer = context.chunkBuffer;
+        synchronized (destination) {
+            chunkBuffer.open(destination);
+            jsonWriter.startChunking(chunkedEncodeThreshold, context.chunkEncoder);
+            try {
+                eventResolver.resolve(event, jsonWriter);
+                stringBuilder.append(eventDelimiter);
+                context.encoder.encode(stringBuilder, chunkBuffer);
+                chunkBuffer.flush();
+            } catch (final RuntimeException | Error error) {
+                if (chunkBuffer.isDrained()) {
+                    final byte[] eventDelimiterBytes = eventDelimiter.getBytes(charset);
+                    destination.writeBytes(eventDelimiterBytes, 0, eventDelimiterBytes.length);
+                }
+                throw error;
+            } finally {
+                jsonWriter.stopChunking();
+                chunkBuffer.close();
+            }
+        }
+    }
+
+    /**
+     * Fixed-size {@link ByteBufferDestination} collecting the encoded chunks of an event, and writing them to the
+     * actual destination each time it is full.
+     */
+    private static final class ChunkBuffer implements ByteBufferDestination {
+
+        private final ByteBuffer byteBuffer = ByteBuffer.allocate(Constants.ENCODER_BYTE_BUFFER_SIZE);
+
+        private ByteBufferDestination destination;
+
+        private boolean drained;
+
+        private void open(final ByteBufferDestination destination) {
+            this.destination = destination;
+        }
+
+        @Override
+        public ByteBuffer getByteBuffer() {
+            return byteBuffer;
+        }
+
+        @Override
+        public ByteBuffer drain(final ByteBuffer buffer) {
+            buffer.flip();
+            if (buffer.hasRemaining()) {
+                destination.writeBytes(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                drained = true;
+            }
+            buffer.clear();
+            return buffer;
+        }
+
+        @Override
+        public void writeBytes(final ByteBuffer data) {
+            ByteBufferDestinationHelper.writeToUnsynchronized(data, this);
+        }
+
+        @Override
+        public void writeBytes(final byte[] data, final int offset, final int length) {
+            ByteBufferDestinationHelper.writeToUnsynchronized(data, offset, length, this);
+        }
+
+        /**
+         * @return {@code true}, if a part of the event is written to the destination
+         */
+        private boolean isDrained() {
+            return drained;
+        }
+
+        private void flush() {
+            drain(byteBuffer);
+        }
+
+        /**
+         * Discards the unwritten bytes and detaches the destination.
+         */
+        private void close() {
+            byteBuffer.clear();
+            destination = null;
+            drained = false;
+        }
+    }
+
     @Override
     public byte[] getFooter() {
         return null;
@@ -360,6 +602,12 @@ public class JsonTemplateLayout implements StringLayout, LocationAware {
         @PluginBuilderAttribute
         private RecyclerFactory recyclerFactory = JsonTemplateLayoutDefaults.getRecyclerFactory();
 
+        @PluginBuilderAttribute
+        private int chunkedEncodeThreshold = JsonTemplateLayoutDefaults.getChunkedEncodeThreshold();
+
+        @PluginBuilderAttribute
+        private int quotedStringCacheByteCount = JsonTemplateLayoutDefaults.getQuotedStringCacheByteCount();
+
         private Builder() {
             // Do nothing.
         }
@@ -500,6 +748,46 @@ public class JsonTemplateLayout implements StringLayout, LocationAware {
             return this;
         }
 
+        /**
+         * @since 2.27.0
+         */
+        public int getChunkedEncodeThreshold() {
+            return chunkedEncodeThreshold;
+        }
+
+        /**
+         * Sets the number of characters, once buffered, causing
+         * {@link JsonTemplateLayout#encode(LogEvent, ByteBufferDestination) encode()} to flush the JSON rendered so
+         * far to the destination.
+         * This bounds the memory retained per recycled context, regardless of the event size.
+         *
+         * @param chunkedEncodeThreshold a positive number of characters, or zero to disable chunked encoding
+         * @since 2.27.0
+         */
+        public Builder setChunkedEncodeThreshold(final int chunkedEncodeThreshold) {
+            this.chunkedEncodeThreshold = chunkedEncodeThreshold;
+            return this;
+        }
+
+        /**
+         * @since 2.27.0
+         */
+        public int getQuotedStringCacheByteCount() {
+            return quotedStringCacheByteCount;
+        }
+
+        /**
+         * Sets the maximum number of bytes retained per recycled context by the cache of quoted logger names, thread
+         * names, level names, and context data keys.
+         *
+         * @param quotedStringCacheByteCount a positive number of bytes, or zero to disable the cache
+         * @since 2.27.0
+         */
+        public Builder setQuotedStringCacheByteCount(final int quotedStringCacheByteCount) {
+            this.quotedStringCacheByteCount = quotedStringCacheByteCount;
+            return this;
+        }
+
         @Override
         public JsonTemplateLayout build() {
             validate();
@@ -523,6 +811,14 @@ public class JsonTemplateLayout implements StringLayout, LocationAware {
             }
             Objects.requireNonNull(truncatedStringSuffix, "truncatedStringSuffix");
             Objects.requireNonNull(recyclerFactory, "recyclerFactory");
+            if (chunkedEncodeThreshold < 0) {
+                throw new IllegalArgumentException(
+                        "was expecting a non-negative chunkedEncodeThreshold: " + chunkedEncodeThreshold);
+            }
+            if (quotedStringCacheByteCount < 0) {
+                throw new IllegalArgumentException(
+                        "was expecting a non-negative quotedStringCacheByteCount: " + quotedStringCacheByteCount);
+            }
         }
     }
 
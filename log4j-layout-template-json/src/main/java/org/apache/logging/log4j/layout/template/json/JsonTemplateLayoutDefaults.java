@@ -24,7 +24,9 @@ import java.util.Locale;
 import java.util.TimeZone;
 import org.apache.logging.log4j.core.config.plugins.convert.TypeConverter;
 import org.apache.logging.log4j.core.config.plugins.convert.TypeConverterRegistry;
+import org.apache.logging.log4j.layout.template.json.util.BinaryJsonEncoder;
 import org.apache.logging.log4j.layout.template.json.util.RecyclerFactory;
+import org.apache.logging.log4j.status.StatusLogger;
 import org.apache.logging.log4j.util.PropertiesUtil;
 
 public final class JsonTemplateLayoutDefaults {
@@ -116,6 +118,40 @@ public final class JsonTemplateLayoutDefaults {
         return PROPERTIES.getStringProperty("log4j.layout.jsonTemplate.truncatedStringSuffix", "…");
     }
 
+    /**
+     * @since 2.27.0
+     */
+    public static BinaryJsonEncoder.Format getBinaryFormat() {
+        final String binaryFormatName = PROPERTIES.getStringProperty("log4j.layout.jsonTemplate.binaryFormat");
+        if (binaryFormatName == null) {
+            return BinaryJsonEncoder.Format.CBOR;
+        }
+        try {
+            return BinaryJsonEncoder.Format.valueOf(binaryFormatName.toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException error) {
+            StatusLogger.getLogger()
+                    .error(
+                            "invalid `log4j.layout.jsonTemplate.binaryFormat` value {}, falling back to CBOR",
+                            binaryFormatName,
+                            error);
+            return BinaryJsonEncoder.Format.CBOR;
+        }
+    }
+
+    /**
+     * @since 2.27.0
+     */
+    public static int getChunkedEncodeThreshold() {
+        return PROPERTIES.getIntegerProperty("log4j.layout.jsonTemplate.chunkedEncodeThreshold", 0);
+    }
+
+    /**
+     * @since 2.27.0
+     */
+    public static int getQuotedStringCacheByteCount() {
+        return PROPERTIES.getIntegerProperty("log4j.layout.jsonTemplate.quotedStringCacheByteCount", 0);
+    }
+
     public static RecyclerFactory getRecyclerFactory() {
 
         // Get the recycler factory specification
@@ -17,6 +17,7 @@
 package org.apache.logging.log4j.layout.template.json.resolver;
 
 import java.util.Locale;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.layout.template.json.JsonTemplateLayoutDefaults;
@@ -157,6 +158,14 @@ public final class CaseConverterResolver implements EventResolver {
 
     private final TemplateResolver<LogEvent> replacementResolver;
 
+    private final BiConsumer<LogEvent, JsonWriter> inputWriter;
+
+    private final BiConsumer<LogEvent, JsonWriter> firstEntryInputWriter;
+
+    private final BiConsumer<LogEvent, JsonWriter> succeedingEntryInputWriter;
+
+    private final JsonWriter.Rewriter<LogEvent> rewriter;
+
     private enum ErrorHandlingStrategy {
         FAIL("fail"),
 
@@ -176,6 +185,10 @@ public final class CaseConverterResolver implements EventResolver {
         this.converter = createConverter(config);
         this.errorHandlingStrategy = readErrorHandlingStrategy(config);
         this.replacementResolver = createReplacement(context, config);
+        this.inputWriter = inputResolver::resolve;
+        this.firstEntryInputWriter = (logEvent, jsonWriter) -> inputResolver.resolve(logEvent, jsonWriter, false);
+        this.succeedingEntryInputWriter = (logEvent, jsonWriter) -> inputResolver.resolve(logEvent, jsonWriter, true);
+        this.rewriter = this::convertCase;
     }
 
     private static TemplateResolver<LogEvent> createDelegate(
@@ -236,16 +249,14 @@ public final class CaseConverterResolver implements EventResolver {
 
     @Override
     public void resolve(final LogEvent logEvent, final JsonWriter jsonWriter) {
-        final int startIndex = jsonWriter.getStringBuilder().length();
-        inputResolver.resolve(logEvent, jsonWriter);
-        convertCase(logEvent, jsonWriter, startIndex);
+        jsonWriter.writeAndRewrite(inputWriter, rewriter, logEvent);
     }
 
     @Override
     public void resolve(final LogEvent logEvent, final JsonWriter jsonWriter, final boolean succeedingEntry) {
-        final int startIndex = jsonWriter.getStringBuilder().length();
-        inputResolver.resolve(logEvent, jsonWriter, succeedingEntry);
-        convertCase(logEvent, jsonWriter, startIndex);
+        final BiConsumer<LogEvent, JsonWriter> writer =
+                succeedingEntry ? succeedingEntryInputWriter : firstEntryInputWriter;
+        jsonWriter.writeAndRewrite(writer, rewriter, logEvent);
     }
 
     private void convertCase(final LogEvent logEvent, final JsonWriter jsonWriter, final int startIndex) {
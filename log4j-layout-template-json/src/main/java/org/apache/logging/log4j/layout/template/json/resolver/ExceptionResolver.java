@@ -23,9 +23,11 @@ import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.util.internal.throwable.ThrowableDeduplicator;
 import org.apache.logging.log4j.layout.template.json.JsonTemplateLayout;
 import org.apache.logging.log4j.layout.template.json.JsonTemplateLayoutDefaults;
 import org.apache.logging.log4j.layout.template.json.util.JsonWriter;
+import org.apache.logging.log4j.layout.template.json.util.Recycler;
 import org.apache.logging.log4j.status.StatusLogger;
 
 /**
@@ -45,6 +47,7 @@ import org.apache.logging.log4j.status.StatusLogger;
  * stackTrace          = "stackTrace" -> (
  *                         [ stringified ]
  *                       , [ elementTemplate ]
+ *                       , [ deduplication ]
  *                       )
  *
  * stringified         = "stringified" -> ( boolean | truncation )
@@ -58,6 +61,9 @@ import org.apache.logging.log4j.status.StatusLogger;
  * pointMatcherRegexes = "pointMatcherRegexes" -> string[]
  *
  * elementTemplate     = "elementTemplate" -> object
+ *
+ * deduplication       = "deduplication" -> ( boolean | windowSeconds )
+ * windowSeconds       = "windowSeconds" -> number
  * </pre>
  *
  * <tt>stringified</tt> is set to <tt>false</tt> by default.
@@ -99,6 +105,16 @@ import org.apache.logging.log4j.status.StatusLogger;
  * <p>
  * See {@link StackTraceElementResolver}
  * for the list of available resolvers in a stack trace element template.
+ * <p>
+ * <tt>deduplication</tt> renders a stringified stack trace in full only on its
+ * first occurrence in a window of <tt>windowSeconds</tt> (defaults to 60)
+ * seconds, prefixed with its identifier, e.g., <tt>[#a1b2c3] </tt>.
+ * Subsequent occurrences of the same stack trace in the window are rendered
+ * as a reference, e.g., <tt>[same as #a1b2c3, seen 4,211 times]</tt>.
+ * Stack traces are identified by a fingerprint of the class names and stack
+ * trace elements of the exception, its causes, and its suppressed exceptions;
+ * messages are not taken into account. <tt>deduplication</tt> is disabled by
+ * default and requires <tt>stringified</tt> to be enabled.
  *
  * <h3>Examples</h3>
  *
@@ -150,6 +166,22 @@ import org.apache.logging.log4j.status.StatusLogger;
  * }
  * </pre>
  *
+ * Resolve the stack trace into a string field
+ * such that the same stack trace will be rendered in full at most once a minute:
+ *
+ * <pre>
+ *  {
+ *   "$resolver": "exception",
+ *   "field": "stackTrace",
+ *   "stackTrace": {
+ *     "stringified": true,
+ *     "deduplication": {
+ *       "windowSeconds": 60
+ *     }
+ *   }
+ * }
+ * </pre>
+ *
  * Resolve the stack trace into an object described by the provided stack trace
  * element template:
  *
@@ -246,9 +278,34 @@ public class ExceptionResolver implements EventResolver {
             return NULL_RESOLVER;
         }
         final boolean stringified = isStackTraceStringified(config);
-        return stringified
-                ? createStackTraceStringResolver(context, config)
-                : createStackTraceObjectResolver(context, config);
+        final ThrowableDeduplicator deduplicator = readDeduplicator(config);
+        if (stringified) {
+            return createStackTraceStringResolver(context, config, deduplicator);
+        } else if (deduplicator != null) {
+            throw new IllegalArgumentException(
+                    "stack trace deduplication requires stringified stack traces: " + config);
+        } else {
+            return createStackTraceObjectResolver(context, config);
+        }
+    }
+
+    private static ThrowableDeduplicator readDeduplicator(final TemplateResolverConfig config) {
+        final Object deduplication = config.getObject(new String[] {"stackTrace", "deduplication"});
+        if (deduplication == null || Boolean.FALSE.equals(deduplication)) {
+            return null;
+        } else if (Boolean.TRUE.equals(deduplication)) {
+            return ThrowableDeduplicator.ofWindowSeconds(ThrowableDeduplicator.DEFAULT_WINDOW_SECONDS);
+        } else if (deduplication instanceof Map) {
+            final Integer windowSeconds =
+                    config.getInteger(new String[] {"stackTrace", "deduplication", "windowSeconds"});
+            if (windowSeconds == null) {
+                return ThrowableDeduplicator.ofWindowSeconds(ThrowableDeduplicator.DEFAULT_WINDOW_SECONDS);
+            } else if (windowSeconds <= 0) {
+                throw new IllegalArgumentException("was expecting a positive deduplication window: " + config);
+            }
+            return ThrowableDeduplicator.ofWindowSeconds(windowSeconds);
+        }
+        throw new IllegalArgumentException("invalid stack trace deduplication: " + config);
     }
 
     private static boolean isStackTraceStringified(final TemplateResolverConfig config) {
@@ -269,7 +326,9 @@ public class ExceptionResolver implements EventResolver {
     }
 
     private EventResolver createStackTraceStringResolver(
-            final EventResolverContext context, final TemplateResolverConfig config) {
+            final EventResolverContext context,
+            final TemplateResolverConfig config,
+            final ThrowableDeduplicator deduplicator) {
 
         // Read the configuration.
         final String truncationSuffix = readTruncationSuffix(context, config);
@@ -280,6 +339,11 @@ public class ExceptionResolver implements EventResolver {
         final StackTraceStringResolver resolver = new StackTraceStringResolver(
                 context, truncationSuffix, truncationPointMatcherStrings, truncationPointMatcherRegexes);
 
+        // Create the deduplicating resolver, if requested.
+        if (deduplicator != null) {
+            return createDeduplicatingStackTraceStringResolver(context, resolver, deduplicator);
+        }
+
         // Create the null-protected resolver.
         return (final LogEvent logEvent, final JsonWriter jsonWriter) -> {
             final Throwable exception = extractThrowable(logEvent);
@@ -291,6 +355,39 @@ public class ExceptionResolver implements EventResolver {
         };
     }
 
+    private EventResolver createDeduplicatingStackTraceStringResolver(
+            final EventResolverContext context,
+            final StackTraceStringResolver resolver,
+            final ThrowableDeduplicator deduplicator) {
+        final Recycler<StringBuilder> bufferRecycler =
+                context.getRecyclerFactory().create(StringBuilder::new, buffer -> buffer.setLength(0));
+
+        // Create the null-protected resolver.
+        return (final LogEvent logEvent, final JsonWriter jsonWriter) -> {
+            final Throwable exception = extractThrowable(logEvent);
+            if (exception == null) {
+                jsonWriter.writeNull();
+                return;
+            }
+            final long fingerprint = ThrowableDeduplicator.fingerprint(exception);
+            final long occurrenceCount = deduplicator.register(fingerprint, logEvent.getTimeMillis());
+            final StringBuilder buffer = bufferRecycler.acquire();
+            try {
+                if (occurrenceCount > 1) {
+                    ThrowableDeduplicator.appendReference(buffer, fingerprint, occurrenceCount);
+                    jsonWriter.writeString(buffer);
+                } else {
+                    buffer.append('[');
+                    ThrowableDeduplicator.appendId(buffer, fingerprint);
+                    buffer.append("] ");
+                    resolver.resolve(exception, buffer, jsonWriter);
+                }
+            } finally {
+                bufferRecycler.release(buffer);
+            }
+        };
+    }
+
     private static String readTruncationSuffix(
             final EventResolverContext context, final TemplateResolverConfig config) {
         final String suffix = config.getString(new String[] {"stackTrace", "stringified", "truncation", "suffix"});
@@ -145,7 +145,7 @@ public final class LevelResolver implements EventResolver {
             // When that happens, fallback to the slow path:
             else {
                 final String levelName = level.name();
-                jsonWriter.writeString(levelName);
+                jsonWriter.writeCachedString(levelName);
             }
         };
     }
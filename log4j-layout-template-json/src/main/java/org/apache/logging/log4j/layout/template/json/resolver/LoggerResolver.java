@@ -52,12 +52,12 @@ public final class LoggerResolver implements EventResolver {
 
     private static final EventResolver NAME_RESOLVER = (final LogEvent logEvent, final JsonWriter jsonWriter) -> {
         final String loggerName = logEvent.getLoggerName();
-        jsonWriter.writeString(loggerName);
+        jsonWriter.writeCachedString(loggerName);
     };
 
     private static final EventResolver FQCN_RESOLVER = (final LogEvent logEvent, final JsonWriter jsonWriter) -> {
         final String loggerFqcn = logEvent.getLoggerFqcn();
-        jsonWriter.writeString(loggerFqcn);
+        jsonWriter.writeCachedString(loggerFqcn);
     };
 
     private final EventResolver internalResolver;
@@ -22,7 +22,9 @@ import org.apache.logging.log4j.message.MapMessage;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.MultiformatMessage;
 import org.apache.logging.log4j.message.ObjectMessage;
+import org.apache.logging.log4j.message.ReusableObjectMessage;
 import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.message.StringMapMessage;
 import org.apache.logging.log4j.util.StringBuilderFormattable;
 
 /**
@@ -47,9 +49,9 @@ import org.apache.logging.log4j.util.StringBuilderFormattable;
  * }
  * </pre>
  *
- * Resolve the message such that if it is a {@link ObjectMessage} or {@link
- * MultiformatMessage} with JSON support, its emitted JSON type (string, list,
- * object, etc.) will be retained:
+ * Resolve the message such that if it is a {@link ObjectMessage}, {@link
+ * ReusableObjectMessage}, or {@link MultiformatMessage} with JSON support, its
+ * emitted JSON type (string, list, object, etc.) will be retained:
  *
  * <pre>
  * {
@@ -142,6 +144,11 @@ public final class MessageResolver implements EventResolver {
             final boolean simple = message instanceof SimpleMessage;
             if (!simple) {
 
+                // Try MapMessage serializer.
+                if (writeMapMessage(jsonWriter, message)) {
+                    return;
+                }
+
                 // Try MultiformatMessage serializer.
                 if (writeMultiformatMessage(jsonWriter, message)) {
                     return;
@@ -158,6 +165,31 @@ public final class MessageResolver implements EventResolver {
         };
     }
 
+    /**
+     * Streams the entries of stock {@link MapMessage}s straight into the {@link JsonWriter}.
+     * <p>
+     * This avoids rendering the entire message to an intermediate JSON {@link String} via {@link
+     * MultiformatMessage#getFormattedMessage(String[])}.
+     * Subclasses are excluded, since they can override how the message is formatted.
+     * </p>
+     */
+    private static boolean writeMapMessage(final JsonWriter jsonWriter, final Message message) {
+
+        // Check type.
+        if (message == null) {
+            return false;
+        }
+        final Class<?> messageClass = message.getClass();
+        if (messageClass != StringMapMessage.class && messageClass != MapMessage.class) {
+            return false;
+        }
+
+        // Write the entries.
+        final MapMessage<?, ?> mapMessage = (MapMessage<?, ?>) message;
+        jsonWriter.writeObject(mapMessage.getIndexedReadOnlyStringMap());
+        return true;
+    }
+
     private static boolean writeMultiformatMessage(final JsonWriter jsonWriter, final Message message) {
 
         // Check type.
@@ -187,14 +219,17 @@ public final class MessageResolver implements EventResolver {
 
     private static boolean writeObjectMessage(final JsonWriter jsonWriter, final Message message) {
 
-        // Check type.
-        if (!(message instanceof ObjectMessage)) {
+        // Serialize object.
+        final Object object;
+        if (message instanceof ObjectMessage) {
+            final ObjectMessage objectMessage = (ObjectMessage) message;
+            object = objectMessage.getParameter();
+        } else if (message instanceof ReusableObjectMessage) {
+            final ReusableObjectMessage objectMessage = (ReusableObjectMessage) message;
+            object = objectMessage.getParameter();
+        } else {
             return false;
         }
-
-        // Serialize object.
-        final ObjectMessage objectMessage = (ObjectMessage) message;
-        final Object object = objectMessage.getParameter();
         jsonWriter.writeValue(object);
         return true;
     }
@@ -306,8 +306,7 @@ class ReadOnlyStringMapResolver implements EventResolver {
                 }
                 final LoopContext loopContext = loopContextRecycler.acquire();
                 loopContext.jsonWriter = jsonWriter;
-                loopContext.initJsonWriterStringBuilderLength =
-                        jsonWriter.getStringBuilder().length();
+                loopContext.initJsonWriterPosition = jsonWriter.getPosition();
                 loopContext.succeedingEntry = flatten && succeedingEntry;
                 try {
                     map.forEach(LoopMethod.INSTANCE, loopContext);
@@ -335,7 +334,7 @@ class ReadOnlyStringMapResolver implements EventResolver {
 
         private JsonWriter jsonWriter;
 
-        private int initJsonWriterStringBuilderLength;
+        private long initJsonWriterPosition;
 
         private boolean succeedingEntry;
     }
@@ -352,13 +351,12 @@ class ReadOnlyStringMapResolver implements EventResolver {
                         ? matcher.replaceAll(loopContext.replacement)
                         : key;
                 final boolean succeedingEntry = loopContext.succeedingEntry
-                        || loopContext.initJsonWriterStringBuilderLength
-                                < loopContext.jsonWriter.getStringBuilder().length();
+                        || loopContext.initJsonWriterPosition < loopContext.jsonWriter.getPosition();
                 if (succeedingEntry) {
                     loopContext.jsonWriter.writeSeparator();
                 }
                 if (loopContext.prefix == null) {
-                    loopContext.jsonWriter.writeObjectKey(replacedKey);
+                    loopContext.jsonWriter.writeCachedObjectKey(replacedKey);
                 } else {
                     loopContext.prefixedKey.setLength(loopContext.prefix.length());
                     loopContext.prefixedKey.append(replacedKey);
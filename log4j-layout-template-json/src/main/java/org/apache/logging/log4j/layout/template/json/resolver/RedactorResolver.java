@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.layout.template.json.resolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.util.internal.regex.Redactor;
+import org.apache.logging.log4j.layout.template.json.util.JsonWriter;
+import org.apache.logging.log4j.layout.template.json.util.MapAccessor;
+import org.apache.logging.log4j.layout.template.json.util.Recycler;
+
+/**
+ * Replaces sensitive content in string values, e.g., credentials, card numbers.
+ *
+ * <h3>Configuration</h3>
+ *
+ * <pre>
+ * config      = input , rules
+ * input       = JSON
+ * rules       = "rules" -> [ rule , ... ]
+ * rule        = ( regex | literal ) , replacement
+ * regex       = "regex" -> string
+ * literal     = "literal" -> string
+ * replacement = "replacement" -> string
+ * </pre>
+ *
+ * {@code input} can be any available template value; e.g., a JSON literal,
+ * a lookup string, an object pointing to another resolver.
+ * <p>
+ * All rules are compiled into a single automaton and the resolved string is
+ * rewritten in a single pass. The time spent per character grows with the
+ * total size of the rules, in the worst case linearly. At every
+ * position, the leftmost match wins and, among the rules matching at the same
+ * position, the one declared first wins. {@code regex} must be supported by the
+ * {@code linear} regular expression engine, that is, back-references and
+ * look-around are not allowed. The {@code replacement} of a {@code regex} rule
+ * can refer to its groups, e.g., {@code $1}, {@code ${name}}, whereas the
+ * {@code replacement} of a {@code literal} rule is emitted as is.
+ * <p>
+ * Values that don't resolve to a string are passed as is.
+ *
+ * <h3>Examples</h3>
+ *
+ * Mask passwords and card numbers in the formatted message:
+ *
+ * <pre>
+ * {
+ *   "$resolver": "redactor",
+ *   "input": {
+ *     "$resolver": "message",
+ *     "stringified": true
+ *   },
+ *   "rules": [
+ *     {
+ *       "regex": "(password=)\\S+",
+ *       "replacement": "$1***"
+ *     },
+ *     {
+ *       "regex": "\\b(\\d{4})\\d{8}(\\d{4})\\b",
+ *       "replacement": "$1********$2"
+ *     },
+ *     {
+ *       "literal": "s3cr3t",
+ *       "replacement": "***"
+ *     }
+ *   ]
+ * }
+ * </pre>
+ */
+public final class RedactorResolver implements EventResolver {
+
+    private final TemplateResolver<LogEvent> inputResolver;
+
+    private final Redactor redactor;
+
+    private final Recycler<StringBuilder> stringBuilderRecycler;
+
+    private final BiConsumer<LogEvent, JsonWriter> inputWriter;
+
+    private final BiConsumer<LogEvent, JsonWriter> firstEntryInputWriter;
+
+    private final BiConsumer<LogEvent, JsonWriter> succeedingEntryInputWriter;
+
+    private final JsonWriter.Rewriter<LogEvent> rewriter;
+
+    RedactorResolver(final EventResolverContext context, final TemplateResolverConfig config) {
+        this.inputResolver = createDelegate(context, config);
+        this.redactor = createRedactor(config);
+        this.stringBuilderRecycler = createStringBuilderRecycler(context);
+        this.inputWriter = inputResolver::resolve;
+        this.firstEntryInputWriter = (logEvent, jsonWriter) -> inputResolver.resolve(logEvent, jsonWriter, false);
+        this.succeedingEntryInputWriter = (logEvent, jsonWriter) -> inputResolver.resolve(logEvent, jsonWriter, true);
+        this.rewriter = (logEvent, jsonWriter, startIndex) -> redact(jsonWriter, startIndex);
+    }
+
+    private static TemplateResolver<LogEvent> createDelegate(
+            final EventResolverContext context, final TemplateResolverConfig config) {
+        final Object delegateObject = config.getObject("input");
+        return TemplateResolvers.ofObject(context, delegateObject);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static Redactor createRedactor(final TemplateResolverConfig config) {
+        final List<Map> ruleObjects = config.getList("rules", Map.class);
+        if (ruleObjects == null || ruleObjects.isEmpty()) {
+            throw new IllegalArgumentException("was expecting rules: " + config);
+        }
+        final List<Redactor.Rule> rules = new ArrayList<>(ruleObjects.size());
+        for (final Map ruleObject : ruleObjects) {
+            @SuppressWarnings("unchecked")
+            final MapAccessor ruleAccessor = new MapAccessor((Map<String, Object>) ruleObject);
+            final String regex = ruleAccessor.getString("regex");
+            final String literal = ruleAccessor.getString("literal");
+            final String replacement = ruleAccessor.getString("replacement");
+            if ((regex == null) == (literal == null) || replacement == null) {
+                throw new IllegalArgumentException(
+                        "was expecting either a regex or a literal along with a replacement: " + ruleAccessor);
+            }
+            rules.add(
+                    regex != null
+                            ? Redactor.Rule.ofRegex(regex, replacement)
+                            : Redactor.Rule.ofLiteral(literal, replacement));
+        }
+        return Redactor.compile(rules);
+    }
+
+    private static Recycler<StringBuilder> createStringBuilderRecycler(final EventResolverContext context) {
+        return context.getRecyclerFactory().create(StringBuilder::new, stringBuilder -> {
+            final int maxLength = context.getJsonWriter().getMaxStringLength();
+            trimStringBuilder(stringBuilder, maxLength);
+        });
+    }
+
+    private static void trimStringBuilder(final StringBuilder stringBuilder, final int maxLength) {
+        if (stringBuilder.length() > maxLength) {
+            stringBuilder.setLength(maxLength);
+            stringBuilder.trimToSize();
+        }
+        stringBuilder.setLength(0);
+    }
+
+    static String getName() {
+        return "redactor";
+    }
+
+    @Override
+    public boolean isFlattening() {
+        return inputResolver.isFlattening();
+    }
+
+    @Override
+    public boolean isResolvable() {
+        return inputResolver.isResolvable();
+    }
+
+    @Override
+    public boolean isResolvable(final LogEvent logEvent) {
+        return inputResolver.isResolvable(logEvent);
+    }
+
+    @Override
+    public void resolve(final LogEvent logEvent, final JsonWriter jsonWriter) {
+        jsonWriter.writeAndRewrite(inputWriter, rewriter, logEvent);
+    }
+
+    @Override
+    public void resolve(final LogEvent logEvent, final JsonWriter jsonWriter, final boolean succeedingEntry) {
+        final BiConsumer<LogEvent, JsonWriter> writer =
+                succeedingEntry ? succeedingEntryInputWriter : firstEntryInputWriter;
+        jsonWriter.writeAndRewrite(writer, rewriter, logEvent);
+    }
+
+    private void redact(final JsonWriter jsonWriter, final int startIndex) {
+
+        // Only redact if the last emitted JSON token was a string.
+        final StringBuilder jsonWriterStringBuilder = jsonWriter.getStringBuilder();
+        final int endIndex = jsonWriterStringBuilder.length();
+        final boolean stringTyped = (startIndex + 1) < endIndex
+                && jsonWriterStringBuilder.charAt(startIndex) == '"'
+                && jsonWriterStringBuilder.charAt(endIndex - 1) == '"';
+        if (!stringTyped) {
+            return;
+        }
+
+        // Unquote the emitted string, redact it, and quote it back.
+        final StringBuilder unquotedString = stringBuilderRecycler.acquire();
+        final StringBuilder redactedString = stringBuilderRecycler.acquire();
+        try {
+            unquote(jsonWriterStringBuilder, startIndex + 1, endIndex - 1, unquotedString);
+            redactor.redact(unquotedString, redactedString);
+            jsonWriterStringBuilder.setLength(startIndex);
+            jsonWriter.writeString(redactedString);
+        } finally {
+            stringBuilderRecycler.release(redactedString);
+            stringBuilderRecycler.release(unquotedString);
+        }
+    }
+
+    /**
+     * Reverts the JSON string quoting performed by {@link JsonWriter}.
+     */
+    private static void unquote(
+            final CharSequence quotedString, final int startIndex, final int endIndex, final StringBuilder output) {
+        int i = startIndex;
+        while (i < endIndex) {
+            final char c = quotedString.charAt(i++);
+            if (c != '\\' || i >= endIndex) {
+                output.append(c);
+                continue;
+            }
+            final char escape = quotedString.charAt(i++);
+            switch (escape) {
+                case 'b':
+                    output.append('\b');
+                    break;
+                case 'f':
+                    output.append('\f');
+                    break;
+                case 'n':
+                    output.append('\n');
+                    break;
+                case 'r':
+                    output.append('\r');
+                    break;
+                case 't':
+                    output.append('\t');
+                    break;
+                case 'u':
+                    int codePoint = 0;
+                    for (final int limit = Math.min(i + 4, endIndex); i < limit; i++) {
+                        codePoint = (codePoint << 4) | Character.digit(quotedString.charAt(i), 16);
+                    }
+                    output.append((char) codePoint);
+                    break;
+                default:
+                    // Covers `"`, `\` and `/`
+                    output.append(escape);
+            }
+        }
+    }
+}
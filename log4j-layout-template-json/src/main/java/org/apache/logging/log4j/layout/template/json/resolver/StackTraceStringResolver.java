@@ -79,8 +79,16 @@ final class StackTraceStringResolver implements StackTraceResolver {
 
     @Override
     public void resolve(final Throwable throwable, final JsonWriter jsonWriter) {
+        resolve(throwable, "", jsonWriter);
+    }
+
+    /**
+     * Resolves the stack trace of the given {@link Throwable} preceded by the given header.
+     */
+    void resolve(final Throwable throwable, final CharSequence header, final JsonWriter jsonWriter) {
         final TruncatingBufferedPrintWriter srcWriter = srcWriterRecycler.acquire();
         try {
+            srcWriter.append(header);
             throwable.printStackTrace(srcWriter);
             truncate(srcWriter, jsonWriter::writeString);
         } finally {
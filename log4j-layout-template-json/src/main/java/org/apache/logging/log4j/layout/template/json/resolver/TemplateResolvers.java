@@ -21,7 +21,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import org.apache.logging.log4j.layout.template.json.util.JsonReader;
 import org.apache.logging.log4j.layout.template.json.util.JsonWriter;
 
@@ -158,6 +157,15 @@ public final class TemplateResolvers {
             return emptyArrayResolver;
         }
 
+        // Pre-render the array if all items are constants.
+        final boolean constant = itemResolvers.stream().allMatch(ConstantResolver.class::isInstance);
+        if (constant) {
+            final String json = itemResolvers.stream()
+                    .map(itemResolver -> ((ConstantResolver<V>) itemResolver).json)
+                    .collect(Collectors.joining(",", "[", "]"));
+            return new ConstantResolver<>(json);
+        }
+
         // Create a parent resolver collecting each child resolver execution.
         return new ArrayResolver<>(itemResolvers);
     }
@@ -203,6 +211,13 @@ public final class TemplateResolvers {
             return emptyObjectResolver;
         }
 
+        // Pre-render the object if all fields are constants.
+        // Consecutive constant fields are already fused into a single one.
+        if (fieldCount == 1 && fieldResolverContexts.get(0).constant) {
+            final String json = ((ConstantResolver<V>) fieldResolverContexts.get(0).resolver).json;
+            return new ConstantResolver<>('{' + json + '}');
+        }
+
         // Create the resolver.
         return new MapResolver<>(fieldResolverContexts);
     }
@@ -233,22 +248,43 @@ public final class TemplateResolvers {
                 })
                 .collect(Collectors.toList());
 
-        // Collect field resolver contexts.
+        // Collect field resolver contexts, fusing consecutive constant fields into a single pre-rendered one.
         final int fieldCount = fieldNames.size();
-        return IntStream.range(0, fieldCount)
-                .mapToObj(fieldIndex -> {
-                    final TemplateResolver<V> fieldResolver = fieldResolvers.get(fieldIndex);
-                    final FieldResolverMethod<V> fieldResolverMethod;
-                    final boolean flattening = fieldResolver.isFlattening();
-                    if (flattening) {
-                        fieldResolverMethod = new FlatteningFieldResolverMethod<>(fieldResolver);
-                    } else {
-                        final String fieldPrefix = fieldPrefixes.get(fieldIndex);
-                        fieldResolverMethod = new PrefixedFieldResolverMethod<>(fieldPrefix, fieldResolver);
-                    }
-                    return new FieldResolverContext<>(fieldResolver, fieldResolverMethod);
-                })
-                .collect(Collectors.toList());
+        final List<FieldResolverContext<V>> fieldResolverContexts = new ArrayList<>(fieldCount);
+        final StringBuilder constantFieldsBuilder = new StringBuilder();
+        for (int fieldIndex = 0; fieldIndex < fieldCount; fieldIndex++) {
+            final TemplateResolver<V> fieldResolver = fieldResolvers.get(fieldIndex);
+            final String fieldPrefix = fieldPrefixes.get(fieldIndex);
+            if (fieldResolver instanceof ConstantResolver) {
+                if (constantFieldsBuilder.length() > 0) {
+                    constantFieldsBuilder.append(',');
+                }
+                constantFieldsBuilder.append(fieldPrefix).append(((ConstantResolver<V>) fieldResolver).json);
+                continue;
+            }
+            addConstantFieldResolverContext(fieldResolverContexts, constantFieldsBuilder);
+            final FieldResolverMethod<V> fieldResolverMethod;
+            final boolean flattening = fieldResolver.isFlattening();
+            if (flattening) {
+                fieldResolverMethod = new FlatteningFieldResolverMethod<>(fieldResolver);
+            } else {
+                fieldResolverMethod = new PrefixedFieldResolverMethod<>(fieldPrefix, fieldResolver);
+            }
+            fieldResolverContexts.add(new FieldResolverContext<>(fieldResolver, fieldResolverMethod, false));
+        }
+        addConstantFieldResolverContext(fieldResolverContexts, constantFieldsBuilder);
+        return fieldResolverContexts;
+    }
+
+    private static <V> void addConstantFieldResolverContext(
+            final List<FieldResolverContext<V>> fieldResolverContexts, final StringBuilder constantFieldsBuilder) {
+        if (constantFieldsBuilder.length() > 0) {
+            final String constantFields = constantFieldsBuilder.toString();
+            constantFieldsBuilder.setLength(0);
+            final TemplateResolver<V> fieldResolver = new ConstantResolver<>(constantFields);
+            final FieldResolverMethod<V> fieldResolverMethod = new ConstantFieldResolverMethod<>(constantFields);
+            fieldResolverContexts.add(new FieldResolverContext<>(fieldResolver, fieldResolverMethod, true));
+        }
     }
 
     private static final class FieldResolverContext<V> {
@@ -257,9 +293,18 @@ public final class TemplateResolvers {
 
         private final FieldResolverMethod<V> resolverMethod;
 
-        private FieldResolverContext(final TemplateResolver<V> resolver, final FieldResolverMethod<V> resolverMethod) {
+        /**
+         * Indicates that the field(s) are pre-rendered, and hence always resolvable.
+         */
+        private final boolean constant;
+
+        private FieldResolverContext(
+                final TemplateResolver<V> resolver,
+                final FieldResolverMethod<V> resolverMethod,
+                final boolean constant) {
             this.resolver = resolver;
             this.resolverMethod = resolverMethod;
+            this.constant = constant;
         }
     }
 
@@ -283,10 +328,27 @@ public final class TemplateResolvers {
             if (!resolvable) {
                 return false;
             }
-            final StringBuilder jsonWriterStringBuilder = jsonWriter.getStringBuilder();
-            final int initLength = jsonWriterStringBuilder.length();
+            final long initPosition = jsonWriter.getPosition();
             fieldResolver.resolve(value, jsonWriter, succeedingEntry);
-            return jsonWriterStringBuilder.length() > initLength;
+            return jsonWriter.getPosition() > initPosition;
+        }
+    }
+
+    private static final class ConstantFieldResolverMethod<V> implements FieldResolverMethod<V> {
+
+        private final String constantFields;
+
+        private ConstantFieldResolverMethod(final String constantFields) {
+            this.constantFields = constantFields;
+        }
+
+        @Override
+        public boolean resolve(final V ignored, final JsonWriter jsonWriter, final boolean succeedingEntry) {
+            if (succeedingEntry) {
+                jsonWriter.writeSeparator();
+            }
+            jsonWriter.writeRawString(constantFields);
+            return true;
         }
     }
 
@@ -320,8 +382,32 @@ public final class TemplateResolvers {
 
         private final List<FieldResolverContext<V>> fieldResolverContexts;
 
+        /**
+         * Indicates that there is at least one constant field, hence the object is always resolvable.
+         */
+        private final boolean constantFieldFound;
+
+        /**
+         * The object start, merged with the leading constant fields, if there are any.
+         */
+        private final String objectStart;
+
+        /**
+         * Index of the first field to resolve at runtime, i.e., excluding the one merged into {@link #objectStart}.
+         */
+        private final int firstFieldIndex;
+
         private MapResolver(final List<FieldResolverContext<V>> fieldResolverContexts) {
             this.fieldResolverContexts = fieldResolverContexts;
+            this.constantFieldFound = fieldResolverContexts.stream().anyMatch(context -> context.constant);
+            final FieldResolverContext<V> firstFieldResolverContext = fieldResolverContexts.get(0);
+            if (firstFieldResolverContext.constant) {
+                this.objectStart = '{' + ((ConstantResolver<V>) firstFieldResolverContext.resolver).json;
+                this.firstFieldIndex = 1;
+            } else {
+                this.objectStart = "{";
+                this.firstFieldIndex = 0;
+            }
         }
 
         @Override
@@ -340,6 +426,9 @@ public final class TemplateResolvers {
          */
         @Override
         public boolean isResolvable(final V value) {
+            if (constantFieldFound) {
+                return true;
+            }
             final int fieldCount = fieldResolverContexts.size();
             // noinspection ForLoopReplaceableByForEach (avoid iterator instantiation)
             for (int fieldIndex = 0; fieldIndex < fieldCount; fieldIndex++) {
@@ -357,11 +446,14 @@ public final class TemplateResolvers {
          */
         @Override
         public void resolve(final V value, final JsonWriter jsonWriter) {
-            jsonWriter.writeObjectStart();
+            jsonWriter.writeRawString(objectStart);
             final int fieldCount = fieldResolverContexts.size();
-            for (int resolvedFieldCount = 0, fieldIndex = 0; fieldIndex < fieldCount; fieldIndex++) {
+            for (int resolvedFieldCount = firstFieldIndex, fieldIndex = firstFieldIndex;
+                    fieldIndex < fieldCount;
+                    fieldIndex++) {
                 final FieldResolverContext<V> fieldResolverContext = fieldResolverContexts.get(fieldIndex);
-                final boolean resolvable = fieldResolverContext.resolver.isResolvable(value);
+                final boolean resolvable =
+                        fieldResolverContext.constant || fieldResolverContext.resolver.isResolvable(value);
                 if (!resolvable) {
                     continue;
                 }
@@ -422,7 +514,7 @@ public final class TemplateResolvers {
                     final String escapedReplacedText =
                             contextJsonWriter.use(() -> contextJsonWriter.writeString(replacedText));
                     // Create a resolver dedicated to the escaped replacement.
-                    return new RawStringResolver<>(escapedReplacedText);
+                    return new ConstantResolver<>(escapedReplacedText);
                 }
             }
 
@@ -437,7 +529,7 @@ public final class TemplateResolvers {
         // Write the field value as is.
         else {
             final String escapedFieldValue = contextJsonWriter.use(() -> contextJsonWriter.writeString(fieldValue));
-            return new RawStringResolver<>(escapedFieldValue);
+            return new ConstantResolver<>(escapedFieldValue);
         }
     }
 
@@ -460,53 +552,32 @@ public final class TemplateResolvers {
         }
     }
 
-    private static final class RawStringResolver<V> implements TemplateResolver<V> {
-
-        private final String rawString;
-
-        private RawStringResolver(final String rawString) {
-            this.rawString = rawString;
-        }
-
-        @Override
-        public void resolve(final V ignored, final JsonWriter jsonWriter) {
-            jsonWriter.writeRawString(rawString);
-        }
-    }
-
     private static <V> TemplateResolver<V> ofNumber(final Number number) {
-        return new NumberResolver<>(number);
-    }
-
-    private static final class NumberResolver<V> implements TemplateResolver<V> {
-
-        private final String numberString;
-
-        private NumberResolver(final Number number) {
-            this.numberString = String.valueOf(number);
-        }
-
-        @Override
-        public void resolve(final V ignored, final JsonWriter jsonWriter) {
-            jsonWriter.writeRawString(numberString);
-        }
+        return new ConstantResolver<>(String.valueOf(number));
     }
 
     private static <V> TemplateResolver<V> ofBoolean(final boolean value) {
-        return new BooleanResolver<>(value);
+        return new ConstantResolver<>(value ? "true" : "false");
     }
 
-    private static final class BooleanResolver<V> implements TemplateResolver<V> {
+    /**
+     * Resolver writing a pre-rendered JSON value.
+     * <p>
+     * Constant resolvers are folded into their parents at compile time: arrays and objects consisting of constants only
+     * are pre-rendered as a whole, and consecutive constant fields of an object are fused into a single chunk.
+     * </p>
+     */
+    private static final class ConstantResolver<V> implements TemplateResolver<V> {
 
-        private final boolean value;
+        private final String json;
 
-        private BooleanResolver(final boolean value) {
-            this.value = value;
+        private ConstantResolver(final String json) {
+            this.json = json;
         }
 
         @Override
         public void resolve(final V ignored, final JsonWriter jsonWriter) {
-            jsonWriter.writeBoolean(value);
+            jsonWriter.writeRawString(json);
         }
     }
 }
@@ -43,7 +43,7 @@ public final class ThreadResolver implements EventResolver {
 
     private static final EventResolver NAME_RESOLVER = (final LogEvent logEvent, final JsonWriter jsonWriter) -> {
         final String threadName = logEvent.getThreadName();
-        jsonWriter.writeString(threadName);
+        jsonWriter.writeCachedString(threadName);
     };
 
     private static final EventResolver ID_RESOLVER = (final LogEvent logEvent, final JsonWriter jsonWriter) -> {
@@ -0,0 +1,690 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.layout.template.json.util;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Encodes JSON values into a binary format, as written by a {@link JsonWriter} built with a
+ * {@link JsonWriter.Builder#setBinaryFormat(Format) binary format}.
+ * <p>
+ * The output is a length-prefixed frame: a 4-byte big-endian payload length followed by the payload.
+ * Values are encoded as they are written, except the JSON text written in raw, e.g., pre-rendered constant fields of a
+ * template, which is transcoded in a single streaming pass.
+ * Objects, arrays, strings, integral numbers, booleans, and {@code null}s are encoded without allocations.
+ * Non-integral numbers are encoded as 64-bit floats, which allocates while transcoding them from JSON text.
+ * </p>
+ * <p>
+ * Instances are not thread-safe and are meant to be recycled.
+ * </p>
+ *
+ * @since 2.27.0
+ */
+public final class BinaryJsonEncoder implements AutoCloseable {
+
+    /**
+     * Supported binary formats.
+     */
+    public enum Format {
+
+        /**
+         * <a href="https://www.rfc-editor.org/rfc/rfc8949">CBOR</a> using indefinite-length objects and arrays.
+         */
+        CBOR("application/cbor"),
+
+        /**
+         * <a href="https://github.com/msgpack/msgpack/blob/master/spec.md">MessagePack</a>.
+         */
+        MESSAGE_PACK("application/msgpack");
+
+        private final String contentType;
+
+        Format(final String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+
+    private static final int FRAME_HEADER_LENGTH = 4;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final int INITIAL_MAX_DEPTH = 16;
+
+    /**
+     * MessagePack container headers are reserved with their maximum length, and compacted once the element count is
+     * known.
+     */
+    private static final int MAX_MESSAGE_PACK_CONTAINER_HEADER_LENGTH = 5;
+
+    private final Format format;
+
+    private final boolean cbor;
+
+    private final int maxRetainedLength;
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+
+    private int length = FRAME_HEADER_LENGTH;
+
+    /**
+     * Offsets of the headers of the open containers.
+     */
+    private int[] containerHeaderOffsets = new int[INITIAL_MAX_DEPTH];
+
+    /**
+     * Number of items written to the open containers, counting both the keys and the values of objects.
+     */
+    private int[] containerItemCounts = new int[INITIAL_MAX_DEPTH];
+
+    private boolean[] containerObjectFlags = new boolean[INITIAL_MAX_DEPTH];
+
+    private int depth;
+
+    private CharSequence json;
+
+    private int index;
+
+    private int endIndex;
+
+    /**
+     * @param format the binary format
+     * @param maxRetainedLength the buffer length retained by {@link #close()}
+     */
+    BinaryJsonEncoder(final Format format, final int maxRetainedLength) {
+        this.format = Objects.requireNonNull(format, "format");
+        this.cbor = Format.CBOR.equals(format);
+        this.maxRetainedLength = Math.max(INITIAL_CAPACITY, maxRetainedLength);
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * @return the buffer containing the frame completed by the last {@link #completeFrame()} call
+     */
+    public byte[] getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * @return the number of bytes written to the {@link #getBuffer() buffer}, including the frame header
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Writes the payload length to the frame header.
+     *
+     * @return the frame length
+     * @throws IllegalStateException if an object or an array is not closed
+     */
+    int completeFrame() {
+        if (depth > 0) {
+            throw new IllegalStateException("was expecting all objects and arrays to be closed, found: " + depth);
+        }
+        final int payloadLength = length - FRAME_HEADER_LENGTH;
+        buffer[0] = (byte) (payloadLength >>> 24);
+        buffer[1] = (byte) (payloadLength >>> 16);
+        buffer[2] = (byte) (payloadLength >>> 8);
+        buffer[3] = (byte) payloadLength;
+        return length;
+    }
+
+    void writeObjectStart() {
+        startContainer(true);
+    }
+
+    void writeObjectEnd() {
+        endContainer(true);
+    }
+
+    void writeArrayStart() {
+        startContainer(false);
+    }
+
+    void writeArrayEnd() {
+        endContainer(false);
+    }
+
+    /**
+     * Writes the given characters followed by the given suffix as a single string.
+     *
+     * @param suffix a suffix, e.g., to denote truncation, or {@code null}
+     */
+    void writeString(final CharSequence seq, final int offset, final int length, final String suffix) {
+        countItem();
+        final int limit = offset + length;
+        final int suffixLength = suffix != null ? suffix.length() : 0;
+        final int utf8Length = utf8Length(seq, offset, limit) + utf8Length(suffix, 0, suffixLength);
+        writeStringHeader(utf8Length);
+        ensureCapacity(utf8Length);
+        encodeUtf8(seq, offset, limit);
+        encodeUtf8(suffix, 0, suffixLength);
+    }
+
+    void writeString(final char value) {
+        countItem();
+        if (value < 0x80) {
+            writeStringHeader(1);
+            writeByte(value);
+        } else if (value < 0x800) {
+            writeStringHeader(2);
+            writeByte(0xC0 | (value >> 6));
+            writeByte(0x80 | (value & 0x3F));
+        } else if (Character.isSurrogate(value)) {
+            writeStringHeader(1);
+            writeByte('?');
+        } else {
+            writeStringHeader(3);
+            writeByte(0xE0 | (value >> 12));
+            writeByte(0x80 | ((value >> 6) & 0x3F));
+            writeByte(0x80 | (value & 0x3F));
+        }
+    }
+
+    /**
+     * Counts the UTF-8 bytes of the given characters, where unpaired surrogates count as a replacement {@code ?}.
+     */
+    private static int utf8Length(final CharSequence seq, final int offset, final int limit) {
+        int utf8Length = 0;
+        for (int i = offset; i < limit; i++) {
+            final char c = seq.charAt(i);
+            if (c < 0x80) {
+                utf8Length++;
+            } else if (c < 0x800) {
+                utf8Length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < limit && Character.isLowSurrogate(seq.charAt(i + 1))) {
+                i++;
+                utf8Length += 4;
+            } else if (Character.isSurrogate(c)) {
+                utf8Length++;
+            } else {
+                utf8Length += 3;
+            }
+        }
+        return utf8Length;
+    }
+
+    /**
+     * Encodes the given characters in UTF-8, where unpaired surrogates are replaced with {@code ?}.
+     * The capacity is expected to be {@link #ensureCapacity(int) ensured} by the caller.
+     */
+    private void encodeUtf8(final CharSequence seq, final int offset, final int limit) {
+        final byte[] buffer = this.buffer;
+        int length = this.length;
+        for (int i = offset; i < limit; i++) {
+            final char c = seq.charAt(i);
+            if (c < 0x80) {
+                buffer[length++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[length++] = (byte) (0xC0 | (c >> 6));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < limit && Character.isLowSurrogate(seq.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, seq.charAt(++i));
+                buffer[length++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer[length++] = '?';
+            } else {
+                buffer[length++] = (byte) (0xE0 | (c >> 12));
+                buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        this.length = length;
+    }
+
+    void writeBoolean(final boolean value) {
+        countItem();
+        if (cbor) {
+            writeByte(value ? 0xF5 : 0xF4);
+        } else {
+            writeByte(value ? 0xC3 : 0xC2);
+        }
+    }
+
+    void writeNull() {
+        countItem();
+        writeByte(cbor ? 0xF6 : 0xC0);
+    }
+
+    void writeNumber(final long value) {
+        countItem();
+        if (cbor) {
+            // Negative integers are encoded as `-1 - n`.
+            if (value >= 0) {
+                writeCborHeader(0x00, value);
+            } else {
+                writeCborHeader(0x20, -1 - value);
+            }
+        } else if (value >= -32 && value < 128) {
+            // Positive and negative fixint
+            writeByte((int) value & 0xFF);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            writeByte(0xD0);
+            writeByte((int) value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            writeByte(0xD1);
+            writeShort((int) value);
+        } else if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            writeByte(0xD2);
+            writeInt((int) value);
+        } else {
+            writeByte(0xD3);
+            writeInt((int) (value >>> 32));
+            writeInt((int) value);
+        }
+    }
+
+    void writeNumber(final double value) {
+        countItem();
+        final long bits = Double.doubleToLongBits(value);
+        writeByte(cbor ? 0xFB : 0xCB);
+        writeInt((int) (bits >>> 32));
+        writeInt((int) bits);
+    }
+
+    /**
+     * Transcodes the given JSON text, which can contain a sequence of tokens, e.g., {@code "key":"value","key2":},
+     * rather than a complete JSON value.
+     *
+     * @throws IllegalArgumentException on malformed input
+     */
+    void transcode(final CharSequence json, final int offset, final int length) {
+        this.json = json;
+        this.index = offset;
+        this.endIndex = offset + length;
+        try {
+            while (index < endIndex) {
+                final char c = json.charAt(index);
+                switch (c) {
+                    case ' ':
+                    case '\n':
+                    case '\r':
+                    case '\t':
+                    case ',':
+                    case ':':
+                        index++;
+                        break;
+                    case '{':
+                        index++;
+                        startContainer(true);
+                        break;
+                    case '}':
+                        index++;
+                        endContainer(true);
+                        break;
+                    case '[':
+                        index++;
+                        startContainer(false);
+                        break;
+                    case ']':
+                        index++;
+                        endContainer(false);
+                        break;
+                    case '"':
+                        transcodeString();
+                        break;
+                    case 't':
+                        expectLiteral("true");
+                        writeBoolean(true);
+                        break;
+                    case 'f':
+                        expectLiteral("false");
+                        writeBoolean(false);
+                        break;
+                    case 'n':
+                        expectLiteral("null");
+                        writeNull();
+                        break;
+                    default:
+                        transcodeNumber();
+                }
+            }
+        } finally {
+            this.json = null;
+        }
+    }
+
+    private void transcodeString() {
+        countItem();
+        index++;
+        // Compute the UTF-8 length first, and then encode.
+        final int startIndex = index;
+        int utf8Length = 0;
+        for (int c = readStringChar(); c >= 0; c = readStringChar()) {
+            if (c < 0x80) {
+                utf8Length++;
+            } else if (c < 0x800) {
+                utf8Length += 2;
+            } else if (Character.isHighSurrogate((char) c) && peekLowSurrogate()) {
+                readStringChar();
+                utf8Length += 4;
+            } else if (Character.isSurrogate((char) c)) {
+                utf8Length++;
+            } else {
+                utf8Length += 3;
+            }
+        }
+        writeStringHeader(utf8Length);
+        ensureCapacity(utf8Length);
+        index = startIndex;
+        final byte[] buffer = this.buffer;
+        int length = this.length;
+        for (int c = readStringChar(); c >= 0; c = readStringChar()) {
+            if (c < 0x80) {
+                buffer[length++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[length++] = (byte) (0xC0 | (c >> 6));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate((char) c) && peekLowSurrogate()) {
+                final int codePoint = Character.toCodePoint((char) c, (char) readStringChar());
+                buffer[length++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate((char) c)) {
+                buffer[length++] = '?';
+            } else {
+                buffer[length++] = (byte) (0xE0 | (c >> 12));
+                buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        this.length = length;
+    }
+
+    /**
+     * Reads the next character of the string, unescaping it if necessary.
+     *
+     * @return the character, or {@code -1}, if the closing quote is consumed
+     */
+    private int readStringChar() {
+        final char c = peek();
+        index++;
+        if (c == '"') {
+            return -1;
+        }
+        if (c != '\\') {
+            return c;
+        }
+        final char escaped = peek();
+        index++;
+        switch (escaped) {
+            case '"':
+            case '\\':
+            case '/':
+                return escaped;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                if (index + 4 > endIndex) {
+                    throw malformedJson();
+                }
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    final int digit = Character.digit(json.charAt(index++), 16);
+                    if (digit < 0) {
+                        throw malformedJson();
+                    }
+                    value = (value << 4) | digit;
+                }
+                return value;
+            default:
+                throw malformedJson();
+        }
+    }
+
+    private boolean peekLowSurrogate() {
+        final int startIndex = index;
+        final int c = readStringChar();
+        index = startIndex;
+        return c >= 0 && Character.isLowSurrogate((char) c);
+    }
+
+    private void transcodeNumber() {
+        final int startIndex = index;
+        boolean integral = true;
+        for (; index < endIndex; index++) {
+            final char c = json.charAt(index);
+            if (c == '.' || c == 'e' || c == 'E') {
+                integral = false;
+            } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                break;
+            }
+        }
+        if (index == startIndex) {
+            throw malformedJson();
+        }
+        if (integral) {
+            final boolean negative = json.charAt(startIndex) == '-';
+            final int digitStartIndex = negative ? startIndex + 1 : startIndex;
+            if (digitStartIndex < index) {
+                long value = 0;
+                boolean overflown = false;
+                for (int i = digitStartIndex; i < index; i++) {
+                    final char c = json.charAt(i);
+                    if (c < '0' || c > '9') {
+                        throw malformedJson();
+                    }
+                    final int digit = c - '0';
+                    if (value > (Long.MAX_VALUE - digit) / 10) {
+                        overflown = true;
+                        break;
+                    }
+                    value = 10 * value + digit;
+                }
+                if (!overflown) {
+                    writeNumber(negative ? -value : value);
+                    return;
+                }
+            }
+        }
+        final double value;
+        try {
+            value = Double.parseDouble(json.subSequence(startIndex, index).toString());
+        } catch (final NumberFormatException error) {
+            throw malformedJson();
+        }
+        writeNumber(value);
+    }
+
+    private void expectLiteral(final String literal) {
+        final int literalEndIndex = index + literal.length();
+        if (literalEndIndex > endIndex) {
+            throw malformedJson();
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (json.charAt(index + i) != literal.charAt(i)) {
+                throw malformedJson();
+            }
+        }
+        index = literalEndIndex;
+    }
+
+    private char peek() {
+        if (index >= endIndex) {
+            throw malformedJson();
+        }
+        return json.charAt(index);
+    }
+
+    private IllegalArgumentException malformedJson() {
+        return new IllegalArgumentException("malformed JSON at index " + index);
+    }
+
+    /**
+     * Counts an item, i.e., a value or an object key, in the enclosing container, if there is one.
+     */
+    private void countItem() {
+        if (depth > 0) {
+            containerItemCounts[depth - 1]++;
+        }
+    }
+
+    private void startContainer(final boolean object) {
+        countItem();
+        if (depth == containerHeaderOffsets.length) {
+            final int maxDepth = 2 * depth;
+            containerHeaderOffsets = Arrays.copyOf(containerHeaderOffsets, maxDepth);
+            containerItemCounts = Arrays.copyOf(containerItemCounts, maxDepth);
+            containerObjectFlags = Arrays.copyOf(containerObjectFlags, maxDepth);
+        }
+        containerHeaderOffsets[depth] = length;
+        containerItemCounts[depth] = 0;
+        containerObjectFlags[depth] = object;
+        depth++;
+        if (cbor) {
+            writeByte(object ? 0xBF : 0x9F);
+        } else {
+            // The element count is not known yet, reserve the longest header.
+            ensureCapacity(MAX_MESSAGE_PACK_CONTAINER_HEADER_LENGTH);
+            length += MAX_MESSAGE_PACK_CONTAINER_HEADER_LENGTH;
+        }
+    }
+
+    private void endContainer(final boolean object) {
+        if (depth == 0 || containerObjectFlags[depth - 1] != object) {
+            throw new IllegalStateException("was not expecting the end of an " + (object ? "object" : "array"));
+        }
+        depth--;
+        if (cbor) {
+            writeByte(0xFF);
+            return;
+        }
+
+        // Move the elements next to the shortest header.
+        final int headerOffset = containerHeaderOffsets[depth];
+        final int itemCount = containerItemCounts[depth];
+        final int size = object ? itemCount / 2 : itemCount;
+        final int headerLength = size < 16 ? 1 : size < 0x10000 ? 3 : MAX_MESSAGE_PACK_CONTAINER_HEADER_LENGTH;
+        final int contentOffset = headerOffset + MAX_MESSAGE_PACK_CONTAINER_HEADER_LENGTH;
+        if (headerLength < MAX_MESSAGE_PACK_CONTAINER_HEADER_LENGTH) {
+            System.arraycopy(buffer, contentOffset, buffer, headerOffset + headerLength, length - contentOffset);
+            length -= MAX_MESSAGE_PACK_CONTAINER_HEADER_LENGTH - headerLength;
+        }
+
+        // Write the header.
+        final int endOffset = length;
+        length = headerOffset;
+        if (size < 16) {
+            writeByte((object ? 0x80 : 0x90) | size);
+        } else if (size < 0x10000) {
+            writeByte(object ? 0xDE : 0xDC);
+            writeShort(size);
+        } else {
+            writeByte(object ? 0xDF : 0xDD);
+            writeInt(size);
+        }
+        length = endOffset;
+    }
+
+    private void writeStringHeader(final int utf8Length) {
+        if (cbor) {
+            writeCborHeader(0x60, utf8Length);
+        } else if (utf8Length < 32) {
+            writeByte(0xA0 | utf8Length);
+        } else if (utf8Length < 0x100) {
+            writeByte(0xD9);
+            writeByte(utf8Length);
+        } else if (utf8Length < 0x10000) {
+            writeByte(0xDA);
+            writeShort(utf8Length);
+        } else {
+            writeByte(0xDB);
+            writeInt(utf8Length);
+        }
+    }
+
+    /**
+     * Writes a CBOR initial byte of the given major type along with the argument in its shortest form.
+     */
+    private void writeCborHeader(final int majorType, final long argument) {
+        if (argument < 24) {
+            writeByte(majorType | (int) argument);
+        } else if (argument < 0x100) {
+            writeByte(majorType | 24);
+            writeByte((int) argument);
+        } else if (argument < 0x10000) {
+            writeByte(majorType | 25);
+            writeShort((int) argument);
+        } else if (argument < 0x100000000L) {
+            writeByte(majorType | 26);
+            writeInt((int) argument);
+        } else {
+            writeByte(majorType | 27);
+            writeInt((int) (argument >>> 32));
+            writeInt((int) argument);
+        }
+    }
+
+    private void writeByte(final int value) {
+        ensureCapacity(1);
+        buffer[length++] = (byte) value;
+    }
+
+    private void writeShort(final int value) {
+        ensureCapacity(2);
+        buffer[length++] = (byte) (value >>> 8);
+        buffer[length++] = (byte) value;
+    }
+
+    private void writeInt(final int value) {
+        ensureCapacity(4);
+        buffer[length++] = (byte) (value >>> 24);
+        buffer[length++] = (byte) (value >>> 16);
+        buffer[length++] = (byte) (value >>> 8);
+        buffer[length++] = (byte) value;
+    }
+
+    private void ensureCapacity(final int byteCount) {
+        final int requiredCapacity = length + byteCount;
+        if (requiredCapacity > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(requiredCapacity, 2 * buffer.length));
+        }
+    }
+
+    /**
+     * Discards the written frame, and trims the buffer, if an oversized frame has grown it beyond the maximum retained
+     * length.
+     */
+    @Override
+    public void close() {
+        if (buffer.length > maxRetainedLength) {
+            buffer = new byte[maxRetainedLength];
+        }
+        length = FRAME_HEADER_LENGTH;
+        depth = 0;
+    }
+}
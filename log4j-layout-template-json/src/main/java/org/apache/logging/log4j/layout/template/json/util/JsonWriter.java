@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import org.apache.logging.log4j.util.IndexedReadOnlyStringMap;
 import org.apache.logging.log4j.util.StringBuilderFormattable;
 import org.apache.logging.log4j.util.StringMap;
@@ -51,6 +52,11 @@ import org.apache.logging.log4j.util.StringMap;
  * <p>
  * Note that this class provides no protection against recursive collections,
  * e.g., an array where one or more elements reference to the array itself.
+ * <p>
+ * If {@link Builder#setBinaryFormat(BinaryJsonEncoder.Format) a binary format} is set, values are encoded into that
+ * format as they are written, and the frame of the written value is completed by {@link #completeBinaryFrame()}.
+ * JSON text written in raw, e.g., using {@link #writeRawString(CharSequence)} or {@link #getStringBuilder()}, is
+ * transcoded before the next value gets encoded.
  */
 public final class JsonWriter implements AutoCloseable, Cloneable {
 
@@ -86,6 +92,16 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
         ESC_CODES = table;
     }
 
+    /**
+     * Number of slots in the cache of quoted strings, must be a power of two.
+     */
+    private static final int QUOTED_STRING_CACHE_SLOT_COUNT = 64;
+
+    /**
+     * Number of characters quoted at once while chunking is enabled, before checking the flush threshold.
+     */
+    private static final int CHUNKED_QUOTE_SLICE_LENGTH = 1024;
+
     private final char[] quoteBuffer;
 
     private final StringBuilder stringBuilder;
@@ -98,6 +114,46 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
 
     private final String quotedTruncatedStringSuffix;
 
+    /**
+     * Maximum number of bytes retained by the cache of quoted strings, or zero, if the cache is disabled.
+     */
+    private final int quotedStringCacheByteCount;
+
+    private final String[] cachedStrings;
+
+    /**
+     * Quoted forms of {@link #cachedStrings} encoded in US-ASCII, hence one byte per character.
+     * Slots are reused on cache misses to stay garbage-free even if colliding strings alternate.
+     */
+    private final byte[][] cachedQuotedStrings;
+
+    private final int[] cachedQuotedStringLengths;
+
+    /**
+     * Total length of the {@link #cachedQuotedStrings} slots.
+     */
+    private int cachedQuotedStringByteCount;
+
+    private Consumer<StringBuilder> chunkConsumer;
+
+    private int chunkFlushThreshold;
+
+    private int chunkFlushSuspensionCount;
+
+    private long flushedLength;
+
+    /**
+     * Encoder of the binary format, or {@code null}, if JSON text is written.
+     */
+    private final BinaryJsonEncoder binaryEncoder;
+
+    private int binaryEncodingSuspensionCount;
+
+    /**
+     * Number of tokens encoded, and characters transcoded into the binary format, used to track the position.
+     */
+    private long binaryPosition;
+
     private JsonWriter(final Builder builder) {
         this.quoteBuffer = new char[] {'\\', '-', '0', '0', '-', '-'};
         this.stringBuilder = new StringBuilder(builder.maxStringLength);
@@ -105,6 +161,14 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
         this.maxStringLength = builder.maxStringLength;
         this.truncatedStringSuffix = builder.truncatedStringSuffix;
         this.quotedTruncatedStringSuffix = quoteString(builder.truncatedStringSuffix);
+        this.quotedStringCacheByteCount = builder.quotedStringCacheByteCount;
+        final boolean quotedStringCacheEnabled = quotedStringCacheByteCount > 0;
+        this.cachedStrings = quotedStringCacheEnabled ? new String[QUOTED_STRING_CACHE_SLOT_COUNT] : null;
+        this.cachedQuotedStrings = quotedStringCacheEnabled ? new byte[QUOTED_STRING_CACHE_SLOT_COUNT][] : null;
+        this.cachedQuotedStringLengths = quotedStringCacheEnabled ? new int[QUOTED_STRING_CACHE_SLOT_COUNT] : null;
+        this.binaryEncoder = builder.binaryFormat != null
+                ? new BinaryJsonEncoder(builder.binaryFormat, builder.maxStringLength)
+                : null;
     }
 
     private String quoteString(final String string) {
@@ -120,20 +184,207 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
     public String use(final Runnable runnable) {
         Objects.requireNonNull(runnable, "runnable");
         final int startIndex = stringBuilder.length();
+        suspendChunkFlushing();
+        binaryEncodingSuspensionCount++;
         try {
             runnable.run();
             final StringBuilder sliceStringBuilder = new StringBuilder();
             sliceStringBuilder.append(stringBuilder, startIndex, stringBuilder.length());
             return sliceStringBuilder.toString();
         } finally {
+            binaryEncodingSuspensionCount--;
+            resumeChunkFlushing();
             trimStringBuilder(stringBuilder, startIndex);
         }
     }
 
+    /**
+     * Returns the buffer the JSON is written to.
+     * <p>
+     * While {@link #startChunking(int, Consumer) chunking} is enabled, the buffer only contains the part of the JSON
+     * written since the last flush.
+     * Callers relying on buffer indices, e.g., to rewind the buffer, need to use
+     * {@link #writeAndRewrite(BiConsumer, Rewriter, Object)}.
+     * Use {@link #getPosition()} to check if anything is written.
+     * </p>
+     * <p>
+     * If a binary format is set, the buffer contains the JSON text written in raw and not transcoded yet.
+     * </p>
+     */
     public StringBuilder getStringBuilder() {
         return stringBuilder;
     }
 
+    /**
+     * @return the number of characters written, including the ones flushed while chunking; if a binary format is set,
+     * a number increasing with each write
+     */
+    public long getPosition() {
+        return flushedLength + binaryPosition + stringBuilder.length();
+    }
+
+    /**
+     * @return the binary format values are encoded into, or {@code null}, if JSON text is written
+     * @since 2.27.0
+     */
+    public BinaryJsonEncoder.Format getBinaryFormat() {
+        return binaryEncoder != null ? binaryEncoder.getFormat() : null;
+    }
+
+    /**
+     * Completes the binary frame of the value written since the last {@link #close()}.
+     *
+     * @return the frame length, i.e., the number of bytes of {@link #getBinaryBuffer()} to be written
+     * @throws IllegalStateException if no binary format is set, or if an object or an array is not closed
+     * @since 2.27.0
+     */
+    public int completeBinaryFrame() {
+        if (binaryEncoder == null) {
+            throw new IllegalStateException("no binary format is set");
+        }
+        flushBinaryText();
+        return binaryEncoder.completeFrame();
+    }
+
+    /**
+     * @return the buffer containing the frame completed by {@link #completeBinaryFrame()}
+     * @throws IllegalStateException if no binary format is set
+     * @since 2.27.0
+     */
+    public byte[] getBinaryBuffer() {
+        if (binaryEncoder == null) {
+            throw new IllegalStateException("no binary format is set");
+        }
+        return binaryEncoder.getBuffer();
+    }
+
+    /**
+     * @return {@code true}, if the next value is to be encoded into the binary format
+     */
+    private boolean isBinaryEncodingEnabled() {
+        return binaryEncoder != null && binaryEncodingSuspensionCount == 0;
+    }
+
+    /**
+     * Flushes the JSON text written in raw into the binary format, and returns the encoder for the next value.
+     */
+    private BinaryJsonEncoder startBinaryWrite() {
+        flushBinaryText();
+        binaryPosition++;
+        return binaryEncoder;
+    }
+
+    private void flushBinaryText() {
+        final int length = stringBuilder.length();
+        if (length > 0) {
+            binaryEncoder.transcode(stringBuilder, 0, length);
+            binaryPosition += length;
+            stringBuilder.setLength(0);
+        }
+    }
+
+    /**
+     * Enables chunking: once the buffer length crosses the given threshold, the buffer is passed to the given
+     * consumer and cleared.
+     * Flushes only happen between object entries and array items, and while writing long strings; hence, the buffer
+     * length is bounded by the threshold plus the length of the longest atomic write.
+     *
+     * @param flushThreshold the buffer length triggering a flush
+     * @param chunkConsumer the consumer of flushed buffers
+     */
+    public void startChunking(final int flushThreshold, final Consumer<StringBuilder> chunkConsumer) {
+        if (flushThreshold <= 0) {
+            throw new IllegalArgumentException("was expecting a positive flush threshold: " + flushThreshold);
+        }
+        this.chunkConsumer = Objects.requireNonNull(chunkConsumer, "chunkConsumer");
+        this.chunkFlushThreshold = flushThreshold;
+        this.flushedLength = 0;
+    }
+
+    /**
+     * Disables chunking, leaving the unflushed contents in the buffer.
+     */
+    public void stopChunking() {
+        this.chunkConsumer = null;
+        this.chunkFlushSuspensionCount = 0;
+        this.flushedLength = 0;
+    }
+
+    /**
+     * Writes JSON using the given writer and passes it to the given rewriter along with its start index in
+     * {@link #getStringBuilder() the buffer}; e.g., to replace the written string with a redacted one.
+     * <p>
+     * The written JSON is not flushed before the rewriter returns, even if {@link #startChunking(int, Consumer)
+     * chunking} is enabled.
+     * If a binary format is set, the JSON text is transcoded after the rewriter returns.
+     * </p>
+     *
+     * @param writer the consumer writing the JSON to be rewritten
+     * @param rewriter the consumer rewriting the buffer starting from the given index
+     * @param state the state passed to both the writer and the rewriter
+     * @param <S> the state type
+     * @since 2.27.0
+     */
+    public <S> void writeAndRewrite(
+            final BiConsumer<S, JsonWriter> writer, final Rewriter<S> rewriter, final S state) {
+        Objects.requireNonNull(writer, "writer");
+        Objects.requireNonNull(rewriter, "rewriter");
+        final int startIndex = stringBuilder.length();
+        suspendChunkFlushing();
+        binaryEncodingSuspensionCount++;
+        try {
+            writer.accept(state, this);
+            rewriter.rewrite(state, this, startIndex);
+        } finally {
+            binaryEncodingSuspensionCount--;
+            resumeChunkFlushing();
+        }
+    }
+
+    /**
+     * Rewrites the JSON written in {@link #writeAndRewrite(BiConsumer, Rewriter, Object)}.
+     *
+     * @param <S> the state type
+     * @since 2.27.0
+     */
+    @FunctionalInterface
+    public interface Rewriter<S> {
+
+        /**
+         * @param state the state passed to {@link #writeAndRewrite(BiConsumer, Rewriter, Object)}
+         * @param jsonWriter the JSON writer
+         * @param startIndex the index the rewritten JSON starts at in {@link #getStringBuilder() the buffer}
+         */
+        void rewrite(S state, JsonWriter jsonWriter, int startIndex);
+    }
+
+    private void suspendChunkFlushing() {
+        chunkFlushSuspensionCount++;
+    }
+
+    private void resumeChunkFlushing() {
+        chunkFlushSuspensionCount--;
+    }
+
+    private void flushChunkIfNeeded() {
+        if (chunkConsumer == null
+                || chunkFlushSuspensionCount > 0
+                || stringBuilder.length() < chunkFlushThreshold) {
+            return;
+        }
+        // Hold back a trailing high surrogate to not split a surrogate pair across chunks.
+        final int length = stringBuilder.length();
+        final char lastChar = stringBuilder.charAt(length - 1);
+        final int flushLength = Character.isHighSurrogate(lastChar) ? length - 1 : length;
+        stringBuilder.setLength(flushLength);
+        chunkConsumer.accept(stringBuilder);
+        flushedLength += flushLength;
+        stringBuilder.setLength(0);
+        if (flushLength < length) {
+            stringBuilder.append(lastChar);
+        }
+    }
+
     public int getMaxStringLength() {
         return maxStringLength;
     }
@@ -147,10 +398,16 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
         // null
         if (value == null) {
             writeNull();
+            return;
+        }
+
+        // frequent leaf types, matched by their exact (final) class
+        if (writeLeafValue(value)) {
+            return;
         }
 
         // map
-        else if (value instanceof IndexedReadOnlyStringMap) {
+        if (value instanceof IndexedReadOnlyStringMap) {
             final IndexedReadOnlyStringMap map = (IndexedReadOnlyStringMap) value;
             writeObject(map);
         } else if (value instanceof StringMap) {
@@ -225,6 +482,42 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
         }
     }
 
+    /**
+     * Writes the given value, if it is of a frequent leaf type, e.g., {@link String} or a boxed primitive.
+     * <p>
+     * These types are all final, hence they are matched by class identity, instead of walking through the chain of
+     * {@code instanceof} checks in {@link #writeValue(Object)}.
+     * Boxed primitives are unboxed and written using their primitive form, without any intermediate {@link String}.
+     * </p>
+     *
+     * @return {@code true}, if the value is written; {@code false}, otherwise
+     */
+    private boolean writeLeafValue(final Object value) {
+        final Class<?> valueClass = value.getClass();
+        if (valueClass == String.class) {
+            writeString((String) value);
+        } else if (valueClass == Integer.class) {
+            writeNumber((int) value);
+        } else if (valueClass == Long.class) {
+            writeNumber((long) value);
+        } else if (valueClass == Boolean.class) {
+            writeBoolean((boolean) value);
+        } else if (valueClass == Double.class) {
+            writeNumber((double) value);
+        } else if (valueClass == Float.class) {
+            writeNumber((float) value);
+        } else if (valueClass == Short.class) {
+            writeNumber((short) value);
+        } else if (valueClass == Byte.class) {
+            writeNumber((byte) value);
+        } else if (valueClass == Character.class) {
+            writeString((char) value);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
     public void writeObject(final StringMap map) {
         if (map == null) {
             writeNull();
@@ -290,16 +583,38 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
     }
 
     public void writeObjectStart() {
-        stringBuilder.append('{');
+        if (isBinaryEncodingEnabled()) {
+            startBinaryWrite().writeObjectStart();
+        } else {
+            stringBuilder.append('{');
+        }
     }
 
     public void writeObjectEnd() {
-        stringBuilder.append('}');
+        if (isBinaryEncodingEnabled()) {
+            startBinaryWrite().writeObjectEnd();
+        } else {
+            stringBuilder.append('}');
+        }
     }
 
     public void writeObjectKey(final CharSequence key) {
         writeString(key);
-        stringBuilder.append(':');
+        if (!isBinaryEncodingEnabled()) {
+            stringBuilder.append(':');
+        }
+    }
+
+    /**
+     * Writes the given object key, which is expected to repeat across events, e.g., a context data key.
+     *
+     * @see #writeCachedString(String)
+     */
+    public void writeCachedObjectKey(final String key) {
+        writeCachedString(key);
+        if (!isBinaryEncodingEnabled()) {
+            stringBuilder.append(':');
+        }
     }
 
     public void writeArray(final List<Object> items) {
@@ -345,9 +660,8 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
                 if (itemIndex > 0) {
                     writeSeparator();
                 }
-                stringBuilder.append('"');
-                quoteString(items, itemIndex, 1);
-                stringBuilder.append('"');
+                final char item = items[itemIndex];
+                writeString(item);
             }
             writeArrayEnd();
         }
@@ -482,19 +796,44 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
     }
 
     public void writeArrayStart() {
-        stringBuilder.append('[');
+        if (isBinaryEncodingEnabled()) {
+            startBinaryWrite().writeArrayStart();
+        } else {
+            stringBuilder.append('[');
+        }
     }
 
     public void writeArrayEnd() {
-        stringBuilder.append(']');
+        if (isBinaryEncodingEnabled()) {
+            startBinaryWrite().writeArrayEnd();
+        } else {
+            stringBuilder.append(']');
+        }
     }
 
     public void writeSeparator() {
+        if (isBinaryEncodingEnabled()) {
+            // Binary formats don't need separators, but raw JSON tokens on both sides still do.
+            if (stringBuilder.length() > 0) {
+                stringBuilder.append(',');
+            }
+            return;
+        }
+        flushChunkIfNeeded();
         stringBuilder.append(',');
     }
 
     public <S> void writeString(final BiConsumer<StringBuilder, S> emitter, final S state) {
         Objects.requireNonNull(emitter, "emitter");
+        if (isBinaryEncodingEnabled()) {
+            try {
+                emitter.accept(formattableBuffer, state);
+                encodeFormattableBuffer();
+            } finally {
+                trimStringBuilder(formattableBuffer, 0);
+            }
+            return;
+        }
         stringBuilder.append('"');
         try {
             emitter.accept(formattableBuffer, state);
@@ -517,6 +856,13 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
     public void writeString(final StringBuilderFormattable formattable) {
         if (formattable == null) {
             writeNull();
+        } else if (isBinaryEncodingEnabled()) {
+            try {
+                formattable.formatTo(formattableBuffer);
+                encodeFormattableBuffer();
+            } finally {
+                trimStringBuilder(formattableBuffer, 0);
+            }
         } else {
             stringBuilder.append('"');
             try {
@@ -538,6 +884,15 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
         }
     }
 
+    private void encodeFormattableBuffer() {
+        final int length = formattableBuffer.length();
+        if (length <= maxStringLength) {
+            startBinaryWrite().writeString(formattableBuffer, 0, length, null);
+        } else {
+            startBinaryWrite().writeString(formattableBuffer, 0, maxStringLength, truncatedStringSuffix);
+        }
+    }
+
     public void writeString(final CharSequence seq) {
         if (seq == null) {
             writeNull();
@@ -546,6 +901,83 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
         }
     }
 
+    /**
+     * Writes the given string, which is expected to repeat across events, e.g., a logger or thread name.
+     * <p>
+     * If {@link Builder#setQuotedStringCacheByteCount(int) enabled}, the quoted form of the string is kept in a small
+     * direct-mapped cache, unless it contains non-ASCII characters or it doesn't fit into the byte budget of the cache.
+     * If the very same string instance (or, failing that, an equal one) is found in the cache, its quoted form gets
+     * appended without quoting the string again.
+     * On a cache miss, the quoted form replaces the one in the slot without allocating, once the slot is large
+     * enough.
+     * </p>
+     */
+    public void writeCachedString(final String string) {
+
+        // Skip strings not eligible to the cache.
+        if (cachedStrings == null
+                || string == null
+                || string.length() + 2 > quotedStringCacheByteCount
+                || isBinaryEncodingEnabled()) {
+            writeString(string);
+            return;
+        }
+
+        // Write the quoted string on cache hit.
+        final int index = string.hashCode() & (QUOTED_STRING_CACHE_SLOT_COUNT - 1);
+        final String cachedString = cachedStrings[index];
+        // noinspection StringEquality (identity check is the fast path)
+        if (cachedString == string || string.equals(cachedString)) {
+            final byte[] quotedString = cachedQuotedStrings[index];
+            final int quotedLength = cachedQuotedStringLengths[index];
+            for (int i = 0; i < quotedLength; i++) {
+                stringBuilder.append((char) quotedString[i]);
+            }
+            return;
+        }
+
+        // Quote the string and populate the cache on cache miss.
+        final int startIndex = stringBuilder.length();
+        suspendChunkFlushing();
+        try {
+            writeString(string);
+        } finally {
+            resumeChunkFlushing();
+        }
+        cacheQuotedString(index, string, startIndex);
+    }
+
+    private void cacheQuotedString(final int index, final String string, final int startIndex) {
+
+        // Skip non-ASCII quoted forms.
+        final int endIndex = stringBuilder.length();
+        for (int i = startIndex; i < endIndex; i++) {
+            if (stringBuilder.charAt(i) >= 0x80) {
+                return;
+            }
+        }
+
+        // Reuse the slot, if it is large enough; otherwise, replace it, if the byte budget allows.
+        final int quotedLength = endIndex - startIndex;
+        byte[] quotedString = cachedQuotedStrings[index];
+        if (quotedString == null || quotedString.length < quotedLength) {
+            final int slotByteCount = quotedString != null ? quotedString.length : 0;
+            final int cachedByteCount = cachedQuotedStringByteCount - slotByteCount + quotedLength;
+            if (cachedByteCount > quotedStringCacheByteCount) {
+                return;
+            }
+            quotedString = cachedQuotedStrings[index] = new byte[quotedLength];
+            cachedQuotedStringByteCount = cachedByteCount;
+        }
+
+        // Populate the slot.
+        for (int i = 0; i < quotedLength; i++) {
+            quotedString[i] = (byte) stringBuilder.charAt(startIndex + i);
+        }
+        cachedQuotedStringLengths[index] = quotedLength;
+        cachedStrings[index] = string;
+    }
+
     public void writeString(final CharSequence seq, final int offset, final int length) {
 
         // Handle null input.
@@ -562,6 +994,16 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
             throw new IllegalArgumentException("was expecting a positive length: " + length);
         }
 
+        // Handle binary output.
+        if (isBinaryEncodingEnabled()) {
+            if (length <= maxStringLength) {
+                startBinaryWrite().writeString(seq, offset, length, null);
+            } else {
+                startBinaryWrite().writeString(seq, offset, maxStringLength, truncatedStringSuffix);
+            }
+            return;
+        }
+
         stringBuilder.append('"');
         // Handle max. string length complying input.
         if (length <= maxStringLength) {
@@ -579,6 +1021,18 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
      * Quote text contents using JSON standard quoting.
      */
     private void quoteString(final CharSequence seq, final int offset, final int length) {
+        if (chunkConsumer == null) {
+            quoteStringSlice(seq, offset, length);
+            return;
+        }
+        final int limit = offset + length;
+        for (int sliceOffset = offset; sliceOffset < limit; sliceOffset += CHUNKED_QUOTE_SLICE_LENGTH) {
+            quoteStringSlice(seq, sliceOffset, Math.min(CHUNKED_QUOTE_SLICE_LENGTH, limit - sliceOffset));
+            flushChunkIfNeeded();
+        }
+    }
+
+    private void quoteStringSlice(final CharSequence seq, final int offset, final int length) {
         final int limit = offset + length;
         int i = offset;
         outer:
@@ -600,6 +1054,27 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
         }
     }
 
+    /**
+     * Writes the given character as a single-character string.
+     *
+     * @since 2.27.0
+     */
+    public void writeString(final char value) {
+        if (isBinaryEncodingEnabled()) {
+            startBinaryWrite().writeString(value);
+            return;
+        }
+        stringBuilder.append('"');
+        if (value < ESC_CODES.length && ESC_CODES[value] != 0) {
+            final int escCode = ESC_CODES[value];
+            final int quoteBufferLength = escCode < 0 ? quoteNumeric(value) : quoteNamed(escCode);
+            stringBuilder.append(quoteBuffer, 0, quoteBufferLength);
+        } else {
+            stringBuilder.append(value);
+        }
+        stringBuilder.append('"');
+    }
+
     public void writeString(final char[] buffer) {
         if (buffer == null) {
             writeNull();
@@ -624,6 +1099,17 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
             throw new IllegalArgumentException("was expecting a positive length: " + length);
         }
 
+        // Handle binary output.
+        if (isBinaryEncodingEnabled()) {
+            try {
+                formattableBuffer.append(buffer, offset, length);
+                encodeFormattableBuffer();
+            } finally {
+                trimStringBuilder(formattableBuffer, 0);
+            }
+            return;
+        }
+
         stringBuilder.append('"');
         // Handle max. string length complying input.
         if (length <= maxStringLength) {
@@ -641,6 +1127,18 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
      * Quote text contents using JSON standard quoting.
      */
     private void quoteString(final char[] buffer, final int offset, final int length) {
+        if (chunkConsumer == null) {
+            quoteStringSlice(buffer, offset, length);
+            return;
+        }
+        final int limit = offset + length;
+        for (int sliceOffset = offset; sliceOffset < limit; sliceOffset += CHUNKED_QUOTE_SLICE_LENGTH) {
+            quoteStringSlice(buffer, sliceOffset, Math.min(CHUNKED_QUOTE_SLICE_LENGTH, limit - sliceOffset));
+            flushChunkIfNeeded();
+        }
+    }
+
+    private void quoteStringSlice(final char[] buffer, final int offset, final int length) {
         final int limit = offset + length;
         int i = offset;
         outer:
@@ -708,6 +1206,12 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
     public void writeNumber(final BigDecimal number) {
         if (number == null) {
             writeNull();
+        } else if (isBinaryEncodingEnabled()) {
+            if (number.scale() == 0 && number.unscaledValue().bitLength() < Long.SIZE) {
+                startBinaryWrite().writeNumber(number.longValue());
+            } else {
+                startBinaryWrite().writeNumber(number.doubleValue());
+            }
         } else {
             stringBuilder.append(number);
         }
@@ -716,6 +1220,12 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
     public void writeNumber(final BigInteger number) {
         if (number == null) {
             writeNull();
+        } else if (isBinaryEncodingEnabled()) {
+            if (number.bitLength() < Long.SIZE) {
+                startBinaryWrite().writeNumber(number.longValue());
+            } else {
+                startBinaryWrite().writeNumber(number.doubleValue());
+            }
         } else {
             stringBuilder.append(number);
         }
@@ -725,6 +1235,9 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
         // Follows the same logic as Jackson's JsonWriteFeature#WRITE_NAN_AS_STRINGS feature.
         if (!Float.isFinite(number)) {
             writeString(Float.toString(number));
+        } else if (isBinaryEncodingEnabled()) {
+            // Widen through the shortest decimal representation, as a JSON reader would do.
+            startBinaryWrite().writeNumber(Double.parseDouble(Float.toString(number)));
         } else {
             stringBuilder.append(number);
         }
@@ -734,27 +1247,38 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
         // Follows the same logic as Jackson's JsonWriteFeature#WRITE_NAN_AS_STRINGS feature.
         if (!Double.isFinite(number)) {
             writeString(Double.toString(number));
+        } else if (isBinaryEncodingEnabled()) {
+            startBinaryWrite().writeNumber(number);
         } else {
             stringBuilder.append(number);
         }
     }
 
     public void writeNumber(final short number) {
-        stringBuilder.append(number);
+        writeNumber((long) number);
     }
 
     public void writeNumber(final int number) {
-        stringBuilder.append(number);
+        if (isBinaryEncodingEnabled()) {
+            startBinaryWrite().writeNumber(number);
+        } else {
+            stringBuilder.append(number);
+        }
     }
 
     public void writeNumber(final long number) {
-        stringBuilder.append(number);
+        if (isBinaryEncodingEnabled()) {
+            startBinaryWrite().writeNumber(number);
+        } else {
+            stringBuilder.append(number);
+        }
     }
 
     public void writeNumber(final long integralPart, final long fractionalPart) {
         if (fractionalPart < 0) {
             throw new IllegalArgumentException("was expecting a positive fraction: " + fractionalPart);
         }
+        // Binary output transcodes the JSON text, to be as precise as parsing it.
         stringBuilder.append(integralPart);
         if (fractionalPart != 0) {
             stringBuilder.append('.');
@@ -763,11 +1287,19 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
     }
 
     public void writeBoolean(final boolean value) {
-        writeRawString(value ? "true" : "false");
+        if (isBinaryEncodingEnabled()) {
+            startBinaryWrite().writeBoolean(value);
+        } else {
+            writeRawString(value ? "true" : "false");
+        }
     }
 
     public void writeNull() {
-        writeRawString("null");
+        if (isBinaryEncodingEnabled()) {
+            startBinaryWrite().writeNull();
+        } else {
+            writeRawString("null");
+        }
     }
 
     public void writeRawString(final CharSequence seq) {
@@ -813,7 +1345,13 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
 
     @Override
     public void close() {
+        stopChunking();
         trimStringBuilder(stringBuilder, 0);
+        if (binaryEncoder != null) {
+            binaryEncoder.close();
+            binaryEncodingSuspensionCount = 0;
+            binaryPosition = 0;
+        }
     }
 
     private void trimStringBuilder(final StringBuilder stringBuilder, final int length) {
@@ -831,6 +1369,8 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
         final JsonWriter jsonWriter = newBuilder()
                 .setMaxStringLength(maxStringLength)
                 .setTruncatedStringSuffix(truncatedStringSuffix)
+                .setQuotedStringCacheByteCount(quotedStringCacheByteCount)
+                .setBinaryFormat(getBinaryFormat())
                 .build();
         jsonWriter.stringBuilder.append(stringBuilder);
         return jsonWriter;
@@ -846,6 +1386,10 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
 
         private String truncatedStringSuffix;
 
+        private int quotedStringCacheByteCount;
+
+        private BinaryJsonEncoder.Format binaryFormat;
+
         public int getMaxStringLength() {
             return maxStringLength;
         }
@@ -864,6 +1408,42 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
             return this;
         }
 
+        /**
+         * @since 2.27.0
+         */
+        public int getQuotedStringCacheByteCount() {
+            return quotedStringCacheByteCount;
+        }
+
+        /**
+         * Sets the maximum number of bytes retained by the cache used by {@link JsonWriter#writeCachedString(String)}.
+         *
+         * @param quotedStringCacheByteCount a positive number of bytes, or zero to disable the cache
+         * @since 2.27.0
+         */
+        public Builder setQuotedStringCacheByteCount(final int quotedStringCacheByteCount) {
+            this.quotedStringCacheByteCount = quotedStringCacheByteCount;
+            return this;
+        }
+
+        /**
+         * @since 2.27.0
+         */
+        public BinaryJsonEncoder.Format getBinaryFormat() {
+            return binaryFormat;
+        }
+
+        /**
+         * Sets the binary format to encode the written values into.
+         *
+         * @param binaryFormat a binary format, or {@code null} to write JSON text
+         * @since 2.27.0
+         */
+        public Builder setBinaryFormat(final BinaryJsonEncoder.Format binaryFormat) {
+            this.binaryFormat = binaryFormat;
+            return this;
+        }
+
         public JsonWriter build() {
             validate();
             return new JsonWriter(this);
@@ -874,6 +1454,10 @@ public final class JsonWriter implements AutoCloseable, Cloneable {
                 throw new IllegalArgumentException("was expecting maxStringLength > 0: " + maxStringLength);
             }
             Objects.requireNonNull(truncatedStringSuffix, "truncatedStringSuffix");
+            if (quotedStringCacheByteCount < 0) {
+                throw new IllegalArgumentException(
+                        "was expecting quotedStringCacheByteCount >= 0: " + quotedStringCacheByteCount);
+            }
         }
     }
 }
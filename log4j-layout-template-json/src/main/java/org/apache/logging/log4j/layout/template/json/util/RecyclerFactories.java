@@ -83,6 +83,11 @@ public final class RecyclerFactories {
             return readQueueingRecyclerFactory(recyclerFactorySpec, defaultCapacity);
         }
 
+        // Is a striped factory requested?
+        else if (recyclerFactorySpec.startsWith("striped")) {
+            return readStripedRecyclerFactory(recyclerFactorySpec);
+        }
+
         // Bogus input, bail out.
         else {
             throw new IllegalArgumentException("invalid recycler factory: " + recyclerFactorySpec);
@@ -127,6 +132,48 @@ public final class RecyclerFactories {
         return createRecyclerFactory(queueFactorySpec, supplierPath, capacity);
     }
 
+    private static RecyclerFactory readStripedRecyclerFactory(final String recyclerFactorySpec) {
+
+        // Parse the spec.
+        final String stripedFactorySpec = recyclerFactorySpec.substring(
+                "striped".length() + (recyclerFactorySpec.startsWith("striped:") ? 1 : 0));
+        final Map<String, StringParameterParser.Value> parsedValues = StringParameterParser.parse(
+                stripedFactorySpec, new LinkedHashSet<>(Arrays.asList("stripes", "stripeCapacity")));
+
+        // Read the stripe count and capacity.
+        final int defaultStripeCount = Runtime.getRuntime().availableProcessors();
+        final int stripeCount =
+                readStripedRecyclerFactoryParameter(stripedFactorySpec, parsedValues, "stripes", defaultStripeCount);
+        final int stripeCapacity =
+                readStripedRecyclerFactoryParameter(stripedFactorySpec, parsedValues, "stripeCapacity", 2);
+
+        // Execute the read spec.
+        return new StripedRecyclerFactory(stripeCount, stripeCapacity);
+    }
+
+    private static int readStripedRecyclerFactoryParameter(
+            final String stripedFactorySpec,
+            final Map<String, StringParameterParser.Value> parsedValues,
+            final String parameterName,
+            final int defaultValue) {
+        final StringParameterParser.Value value = parsedValues.get(parameterName);
+        if (value == null || value instanceof StringParameterParser.NullValue) {
+            return defaultValue;
+        }
+        final int parsedValue;
+        try {
+            parsedValue = Integers.parseInt(value.toString());
+        } catch (final NumberFormatException error) {
+            throw new IllegalArgumentException(
+                    "failed reading " + parameterName + " in striped recycler factory: " + stripedFactorySpec, error);
+        }
+        if (parsedValue <= 0) {
+            throw new IllegalArgumentException("was expecting a positive " + parameterName
+                    + " value in striped recycler factory: " + stripedFactorySpec);
+        }
+        return parsedValue;
+    }
+
     private static RecyclerFactory createRecyclerFactory(
             final String queueFactorySpec, final String supplierPath, final int capacity) {
         final int supplierPathSplitterIndex = supplierPath.lastIndexOf('.');
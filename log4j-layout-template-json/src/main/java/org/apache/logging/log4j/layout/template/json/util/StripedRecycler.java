@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.layout.template.json.util;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.core.util.internal.StripedPool;
+
+/**
+ * A bounded, lock-free {@link Recycler} pooling instances in stripes.
+ * <p>
+ * Each thread is mapped to a stripe using its ID.
+ * Instances are acquired from and released to the stripe of the current thread first, and to the other stripes
+ * next, using a compare-and-set on a single slot.
+ * When all slots are empty, {@link #acquire()} creates a new instance; when all slots are full,
+ * {@link #release(Object)} drops the instance.
+ * Hence, the number of pooled instances never exceeds {@code stripeCount * stripeCapacity}, regardless of the
+ * number of threads, which makes this recycler suitable for virtual threads.
+ * </p>
+ *
+ * @since 2.27.0
+ */
+public class StripedRecycler<V> implements Recycler<V> {
+
+    private final Supplier<V> supplier;
+
+    private final Consumer<V> cleaner;
+
+    private final StripedPool<V> pool;
+
+    /**
+     * @param supplier the supplier of new instances
+     * @param cleaner the cleaner applied to recycled instances before they are acquired
+     * @param stripeCount the number of stripes, rounded up to the next power of two
+     * @param stripeCapacity the number of instances each stripe can hold
+     */
+    public StripedRecycler(
+            final Supplier<V> supplier, final Consumer<V> cleaner, final int stripeCount, final int stripeCapacity) {
+        this.supplier = supplier;
+        this.cleaner = cleaner;
+        this.pool = new StripedPool<>(stripeCount, stripeCapacity);
+    }
+
+    // Visible for tests.
+    int getStripeCount() {
+        return pool.getStripeCount();
+    }
+
+    // Visible for tests.
+    int getStripeCapacity() {
+        return pool.getStripeCapacity();
+    }
+
+    @Override
+    public V acquire() {
+        final V value = pool.poll();
+        if (value != null) {
+            cleaner.accept(value);
+            return value;
+        }
+        return supplier.get();
+    }
+
+    @Override
+    public void release(final V value) {
+        // If all slots are occupied, let the garbage collector reclaim the instance.
+        pool.offer(value);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.layout.template.json;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.layout.template.json.util.Recycler;
+import org.apache.logging.log4j.layout.template.json.util.RecyclerFactories;
+import org.apache.logging.log4j.layout.template.json.util.RecyclerFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Benchmarks {@link JsonTemplateLayout} recycling strategies for throughput under contention and for memory footprint.
+ * <p>
+ * {@link #encode(LayoutState, DestinationState)} measures the throughput of concurrent encoding threads sharing a
+ * layout.
+ * {@link #encodeUsingShortLivedThreads(LayoutState, FootprintCounters)} emulates the thread-per-task model of virtual
+ * threads: each task runs on a new thread and encodes a few events.
+ * The {@code createdContexts} counter reports the number of contexts allocated by the recycler, each holding a
+ * {@code JsonWriter} and an encoder with their buffers, and the {@code gc.alloc.rate.norm} metric of
+ * {@code -prof gc} reports the total allocation.
+ * </p>
+ * <p>
+ * You can run this test as follows:
+ * <pre>{@code
+ * java \
+ *     -cp target/log4j-perf-test-*-uber.jar org.openjdk.jmh.Main \
+ *     -f 2 \
+ *     -wi 3 -w 20s \
+ *     -i 5 -r 30s \
+ *     -prof gc \
+ *     -rf json -rff log4j-perf/target/JsonTemplateLayoutRecyclerBenchmarkResult.json \
+ *     ".*JsonTemplateLayoutRecyclerBenchmark.*"
+ * }</pre>
+ * </p>
+ */
+public class JsonTemplateLayoutRecyclerBenchmark {
+
+    private static final Configuration CONFIGURATION = new DefaultConfiguration();
+
+    private static final int LOG_EVENT_COUNT = 1_000;
+
+    private static final int SHORT_LIVED_THREAD_COUNT = 1_000;
+
+    private static final int SHORT_LIVED_THREAD_EVENT_COUNT = 10;
+
+    @State(Scope.Benchmark)
+    public static class LayoutState {
+
+        @Param({"dummy", "threadLocal", "queue", "striped"})
+        private String recyclerFactorySpec;
+
+        private final LongAdder createdContextCount = new LongAdder();
+
+        private final List<LogEvent> logEvents = LogEventFixture.createLiteLogEvents(LOG_EVENT_COUNT);
+
+        private JsonTemplateLayout layout;
+
+        @Setup(Level.Trial)
+        @SuppressWarnings("deprecation")
+        public void setUp() {
+            final RecyclerFactory recyclerFactory = RecyclerFactories.ofSpec(recyclerFactorySpec);
+            // Count the contexts created by the recycler
+            final RecyclerFactory countingRecyclerFactory = new RecyclerFactory() {
+                @Override
+                public <V> Recycler<V> create(
+                        final Supplier<V> supplier, final Consumer<V> cleaner) {
+                    return recyclerFactory.create(
+                            () -> {
+                                createdContextCount.increment();
+                                return supplier.get();
+                            },
+                            cleaner);
+                }
+            };
+            layout = JsonTemplateLayout.newBuilder()
+                    .setConfiguration(CONFIGURATION)
+                    .setEventTemplateUri("classpath:JsonLayout.json")
+                    .setRecyclerFactory(countingRecyclerFactory)
+                    .build();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class DestinationState {
+
+        private final ByteBufferDestination destination = new BlackHoleByteBufferDestination(1024 * 512);
+
+        private int logEventIndex = 0;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class FootprintCounters {
+
+        public long createdContexts;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public int encode(final LayoutState layoutState, final DestinationState destinationState) {
+        final int logEventIndex = destinationState.logEventIndex;
+        destinationState.logEventIndex = (logEventIndex + 1) % LOG_EVENT_COUNT;
+        final LogEvent logEvent = layoutState.logEvents.get(logEventIndex);
+        return encode(layoutState.layout, logEvent, destinationState.destination);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void encodeUsingShortLivedThreads(final LayoutState layoutState, final FootprintCounters counters)
+            throws InterruptedException {
+        final long initialCreatedContextCount = layoutState.createdContextCount.sum();
+        final Thread[] threads = new Thread[SHORT_LIVED_THREAD_COUNT];
+        for (int threadIndex = 0; threadIndex < SHORT_LIVED_THREAD_COUNT; threadIndex++) {
+            final int firstLogEventIndex = threadIndex % LOG_EVENT_COUNT;
+            threads[threadIndex] = new Thread(() -> {
+                final ByteBufferDestination destination = new BlackHoleByteBufferDestination(1024 * 8);
+                for (int eventIndex = 0; eventIndex < SHORT_LIVED_THREAD_EVENT_COUNT; eventIndex++) {
+                    final int logEventIndex = (firstLogEventIndex + eventIndex) % LOG_EVENT_COUNT;
+                    encode(layoutState.layout, layoutState.logEvents.get(logEventIndex), destination);
+                }
+            });
+            threads[threadIndex].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        counters.createdContexts += layoutState.createdContextCount.sum() - initialCreatedContextCount;
+    }
+
+    private static int encode(
+            final JsonTemplateLayout layout, final LogEvent logEvent, final ByteBufferDestination destination) {
+        final ByteBuffer byteBuffer = destination.getByteBuffer();
+        layout.encode(logEvent, destination);
+        return byteBuffer.position();
+    }
+}